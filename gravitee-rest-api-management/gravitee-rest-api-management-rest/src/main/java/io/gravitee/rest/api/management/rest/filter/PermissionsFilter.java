@@ -15,18 +15,10 @@
  */
 package io.gravitee.rest.api.management.rest.filter;
 
-import io.gravitee.repository.management.model.MembershipDefaultReferenceId;
-import io.gravitee.repository.management.model.MembershipReferenceType;
-import io.gravitee.repository.management.model.RoleScope;
-import io.gravitee.rest.api.model.ApplicationEntity;
-import io.gravitee.rest.api.model.GroupEntity;
-import io.gravitee.rest.api.model.RoleEntity;
-import io.gravitee.rest.api.model.api.ApiEntity;
-import io.gravitee.rest.api.model.permissions.SystemRole;
 import io.gravitee.rest.api.management.rest.resource.AbstractResource;
 import io.gravitee.rest.api.management.rest.security.Permission;
 import io.gravitee.rest.api.management.rest.security.Permissions;
-import io.gravitee.rest.api.service.*;
+import io.gravitee.rest.api.service.PermissionService;
 import io.gravitee.rest.api.service.exceptions.ForbiddenAccessException;
 import io.gravitee.rest.api.service.exceptions.UnauthorizedAccessException;
 
@@ -44,7 +36,6 @@ import javax.ws.rs.ext.Provider;
 import java.io.IOException;
 import java.security.Principal;
 import java.util.List;
-import java.util.Map;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -64,19 +55,7 @@ public class PermissionsFilter implements ContainerRequestFilter {
     private SecurityContext securityContext;
 
     @Inject
-    private MembershipService membershipService;
-
-    @Inject
-    private ApplicationService applicationService;
-
-    @Inject
-    private ApiService apiService;
-
-    @Inject
-    private RoleService roleService;
-
-    @Inject
-    private GroupService groupService;
+    private PermissionService permissionService;
 
     @Override
     public void filter(ContainerRequestContext requestContext) throws IOException {
@@ -96,75 +75,34 @@ public class PermissionsFilter implements ContainerRequestFilter {
             if (principal != null) {
                 String username = principal.getName();
                 for (Permission permission : permissions.value()) {
-                    RoleEntity role;
-                    Map<String, char[]> memberPermissions;
+                    String referenceId;
                     switch (permission.value().getScope()) {
                         case MANAGEMENT:
-                            role = membershipService.getRole(MembershipReferenceType.MANAGEMENT, MembershipDefaultReferenceId.DEFAULT.name(), username, RoleScope.MANAGEMENT);
-                            if (roleService.hasPermission(role.getPermissions(), permission.value().getPermission(), permission.acls())) {
-                                return;
-                            }
-                            break;
                         case PORTAL:
-                            role = membershipService.getRole(MembershipReferenceType.PORTAL, MembershipDefaultReferenceId.DEFAULT.name(), username, RoleScope.PORTAL);
-                            if (roleService.hasPermission(role.getPermissions(), permission.value().getPermission(), permission.acls())) {
-                                return;
-                            }
+                            referenceId = null;
                             break;
                         case APPLICATION:
-                            ApplicationEntity application = getApplication(requestContext);
-                            memberPermissions = membershipService.getMemberPermissions(application, username);
-                            if (roleService.hasPermission(memberPermissions, permission.value().getPermission(), permission.acls())) {
-                                return;
-                            }
+                            referenceId = getId("application", requestContext);
                             break;
                         case API:
-                            ApiEntity api = getApi(requestContext);
-                            memberPermissions = membershipService.getMemberPermissions(api, username);
-                            if (roleService.hasPermission(memberPermissions, permission.value().getPermission(), permission.acls())) {
-                                return;
-                            }
+                            referenceId = getId("api", requestContext);
                             break;
                         case GROUP:
-                            GroupEntity group = getGroup(requestContext);
-                            memberPermissions = membershipService.getMemberPermissions(group, username);
-                            if (roleService.hasPermission(memberPermissions, permission.value().getPermission(), permission.acls())) {
-                                return;
-                            }
+                            referenceId = getId("group", requestContext);
                             break;
                         default:
+                            referenceId = null;
                             sendSecurityError();
                     }
+                    if (permissionService.hasPermission(username, permission.value(), referenceId, permission.acls())) {
+                        return;
+                    }
                 }
             }
             sendSecurityError();
         }
     }
 
-    private ApiEntity getApi(ContainerRequestContext requestContext) {
-        String apiId = getId("api", requestContext);
-        if (apiId == null) {
-            return null;
-        }
-        return apiService.findById(apiId);
-    }
-
-    private GroupEntity getGroup(ContainerRequestContext requestContext) {
-        String groupId = getId("group", requestContext);
-        if (groupId == null) {
-            return null;
-        }
-        return groupService.findById(groupId);
-    }
-
-    private ApplicationEntity getApplication(ContainerRequestContext requestContext) {
-        String applicationId = getId("application", requestContext);
-        if (applicationId == null) {
-            return null;
-        }
-        return applicationService.findById(applicationId);
-    }
-
     private String getId(String key, ContainerRequestContext requestContext) {
         List<String> pathParams = requestContext.getUriInfo().getPathParameters().get(key);
         if (pathParams != null) {
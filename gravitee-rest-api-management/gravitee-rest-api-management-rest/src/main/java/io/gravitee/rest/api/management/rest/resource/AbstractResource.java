@@ -32,14 +32,18 @@ import javax.imageio.ImageReader;
 import javax.imageio.stream.ImageInputStream;
 import javax.inject.Inject;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.StreamingOutput;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Base64;
 import java.util.Iterator;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -171,4 +175,69 @@ public abstract class AbstractResource {
             throw new UploadUnauthorized("SVG format is not supported");
         }
     }
+
+    /**
+     * Create a response streaming the output as an attachment, compressed with gzip if the client accepts it.
+     *
+     * The status is sent with the first bytes: when the output fails afterwards, the exception is propagated so that
+     * the container aborts the response instead of completing a truncated attachment.
+     */
+    protected Response streamAttachment(final StreamingOutput output, final String filename, final String acceptEncoding) {
+        final boolean gzip = acceptsGzip(acceptEncoding);
+        final Response.ResponseBuilder response = Response
+                .ok((StreamingOutput) outputStream -> {
+                    if (gzip) {
+                        // Not closed on failure, the gzip trailer would make a truncated attachment look complete
+                        final GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream);
+                        output.write(gzipOutputStream);
+                        gzipOutputStream.finish();
+                    } else {
+                        output.write(outputStream);
+                    }
+                })
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + filename);
+
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.build();
+    }
+
+    /**
+     * @return <code>true</code> if the given <code>Accept-Encoding</code> header accepts gzip, explicitly or with a
+     * wildcard, with a non-zero quality.
+     */
+    static boolean acceptsGzip(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Boolean gzip = null;
+        Boolean wildcard = null;
+        for (String encoding : acceptEncoding.split(",")) {
+            final String[] parameters = encoding.split(";");
+            final String coding = parameters[0].trim().toLowerCase();
+            final boolean accepted = quality(parameters) > 0;
+            if ("gzip".equals(coding) || "x-gzip".equals(coding)) {
+                gzip = gzip == null ? accepted : gzip || accepted;
+            } else if ("*".equals(coding)) {
+                wildcard = accepted;
+            }
+        }
+        return gzip != null ? gzip : wildcard != null && wildcard;
+    }
+
+    private static double quality(final String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            final String parameter = parameters[i].trim().toLowerCase();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException nfe) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
 }
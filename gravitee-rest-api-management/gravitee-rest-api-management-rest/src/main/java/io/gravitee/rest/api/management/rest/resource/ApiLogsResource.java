@@ -61,14 +61,7 @@ public class ApiLogsResource extends AbstractResource {
 
         param.validate();
 
-        LogQuery logQuery = new LogQuery();
-        logQuery.setQuery(param.getQuery());
-        logQuery.setPage(param.getPage());
-        logQuery.setSize(param.getSize());
-        logQuery.setFrom(param.getFrom());
-        logQuery.setTo(param.getTo());
-        logQuery.setField(param.getField());
-        logQuery.setOrder(param.isOrder());
+        LogQuery logQuery = param.toLogQuery();
 
         return logsService.findByApi(api, logQuery);
     }
@@ -98,11 +91,14 @@ public class ApiLogsResource extends AbstractResource {
     @Permissions({@Permission(value = RolePermission.API_LOG, acls = RolePermissionAction.READ)})
     public Response exportAPILogsAsCSV(
             @PathParam("api") String api,
-            @BeanParam LogsParam param) {
-        final SearchLogResponse searchLogResponse = apiLogs(api, param);
-        return Response
-                .ok(logsService.exportAsCsv(searchLogResponse))
-                .header(HttpHeaders.CONTENT_DISPOSITION, format("attachment;filename=logs-%s-%s.csv", api, System.currentTimeMillis()))
-                .build();
+            @BeanParam LogsParam param,
+            @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) {
+        param.validate();
+        final LogQuery logQuery = param.toLogQuery();
+
+        return streamAttachment(
+                output -> logsService.exportApiLogsAsCsv(api, logQuery, output),
+                format("logs-%s-%s.csv", api, System.currentTimeMillis()),
+                acceptEncoding);
     }
 }
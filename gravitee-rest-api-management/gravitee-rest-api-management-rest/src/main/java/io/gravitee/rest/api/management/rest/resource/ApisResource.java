@@ -16,8 +16,11 @@
 package io.gravitee.rest.api.management.rest.resource;
 
 import io.gravitee.common.component.Lifecycle;
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.http.MediaType;
 import io.gravitee.definition.model.VirtualHost;
+import io.gravitee.rest.api.management.rest.model.Pageable;
+import io.gravitee.rest.api.management.rest.model.PagedResult;
 import io.gravitee.rest.api.management.rest.resource.param.ApisParam;
 import io.gravitee.rest.api.management.rest.resource.param.VerifyApiParam;
 import io.gravitee.rest.api.management.rest.security.Permission;
@@ -26,6 +29,8 @@ import io.gravitee.rest.api.model.ImportSwaggerDescriptorEntity;
 import io.gravitee.rest.api.model.RatingSummaryEntity;
 import io.gravitee.rest.api.model.WorkflowState;
 import io.gravitee.rest.api.model.api.*;
+import io.gravitee.rest.api.model.common.Sortable;
+import io.gravitee.rest.api.model.common.SortableImpl;
 import io.gravitee.rest.api.model.permissions.RolePermission;
 import io.gravitee.rest.api.model.permissions.RolePermissionAction;
 import io.gravitee.rest.api.service.*;
@@ -89,19 +94,7 @@ public class ApisResource extends AbstractResource {
             @ApiResponse(code = 500, message = "Internal server error")})
     public List<ApiListItem> listApis(@BeanParam final ApisParam apisParam) {
 
-        final ApiQuery apiQuery = new ApiQuery();
-        if (apisParam.getGroup() != null) {
-            apiQuery.setGroups(singletonList(apisParam.getGroup()));
-        }
-        apiQuery.setContextPath(apisParam.getContextPath());
-        apiQuery.setLabel(apisParam.getLabel());
-        apiQuery.setVersion(apisParam.getVersion());
-        apiQuery.setName(apisParam.getName());
-        apiQuery.setTag(apisParam.getTag());
-        apiQuery.setState(apisParam.getState());
-        if (!ALL_ID.equals(apisParam.getView())) {
-            apiQuery.setView(apisParam.getView());
-        }
+        final ApiQuery apiQuery = toApiQuery(apisParam);
 
         final Collection<ApiEntity> apis;
         if (isAdmin()) {
@@ -134,6 +127,71 @@ public class ApisResource extends AbstractResource {
                 .collect(toList());
     }
 
+    @GET
+    @Path("_paged")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(
+            value = "List APIs with pagination",
+            notes = "List the APIs accessible to the current user or only public APIs for non authenticated users, " +
+                    "sorted by name (default), created_at or updated_at. Prefix the order with '-' to sort descending.")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Page of accessible APIs for current user", response = PagedResult.class),
+            @ApiResponse(code = 500, message = "Internal server error")})
+    public PagedResult<ApiListItem> listApisPaged(@BeanParam final ApisParam apisParam,
+                                                  @Valid @BeanParam final Pageable pageable) {
+        final ApiQuery apiQuery = toApiQuery(apisParam);
+        final Sortable sortable = toSortable(apisParam.getOrder());
+
+        final Page<ApiEntity> apis;
+        if (isAdmin()) {
+            apis = apiService.searchListItems(apiQuery, sortable, pageable.toPageable());
+        } else {
+            if (apisParam.isPortal()) {
+                apiQuery.setLifecycleStates(singletonList(PUBLISHED));
+            }
+            if (isAuthenticated()) {
+                apis = apiService.findListItemsByUser(getAuthenticatedUser(), apiQuery, sortable, pageable.toPageable());
+            } else {
+                apiQuery.setVisibility(PUBLIC);
+                apis = apiService.searchListItems(apiQuery, sortable, pageable.toPageable());
+            }
+        }
+
+        final List<ApiListItem> items = apis.getContent()
+                .stream()
+                .map(this::convert)
+                .map(this::setManageable)
+                .collect(toList());
+        return new PagedResult<>(items, apis.getPageNumber(), pageable.getSize(), (int) apis.getTotalElements());
+    }
+
+    private ApiQuery toApiQuery(final ApisParam apisParam) {
+        final ApiQuery apiQuery = new ApiQuery();
+        if (apisParam.getGroup() != null) {
+            apiQuery.setGroups(singletonList(apisParam.getGroup()));
+        }
+        apiQuery.setContextPath(apisParam.getContextPath());
+        apiQuery.setLabel(apisParam.getLabel());
+        apiQuery.setVersion(apisParam.getVersion());
+        apiQuery.setName(apisParam.getName());
+        apiQuery.setTag(apisParam.getTag());
+        apiQuery.setState(apisParam.getState());
+        if (!ALL_ID.equals(apisParam.getView())) {
+            apiQuery.setView(apisParam.getView());
+        }
+        return apiQuery;
+    }
+
+    private Sortable toSortable(final String order) {
+        if (order == null || order.isEmpty()) {
+            return new SortableImpl("name", true);
+        }
+        if (order.startsWith("-")) {
+            return new SortableImpl(order.substring(1), false);
+        }
+        return new SortableImpl(order, true);
+    }
+
     /**
      * Create a new API for the authenticated user.
      * @param newApiEntity
@@ -236,32 +294,64 @@ public class ApisResource extends AbstractResource {
             @ApiResponse(code = 500, message = "Internal server error")})
     public Response searchApis(@ApiParam(name = "q", required = true) @NotNull @QueryParam("q") String query) {
         try {
-            final Collection<ApiEntity> apis;
-            if (isAdmin()) {
-                apis = apiService.search(new ApiQuery());
-            } else {
-                final ApiQuery apiQuery = new ApiQuery();
-                if (isAuthenticated()) {
-                    apis = apiService.findByUser(getAuthenticatedUser(), apiQuery);
-                } else {
-                    apiQuery.setVisibility(PUBLIC);
-                    apis = apiService.search(apiQuery);
-                }
-            }
+            return Response.ok().entity(apiService.search(query, getSearchFilters())
+                    .stream()
+                    .map(this::convert)
+                    .map(this::setManageable)
+                    .collect(toList())).build();
+        } catch (TechnicalException te) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(te).build();
+        }
+    }
 
-            Map<String, Object> filters = new HashMap<>();
-            filters.put("api", apis.stream().map(ApiEntity::getId).collect(Collectors.toSet()));
+    @POST
+    @Path("_search/_paged")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(
+            value = "Search for API using the search engine, with pagination",
+            notes = "APIs are ordered by relevance, the total being the number of matching APIs")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Page of accessible APIs for current user", response = PagedResult.class),
+            @ApiResponse(code = 500, message = "Internal server error")})
+    public Response searchApisPaged(@ApiParam(name = "q", required = true) @NotNull @QueryParam("q") String query,
+                                    @Valid @BeanParam final Pageable pageable) {
+        try {
+            final Page<ApiEntity> apis = apiService.search(query, getSearchFilters(), pageable.toPageable());
 
-            return Response.ok().entity(apiService.search(query, filters)
+            final List<ApiListItem> items = apis.getContent()
                     .stream()
                     .map(this::convert)
                     .map(this::setManageable)
-                    .collect(toList())).build();
+                    .collect(toList());
+            return Response.ok().entity(new PagedResult<>(items, apis.getPageNumber(), pageable.getSize(),
+                    (int) apis.getTotalElements())).build();
         } catch (TechnicalException te) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(te).build();
         }
     }
 
+    /**
+     * @return the filters restricting a search to the APIs accessible to the current user.
+     */
+    private Map<String, Object> getSearchFilters() {
+        final Collection<ApiEntity> apis;
+        if (isAdmin()) {
+            apis = apiService.search(new ApiQuery());
+        } else {
+            final ApiQuery apiQuery = new ApiQuery();
+            if (isAuthenticated()) {
+                apis = apiService.findByUser(getAuthenticatedUser(), apiQuery);
+            } else {
+                apiQuery.setVisibility(PUBLIC);
+                apis = apiService.search(apiQuery);
+            }
+        }
+
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("api", apis.stream().map(ApiEntity::getId).collect(Collectors.toSet()));
+        return filters;
+    }
+
     @Path("{api}")
     public ApiResource getApiResource() {
         return resourceContext.getResource(ApiResource.class);
@@ -285,6 +375,9 @@ public class ApisResource extends AbstractResource {
         if (api.getPicture() != null) {
             // force browser to get if updated
             uriBuilder.queryParam("hash", api.getPicture().hashCode());
+        } else if (api.getUpdatedAt() != null) {
+            // picture is not loaded when listing APIs, rely on the last update to force browser to get it
+            uriBuilder.queryParam("hash", api.getUpdatedAt().getTime());
         }
         apiItem.setPictureUrl(uriBuilder.build().toString());
         apiItem.setViews(api.getViews());
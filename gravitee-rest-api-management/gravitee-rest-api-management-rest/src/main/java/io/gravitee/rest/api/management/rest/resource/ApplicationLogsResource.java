@@ -63,14 +63,7 @@ public class ApplicationLogsResource extends AbstractResource {
 
         param.validate();
 
-        LogQuery logQuery = new LogQuery();
-        logQuery.setQuery(param.getQuery());
-        logQuery.setPage(param.getPage());
-        logQuery.setSize(param.getSize());
-        logQuery.setFrom(param.getFrom());
-        logQuery.setTo(param.getTo());
-        logQuery.setField(param.getField());
-        logQuery.setOrder(param.isOrder());
+        LogQuery logQuery = param.toLogQuery();
 
         return logsService.findByApplication(application, logQuery);
     }
@@ -102,11 +95,14 @@ public class ApplicationLogsResource extends AbstractResource {
     @Permissions({@Permission(value = RolePermission.APPLICATION_LOG, acls = RolePermissionAction.READ)})
     public Response exportApplicationLogsAsCSV(
             @PathParam("application") String application,
-            @BeanParam LogsParam param) {
-        final SearchLogResponse searchLogResponse = applicationLogs(application, param);
-        return Response
-                .ok(logsService.exportAsCsv(searchLogResponse))
-                .header(HttpHeaders.CONTENT_DISPOSITION, format("attachment;filename=logs-%s-%s.csv", application, System.currentTimeMillis()))
-                .build();
+            @BeanParam LogsParam param,
+            @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) {
+        param.validate();
+        final LogQuery logQuery = param.toLogQuery();
+
+        return streamAttachment(
+                output -> logsService.exportApplicationLogsAsCsv(application, logQuery, output),
+                format("logs-%s-%s.csv", application, System.currentTimeMillis()),
+                acceptEncoding);
     }
 }
@@ -47,6 +47,8 @@ public class ApisParam {
     private String tag;
     @QueryParam("portal")
     private boolean portal;
+    @QueryParam("order")
+    private String order;
 
     public String getView() {
         return view;
@@ -143,4 +145,12 @@ public class ApisParam {
     public void setPortal(boolean portal) {
         this.portal = portal;
     }
+
+    public String getOrder() {
+        return order;
+    }
+
+    public void setOrder(String order) {
+        this.order = order;
+    }
 }
@@ -15,6 +15,8 @@
  */
 package io.gravitee.rest.api.management.rest.resource.param;
 
+import io.gravitee.rest.api.model.analytics.query.LogQuery;
+
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
@@ -129,4 +131,16 @@ public class LogsParam {
             size = 20;
         }
     }
+
+    public LogQuery toLogQuery() {
+        LogQuery logQuery = new LogQuery();
+        logQuery.setQuery(query);
+        logQuery.setPage(page);
+        logQuery.setSize(size);
+        logQuery.setFrom(from);
+        logQuery.setTo(to);
+        logQuery.setField(field);
+        logQuery.setOrder(order);
+        return logQuery;
+    }
 }
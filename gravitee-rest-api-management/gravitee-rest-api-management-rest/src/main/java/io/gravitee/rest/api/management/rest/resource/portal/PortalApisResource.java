@@ -16,7 +16,10 @@
 package io.gravitee.rest.api.management.rest.resource.portal;
 
 import io.gravitee.common.component.Lifecycle;
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.http.MediaType;
+import io.gravitee.rest.api.management.rest.model.Pageable;
+import io.gravitee.rest.api.management.rest.model.PagedResult;
 import io.gravitee.rest.api.management.rest.resource.AbstractResource;
 import io.gravitee.rest.api.model.RatingSummaryEntity;
 import io.gravitee.rest.api.model.api.ApiEntity;
@@ -29,6 +32,7 @@ import io.gravitee.repository.exceptions.TechnicalException;
 import io.swagger.annotations.*;
 
 import javax.inject.Inject;
+import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.*;
 import javax.ws.rs.container.ResourceContext;
@@ -38,6 +42,7 @@ import javax.ws.rs.core.UriBuilder;
 import javax.ws.rs.core.UriInfo;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -78,32 +83,65 @@ public class PortalApisResource extends AbstractResource {
             @ApiParam(name = "q", required = true)
             @NotNull @QueryParam("q") String query) {
         try {
-            final Collection<ApiEntity> apis;
-            final ApiQuery apiQuery = new ApiQuery();
-            if (isAdmin()) {
-                apis = apiService.search(apiQuery);
-            } else {
-                apiQuery.setLifecycleStates(singletonList(PUBLISHED));
-                if (isAuthenticated()) {
-                    apis = apiService.findByUser(getAuthenticatedUser(), apiQuery);
-                } else {
-                    apiQuery.setVisibility(PUBLIC);
-                    apis = apiService.search(apiQuery);
-                }
-            }
+            return Response.ok().entity(apiService.search(query, getSearchFilters())
+                    .stream()
+                    .map(this::convert)
+                    .collect(toList())).build();
+        } catch (TechnicalException te) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(te).build();
+        }
+    }
 
-            Map<String, Object> filters = new HashMap<>();
-            filters.put("api", apis.stream().map(ApiEntity::getId).collect(Collectors.toSet()));
+    @POST
+    @Path("_search/_paged")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(
+            value = "Search for API using the search engine, with pagination",
+            notes = "APIs are ordered by relevance, the total being the number of matching APIs")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Page of accessible APIs for current user", response = PagedResult.class),
+            @ApiResponse(code = 500, message = "Internal server error")})
+    public Response searchPortalApisPaged(
+            @ApiParam(name = "q", required = true)
+            @NotNull @QueryParam("q") String query,
+            @Valid @BeanParam Pageable pageable) {
+        try {
+            final Page<ApiEntity> apis = apiService.search(query, getSearchFilters(), pageable.toPageable());
 
-            return Response.ok().entity(apiService.search(query, filters)
+            final List<ApiListItem> items = apis.getContent()
                     .stream()
                     .map(this::convert)
-                    .collect(toList())).build();
+                    .collect(toList());
+            return Response.ok().entity(new PagedResult<>(items, apis.getPageNumber(), pageable.getSize(),
+                    (int) apis.getTotalElements())).build();
         } catch (TechnicalException te) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity(te).build();
         }
     }
 
+    /**
+     * @return the filters restricting a search to the published APIs accessible to the current user.
+     */
+    private Map<String, Object> getSearchFilters() {
+        final Collection<ApiEntity> apis;
+        final ApiQuery apiQuery = new ApiQuery();
+        if (isAdmin()) {
+            apis = apiService.search(apiQuery);
+        } else {
+            apiQuery.setLifecycleStates(singletonList(PUBLISHED));
+            if (isAuthenticated()) {
+                apis = apiService.findByUser(getAuthenticatedUser(), apiQuery);
+            } else {
+                apiQuery.setVisibility(PUBLIC);
+                apis = apiService.search(apiQuery);
+            }
+        }
+
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("api", apis.stream().map(ApiEntity::getId).collect(Collectors.toSet()));
+        return filters;
+    }
+
     private ApiListItem convert(ApiEntity api) {
         final ApiListItem apiItem = new ApiListItem();
 
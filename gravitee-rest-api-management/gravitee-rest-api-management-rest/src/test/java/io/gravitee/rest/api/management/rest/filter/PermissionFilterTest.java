@@ -15,20 +15,12 @@
  */
 package io.gravitee.rest.api.management.rest.filter;
 
-import io.gravitee.repository.management.model.MembershipReferenceType;
-import io.gravitee.repository.management.model.RoleScope;
-import io.gravitee.rest.api.model.ApplicationEntity;
-import io.gravitee.rest.api.model.RoleEntity;
-import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.permissions.RolePermission;
 import io.gravitee.rest.api.model.permissions.RolePermissionAction;
 import io.gravitee.rest.api.management.rest.filter.PermissionsFilter;
 import io.gravitee.rest.api.management.rest.security.Permission;
 import io.gravitee.rest.api.management.rest.security.Permissions;
-import io.gravitee.rest.api.service.ApiService;
-import io.gravitee.rest.api.service.ApplicationService;
-import io.gravitee.rest.api.service.MembershipService;
-import io.gravitee.rest.api.service.RoleService;
+import io.gravitee.rest.api.service.PermissionService;
 import io.gravitee.rest.api.service.exceptions.ForbiddenAccessException;
 
 import org.junit.Assert;
@@ -57,20 +49,11 @@ public class PermissionFilterTest {
     @InjectMocks
     protected PermissionsFilter permissionFilter;
 
-    @Mock
-    protected ApiService apiService;
-
-    @Mock
-    protected ApplicationService applicationService;
-
     @Mock
     protected SecurityContext securityContext;
 
     @Mock
-    protected MembershipService membershipService;
-
-    @Mock
-    protected RoleService roleService;
+    protected PermissionService permissionService;
 
     @Mock
     protected Permissions permissions;
@@ -84,45 +67,42 @@ public class PermissionFilterTest {
 
     public static final String APPLICATION_ID = "APPLICATION_ID";
 
+    private static final RolePermissionAction[] ACLS = new RolePermissionAction[]{RolePermissionAction.UPDATE};
+
     @Before
     public void setUp() {
         initMocks(this);
     }
 
-    /**
-     * API Tests
-     */
-    private ApiEntity initApiMocks() {
-        ApiEntity api = new ApiEntity();
-        api.setId(API_ID);
+    private void initPermissionMocks(RolePermission rolePermission, String key, String referenceId) {
         Principal user = () -> USERNAME;
-        when(apiService.findById(api.getId())).thenReturn(api);
         when(securityContext.getUserPrincipal()).thenReturn(user);
         Permission perm = mock(Permission.class);
-        when(perm.value()).thenReturn(RolePermission.API_ANALYTICS);
-        when(perm.acls()).thenReturn(new RolePermissionAction[]{RolePermissionAction.UPDATE});
+        when(perm.value()).thenReturn(rolePermission);
+        when(perm.acls()).thenReturn(ACLS);
         when(permissions.value()).thenReturn(new Permission[]{perm});
         UriInfo uriInfo = mock(UriInfo.class);
         MultivaluedHashMap<String, String> map = new MultivaluedHashMap<>();
-        map.put("api", Collections.singletonList(api.getId()));
+        if (key != null) {
+            map.put(key, Collections.singletonList(referenceId));
+        }
         when(uriInfo.getPathParameters()).thenReturn(map);
+        when(uriInfo.getQueryParameters()).thenReturn(new MultivaluedHashMap<>());
         when(containerRequestContext.getUriInfo()).thenReturn(uriInfo);
-        return api;
     }
 
+    /**
+     * API Tests
+     */
     @Test(expected = ForbiddenAccessException.class)
     public void shouldThrowForbiddenExceptionWhenNoApiPermissions() {
-        ApiEntity api = initApiMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(false);
+        initPermissionMocks(RolePermission.API_ANALYTICS, "api", API_ID);
+        when(permissionService.hasPermission(any(), any(), any(), any())).thenReturn(false);
 
         try {
             permissionFilter.filter(permissions, containerRequestContext);
         } catch(ForbiddenAccessException e) {
-            verify(apiService, times(1)).findById(api.getId());
-            verify(applicationService, never()).findById(any());
-            verify(roleService, times(1)).hasPermission(any(), any(), any());
-            verify(membershipService, times(1)).getMemberPermissions(api, USERNAME);
-            verify(membershipService, never()).getRole(any(), any(), any(), any());
+            verify(permissionService, times(1)).hasPermission(USERNAME, RolePermission.API_ANALYTICS, API_ID, ACLS);
             throw e;
         }
 
@@ -131,51 +111,25 @@ public class PermissionFilterTest {
 
     @Test
     public void shouldBeAuthorizedWhenApiPermissions() {
-        ApiEntity api = initApiMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(true);
+        initPermissionMocks(RolePermission.API_ANALYTICS, "api", API_ID);
+        when(permissionService.hasPermission(USERNAME, RolePermission.API_ANALYTICS, API_ID, ACLS)).thenReturn(true);
 
         permissionFilter.filter(permissions, containerRequestContext);
-        verify(apiService, times(1)).findById(api.getId());
-        verify(applicationService, never()).findById(any());
-        verify(roleService, times(1)).hasPermission(any(), any(), any());
-        verify(membershipService, times(1)).getMemberPermissions(api, USERNAME);
-        verify(membershipService, never()).getRole(any(), any(), any(), any());
+        verify(permissionService, times(1)).hasPermission(USERNAME, RolePermission.API_ANALYTICS, API_ID, ACLS);
     }
 
     /**
      * APPLICATION Tests
      */
-    private ApplicationEntity initApplicationMocks() {
-        ApplicationEntity application = new ApplicationEntity();
-        application.setId(APPLICATION_ID);
-        Principal user = () -> USERNAME;
-        when(applicationService.findById(application.getId())).thenReturn(application);
-        when(securityContext.getUserPrincipal()).thenReturn(user);
-        Permission perm = mock(Permission.class);
-        when(perm.value()).thenReturn(RolePermission.APPLICATION_ANALYTICS);
-        when(perm.acls()).thenReturn(new RolePermissionAction[]{RolePermissionAction.UPDATE});
-        when(permissions.value()).thenReturn(new Permission[]{perm});
-        UriInfo uriInfo = mock(UriInfo.class);
-        MultivaluedHashMap<String, String> map = new MultivaluedHashMap<>();
-        map.put("application", Collections.singletonList(application.getId()));
-        when(uriInfo.getPathParameters()).thenReturn(map);
-        when(containerRequestContext.getUriInfo()).thenReturn(uriInfo);
-        return application;
-    }
-
     @Test(expected = ForbiddenAccessException.class)
     public void shouldThrowForbiddenExceptionWhenNoApplicationPermissions() {
-        ApplicationEntity application = initApplicationMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(false);
+        initPermissionMocks(RolePermission.APPLICATION_ANALYTICS, "application", APPLICATION_ID);
+        when(permissionService.hasPermission(any(), any(), any(), any())).thenReturn(false);
 
         try {
             permissionFilter.filter(permissions, containerRequestContext);
         } catch(ForbiddenAccessException e) {
-            verify(applicationService, times(1)).findById(application.getId());
-            verify(apiService, never()).findById(any());
-            verify(roleService, times(1)).hasPermission(any(), any(), any());
-            verify(membershipService, times(1)).getMemberPermissions(application, USERNAME);
-            verify(membershipService, never()).getRole(any(), any(), any(), any());
+            verify(permissionService, times(1)).hasPermission(USERNAME, RolePermission.APPLICATION_ANALYTICS, APPLICATION_ID, ACLS);
             throw e;
         }
 
@@ -184,47 +138,25 @@ public class PermissionFilterTest {
 
     @Test
     public void shouldBeAuthorizedWhenApplicationPermissions() {
-        ApplicationEntity application = initApplicationMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(true);
+        initPermissionMocks(RolePermission.APPLICATION_ANALYTICS, "application", APPLICATION_ID);
+        when(permissionService.hasPermission(USERNAME, RolePermission.APPLICATION_ANALYTICS, APPLICATION_ID, ACLS)).thenReturn(true);
 
         permissionFilter.filter(permissions, containerRequestContext);
-        verify(apiService, never()).findById(any());
-        verify(applicationService, times(1)).findById(application.getId());
-        verify(roleService, times(1)).hasPermission(any(), any(), any());
-        verify(membershipService, times(1)).getMemberPermissions(application, USERNAME);
-        verify(membershipService, never()).getRole(any(), any(), any(), any());
+        verify(permissionService, times(1)).hasPermission(USERNAME, RolePermission.APPLICATION_ANALYTICS, APPLICATION_ID, ACLS);
     }
 
     /**
      * MANAGEMENT Tests
      */
-
-    private void initManagementMocks() {
-        Principal user = () -> USERNAME;
-        when(securityContext.getUserPrincipal()).thenReturn(user);
-        Permission perm = mock(Permission.class);
-        when(perm.value()).thenReturn(RolePermission.MANAGEMENT_API);
-        when(perm.acls()).thenReturn(new RolePermissionAction[]{RolePermissionAction.UPDATE});
-        when(permissions.value()).thenReturn(new Permission[]{perm});
-        UriInfo uriInfo = mock(UriInfo.class);
-        when(containerRequestContext.getUriInfo()).thenReturn(uriInfo);
-        when(membershipService.getRole(any(), any(), any(), any())).thenReturn(mock(RoleEntity.class));
-    }
-
     @Test(expected = ForbiddenAccessException.class)
     public void shouldThrowForbiddenExceptionWhenNoManagementPermissions() {
-        initManagementMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(false);
+        initPermissionMocks(RolePermission.MANAGEMENT_API, null, null);
+        when(permissionService.hasPermission(any(), any(), any(), any())).thenReturn(false);
 
         try {
             permissionFilter.filter(permissions, containerRequestContext);
         } catch(ForbiddenAccessException e) {
-            verify(applicationService, never()).findById(any());
-            verify(apiService, never()).findById(any());
-            verify(roleService, times(1)).hasPermission(any(), any(), any());
-            verify(membershipService, never()).getMemberPermissions(any(ApiEntity.class), any());
-            verify(membershipService, never()).getMemberPermissions(any(ApplicationEntity.class), any());
-            verify(membershipService, times(1)).getRole(eq(MembershipReferenceType.MANAGEMENT), any(), any(), eq(RoleScope.MANAGEMENT));
+            verify(permissionService, times(1)).hasPermission(USERNAME, RolePermission.MANAGEMENT_API, null, ACLS);
             throw e;
         }
 
@@ -233,49 +165,26 @@ public class PermissionFilterTest {
 
     @Test
     public void shouldBeAuthorizedWhenManagementPermissions() {
-        initManagementMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(true);
+        initPermissionMocks(RolePermission.MANAGEMENT_API, null, null);
+        when(permissionService.hasPermission(USERNAME, RolePermission.MANAGEMENT_API, null, ACLS)).thenReturn(true);
 
         permissionFilter.filter(permissions, containerRequestContext);
 
-        verify(applicationService, never()).findById(any());
-        verify(apiService, never()).findById(any());
-        verify(roleService, times(1)).hasPermission(any(), any(), any());
-        verify(membershipService, never()).getMemberPermissions(any(ApiEntity.class), any());
-        verify(membershipService, never()).getMemberPermissions(any(ApplicationEntity.class), any());
-        verify(membershipService, times(1)).getRole(eq(MembershipReferenceType.MANAGEMENT), any(), any(), eq(RoleScope.MANAGEMENT));
+        verify(permissionService, times(1)).hasPermission(USERNAME, RolePermission.MANAGEMENT_API, null, ACLS);
     }
 
     /**
      * PORTAL Tests
      */
-
-    private void initPortalMocks() {
-        Principal user = () -> USERNAME;
-        when(securityContext.getUserPrincipal()).thenReturn(user);
-        Permission perm = mock(Permission.class);
-        when(perm.value()).thenReturn(RolePermission.PORTAL_METADATA);
-        when(perm.acls()).thenReturn(new RolePermissionAction[]{RolePermissionAction.UPDATE});
-        when(permissions.value()).thenReturn(new Permission[]{perm});
-        UriInfo uriInfo = mock(UriInfo.class);
-        when(containerRequestContext.getUriInfo()).thenReturn(uriInfo);
-        when(membershipService.getRole(any(), any(), any(), any())).thenReturn(mock(RoleEntity.class));
-    }
-
     @Test(expected = ForbiddenAccessException.class)
     public void shouldThrowForbiddenExceptionWhenNoPortalPermissions() {
-        initPortalMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(false);
+        initPermissionMocks(RolePermission.PORTAL_METADATA, null, null);
+        when(permissionService.hasPermission(any(), any(), any(), any())).thenReturn(false);
 
         try {
             permissionFilter.filter(permissions, containerRequestContext);
         } catch(ForbiddenAccessException e) {
-            verify(applicationService, never()).findById(any());
-            verify(apiService, never()).findById(any());
-            verify(roleService, times(1)).hasPermission(any(), any(), any());
-            verify(membershipService, never()).getMemberPermissions(any(ApiEntity.class), any());
-            verify(membershipService, never()).getMemberPermissions(any(ApplicationEntity.class), any());
-            verify(membershipService, times(1)).getRole(eq(MembershipReferenceType.PORTAL), any(), any(), eq(RoleScope.PORTAL));
+            verify(permissionService, times(1)).hasPermission(USERNAME, RolePermission.PORTAL_METADATA, null, ACLS);
             throw e;
         }
 
@@ -284,16 +193,11 @@ public class PermissionFilterTest {
 
     @Test
     public void shouldBeAuthorizedWhenPortalPermissions() {
-        initPortalMocks();
-        when(roleService.hasPermission(any(), any(), any())).thenReturn(true);
+        initPermissionMocks(RolePermission.PORTAL_METADATA, null, null);
+        when(permissionService.hasPermission(USERNAME, RolePermission.PORTAL_METADATA, null, ACLS)).thenReturn(true);
 
         permissionFilter.filter(permissions, containerRequestContext);
 
-        verify(applicationService, never()).findById(any());
-        verify(apiService, never()).findById(any());
-        verify(roleService, times(1)).hasPermission(any(), any(), any());
-        verify(membershipService, never()).getMemberPermissions(any(ApiEntity.class), any());
-        verify(membershipService, never()).getMemberPermissions(any(ApplicationEntity.class), any());
-        verify(membershipService, times(1)).getRole(eq(MembershipReferenceType.PORTAL), any(), any(), eq(RoleScope.PORTAL));
+        verify(permissionService, times(1)).hasPermission(USERNAME, RolePermission.PORTAL_METADATA, null, ACLS);
     }
 }
@@ -15,17 +15,26 @@
  */
 package io.gravitee.rest.api.management.rest.resource;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.http.HttpStatusCode;
 import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.api.NewApiEntity;
+import io.gravitee.rest.api.model.common.Pageable;
+import io.gravitee.rest.api.model.common.Sortable;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.Response;
 
+import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author David BRASSELY (brasseld at gmail.com)
@@ -91,4 +100,34 @@ public class ApisResourceTest extends AbstractResourceTest {
         final Response response = target().request().post(Entity.json(apiEntity));
         assertEquals(HttpStatusCode.CREATED_201, response.getStatus());
     }
+
+    @Test
+    public void shouldListApisPaged() throws Exception {
+        ApiEntity returnedApi = new ApiEntity();
+        returnedApi.setId("my-beautiful-api");
+        returnedApi.setName("My beautiful api");
+        doReturn(new Page<>(singletonList(returnedApi), 2, 1, 11)).when(apiService)
+                .searchListItems(Mockito.any(), Mockito.any(), Mockito.any());
+
+        final Response response = target("/_paged")
+                .queryParam("page", 2)
+                .queryParam("size", 10)
+                .queryParam("order", "-updated_at")
+                .request().get();
+        assertEquals(HttpStatusCode.OK_200, response.getStatus());
+
+        final JsonNode result = new ObjectMapper().readTree(response.readEntity(String.class));
+        assertEquals(1, result.get("data").size());
+        assertEquals("my-beautiful-api", result.get("data").get(0).get("id").asText());
+        assertEquals(11, result.get("page").get("total_elements").asInt());
+        assertEquals(2, result.get("page").get("total_pages").asInt());
+
+        final ArgumentCaptor<Sortable> sortable = ArgumentCaptor.forClass(Sortable.class);
+        final ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(apiService).searchListItems(Mockito.any(), sortable.capture(), pageable.capture());
+        assertEquals("updated_at", sortable.getValue().getField());
+        assertFalse(sortable.getValue().isAscOrder());
+        assertEquals(2, pageable.getValue().getPageNumber());
+        assertEquals(10, pageable.getValue().getPageSize());
+    }
 }
@@ -0,0 +1,129 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.management.rest.resource;
+
+import org.junit.Test;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class StreamAttachmentTest {
+
+    private static final String CONTENT = "Date;Request Id\n";
+
+    private final AbstractResource resource = new AbstractResource() {
+    };
+
+    @Test
+    public void shouldParseAcceptEncoding() {
+        assertFalse(AbstractResource.acceptsGzip(null));
+        assertFalse(AbstractResource.acceptsGzip(""));
+        assertFalse(AbstractResource.acceptsGzip("identity"));
+        assertTrue(AbstractResource.acceptsGzip("gzip"));
+        assertTrue(AbstractResource.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(AbstractResource.acceptsGzip("x-gzip"));
+        assertTrue(AbstractResource.acceptsGzip("*"));
+        assertFalse(AbstractResource.acceptsGzip("gzip;q=0"));
+        assertFalse(AbstractResource.acceptsGzip("gzip; q=0.0, identity"));
+        assertFalse(AbstractResource.acceptsGzip("*, gzip;q=0"));
+        assertFalse(AbstractResource.acceptsGzip("*;q=0"));
+        assertFalse(AbstractResource.acceptsGzip("gzips"));
+    }
+
+    @Test
+    public void shouldStreamGzipAttachment() throws IOException {
+        final Response response = resource.streamAttachment(
+                output -> output.write(CONTENT.getBytes(StandardCharsets.UTF_8)), "logs.csv", "deflate, gzip");
+
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals("gzip", response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("attachment;filename=logs.csv", response.getHeaderString(HttpHeaders.CONTENT_DISPOSITION));
+        assertEquals(CONTENT, new String(gunzip(write(response)), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldStreamPlainAttachment() throws IOException {
+        final Response response = resource.streamAttachment(
+                output -> output.write(CONTENT.getBytes(StandardCharsets.UTF_8)), "logs.csv", "gzip;q=0");
+
+        assertNull(response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(CONTENT, new String(write(response), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldNotCompleteGzipAttachmentOnFailure() {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final Response response = resource.streamAttachment(out -> {
+            out.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            throw new IllegalStateException("Unable to retrieve logs");
+        }, "logs.csv", "gzip");
+
+        try {
+            ((StreamingOutput) response.getEntity()).write(output);
+            fail("The failure must be propagated to the container");
+        } catch (IllegalStateException | IOException ex) {
+            // expected
+        }
+
+        try {
+            gunzip(output.toByteArray());
+            fail("The attachment must not look complete");
+        } catch (IOException ioe) {
+            assertTrue(ioe instanceof EOFException);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldPropagatePlainAttachmentFailure() throws IOException {
+        final Response response = resource.streamAttachment(out -> {
+            throw new IllegalStateException("Unable to retrieve logs");
+        }, "logs.csv", null);
+
+        ((StreamingOutput) response.getEntity()).write(new ByteArrayOutputStream());
+    }
+
+    private static byte[] write(Response response) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(output);
+        return output.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+            return output.toByteArray();
+        }
+    }
+}
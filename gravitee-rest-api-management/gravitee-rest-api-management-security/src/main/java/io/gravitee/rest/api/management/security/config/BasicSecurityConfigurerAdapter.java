@@ -254,6 +254,7 @@ public class BasicSecurityConfigurerAdapter extends WebSecurityConfigurerAdapter
                 // Portal
                 .antMatchers(HttpMethod.GET, uriPrefix + "/portal/**").permitAll()
                 .antMatchers(HttpMethod.POST, uriPrefix + "/portal/apis/_search").permitAll()
+                .antMatchers(HttpMethod.POST, uriPrefix + "/portal/apis/_search/_paged").permitAll()
                 .antMatchers(HttpMethod.POST, uriPrefix + "/portal/**").authenticated()
                 .antMatchers(HttpMethod.PUT, uriPrefix + "/portal/**").authenticated()
                 .antMatchers(HttpMethod.DELETE, uriPrefix + "/portal/**").authenticated()
@@ -39,6 +39,12 @@ public class SubscriptionQuery {
 
     private long from, to;
 
+    /**
+     * Only keep the subscriptions ending before this date (in milliseconds). The repository can not filter on it, the
+     * subscriptions matching the other criteria are filtered in memory. Rejected by paginated searches.
+     */
+    private long endingAtBefore;
+
     public Collection<String> getApis() {
         return apis;
     }
@@ -113,6 +119,14 @@ public class SubscriptionQuery {
         this.to = to;
     }
 
+    public long getEndingAtBefore() {
+        return endingAtBefore;
+    }
+
+    public void setEndingAtBefore(long endingAtBefore) {
+        this.endingAtBefore = endingAtBefore;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -120,6 +134,7 @@ public class SubscriptionQuery {
         SubscriptionQuery that = (SubscriptionQuery) o;
         return from == that.from &&
                 to == that.to &&
+                endingAtBefore == that.endingAtBefore &&
                 Objects.equals(apis, that.apis) &&
                 Objects.equals(plans, that.plans) &&
                 Objects.equals(statuses, that.statuses) &&
@@ -129,6 +144,6 @@ public class SubscriptionQuery {
 
     @Override
     public int hashCode() {
-        return Objects.hash(apis, plans, statuses, applications, apiKey, from, to);
+        return Objects.hash(apis, plans, statuses, applications, apiKey, from, to, endingAtBefore);
     }
 }
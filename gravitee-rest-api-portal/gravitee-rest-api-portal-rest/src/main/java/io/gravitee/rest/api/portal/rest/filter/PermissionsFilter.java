@@ -18,7 +18,6 @@ package io.gravitee.rest.api.portal.rest.filter;
 import java.io.IOException;
 import java.security.Principal;
 import java.util.List;
-import java.util.Map;
 
 import javax.annotation.Priority;
 import javax.inject.Inject;
@@ -32,20 +31,10 @@ import javax.ws.rs.ext.Provider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import io.gravitee.repository.management.model.MembershipDefaultReferenceId;
-import io.gravitee.repository.management.model.MembershipReferenceType;
-import io.gravitee.repository.management.model.RoleScope;
-import io.gravitee.rest.api.model.ApplicationEntity;
-import io.gravitee.rest.api.model.RoleEntity;
-import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.portal.rest.resource.AbstractResource;
 import io.gravitee.rest.api.portal.rest.security.Permission;
 import io.gravitee.rest.api.portal.rest.security.Permissions;
-import io.gravitee.rest.api.service.ApiService;
-import io.gravitee.rest.api.service.ApplicationService;
-import io.gravitee.rest.api.service.GroupService;
-import io.gravitee.rest.api.service.MembershipService;
-import io.gravitee.rest.api.service.RoleService;
+import io.gravitee.rest.api.service.PermissionService;
 import io.gravitee.rest.api.service.exceptions.ForbiddenAccessException;
 import io.gravitee.rest.api.service.exceptions.UnauthorizedAccessException;
 
@@ -67,19 +56,7 @@ public class PermissionsFilter implements ContainerRequestFilter {
     private SecurityContext securityContext;
 
     @Inject
-    private MembershipService membershipService;
-
-    @Inject
-    private ApplicationService applicationService;
-
-    @Inject
-    private ApiService apiService;
-
-    @Inject
-    private RoleService roleService;
-
-    @Inject
-    private GroupService groupService;
+    private PermissionService permissionService;
 
     @Override
     public void filter(ContainerRequestContext requestContext) throws IOException {
@@ -109,45 +86,20 @@ public class PermissionsFilter implements ContainerRequestFilter {
     }
 
     protected boolean hasPermission(ContainerRequestContext requestContext, String username, Permission permission) {
-        RoleEntity role;
-        Map<String, char[]> memberPermissions;
         switch (permission.value().getScope()) {
             case MANAGEMENT:
-                role = membershipService.getRole(MembershipReferenceType.MANAGEMENT, MembershipDefaultReferenceId.DEFAULT.name(), username, RoleScope.MANAGEMENT);
-                return roleService.hasPermission(role.getPermissions(), permission.value().getPermission(), permission.acls());
             case PORTAL:
-                role = membershipService.getRole(MembershipReferenceType.PORTAL, MembershipDefaultReferenceId.DEFAULT.name(), username, RoleScope.PORTAL);
-                return roleService.hasPermission(role.getPermissions(), permission.value().getPermission(), permission.acls());
+                return permissionService.hasPermission(username, permission.value(), null, permission.acls());
             case APPLICATION:
-                ApplicationEntity application = getApplication(requestContext);
-                memberPermissions = membershipService.getMemberPermissions(application, username);
-                return roleService.hasPermission(memberPermissions, permission.value().getPermission(), permission.acls());
+                return permissionService.hasPermission(username, permission.value(), getId("applicationId", requestContext), permission.acls());
             case API:
-                ApiEntity api = getApi(requestContext);
-                memberPermissions = membershipService.getMemberPermissions(api, username);
-                return roleService.hasPermission(memberPermissions, permission.value().getPermission(), permission.acls());
+                return permissionService.hasPermission(username, permission.value(), getId("apiId", requestContext), permission.acls());
             default:
                 sendSecurityError();
         }
         return false;
     }
 
-    private ApiEntity getApi(ContainerRequestContext requestContext) {
-        String apiId = getId("apiId", requestContext);
-        if (apiId == null) {
-            return null;
-        }
-        return apiService.findById(apiId);
-    }
-
-    private ApplicationEntity getApplication(ContainerRequestContext requestContext) {
-        String applicationId = getId("applicationId", requestContext);
-        if (applicationId == null) {
-            return null;
-        }
-        return applicationService.findById(applicationId);
-    }
-
     private String getId(String key, ContainerRequestContext requestContext) {
         List<String> pathParams = requestContext.getUriInfo().getPathParameters().get(key);
         if (pathParams != null) {
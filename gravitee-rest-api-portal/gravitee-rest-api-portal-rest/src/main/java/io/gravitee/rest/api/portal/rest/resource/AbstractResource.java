@@ -261,24 +261,30 @@ public abstract class AbstractResource {
             Map<String, Object> paginationMetadata) {
         Integer startIndex = (page - 1) * size;
         Integer lastIndex = Math.min(startIndex + size, totalItems);
+
+        computePaginationMetadata(totalItems, page, size, paginationMetadata);
+
+        return list.subList(startIndex, lastIndex);
+    }
+
+    private void computePaginationMetadata(Integer totalItems, Integer page, Integer size,
+            Map<String, Object> paginationMetadata) {
+        Integer startIndex = (page - 1) * size;
+        Integer lastIndex = Math.min(startIndex + size, totalItems);
         Integer totalPages = (int) Math.ceil((double) totalItems / size);
 
         if (startIndex >= totalItems || page < 1) {
             throw new PaginationInvalidException();
-        } else {
-
-            paginationMetadata.put(METADATA_PAGINATION_CURRENT_PAGE_KEY, page);
-            paginationMetadata.put(METADATA_PAGINATION_SIZE_KEY, size);
-
-            paginationMetadata.put(METADATA_PAGINATION_FIRST_ITEM_INDEX_KEY, startIndex + 1);
-            paginationMetadata.put(METADATA_PAGINATION_LAST_ITEM_INDEX_KEY, lastIndex);
+        }
 
-            paginationMetadata.put(METADATA_PAGINATION_TOTAL_KEY, totalItems);
-            paginationMetadata.put(METADATA_PAGINATION_TOTAL_PAGE_KEY, totalPages);
+        paginationMetadata.put(METADATA_PAGINATION_CURRENT_PAGE_KEY, page);
+        paginationMetadata.put(METADATA_PAGINATION_SIZE_KEY, size);
 
-            return list.subList(startIndex, lastIndex);
-        }
+        paginationMetadata.put(METADATA_PAGINATION_FIRST_ITEM_INDEX_KEY, startIndex + 1);
+        paginationMetadata.put(METADATA_PAGINATION_LAST_ITEM_INDEX_KEY, lastIndex);
 
+        paginationMetadata.put(METADATA_PAGINATION_TOTAL_KEY, totalItems);
+        paginationMetadata.put(METADATA_PAGINATION_TOTAL_PAGE_KEY, totalPages);
     }
 
     protected DataResponse createDataResponse(List dataList, PaginationParam paginationParam,
@@ -340,6 +346,30 @@ public abstract class AbstractResource {
         return Response.ok(createDataResponse(dataList, paginationParam, metadata, withPagination)).build();
     }
 
+    /**
+     * Same as {@link #createListResponse(List, PaginationParam)} but for a page already computed by the service,
+     * <code>totalItems</code> being the number of items of all the pages.
+     */
+    protected Response createPageResponse(List pageList, PaginationParam paginationParam, int totalItems) {
+        return createPageResponse(pageList, paginationParam, totalItems, null);
+    }
+
+    protected Response createPageResponse(List pageList, PaginationParam paginationParam, int totalItems,
+            Map<String, Map<String, Object>> metadata) {
+        Map<String, Object> dataMetadata = new HashMap<>();
+        Map<String, Object> paginationMetadata = new HashMap<>();
+
+        if (totalItems > 0 && paginationParam.getSize() > 0) {
+            computePaginationMetadata(totalItems, paginationParam.getPage(), paginationParam.getSize(), paginationMetadata);
+        }
+        dataMetadata.put(METADATA_DATA_TOTAL_KEY, pageList.size());
+
+        return Response.ok(new DataResponse().data(pageList)
+                .metadata(this.computeMetadata(metadata, dataMetadata, paginationMetadata))
+                .links(this.computePaginatedLinks(paginationParam.getPage(), paginationParam.getSize(), totalItems)))
+                .build();
+    }
+
     protected Response createPictureResponse(Request request, InlinePictureEntity image) {
         if (image == null || image.getContent() == null) {
             return Response.status(Status.NOT_FOUND).build();
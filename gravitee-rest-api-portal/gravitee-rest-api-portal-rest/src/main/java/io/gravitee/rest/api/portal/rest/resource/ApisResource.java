@@ -15,14 +15,15 @@
  */
 package io.gravitee.rest.api.portal.rest.resource;
 
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.http.MediaType;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.rest.api.model.RatingSummaryEntity;
 import io.gravitee.rest.api.model.SubscriptionEntity;
-import io.gravitee.rest.api.model.TopApiEntity;
 import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.api.ApiQuery;
 import io.gravitee.rest.api.model.application.ApplicationListItem;
+import io.gravitee.rest.api.model.common.PageableImpl;
 import io.gravitee.rest.api.model.subscription.SubscriptionQuery;
 import io.gravitee.rest.api.portal.rest.mapper.ApiMapper;
 import io.gravitee.rest.api.portal.rest.model.Api;
@@ -30,10 +31,10 @@ import io.gravitee.rest.api.portal.rest.model.CategoryApiQuery;
 import io.gravitee.rest.api.portal.rest.resource.param.ApisParam;
 import io.gravitee.rest.api.portal.rest.resource.param.PaginationParam;
 import io.gravitee.rest.api.portal.rest.utils.PortalApiLinkHelper;
+import io.gravitee.rest.api.service.ApiRankingService;
 import io.gravitee.rest.api.service.ApplicationService;
 import io.gravitee.rest.api.service.RatingService;
 import io.gravitee.rest.api.service.SubscriptionService;
-import io.gravitee.rest.api.service.TopApiService;
 
 import javax.inject.Inject;
 import javax.validation.constraints.NotNull;
@@ -68,7 +69,7 @@ public class ApisResource extends AbstractResource {
     private RatingService ratingService;
 
     @Inject
-    private TopApiService topApiService;
+    private ApiRankingService apiRankingService;
 
     @GET
     @Produces(MediaType.APPLICATION_JSON)
@@ -77,8 +78,20 @@ public class ApisResource extends AbstractResource {
                 createQueryFromParam(apisParam));
 
         FilteredApi filteredApis = filterByCategory(apis, apisParam.getCategory(), apisParam.getExcludedCategory());
-        
-        List<Api> apisList= filteredApis.getFilteredApis().stream()
+        List<ApiEntity> sortedApis = new ArrayList<>(filteredApis.getFilteredApis());
+
+        if (paginationParam.getSize() > 0 && !sortedApis.isEmpty()) {
+            // Only convert the APIs of the requested page
+            List<ApiEntity> apisPage = paginateResultList(sortedApis, sortedApis.size(), paginationParam.getPage(),
+                    paginationParam.getSize(), new HashMap<>());
+            List<Api> apisList = apisPage.stream()
+                    .map(apiMapper::convert)
+                    .map(this::addApiLinks)
+                    .collect(Collectors.toList());
+            return createPageResponse(apisList, paginationParam, sortedApis.size(), filteredApis.getMetadata());
+        }
+
+        List<Api> apisList = sortedApis.stream()
                 .map(apiMapper::convert)
                 .map(this::addApiLinks)
                 .collect(Collectors.toList());
@@ -98,6 +111,15 @@ public class ApisResource extends AbstractResource {
         filters.put("api", apis.stream().map(ApiEntity::getId).collect(Collectors.toSet()));
 
         try {
+            if (paginationParam.getSize() > 0) {
+                // Only load the APIs of the requested page
+                Page<ApiEntity> apisPage = apiService.search(query, filters,
+                        new PageableImpl(paginationParam.getPage(), paginationParam.getSize()));
+                List<Api> apisList = apisPage.getContent().stream().map(apiMapper::convert)
+                        .map(this::addApiLinks).collect(Collectors.toList());
+                return createPageResponse(apisList, paginationParam, (int) apisPage.getTotalElements());
+            }
+
             List<Api> apisList = apiService.search(query, filters).stream().map(apiMapper::convert)
                     .map(this::addApiLinks).collect(Collectors.toList());
             return createListResponse(apisList, paginationParam);
@@ -160,11 +182,10 @@ public class ApisResource extends AbstractResource {
     }
 
     private FilteredApi getTopApis(Collection<ApiEntity> apis, boolean excluded) {
-        List<String> topApiIdList = topApiService.findAll().stream().map(TopApiEntity::getApi).collect(Collectors.toList());
+        Set<String> topApiIds = new HashSet<>(apiRankingService.findFeaturedApis());
         return new FilteredApi(
                 apis.stream()
-                    .filter(api-> (!excluded && topApiIdList.contains(api.getId())) ||
-                            (excluded && !topApiIdList.contains(api.getId())) )
+                    .filter(api -> excluded != topApiIds.contains(api.getId()))
                     .sorted((o1, o2) -> String.CASE_INSENSITIVE_ORDER.compare(o1.getName(), o2.getName()))
                     .collect(Collectors.toList())
                 , null
@@ -172,13 +193,8 @@ public class ApisResource extends AbstractResource {
     }
 
     protected FilteredApi getApisOrderByNumberOfSubscriptions(Collection<ApiEntity> apis, boolean excluded) {
-        //find all subscribed apis
-        SubscriptionQuery subscriptionQuery = new SubscriptionQuery();
-        subscriptionQuery.setApis(apis.stream().map(ApiEntity::getId).collect(Collectors.toList()));
-
-        // group by apis
-        Map<String, Long> subscribedApiWithCount = subscriptionService.search(subscriptionQuery).stream()
-                .collect(Collectors.groupingBy(SubscriptionEntity::getApi, Collectors.counting()));
+        // precomputed number of subscriptions by api
+        Map<String, Long> subscribedApiWithCount = apiRankingService.findSubscriptionCounts();
 
         // link an api with its nb of subscritions
         Map<ApiEntity, Long> apisWithCount = new HashMap<>();
@@ -205,29 +221,22 @@ public class ApisResource extends AbstractResource {
     }
 
     protected FilteredApi getRatedApis(Collection<ApiEntity> apis, boolean excluded) {
-        //keep apis with ratings
-        Map<ApiEntity, RatingSummaryEntity> ratings = new HashMap<>();
-        // APIPortal: should create a specific service to retrieve all the information
-        // in one call to the repository
-        apis.forEach(api -> {
-            RatingSummaryEntity apiRatingSummary = ratingService.findSummaryByApi(api.getId());
-            if (apiRatingSummary != null && apiRatingSummary.getNumberOfRatings() > 0) {
-                ratings.put(api, apiRatingSummary);
-            }
-        });
+        // precomputed rating summaries of the rated apis
+        Map<String, RatingSummaryEntity> ratingSummaries = apiRankingService.findRatingSummaries();
 
         if (excluded) {
             return new FilteredApi(apis.stream()
-                    .filter(api -> !ratings.keySet().contains(api))
+                    .filter(api -> !ratingSummaries.containsKey(api.getId()))
                     .collect(Collectors.toList()),
                     null);
         } else {
             //sort apis by ratings, nb of ratings, and name
             return new FilteredApi(
-                    ratings.entrySet().stream()
-                      .sorted( (e1, e2) -> {
-                        RatingSummaryEntity o1 = e1.getValue();
-                        RatingSummaryEntity o2 = e2.getValue();
+                    apis.stream()
+                      .filter(api -> ratingSummaries.containsKey(api.getId()))
+                      .sorted( (a1, a2) -> {
+                        RatingSummaryEntity o1 = ratingSummaries.get(a1.getId());
+                        RatingSummaryEntity o2 = ratingSummaries.get(a2.getId());
                         int averageRateComparaison = Double.compare(o2.getAverageRate(), o1.getAverageRate());
                         if(averageRateComparaison != 0) {
                             return averageRateComparaison;
@@ -236,9 +245,8 @@ public class ApisResource extends AbstractResource {
                         if(nbRatingsComparaison != 0) {
                             return nbRatingsComparaison;
                         }
-                        return String.CASE_INSENSITIVE_ORDER.compare(e1.getKey().getName(), e2.getKey().getName());
+                        return String.CASE_INSENSITIVE_ORDER.compare(a1.getName(), a2.getName());
                       })
-                      .map(Map.Entry::getKey)
                       .collect(Collectors.toList())
                     , null);
         }
@@ -251,13 +259,12 @@ public class ApisResource extends AbstractResource {
         //find all subscribed apis for these applications
         SubscriptionQuery subscriptionQuery = new SubscriptionQuery();
         subscriptionQuery.setApplications(currentUserApplicationsId);
-        List<String> subscribedApis = subscriptionService.search(subscriptionQuery).stream().map(SubscriptionEntity::getApi).distinct().collect(Collectors.toList());
+        Set<String> subscribedApis = subscriptionService.search(subscriptionQuery).stream().map(SubscriptionEntity::getApi).collect(Collectors.toSet());
         
         //filter apis list with subscribed apis list
         return new FilteredApi(
                 apis.stream()
-                .filter(api-> (!excluded && subscribedApis.contains(api.getId())) ||
-                        (excluded && !subscribedApis.contains(api.getId())))
+                .filter(api -> excluded != subscribedApis.contains(api.getId()))
                 .sorted((a1,a2) -> String.CASE_INSENSITIVE_ORDER.compare(a1.getName(), a2.getName()))
                 .collect(Collectors.toList())
                 , null);
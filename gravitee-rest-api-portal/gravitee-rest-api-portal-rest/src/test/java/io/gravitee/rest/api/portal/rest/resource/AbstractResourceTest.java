@@ -79,6 +79,7 @@ public abstract class AbstractResourceTest extends JerseySpringTest {
         reset(portalNotificationService);
         reset(genericNotificationConfigService);
         reset(topApiService);
+        reset(apiRankingService);
         reset(viewService);
         reset(ticketService);
         reset(configService);
@@ -218,6 +219,9 @@ public abstract class AbstractResourceTest extends JerseySpringTest {
     @Autowired
     protected TopApiService topApiService;
 
+    @Autowired
+    protected ApiRankingService apiRankingService;
+
     @Autowired
     protected ViewService viewService;
 
@@ -366,6 +370,11 @@ public abstract class AbstractResourceTest extends JerseySpringTest {
             return mock(TopApiService.class);
         }
 
+        @Bean
+        public ApiRankingService apiRankingService() {
+            return mock(ApiRankingService.class);
+        }
+
         @Bean
         public JWTCookieGenerator jwtCookieGenerator() {
             return mock(JWTCookieGenerator.class);
@@ -15,15 +15,16 @@
  */
 package io.gravitee.rest.api.portal.rest.resource;
 
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.http.HttpStatusCode;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.rest.api.model.RatingSummaryEntity;
 import io.gravitee.rest.api.model.SubscriptionEntity;
-import io.gravitee.rest.api.model.TopApiEntity;
 import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.api.ApiLifecycleState;
 import io.gravitee.rest.api.model.api.ApiQuery;
 import io.gravitee.rest.api.model.application.ApplicationListItem;
+import io.gravitee.rest.api.model.common.Pageable;
 import io.gravitee.rest.api.portal.rest.model.Error;
 import io.gravitee.rest.api.portal.rest.model.*;
 import org.junit.Before;
@@ -193,25 +194,28 @@ public class ApisResourceTest extends AbstractResourceTest {
         ratingSummary1.setApi("1");
         ratingSummary1.setAverageRate(4.5);
         ratingSummary1.setNumberOfRatings(3);
-        doReturn(ratingSummary1).when(ratingService).findSummaryByApi("1");
 
         RatingSummaryEntity ratingSummary3 = new RatingSummaryEntity();
         ratingSummary3.setApi("3");
         ratingSummary3.setAverageRate(5.0);
         ratingSummary3.setNumberOfRatings(10);
-        doReturn(ratingSummary3).when(ratingService).findSummaryByApi("3");
 
         RatingSummaryEntity ratingSummary4 = new RatingSummaryEntity();
         ratingSummary4.setApi("4");
         ratingSummary4.setAverageRate(5.0);
         ratingSummary4.setNumberOfRatings(1);
-        doReturn(ratingSummary4).when(ratingService).findSummaryByApi("4");
 
         RatingSummaryEntity ratingSummary5 = new RatingSummaryEntity();
         ratingSummary5.setApi("5");
         ratingSummary5.setAverageRate(4.5);
         ratingSummary5.setNumberOfRatings(3);
-        doReturn(ratingSummary5).when(ratingService).findSummaryByApi("5");
+
+        Map<String, RatingSummaryEntity> ratingSummaries = new HashMap<>();
+        ratingSummaries.put("1", ratingSummary1);
+        ratingSummaries.put("3", ratingSummary3);
+        ratingSummaries.put("4", ratingSummary4);
+        ratingSummaries.put("5", ratingSummary5);
+        doReturn(ratingSummaries).when(apiRankingService).findRatingSummaries();
 
         final Response response = target().queryParam("cat", "STARRED").request().get();
         assertEquals(HttpStatusCode.OK_200, response.getStatus());
@@ -228,22 +232,12 @@ public class ApisResourceTest extends AbstractResourceTest {
     @Test
     public void shouldGetTrendingsApi() {
 
-        SubscriptionEntity subA1 = new SubscriptionEntity();
-        subA1.setApplication("A");
-        subA1.setApi("1");
-        SubscriptionEntity subA2 = new SubscriptionEntity();
-        subA2.setApplication("A");
-        subA2.setApi("2");
-        SubscriptionEntity subB1 = new SubscriptionEntity();
-        subB1.setApplication("B");
-        subB1.setApi("1");
-        SubscriptionEntity subC4 = new SubscriptionEntity();
-        subC4.setApplication("C");
-        subC4.setApi("4");
-        SubscriptionEntity subC8 = new SubscriptionEntity();
-        subC8.setApplication("C");
-        subC8.setApi("8");
-        doReturn(Arrays.asList(subC8, subA2, subB1, subC4, subA1)).when(subscriptionService).search(any());
+        Map<String, Long> subscriptionCounts = new HashMap<>();
+        subscriptionCounts.put("1", 2L);
+        subscriptionCounts.put("2", 1L);
+        subscriptionCounts.put("4", 1L);
+        subscriptionCounts.put("8", 1L);
+        doReturn(subscriptionCounts).when(apiRankingService).findSubscriptionCounts();
 
         final Response response = target().queryParam("cat", "TRENDINGS").request().get();
         assertEquals(HttpStatusCode.OK_200, response.getStatus());
@@ -268,11 +262,7 @@ public class ApisResourceTest extends AbstractResourceTest {
 
     @Test
     public void shouldGetFeaturedApis() {
-        TopApiEntity topApi5 = new TopApiEntity();
-        topApi5.setApi("5");
-        TopApiEntity topApi6 = new TopApiEntity();
-        topApi6.setApi("6");
-        doReturn(Arrays.asList(topApi5, topApi6)).when(topApiService).findAll();
+        doReturn(Arrays.asList("6", "5")).when(apiRankingService).findFeaturedApis();
 
         final Response response = target().queryParam("cat", "FEATURED").request().get();
         assertEquals(HttpStatusCode.OK_200, response.getStatus());
@@ -295,15 +285,16 @@ public class ApisResourceTest extends AbstractResourceTest {
         final Response response = target().queryParam("page", 3).queryParam("size", 1).request().get();
         assertEquals(HttpStatusCode.OK_200, response.getStatus());
 
+        // only the APIs of the requested page are converted
         ArgumentCaptor<ApiEntity> apiEntityCaptor = ArgumentCaptor.forClass(ApiEntity.class);
-        Mockito.verify(apiMapper, Mockito.times(5)).convert(apiEntityCaptor.capture());
-        final List<String> allNameValues = apiEntityCaptor.getAllValues().stream().map(a -> a.getName())
-                .collect(Collectors.toList());
-        assertEquals(5, allNameValues.size());
-        assertTrue(allNameValues.containsAll(Arrays.asList("1", "3", "4", "5", "6")));
+        Mockito.verify(apiMapper, Mockito.times(1)).convert(apiEntityCaptor.capture());
+        assertEquals("4", apiEntityCaptor.getValue().getName());
 
         ApisResponse apiResponse = response.readEntity(ApisResponse.class);
         assertEquals(1, apiResponse.getData().size());
+        assertEquals("4", ((Api) apiResponse.getData().get(0)).getId());
+        assertEquals(5, apiResponse.getMetadata().get(AbstractResource.METADATA_PAGINATION_KEY)
+                .get(AbstractResource.METADATA_PAGINATION_TOTAL_KEY));
 
         Links links = apiResponse.getLinks();
         assertNotNull(links);
@@ -393,10 +384,15 @@ public class ApisResourceTest extends AbstractResourceTest {
         searchedApi.setName("3");
         searchedApi.setId("3");
 
-        doReturn(new HashSet<>(Arrays.asList(searchedApi))).when(apiService).search(any(), any());
+        doReturn(new Page<>(Arrays.asList(searchedApi), 1, 1, 1)).when(apiService).search(any(), any(), any());
         final Response response = target("/_search").queryParam("q", "3").request().post(Entity.json(null));
         assertEquals(HttpStatusCode.OK_200, response.getStatus());
 
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        Mockito.verify(apiService).search(eq("3"), any(), pageableCaptor.capture());
+        assertEquals(1, pageableCaptor.getValue().getPageNumber());
+        assertEquals(10, pageableCaptor.getValue().getPageSize());
+
         ArgumentCaptor<ApiQuery> queryCaptor = ArgumentCaptor.forClass(ApiQuery.class);
         Mockito.verify(apiService).findPublishedByUser(eq(USER_NAME), queryCaptor.capture());
         final ApiQuery query = queryCaptor.getValue();
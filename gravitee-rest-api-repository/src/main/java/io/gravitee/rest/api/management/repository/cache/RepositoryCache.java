@@ -0,0 +1,145 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.management.repository.cache;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.gravitee.repository.exceptions.TechnicalException;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A read-through cache used by a repository proxy to avoid hitting the backend for each read.
+ * When the cache is disabled, each read is directly delegated to the loader.
+ *
+ * The cache never shares an instance with its callers: values are stored as a snapshot of their fields and each read
+ * returns a new copy, so that a service changing the object it loaded can not alter what the other readers get.
+ *
+ * @author GraviteeSource Team
+ */
+public class RepositoryCache<V> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final String name;
+    private final Class<V> type;
+    private final Cache<String, Optional<JsonNode>> cache;
+    private final BooleanSupplier usable;
+
+    /**
+     * Invalidation count, used to not store a value which may have been loaded before a write.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    RepositoryCache(String name, Class<V> type) {
+        this.name = name;
+        this.type = type;
+        this.cache = null;
+        this.usable = () -> false;
+    }
+
+    RepositoryCache(String name, Class<V> type, long ttl, long maxSize, BooleanSupplier usable) {
+        this.name = name;
+        this.type = type;
+        this.usable = usable;
+        this.cache = CacheBuilder
+                .newBuilder()
+                .expireAfterWrite(ttl, TimeUnit.SECONDS)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<V> get(String key, Loader<V> loader) throws TechnicalException {
+        if (cache == null || !usable.getAsBoolean()) {
+            return loader.load();
+        }
+
+        Optional<JsonNode> snapshot = cache.getIfPresent(key);
+        if (snapshot != null) {
+            return snapshot.map(this::restore);
+        }
+
+        long loadedAt = generation.get();
+        Optional<V> value = loader.load();
+        snapshot = value.map(this::snapshot);
+
+        // Only keep the value if no write has been done on this key while it was loaded
+        if (generation.get() == loadedAt) {
+            cache.put(key, snapshot);
+        }
+
+        return snapshot.map(this::restore);
+    }
+
+    void invalidate(String key) {
+        if (cache != null) {
+            generation.incrementAndGet();
+            cache.invalidate(key);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * @return hit, miss and eviction counters of the cache.
+     */
+    public CacheStats stats() {
+        return cache == null ? new CacheStats(0, 0, 0, 0, 0, 0) : cache.stats();
+    }
+
+    private JsonNode snapshot(V value) {
+        return MAPPER.valueToTree(value);
+    }
+
+    private V restore(JsonNode snapshot) {
+        try {
+            return MAPPER.treeToValue(snapshot, type);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Unable to read a " + type.getSimpleName() + " from the cache " + name, ex);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Loader<V> {
+        Optional<V> load() throws TechnicalException;
+    }
+
+    @FunctionalInterface
+    public interface Writer<T> {
+        T write() throws TechnicalException;
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.management.repository.cache;
+
+import com.google.common.cache.CacheStats;
+import io.gravitee.common.utils.UUID;
+import io.gravitee.node.api.Node;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.CommandRepository;
+import io.gravitee.repository.management.api.search.CommandCriteria;
+import io.gravitee.repository.management.model.Command;
+import io.gravitee.repository.management.model.MessageRecipient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the caches of the repository proxies.
+ *
+ * Caching is disabled by default and can be enabled with <code>management.cache.enabled</code>. Each cache can then
+ * be tuned with <code>management.cache.[name].ttl</code> (in seconds), <code>management.cache.[name].max_size</code>
+ * or disabled with <code>management.cache.[name].enabled</code>.
+ *
+ * Invalidations are propagated to the other nodes by using the command channel. An entry is evicted before and
+ * after the write reaches the repository, and the other nodes drop it at their next check, every
+ * <code>management.cache.invalidation.interval</code> seconds. A node which fails to check for invalidations stops
+ * serving its cached entries until the next successful check, so that its reads are never stale for longer than a few
+ * intervals.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class RepositoryCacheManager implements InitializingBean, DisposableBean {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(RepositoryCacheManager.class);
+
+    static final String CACHE_INVALIDATION_TAG = "CACHE_INVALIDATION";
+    private static final String KEY_SEPARATOR = ":";
+    private static final String DEFAULT_ENVIRONMENT = "DEFAULT";
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private CommandRepository commandRepository;
+
+    @Autowired
+    private Node node;
+
+    private final Map<String, RepositoryCache<?>> caches = new ConcurrentHashMap<>();
+
+    private boolean enabled;
+    private long interval;
+    private volatile long lastInvalidationCheck;
+    private ScheduledExecutorService invalidationExecutor;
+
+    @Override
+    public void afterPropertiesSet() {
+        enabled = environment.getProperty("management.cache.enabled", Boolean.class, false);
+
+        if (enabled) {
+            interval = environment.getProperty("management.cache.invalidation.interval", Long.class, 1L);
+            lastInvalidationCheck = System.currentTimeMillis();
+            LOGGER.info("Repository caches are enabled, remote invalidations are checked every {} seconds", interval);
+
+            invalidationExecutor = Executors.newSingleThreadScheduledExecutor(
+                    runnable -> new Thread(runnable, "repository-cache-invalidation"));
+            invalidationExecutor.scheduleWithFixedDelay(this::processRemoteInvalidations, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (invalidationExecutor != null) {
+            invalidationExecutor.shutdownNow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> RepositoryCache<V> getCache(String name, Class<V> type) {
+        return (RepositoryCache<V>) caches.computeIfAbsent(name, cacheName -> createCache(cacheName, type));
+    }
+
+    /**
+     * Write an entry: it is invalidated on all the nodes before the write, then once again on all the nodes when the
+     * write is done to drop a value a concurrent read may have loaded in the meantime.
+     */
+    public <T> T write(String name, String key, RepositoryCache.Writer<T> writer) throws TechnicalException {
+        invalidate(name, key);
+        try {
+            return writer.write();
+        } finally {
+            invalidate(name, key);
+        }
+    }
+
+    /**
+     * Invalidate an entry on the local node, then ask the other nodes to do the same.
+     */
+    public void invalidate(String name, String key) {
+        if (!invalidateLocally(name, key)) {
+            return;
+        }
+
+        Command command = new Command();
+        command.setId(UUID.toString(java.util.UUID.randomUUID()));
+        command.setEnvironment(DEFAULT_ENVIRONMENT);
+        command.setFrom(node.id());
+        command.setTo(MessageRecipient.MANAGEMENT_APIS.name());
+        command.setTags(Collections.singletonList(CACHE_INVALIDATION_TAG));
+        long now = System.currentTimeMillis();
+        command.setCreatedAt(new Date(now));
+        command.setUpdatedAt(command.getCreatedAt());
+        command.setExpiredAt(new Date(now + 60 * 1000));
+        command.setContent(name + KEY_SEPARATOR + key);
+
+        try {
+            commandRepository.create(command);
+        } catch (Exception ex) {
+            LOGGER.error("An error occurs while sending cache invalidation for {} [{}]", name, key, ex);
+        }
+    }
+
+    private boolean invalidateLocally(String name, String key) {
+        RepositoryCache<?> cache = caches.get(name);
+        if (cache == null || !cache.isEnabled() || key == null) {
+            return false;
+        }
+
+        cache.invalidate(key);
+        return true;
+    }
+
+    /**
+     * @return hit, miss and eviction counters by cache.
+     */
+    public Map<String, CacheStats> stats() {
+        Map<String, CacheStats> stats = new TreeMap<>();
+        caches.forEach((name, cache) -> stats.put(name, cache.stats()));
+        return stats;
+    }
+
+    private <V> RepositoryCache<V> createCache(String name, Class<V> type) {
+        if (!enabled || !environment.getProperty("management.cache." + name + ".enabled", Boolean.class, true)) {
+            return new RepositoryCache<>(name, type);
+        }
+
+        long ttl = environment.getProperty("management.cache." + name + ".ttl", Long.class, 60L);
+        long maxSize = environment.getProperty("management.cache." + name + ".max_size", Long.class, 1000L);
+        LOGGER.info("Create repository cache {} [ttl: {}s, max size: {}]", name, ttl, maxSize);
+
+        return new RepositoryCache<>(name, type, ttl, maxSize, this::isUpToDate);
+    }
+
+    /**
+     * @return <code>true</code> if the invalidations sent by the other nodes have been checked recently enough for the
+     * cached entries to be served.
+     */
+    boolean isUpToDate() {
+        return System.currentTimeMillis() - lastInvalidationCheck <= 3 * TimeUnit.SECONDS.toMillis(interval);
+    }
+
+    void processRemoteInvalidations() {
+        try {
+            long startedAt = System.currentTimeMillis();
+
+            CommandCriteria criteria = new CommandCriteria.Builder()
+                    .to(MessageRecipient.MANAGEMENT_APIS.name())
+                    .tags(CACHE_INVALIDATION_TAG)
+                    .notAckBy(node.id())
+                    .notDeleted()
+                    .build();
+
+            for (Command command : commandRepository.search(criteria)) {
+                if (!node.id().equals(command.getFrom()) && command.getContent() != null) {
+                    int separator = command.getContent().indexOf(KEY_SEPARATOR);
+                    if (separator > 0) {
+                        RepositoryCache<?> cache = caches.get(command.getContent().substring(0, separator));
+                        if (cache != null) {
+                            cache.invalidate(command.getContent().substring(separator + 1));
+                        }
+                    }
+                }
+
+                List<String> acknowledgments = command.getAcknowledgments() == null ?
+                        new ArrayList<>() : new ArrayList<>(command.getAcknowledgments());
+                acknowledgments.add(node.id());
+                command.setAcknowledgments(acknowledgments);
+                commandRepository.update(command);
+            }
+
+            lastInvalidationCheck = startedAt;
+
+            if (LOGGER.isDebugEnabled()) {
+                stats().forEach((name, stats) -> LOGGER.debug("Repository cache {}: hits={}, misses={}, evictions={}",
+                        name, stats.hitCount(), stats.missCount(), stats.evictionCount()));
+            }
+        } catch (Exception ex) {
+            LOGGER.error("An error occurs while processing remote cache invalidations", ex);
+        }
+    }
+}
@@ -22,6 +22,8 @@ import io.gravitee.repository.management.api.search.ApiCriteria;
 import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
 import io.gravitee.repository.management.api.search.Pageable;
 import io.gravitee.repository.management.model.Api;
+import io.gravitee.rest.api.management.repository.cache.RepositoryCacheManager;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -35,24 +37,32 @@ import java.util.Optional;
 @Component
 public class ApiRepositoryProxy extends AbstractProxy<ApiRepository> implements ApiRepository {
 
+    private static final String CACHE = "api";
+
+    @Autowired
+    private RepositoryCacheManager cacheManager;
+
     @Override
     public Api create(Api api) throws TechnicalException {
-        return target.create(api);
+        return cacheManager.write(CACHE, api.getId(), () -> target.create(api));
     }
 
     @Override
     public void delete(String s) throws TechnicalException {
-        target.delete(s);
+        cacheManager.write(CACHE, s, () -> {
+            target.delete(s);
+            return null;
+        });
     }
 
     @Override
     public Optional<Api> findById(String s) throws TechnicalException {
-        return target.findById(s);
+        return cacheManager.getCache(CACHE, Api.class).get(s, () -> target.findById(s));
     }
 
     @Override
     public Api update(Api api) throws TechnicalException {
-        return target.update(api);
+        return cacheManager.write(CACHE, api.getId(), () -> target.update(api));
     }
 
     @Override
@@ -20,6 +20,8 @@ import io.gravitee.repository.management.api.MembershipRepository;
 import io.gravitee.repository.management.model.Membership;
 import io.gravitee.repository.management.model.MembershipReferenceType;
 import io.gravitee.repository.management.model.RoleScope;
+import io.gravitee.rest.api.management.repository.cache.RepositoryCacheManager;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -32,19 +34,28 @@ import java.util.Set;
  */
 @Component
 public class MembershipRepositoryProxy extends AbstractProxy<MembershipRepository> implements MembershipRepository {
+
+    private static final String CACHE = "membership";
+
+    @Autowired
+    private RepositoryCacheManager cacheManager;
+
     @Override
     public Membership create(Membership membership) throws TechnicalException {
-        return target.create(membership);
+        return cacheManager.write(CACHE, key(membership), () -> target.create(membership));
     }
 
     @Override
     public Membership update(Membership membership) throws TechnicalException {
-        return target.update(membership);
+        return cacheManager.write(CACHE, key(membership), () -> target.update(membership));
     }
 
     @Override
     public void delete(Membership membership) throws TechnicalException {
-        target.delete(membership);
+        cacheManager.write(CACHE, key(membership), () -> {
+            target.delete(membership);
+            return null;
+        });
     }
 
     @Override
@@ -54,7 +65,8 @@ public class MembershipRepositoryProxy extends AbstractProxy<MembershipRepositor
 
     @Override
     public Optional<Membership> findById(String userId, MembershipReferenceType referenceType, String referenceId) throws TechnicalException {
-        return target.findById(userId, referenceType, referenceId);
+        return cacheManager.getCache(CACHE, Membership.class).get(key(userId, referenceType, referenceId),
+                () -> target.findById(userId, referenceType, referenceId));
     }
 
     @Override
@@ -86,4 +98,12 @@ public class MembershipRepositoryProxy extends AbstractProxy<MembershipRepositor
     public Set<Membership> findByRole(RoleScope roleScope, String roleName) throws TechnicalException {
         return target.findByRole(roleScope, roleName);
     }
+
+    private static String key(Membership membership) {
+        return key(membership.getUserId(), membership.getReferenceType(), membership.getReferenceId());
+    }
+
+    private static String key(String userId, MembershipReferenceType referenceType, String referenceId) {
+        return userId + "/" + referenceType + "/" + referenceId;
+    }
 }
@@ -18,12 +18,14 @@ package io.gravitee.rest.api.management.repository.proxy;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ParameterRepository;
 import io.gravitee.repository.management.model.Parameter;
 import io.gravitee.repository.management.model.ParameterReferenceType;
+import io.gravitee.rest.api.management.repository.cache.RepositoryCacheManager;
 
 /**
  * @author Azize ELAMRANI (azize at graviteesource.com)
@@ -32,9 +34,14 @@ import io.gravitee.repository.management.model.ParameterReferenceType;
 @Component
 public class ParameterRepositoryProxy extends AbstractProxy<ParameterRepository> implements ParameterRepository {
 
+    private static final String CACHE = "parameter";
+
+    @Autowired
+    private RepositoryCacheManager cacheManager;
+
     @Override
     public Optional<Parameter> findById(String s) throws TechnicalException {
-        return target.findById(s);
+        return cacheManager.getCache(CACHE, Parameter.class).get(s, () -> target.findById(s));
     }
 
     @Override
@@ -44,17 +51,20 @@ public class ParameterRepositoryProxy extends AbstractProxy<ParameterRepository>
 
     @Override
     public Parameter create(Parameter item) throws TechnicalException {
-        return target.create(item);
+        return cacheManager.write(CACHE, item.getKey(), () -> target.create(item));
     }
 
     @Override
     public Parameter update(Parameter item) throws TechnicalException {
-        return target.update(item);
+        return cacheManager.write(CACHE, item.getKey(), () -> target.update(item));
     }
 
     @Override
     public void delete(String s) throws TechnicalException {
-        target.delete(s);
+        cacheManager.write(CACHE, s, () -> {
+            target.delete(s);
+            return null;
+        });
     }
 
     @Override
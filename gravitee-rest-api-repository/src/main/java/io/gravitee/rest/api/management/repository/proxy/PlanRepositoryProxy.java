@@ -18,6 +18,8 @@ package io.gravitee.rest.api.management.repository.proxy;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.PlanRepository;
 import io.gravitee.repository.management.model.Plan;
+import io.gravitee.rest.api.management.repository.cache.RepositoryCacheManager;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.Optional;
@@ -30,23 +32,31 @@ import java.util.Set;
 @Component
 public class PlanRepositoryProxy extends AbstractProxy<PlanRepository> implements PlanRepository {
 
+    private static final String CACHE = "plan";
+
+    @Autowired
+    private RepositoryCacheManager cacheManager;
+
     public Set<Plan> findByApi(String apiId) throws TechnicalException {
         return target.findByApi(apiId);
     }
 
     public Optional<Plan> findById(String s) throws TechnicalException {
-        return target.findById(s);
+        return cacheManager.getCache(CACHE, Plan.class).get(s, () -> target.findById(s));
     }
 
     public Plan create(Plan item) throws TechnicalException {
-        return target.create(item);
+        return cacheManager.write(CACHE, item.getId(), () -> target.create(item));
     }
 
     public Plan update(Plan item) throws TechnicalException {
-        return target.update(item);
+        return cacheManager.write(CACHE, item.getId(), () -> target.update(item));
     }
 
     public void delete(String s) throws TechnicalException {
-        target.delete(s);
+        cacheManager.write(CACHE, s, () -> {
+            target.delete(s);
+            return null;
+        });
     }
 }
@@ -18,6 +18,7 @@ package io.gravitee.rest.api.management.repository.proxy;
 import java.util.Optional;
 import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import io.gravitee.repository.exceptions.TechnicalException;
@@ -25,6 +26,7 @@ import io.gravitee.repository.management.api.RoleRepository;
 import io.gravitee.repository.management.model.Role;
 import io.gravitee.repository.management.model.RoleReferenceType;
 import io.gravitee.repository.management.model.RoleScope;
+import io.gravitee.rest.api.management.repository.cache.RepositoryCacheManager;
 
 /**
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com)
@@ -33,19 +35,27 @@ import io.gravitee.repository.management.model.RoleScope;
 @Component
 public class RoleRepositoryProxy extends AbstractProxy<RoleRepository> implements RoleRepository {
 
+    private static final String CACHE = "role";
+
+    @Autowired
+    private RepositoryCacheManager cacheManager;
+
     @Override
     public Optional<Role> findById(RoleScope scope, String name, String referenceId, RoleReferenceType referenceType) throws TechnicalException {
-        return target.findById(scope, name, referenceId, referenceType);
+        return cacheManager.getCache(CACHE, Role.class).get(key(scope, name, referenceId, referenceType),
+                () -> target.findById(scope, name, referenceId, referenceType));
     }
 
     @Override
     public Role create(Role item) throws TechnicalException {
-        return target.create(item);
+        return cacheManager.write(CACHE, key(item.getScope(), item.getName(), item.getReferenceId(), item.getReferenceType()),
+                () -> target.create(item));
     }
 
     @Override
     public Role update(Role item) throws TechnicalException {
-        return target.update(item);
+        return cacheManager.write(CACHE, key(item.getScope(), item.getName(), item.getReferenceId(), item.getReferenceType()),
+                () -> target.update(item));
     }
 
     @Override
@@ -55,7 +65,10 @@ public class RoleRepositoryProxy extends AbstractProxy<RoleRepository> implement
 
     @Override
     public void delete(RoleScope scope, String name, String referenceId, RoleReferenceType referenceType) throws TechnicalException {
-        target.delete(scope, name, referenceId, referenceType);
+        cacheManager.write(CACHE, key(scope, name, referenceId, referenceType), () -> {
+            target.delete(scope, name, referenceId, referenceType);
+            return null;
+        });
     }
 
     @Override
@@ -74,4 +87,8 @@ public class RoleRepositoryProxy extends AbstractProxy<RoleRepository> implement
             RoleReferenceType referenceType) throws TechnicalException {
         return target.findByScopeAndReferenceIdAndReferenceType(scope, referenceId, referenceType);
     }
+
+    private static String key(RoleScope scope, String name, String referenceId, RoleReferenceType referenceType) {
+        return scope + "/" + name + "/" + referenceType + "/" + referenceId;
+    }
 }
@@ -23,6 +23,9 @@ import org.springframework.context.annotation.Configuration;
  * @author GraviteeSource Team
  */
 @Configuration
-@ComponentScan(basePackages = "io.gravitee.rest.api.management.repository.proxy")
+@ComponentScan(basePackages = {
+        "io.gravitee.rest.api.management.repository.proxy",
+        "io.gravitee.rest.api.management.repository.cache"
+})
 public class RepositoryConfiguration {
 }
@@ -0,0 +1,208 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.management.repository.cache;
+
+import io.gravitee.node.api.Node;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.CommandRepository;
+import io.gravitee.repository.management.model.Command;
+import io.gravitee.repository.management.model.Plan;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RepositoryCacheManagerTest {
+
+    private static final String CACHE = "plan";
+    private static final String PLAN_ID = "plan1";
+
+    @InjectMocks
+    private RepositoryCacheManager cacheManager = new RepositoryCacheManager();
+
+    @Mock
+    private CommandRepository commandRepository;
+
+    @Mock
+    private Node node;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Before
+    public void init() {
+        ReflectionTestUtils.setField(cacheManager, "environment", new MockEnvironment()
+                .withProperty("management.cache.enabled", "true")
+                .withProperty("management.cache.invalidation.interval", "60"));
+        cacheManager.afterPropertiesSet();
+        loads.set(0);
+    }
+
+    @After
+    public void destroy() {
+        cacheManager.destroy();
+    }
+
+    @Test
+    public void shouldLoadOnMissAndServeHit() throws TechnicalException {
+        assertEquals("v1", get().get().getName());
+        assertEquals("v1", get().get().getName());
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cacheManager.stats().get(CACHE).hitCount());
+        assertEquals(1, cacheManager.stats().get(CACHE).missCount());
+    }
+
+    @Test
+    public void shouldCacheMissingEntry() throws TechnicalException {
+        RepositoryCache<Plan> cache = cacheManager.getCache(CACHE, Plan.class);
+
+        assertFalse(cache.get(PLAN_ID, () -> { loads.incrementAndGet(); return Optional.empty(); }).isPresent());
+        assertFalse(cache.get(PLAN_ID, () -> { loads.incrementAndGet(); return Optional.empty(); }).isPresent());
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void shouldReturnACopyOnEachRead() throws TechnicalException {
+        Plan loaded = get().get();
+        loaded.setStatus(Plan.Status.CLOSED);
+        loaded.getCharacteristics().add("changed");
+
+        Plan read = get().get();
+
+        assertNotSame(loaded, read);
+        assertEquals(Plan.Status.PUBLISHED, read.getStatus());
+        assertEquals(Collections.singletonList("characteristic"), read.getCharacteristics());
+        assertNotSame(read, get().get());
+    }
+
+    @Test
+    public void shouldInvalidateBeforeAndAfterWrite() throws TechnicalException {
+        when(node.id()).thenReturn("node1");
+        get();
+
+        cacheManager.write(CACHE, PLAN_ID, () -> {
+            // The entry is already evicted when the repository is called
+            assertEquals(2, get().get().getOrder());
+            return null;
+        });
+
+        // And the value read during the write has not been kept
+        get();
+        assertEquals(3, loads.get());
+
+        // The other nodes are asked to invalidate the entry before and after the write
+        ArgumentCaptor<Command> command = ArgumentCaptor.forClass(Command.class);
+        verify(commandRepository, times(2)).create(command.capture());
+        command.getAllValues().forEach(sent -> {
+            assertEquals(CACHE + ":" + PLAN_ID, sent.getContent());
+            assertEquals(Collections.singletonList(RepositoryCacheManager.CACHE_INVALIDATION_TAG), sent.getTags());
+        });
+        assertNotEquals(command.getAllValues().get(0).getId(), command.getAllValues().get(1).getId());
+    }
+
+    @Test
+    public void shouldInvalidateWhenWriteFails() throws TechnicalException {
+        when(node.id()).thenReturn("node1");
+        get();
+
+        try {
+            cacheManager.write(CACHE, PLAN_ID, () -> {
+                throw new TechnicalException("error");
+            });
+            fail("The write error should be thrown");
+        } catch (TechnicalException te) {
+            // expected
+        }
+
+        get();
+        assertEquals(2, loads.get());
+        verify(commandRepository, times(2)).create(any(Command.class));
+    }
+
+    @Test
+    public void shouldInvalidateOnRemoteCommand() throws TechnicalException {
+        when(node.id()).thenReturn("node1");
+        get();
+
+        Command command = new Command();
+        command.setFrom("node2");
+        command.setContent(CACHE + ":" + PLAN_ID);
+        when(commandRepository.search(any())).thenReturn(Collections.singletonList(command));
+
+        cacheManager.processRemoteInvalidations();
+        get();
+
+        assertEquals(2, loads.get());
+        assertEquals(Collections.singletonList("node1"), command.getAcknowledgments());
+        verify(commandRepository).update(command);
+    }
+
+    @Test
+    public void shouldBypassCacheWhenInvalidationsAreNotChecked() throws TechnicalException {
+        ReflectionTestUtils.setField(cacheManager, "lastInvalidationCheck", 0L);
+
+        get();
+        get();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldNotCacheWhenDisabled() throws TechnicalException {
+        ReflectionTestUtils.setField(cacheManager, "environment", new MockEnvironment());
+        cacheManager.afterPropertiesSet();
+
+        RepositoryCache<Plan> cache = cacheManager.getCache("other", Plan.class);
+        Plan plan = new Plan();
+        cache.get(PLAN_ID, () -> { loads.incrementAndGet(); return Optional.of(plan); });
+        cache.get(PLAN_ID, () -> { loads.incrementAndGet(); return Optional.of(plan); });
+
+        assertFalse(cache.isEnabled());
+        assertEquals(2, loads.get());
+    }
+
+    private Optional<Plan> get() throws TechnicalException {
+        return cacheManager.getCache(CACHE, Plan.class).get(PLAN_ID, () -> {
+            Plan plan = new Plan();
+            plan.setId(PLAN_ID);
+            plan.setName("v1");
+            plan.setStatus(Plan.Status.PUBLISHED);
+            plan.setCharacteristics(new ArrayList<>(Collections.singletonList("characteristic")));
+            plan.setOrder(loads.incrementAndGet());
+            return Optional.of(plan);
+        });
+    }
+}
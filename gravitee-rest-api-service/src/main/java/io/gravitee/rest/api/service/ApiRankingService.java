@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.rest.api.model.RatingSummaryEntity;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rankings of the APIs of the current environment, used to build the categories of the portal catalog (starred,
+ * trendings, featured).
+ *
+ * Rankings are computed for all the APIs at once and refreshed periodically, they may not reflect the latest ratings
+ * or subscriptions.
+ *
+ * @author GraviteeSource Team
+ */
+public interface ApiRankingService {
+
+    /**
+     * @return the rating summaries of the APIs rated at least once, by API id
+     */
+    Map<String, RatingSummaryEntity> findRatingSummaries();
+
+    /**
+     * @return the number of subscriptions of the APIs subscribed at least once, by API id
+     */
+    Map<String, Long> findSubscriptionCounts();
+
+    /**
+     * @return the ids of the featured APIs, in the order defined by the administrator
+     */
+    List<String> findFeaturedApis();
+}
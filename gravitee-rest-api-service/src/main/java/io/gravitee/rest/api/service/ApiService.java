@@ -15,9 +15,12 @@
  */
 package io.gravitee.rest.api.service;
 
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.rest.api.model.*;
 import io.gravitee.rest.api.model.api.*;
 import io.gravitee.rest.api.model.api.header.ApiHeaderEntity;
+import io.gravitee.rest.api.model.common.Pageable;
+import io.gravitee.rest.api.model.common.Sortable;
 import io.gravitee.repository.exceptions.TechnicalException;
 
 import java.util.*;
@@ -113,6 +116,23 @@ public interface ApiService {
 
     Collection<ApiEntity> search(String query, Map<String, Object> filters) throws TechnicalException;
 
+    /**
+     * Search for APIs using the search engine, APIs being ordered by relevance. Only the APIs of the requested page
+     * are loaded, the total being the number of matching APIs.
+     */
+    Page<ApiEntity> search(String query, Map<String, Object> filters, Pageable pageable) throws TechnicalException;
+
+    /**
+     * Search for APIs to be listed: APIs are sorted and paginated without loading their definition and picture, only
+     * the APIs of the requested page are enriched with the fields coming from their definition (virtual hosts, tags).
+     */
+    Page<ApiEntity> searchListItems(ApiQuery query, Sortable sortable, Pageable pageable);
+
+    /**
+     * Same as {@link #searchListItems(ApiQuery, Sortable, Pageable)} but for the APIs visible by the given user.
+     */
+    Page<ApiEntity> findListItemsByUser(String userId, ApiQuery query, Sortable sortable, Pageable pageable);
+
     List<ApiHeaderEntity> getPortalHeaders(String apiId);
 
     ApiEntity askForReview(String apiId, String userId, ReviewEntity reviewEntity);
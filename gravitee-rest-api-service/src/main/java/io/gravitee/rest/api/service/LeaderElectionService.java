@@ -0,0 +1,34 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+/**
+ * Elect a single management node to run a background task (subscriptions expiry, ...) when several nodes share
+ * the same repository.
+ *
+ * @author GraviteeSource Team
+ */
+public interface LeaderElectionService {
+
+    /**
+     * Check if the current node is the leader for the given task. The lease of the task is acquired if no other node
+     * holds it, and renewed if the current node already holds it.
+     *
+     * @param task the name of the task
+     * @return <code>true</code> if the current node must run the task
+     */
+    boolean isLeader(String task);
+}
@@ -20,6 +20,9 @@ import io.gravitee.rest.api.model.log.ApiRequest;
 import io.gravitee.rest.api.model.log.ApplicationRequest;
 import io.gravitee.rest.api.model.log.SearchLogResponse;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
@@ -31,4 +34,15 @@ public interface LogsService {
     ApiRequest findApiLog(String id, Long timestamp);
     ApplicationRequest findApplicationLog(String id, Long timestamp);
     String exportAsCsv(SearchLogResponse searchLogResponse);
+
+    /**
+     * Write the logs of an API as CSV, logs being read and written by chunks so that exports of any size are done
+     * with a constant memory.
+     */
+    void exportApiLogsAsCsv(String api, LogQuery query, OutputStream output) throws IOException;
+
+    /**
+     * Same as {@link #exportApiLogsAsCsv(String, LogQuery, OutputStream)} for the logs of an application.
+     */
+    void exportApplicationLogsAsCsv(String application, LogQuery query, OutputStream output) throws IOException;
 }
@@ -15,6 +15,7 @@
  */
 package io.gravitee.rest.api.service;
 
+import io.gravitee.repository.management.model.MembershipReferenceType;
 import io.gravitee.rest.api.model.permissions.RolePermission;
 import io.gravitee.rest.api.model.permissions.RolePermissionAction;
 
@@ -25,4 +26,16 @@ import io.gravitee.rest.api.model.permissions.RolePermissionAction;
 public interface PermissionService {
 
     boolean hasPermission(RolePermission permission, String referenceId, RolePermissionAction... acls);
+
+    /**
+     * Check a permission of the given user by using its cached permission matrix.
+     * The permissions of API and application members are merged with the ones inherited from their groups.
+     */
+    boolean hasPermission(String userId, RolePermission permission, String referenceId, RolePermissionAction... acls);
+
+    void invalidatePermissions(String userId);
+
+    void invalidatePermissions(MembershipReferenceType referenceType, String referenceId);
+
+    void invalidateAllPermissions();
 }
@@ -19,7 +19,9 @@ import io.gravitee.common.data.domain.Page;
 import io.gravitee.repository.management.api.search.Pageable;
 import io.gravitee.rest.api.model.*;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Azize ELAMRANI (azize at graviteesource.com)
@@ -39,6 +41,11 @@ public interface RatingService {
 
     RatingSummaryEntity findSummaryByApi(String api);
 
+    /**
+     * @return the rating summaries of the given APIs, by API id
+     */
+    Map<String, RatingSummaryEntity> findSummariesByApis(Collection<String> apis);
+
     RatingEntity findByApiForConnectedUser(String api);
 
     RatingEntity update(UpdateRatingEntity rating);
@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.healthcheck;
+
+import io.gravitee.node.api.healthcheck.Probe;
+import io.gravitee.node.api.healthcheck.Result;
+import io.gravitee.rest.api.service.spring.MonitoredTaskExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Report the queue depth and latencies of the executors used by the asynchronous tasks.
+ *
+ * A full queue does not make the node unhealthy: new tasks are then run by the calling threads, or wait for room in
+ * the queue of an ordered executor, which is slower but still working.
+ *
+ * @author GraviteeSource Team
+ */
+public class AsyncExecutorsProbe implements Probe {
+
+    @Autowired
+    private List<MonitoredTaskExecutor> executors;
+
+    @Override
+    public String id() {
+        return "async-executors";
+    }
+
+    @Override
+    public CompletableFuture<Result> check() {
+        final String stats = executors.stream()
+                .map(executor -> String.format("%s: queued=%d/%d, active=%d, completed=%d, caller-runs=%d, blocked=%d, wait=%dms, execution=%dms",
+                        executor.getName(), executor.getQueueDepth(), executor.getQueueSize(), executor.getActiveCount(),
+                        executor.getCompletedTasks(), executor.getCallerRuns(), executor.getBlockedSubmissions(),
+                        executor.getAverageWaitTime(), executor.getAverageExecutionTime()))
+                .collect(Collectors.joining(", "));
+
+        return CompletableFuture.completedFuture(Result.healthy(stats));
+    }
+}
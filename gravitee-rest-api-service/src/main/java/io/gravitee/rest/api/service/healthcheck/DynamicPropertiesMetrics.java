@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.healthcheck;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The pollers of the dynamic properties of the deployed APIs, registered by the dynamic properties service so that
+ * their latencies and skipped ticks can be reported.
+ *
+ * @author GraviteeSource Team
+ */
+public class DynamicPropertiesMetrics {
+
+    private final Map<String, Poller> pollers = new ConcurrentHashMap<>();
+
+    private volatile boolean leader;
+
+    public void register(String api, Poller poller) {
+        pollers.put(api, poller);
+    }
+
+    public void unregister(String api, Poller poller) {
+        pollers.remove(api, poller);
+    }
+
+    /**
+     * @return the registered pollers, by API id.
+     */
+    public Map<String, Poller> getPollers() {
+        return new TreeMap<>(pollers);
+    }
+
+    public boolean isLeader() {
+        return leader;
+    }
+
+    public void setLeader(boolean leader) {
+        this.leader = leader;
+    }
+
+    public interface Poller {
+
+        long getPolls();
+
+        long getSkips();
+
+        /**
+         * @return duration of the last poll, in milliseconds.
+         */
+        long getLastLatency();
+
+        /**
+         * @return average duration of the polls, in milliseconds.
+         */
+        long getAverageLatency();
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.healthcheck;
+
+import io.gravitee.node.api.healthcheck.Probe;
+import io.gravitee.node.api.healthcheck.Result;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Report the latencies and the skipped ticks of the dynamic properties pollers, by API.
+ *
+ * Ticks are skipped when the previous poll of the API is still running, or when another node is polling.
+ *
+ * @author GraviteeSource Team
+ */
+public class DynamicPropertiesProbe implements Probe {
+
+    @Autowired
+    private DynamicPropertiesMetrics metrics;
+
+    @Override
+    public String id() {
+        return "dynamic-properties";
+    }
+
+    @Override
+    public CompletableFuture<Result> check() {
+        final String pollers = metrics.getPollers().entrySet().stream()
+                .map(entry -> String.format("%s: polls=%d, skipped=%d, last=%dms, average=%dms",
+                        entry.getKey(), entry.getValue().getPolls(), entry.getValue().getSkips(),
+                        entry.getValue().getLastLatency(), entry.getValue().getAverageLatency()))
+                .collect(Collectors.joining(", "));
+
+        return CompletableFuture.completedFuture(Result.healthy(
+                String.format("leader=%b, apis=%d", metrics.isLeader(), metrics.getPollers().size())
+                        + (pollers.isEmpty() ? "" : ", " + pollers)));
+    }
+}
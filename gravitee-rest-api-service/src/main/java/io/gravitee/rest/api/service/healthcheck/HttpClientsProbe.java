@@ -0,0 +1,51 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.healthcheck;
+
+import io.gravitee.node.api.healthcheck.Probe;
+import io.gravitee.node.api.healthcheck.Result;
+import io.gravitee.rest.api.service.vertx.HttpClientRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Report the requests sent and the connections opened by the HTTP clients used to call external services, by origin.
+ *
+ * @author GraviteeSource Team
+ */
+public class HttpClientsProbe implements Probe {
+
+    @Autowired
+    private HttpClientRegistry httpClientRegistry;
+
+    @Override
+    public String id() {
+        return "http-clients";
+    }
+
+    @Override
+    public CompletableFuture<Result> check() {
+        final String stats = httpClientRegistry.stats().entrySet().stream()
+                .map(entry -> String.format("%s: requests=%d, connections=%d, open=%d",
+                        entry.getKey(), entry.getValue().getRequests(), entry.getValue().getConnections(),
+                        entry.getValue().getOpenConnections()))
+                .collect(Collectors.joining(", "));
+
+        return CompletableFuture.completedFuture(Result.healthy(stats));
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.healthcheck;
+
+import io.gravitee.node.api.healthcheck.Probe;
+import io.gravitee.node.api.healthcheck.Result;
+import io.gravitee.rest.api.service.impl.search.lucene.SearchEngineIndexer;
+import io.gravitee.rest.api.service.impl.search.lucene.SearchEngineMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Report the size of the search index, its pending changes, and the durations of its commits and searcher refreshes.
+ *
+ * @author GraviteeSource Team
+ */
+public class SearchEngineProbe implements Probe {
+
+    @Autowired
+    private SearchEngineIndexer indexer;
+
+    @Autowired
+    private SearchEngineMetrics metrics;
+
+    @Override
+    public String id() {
+        return "search-engine";
+    }
+
+    @Override
+    public CompletableFuture<Result> check() {
+        final String stats = String.format("documents=%d, size=%d bytes, pending=%d, commits=%d, committed=%d, last-commit=%dms, refreshes=%d, last-refresh=%dms, average-refresh=%dms",
+                metrics.getIndexedDocuments(), metrics.getIndexSize(), indexer.getPendingDocuments(),
+                metrics.getCommits(), metrics.getCommittedDocuments(), metrics.getLastCommitDuration(),
+                metrics.getRefreshes(), metrics.getLastRefreshDuration(), metrics.getAverageRefreshDuration());
+
+        return CompletableFuture.completedFuture(Result.healthy(stats));
+    }
+}
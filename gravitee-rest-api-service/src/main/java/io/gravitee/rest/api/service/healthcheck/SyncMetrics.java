@@ -0,0 +1,71 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.healthcheck;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters about the synchronization of the APIs and dictionaries deployed on this node with the events of the
+ * management repository.
+ *
+ * @author GraviteeSource Team
+ */
+public class SyncMetrics {
+
+    private final AtomicLong synchronizations = new AtomicLong();
+    private final AtomicLong processedEvents = new AtomicLong();
+
+    private volatile long lastDuration = -1;
+    private volatile long lastLag = -1;
+
+    public void synchronization(long duration) {
+        synchronizations.incrementAndGet();
+        lastDuration = duration;
+    }
+
+    public void processed(long lag) {
+        processedEvents.incrementAndGet();
+        if (lag >= 0) {
+            lastLag = lag;
+        }
+    }
+
+    public long getSynchronizations() {
+        return synchronizations.get();
+    }
+
+    /**
+     * @return the number of events processed since the node started.
+     */
+    public long getProcessedEvents() {
+        return processedEvents.get();
+    }
+
+    /**
+     * @return the duration of the last synchronization, in milliseconds, or -1 before the first one.
+     */
+    public long getLastDuration() {
+        return lastDuration;
+    }
+
+    /**
+     * @return the delay between the creation of the last processed event and its processing, in milliseconds, or -1
+     * before the first one.
+     */
+    public long getLastLag() {
+        return lastLag;
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.healthcheck;
+
+import io.gravitee.node.api.healthcheck.Probe;
+import io.gravitee.node.api.healthcheck.Result;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Report the number of synchronizations and processed events, the duration of the last synchronization and the lag
+ * of the last processed event.
+ *
+ * A late synchronization does not make the node unhealthy: the events are processed during the next one.
+ *
+ * @author GraviteeSource Team
+ */
+public class SyncProbe implements Probe {
+
+    @Autowired
+    private SyncMetrics metrics;
+
+    @Override
+    public String id() {
+        return "sync";
+    }
+
+    @Override
+    public CompletableFuture<Result> check() {
+        final String stats = String.format("synchronizations=%d, processed=%d, last-duration=%dms, last-lag=%dms",
+                metrics.getSynchronizations(), metrics.getProcessedEvents(), metrics.getLastDuration(),
+                metrics.getLastLag());
+
+        return CompletableFuture.completedFuture(Result.healthy(stats));
+    }
+}
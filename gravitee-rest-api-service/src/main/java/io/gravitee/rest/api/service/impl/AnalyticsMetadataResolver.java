@@ -0,0 +1,241 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.ApplicationRepository;
+import io.gravitee.repository.management.api.PlanRepository;
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.model.ApplicationStatus;
+import io.gravitee.repository.management.model.Plan;
+import io.gravitee.rest.api.model.TenantEntity;
+import io.gravitee.rest.api.service.TenantService;
+import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the metadata (name, version, deletion status...) of the APIs, applications, plans and tenants referenced
+ * by analytics, logs and audits.
+ *
+ * Metadata are loaded by batch, with one query by type of entity, and kept for a short time
+ * (<code>management.analytics.metadata.cache.ttl</code> seconds) as dashboards query the same entities again and again.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class AnalyticsMetadataResolver implements InitializingBean {
+
+    private final Logger logger = LoggerFactory.getLogger(AnalyticsMetadataResolver.class);
+
+    private static final String UNKNOWN_API = "1";
+    private static final String APPLICATION_KEYLESS = "1";
+
+    private static final String API_PREFIX = "api:";
+    private static final String APPLICATION_PREFIX = "application:";
+    private static final String PLAN_PREFIX = "plan:";
+    private static final String TENANT_PREFIX = "tenant:";
+
+    @Autowired
+    private ApiRepository apiRepository;
+
+    @Autowired
+    private ApplicationRepository applicationRepository;
+
+    @Autowired
+    private PlanRepository planRepository;
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Value("${management.analytics.metadata.cache.ttl:30}")
+    private long cacheTtl;
+
+    @Value("${management.analytics.metadata.cache.max_size:10000}")
+    private long cacheMaxSize;
+
+    private Cache<String, Map<String, String>> metadata;
+
+    @Override
+    public void afterPropertiesSet() {
+        metadata = CacheBuilder
+                .newBuilder()
+                .expireAfterWrite(cacheTtl, TimeUnit.SECONDS)
+                .maximumSize(cacheMaxSize)
+                .build();
+    }
+
+    public Map<String, Map<String, String>> getApisMetadata(Collection<String> apis) {
+        return resolve(API_PREFIX, apis, missing -> {
+            Map<String, Map<String, String>> resolved = new HashMap<>();
+            apiRepository.search(
+                    new ApiCriteria.Builder().ids(missing.toArray(new String[0])).build(),
+                    new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build())
+                    .forEach(api -> {
+                        Map<String, String> apiMetadata = new HashMap<>();
+                        apiMetadata.put("name", api.getName());
+                        apiMetadata.put("version", api.getVersion());
+                        resolved.put(api.getId(), apiMetadata);
+                    });
+
+            missing.stream().filter(api -> !resolved.containsKey(api)).forEach(api -> {
+                Map<String, String> apiMetadata = new HashMap<>();
+                apiMetadata.put("deleted", "true");
+                apiMetadata.put("name", UNKNOWN_API.equals(api) ? "Unknown API (not found)" : "Deleted API");
+                resolved.put(api, apiMetadata);
+            });
+            return resolved;
+        });
+    }
+
+    public Map<String, Map<String, String>> getApplicationsMetadata(Collection<String> applications) {
+        return resolve(APPLICATION_PREFIX, applications, missing -> {
+            Map<String, Map<String, String>> resolved = new HashMap<>();
+            applicationRepository.findByIds(new ArrayList<>(missing)).forEach(application -> {
+                Map<String, String> applicationMetadata = new HashMap<>();
+                applicationMetadata.put("name", application.getName());
+                if (ApplicationStatus.ARCHIVED.equals(application.getStatus())) {
+                    applicationMetadata.put("deleted", "true");
+                }
+                resolved.put(application.getId(), applicationMetadata);
+            });
+
+            missing.stream().filter(application -> !resolved.containsKey(application)).forEach(application -> {
+                Map<String, String> applicationMetadata = new HashMap<>();
+                applicationMetadata.put("deleted", "true");
+                applicationMetadata.put("name", APPLICATION_KEYLESS.equals(application) ?
+                        "Unknown application (keyless)" : "Deleted application");
+                resolved.put(application, applicationMetadata);
+            });
+            return resolved;
+        });
+    }
+
+    /**
+     * Resolve plans which may belong to any API: plans can not be loaded by ids, so each missing plan is loaded on its
+     * own, once, then served from the cache. Prefer {@link #getPlansMetadata(Collection, Collection)} when the APIs
+     * are known.
+     */
+    public Map<String, Map<String, String>> getPlansMetadata(Collection<String> plans) {
+        return getPlansMetadata(plans, Collections.emptySet());
+    }
+
+    /**
+     * Same as {@link #getPlansMetadata(Collection)} for plans known to belong to the given APIs: plans can not be
+     * loaded by ids, so the plans of each API are loaded at once, and only the other plans are loaded one by one.
+     */
+    public Map<String, Map<String, String>> getPlansMetadata(Collection<String> plans, Collection<String> apis) {
+        return resolve(PLAN_PREFIX, plans, missing -> {
+            Map<String, Map<String, String>> resolved = new HashMap<>();
+            for (String api : apis) {
+                if (resolved.size() == missing.size()) {
+                    break;
+                }
+                if (api != null) {
+                    planRepository.findByApi(api).stream()
+                            .filter(plan -> missing.contains(plan.getId()))
+                            .forEach(plan -> resolved.put(plan.getId(), getPlanMetadata(plan.getName())));
+                }
+            }
+
+            for (String plan : missing) {
+                if (!resolved.containsKey(plan)) {
+                    resolved.put(plan, getPlanMetadata(planRepository.findById(plan)
+                            .map(Plan::getName)
+                            .orElse(null)));
+                }
+            }
+            return resolved;
+        });
+    }
+
+    private static Map<String, String> getPlanMetadata(String name) {
+        Map<String, String> planMetadata = new HashMap<>();
+        if (name == null) {
+            planMetadata.put("deleted", "true");
+            planMetadata.put("name", "Deleted plan");
+        } else {
+            planMetadata.put("name", name);
+        }
+        return planMetadata;
+    }
+
+    public Map<String, Map<String, String>> getTenantsMetadata(Collection<String> tenants) {
+        return resolve(TENANT_PREFIX, tenants, missing -> {
+            Map<String, Map<String, String>> resolved = new HashMap<>();
+            for (TenantEntity tenant : tenantService.findAll()) {
+                if (missing.contains(tenant.getId())) {
+                    resolved.put(tenant.getId(), Collections.singletonMap("name", tenant.getName()));
+                }
+            }
+
+            missing.stream().filter(tenant -> !resolved.containsKey(tenant)).forEach(tenant -> {
+                Map<String, String> tenantMetadata = new HashMap<>();
+                tenantMetadata.put("deleted", "true");
+                tenantMetadata.put("name", "Deleted tenant");
+                resolved.put(tenant, tenantMetadata);
+            });
+            return resolved;
+        });
+    }
+
+    private Map<String, Map<String, String>> resolve(String prefix, Collection<String> ids, Loader loader) {
+        final Map<String, Map<String, String>> resolved = new HashMap<>();
+        final Set<String> missing = new HashSet<>();
+
+        for (String id : ids) {
+            if (id != null) {
+                Map<String, String> cached = metadata.getIfPresent(prefix + id);
+                if (cached == null) {
+                    missing.add(id);
+                } else {
+                    resolved.put(id, new HashMap<>(cached));
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            try {
+                loader.load(missing).forEach((id, loaded) -> {
+                    metadata.put(prefix + id, loaded);
+                    resolved.put(id, new HashMap<>(loaded));
+                });
+            } catch (TechnicalException ex) {
+                logger.error("An error occurs while trying to resolve analytics metadata", ex);
+                throw new TechnicalManagementException("An error occurs while trying to resolve analytics metadata", ex);
+            }
+        }
+
+        return resolved;
+    }
+
+    @FunctionalInterface
+    private interface Loader {
+        Map<String, Map<String, String>> load(Set<String> ids) throws TechnicalException;
+    }
+}
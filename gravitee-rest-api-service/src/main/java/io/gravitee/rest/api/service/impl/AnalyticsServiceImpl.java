@@ -25,16 +25,11 @@ import io.gravitee.repository.analytics.query.groupby.GroupByResponse;
 import io.gravitee.repository.analytics.query.response.histogram.Data;
 import io.gravitee.repository.analytics.query.response.histogram.DateHistogramResponse;
 import io.gravitee.repository.analytics.query.stats.StatsResponse;
-import io.gravitee.repository.management.model.ApplicationStatus;
-import io.gravitee.rest.api.model.ApplicationEntity;
-import io.gravitee.rest.api.model.PlanEntity;
-import io.gravitee.rest.api.model.TenantEntity;
 import io.gravitee.rest.api.model.analytics.*;
 import io.gravitee.rest.api.model.analytics.query.*;
 import io.gravitee.rest.api.model.analytics.query.DateHistogramQuery;
-import io.gravitee.rest.api.model.api.ApiEntity;
-import io.gravitee.rest.api.service.*;
-import io.gravitee.rest.api.service.exceptions.*;
+import io.gravitee.rest.api.service.AnalyticsService;
+import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,23 +52,11 @@ public class AnalyticsServiceImpl implements AnalyticsService {
      */
     private final Logger logger = LoggerFactory.getLogger(AnalyticsServiceImpl.class);
 
-    private static final String UNKNOWN_API = "1";
-    private static final String APPLICATION_KEYLESS = "1";
-
     @Autowired
     private AnalyticsRepository analyticsRepository;
 
     @Autowired
-    private ApiService apiService;
-
-    @Autowired
-    private ApplicationService applicationService;
-
-    @Autowired
-    private PlanService planService;
-
-    @Autowired
-    private TenantService tenantService;
+    private AnalyticsMetadataResolver metadataResolver;
 
     @Override
     public StatsAnalytics execute(final StatsQuery query) {
@@ -167,7 +150,7 @@ public class AnalyticsServiceImpl implements AnalyticsService {
             }
 
             GroupByResponse response = analyticsRepository.query(queryBuilder.build());
-            return convert(response);
+            return convert(response, query);
         } catch (AnalyticsException ae) {
             logger.error("Unable to calculate analytics: ", ae);
             throw new TechnicalManagementException("Unable to calculate analytics", ae);
@@ -206,30 +189,13 @@ public class AnalyticsServiceImpl implements AnalyticsService {
             childBuckets.add(convertBucket(timestamps, from, interval, childBucket));
         }
 
+        // Prepare metadata
         if (analyticsBucket.getField().equals("application")) {
-            // Prepare metadata
-            Map<String, Map<String, String>> metadata = new HashMap<>();
-            bucket.data().keySet().stream().forEach(app -> {
-                metadata.put(app, getApplicationMetadata(app));
-            });
-
-            analyticsBucket.setMetadata(metadata);
+            analyticsBucket.setMetadata(metadataResolver.getApplicationsMetadata(bucket.data().keySet()));
         } else if (analyticsBucket.getField().equals("api")) {
-            // Prepare metadata
-            Map<String, Map<String, String>> metadata = new HashMap<>();
-            bucket.data().keySet().stream().forEach(api -> {
-                metadata.put(api, getAPIMetadata(api));
-            });
-
-            analyticsBucket.setMetadata(metadata);
+            analyticsBucket.setMetadata(metadataResolver.getApisMetadata(bucket.data().keySet()));
         } else if (analyticsBucket.getField().equals("tenant")) {
-            // Prepare metadata
-            Map<String, Map<String, String>> metadata = new HashMap<>();
-            bucket.data().keySet().stream().forEach(tenant -> {
-                metadata.put(tenant, getTenantMetadata(tenant));
-            });
-
-            analyticsBucket.setMetadata(metadata);
+            analyticsBucket.setMetadata(metadataResolver.getTenantsMetadata(bucket.data().keySet()));
         }
 
         for (Map.Entry<String, List<Data>> dataBucket : bucket.data().entrySet()) {
@@ -274,7 +240,7 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         return hitsAnalytics;
     }
 
-    private TopHitsAnalytics convert(GroupByResponse groupByResponse) {
+    private TopHitsAnalytics convert(GroupByResponse groupByResponse, GroupByQuery query) {
         TopHitsAnalytics topHitsAnalytics = new TopHitsAnalytics();
 
         // Set results
@@ -289,20 +255,18 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 
         if (fieldName != null && !fieldName.isEmpty()) {
 
-            // Prepare metadata
+            // Prepare metadata, resolved at once for all the keys
             Map<String, Map<String, String>> metadata = new HashMap<>();
             if (topHitsAnalytics.getValues() != null) {
-                for (String key : topHitsAnalytics.getValues().keySet()) {
-                    switch(fieldName) {
-                        case "api": metadata.put(key, getAPIMetadata(key)); break;
-                        case "application": metadata.put(key, getApplicationMetadata(key)); break;
-                        case "plan": metadata.put(key, getPlanMetadata(key)); break;
-                        case "tenant": metadata.put(key, getTenantMetadata(key)); break;
-                        case "geoip.country_iso_code": metadata.put(key, getCountryName(key)); break;
-                        default:
-                            metadata.put(key, getGenericMetadata(key)); break;
-
-                    }
+                final Set<String> keys = topHitsAnalytics.getValues().keySet();
+                switch(fieldName) {
+                    case "api": metadata.putAll(metadataResolver.getApisMetadata(keys)); break;
+                    case "application": metadata.putAll(metadataResolver.getApplicationsMetadata(keys)); break;
+                    case "plan": metadata.putAll(metadataResolver.getPlansMetadata(keys, getApis(query))); break;
+                    case "tenant": metadata.putAll(metadataResolver.getTenantsMetadata(keys)); break;
+                    case "geoip.country_iso_code": keys.forEach(key -> metadata.put(key, getCountryName(key))); break;
+                    default:
+                        keys.forEach(key -> metadata.put(key, getGenericMetadata(key))); break;
                 }
             }
 
@@ -312,73 +276,15 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         return topHitsAnalytics;
     }
 
-    private Map<String, String> getAPIMetadata(String api) {
-        Map<String, String> metadata = new HashMap<>();
-
-        try {
-            ApiEntity apiEntity = apiService.findById(api);
-            metadata.put("name", apiEntity.getName());
-            metadata.put("version", apiEntity.getVersion());
-        } catch (ApiNotFoundException anfe) {
-            metadata.put("deleted", "true");
-            metadata.put("name", "Deleted API");
-            if (api.equals(UNKNOWN_API)) {
-                metadata.put("name", "Unknown API (not found)");
-            } else {
-                metadata.put("name", "Deleted API");
-            }
-        }
-
-        return metadata;
-    }
-
-    private Map<String, String> getApplicationMetadata(String application) {
-        Map<String, String> metadata = new HashMap<>();
-
-        try {
-            ApplicationEntity applicationEntity = applicationService.findById(application);
-            metadata.put("name", applicationEntity.getName());
-            if (ApplicationStatus.ARCHIVED.toString().equals(applicationEntity.getStatus())) {
-                metadata.put("deleted", "true");
-            }
-        } catch (ApplicationNotFoundException anfe) {
-            metadata.put("deleted", "true");
-            if (application.equals(APPLICATION_KEYLESS)) {
-                metadata.put("name", "Unknown application (keyless)");
-            } else {
-                metadata.put("name", "Deleted application");
-            }
-        }
-
-        return metadata;
-    }
-
-    private Map<String, String> getPlanMetadata(String plan) {
-        Map<String, String> metadata = new HashMap<>();
-
-        try {
-            PlanEntity planEntity = planService.findById(plan);
-            metadata.put("name", planEntity.getName());
-        } catch (PlanNotFoundException anfe) {
-            metadata.put("deleted", "true");
-            metadata.put("name", "Deleted plan");
-        }
-
-        return metadata;
-    }
-
-    private Map<String, String> getTenantMetadata(String tenant) {
-        Map<String, String> metadata = new HashMap<>();
-
-        try {
-            TenantEntity tenantEntity = tenantService.findById(tenant);
-            metadata.put("name", tenantEntity.getName());
-        } catch (TenantNotFoundException tnfe) {
-            metadata.put("deleted", "true");
-            metadata.put("name", "Deleted tenant");
+    /**
+     * @return the API the analytics are restricted to, which the plans of an API dashboard belong to. The plans of the
+     * other dashboards (platform, application) may belong to any API: they are loaded one by one, once, then cached.
+     */
+    private static Set<String> getApis(GroupByQuery query) {
+        if ("api".equals(query.getRootField()) && query.getRootIdentifier() != null) {
+            return Collections.singleton(query.getRootIdentifier());
         }
-
-        return metadata;
+        return Collections.emptySet();
     }
 
     private Map<String, String> getCountryName(String country_iso) {
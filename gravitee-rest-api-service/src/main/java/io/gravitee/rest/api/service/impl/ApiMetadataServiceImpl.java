@@ -65,6 +65,8 @@ public class ApiMetadataServiceImpl implements ApiMetadataService {
 
     @Autowired
     private AuditService auditService;
+    @Autowired
+    private PageTemplateCache pageTemplateCache;
 
     @Override
     public List<ApiMetadataEntity> findAllByApi(final String apiId) {
@@ -134,6 +136,7 @@ public class ApiMetadataServiceImpl implements ApiMetadataService {
         final ApiMetadataEntity apiMetadata = findByIdAndApi(metadataId, apiId);
         try {
             metadataRepository.delete(metadataId, apiMetadata.getApiId(), MetadataReferenceType.API);
+            pageTemplateCache.invalidate(apiMetadata.getApiId());
             // Audit
             auditService.createApiAuditLog(
                     apiId,
@@ -174,6 +177,7 @@ public class ApiMetadataServiceImpl implements ApiMetadataService {
             metadata.setCreatedAt(now);
             metadata.setUpdatedAt(now);
             metadataRepository.create(metadata);
+            pageTemplateCache.invalidate(metadataEntity.getApiId());
             // Audit
             auditService.createApiAuditLog(
                     apiEntity.getId(),
@@ -216,6 +220,7 @@ public class ApiMetadataServiceImpl implements ApiMetadataService {
             if (apiMetadata.isPresent()) {
                 metadata.setUpdatedAt(now);
                 savedMetadata = metadataRepository.update(metadata);
+                pageTemplateCache.invalidate(metadataEntity.getApiId());
                 // Audit
                 auditService.createApiAuditLog(
                         apiEntity.getId(),
@@ -228,6 +233,7 @@ public class ApiMetadataServiceImpl implements ApiMetadataService {
                 metadata.setCreatedAt(now);
                 metadata.setUpdatedAt(now);
                 savedMetadata = metadataRepository.create(metadata);
+                pageTemplateCache.invalidate(metadataEntity.getApiId());
                 // Audit
                 auditService.createApiAuditLog(
                         apiEntity.getId(),
@@ -0,0 +1,195 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.impl;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.SubscriptionRepository;
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.api.search.SubscriptionCriteria;
+import io.gravitee.repository.management.api.search.builder.PageableBuilder;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Subscription;
+import io.gravitee.rest.api.model.RatingSummaryEntity;
+import io.gravitee.rest.api.model.TopApiEntity;
+import io.gravitee.rest.api.service.ApiRankingService;
+import io.gravitee.rest.api.service.RatingService;
+import io.gravitee.rest.api.service.TopApiService;
+import io.gravitee.rest.api.service.common.GraviteeContext;
+import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
+import io.gravitee.rest.api.service.spring.AsyncConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.stream.Collectors.*;
+
+/**
+ * Rankings are computed by environment, with one query for the APIs and paginated queries for their subscriptions.
+ * They are computed again <code>management.apis.rankings.cache.ttl</code> seconds later, in background: the previous
+ * rankings are served meanwhile, so that only the first request of an environment waits for them.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class ApiRankingServiceImpl implements ApiRankingService, InitializingBean {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(ApiRankingServiceImpl.class);
+
+    /**
+     * Subscriptions are counted page by page, the repository can not count them by API.
+     */
+    private static final int SUBSCRIPTIONS_PAGE_SIZE = 1000;
+
+    @Autowired
+    private ApiRepository apiRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private TopApiService topApiService;
+
+    @Autowired
+    @Qualifier(AsyncConfiguration.DEFAULT_EXECUTOR)
+    private Executor executor;
+
+    @Value("${management.apis.rankings.cache.ttl:60}")
+    private long cacheTtl;
+
+    private LoadingCache<String, Rankings> rankings;
+
+    @Override
+    public void afterPropertiesSet() {
+        rankings = CacheBuilder
+                .newBuilder()
+                .refreshAfterWrite(cacheTtl, TimeUnit.SECONDS)
+                .build(CacheLoader.asyncReloading(new CacheLoader<String, Rankings>() {
+                    @Override
+                    public Rankings load(String environment) throws TechnicalException {
+                        // Reloads run on the executor, some of the services read the environment from the context
+                        final String currentEnvironment = GraviteeContext.getCurrentEnvironment();
+                        GraviteeContext.setCurrentEnvironment(environment);
+                        try {
+                            return compute(environment);
+                        } finally {
+                            GraviteeContext.setCurrentEnvironment(currentEnvironment);
+                        }
+                    }
+                }, executor));
+    }
+
+    @Override
+    public Map<String, RatingSummaryEntity> findRatingSummaries() {
+        return getRankings().ratings;
+    }
+
+    @Override
+    public Map<String, Long> findSubscriptionCounts() {
+        return getRankings().subscriptions;
+    }
+
+    @Override
+    public List<String> findFeaturedApis() {
+        return getRankings().featured;
+    }
+
+    private Rankings getRankings() {
+        try {
+            return rankings.getUnchecked(GraviteeContext.getCurrentEnvironment());
+        } catch (UncheckedExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            LOGGER.error("An error occurs while trying to compute API rankings", ex.getCause());
+            throw new TechnicalManagementException("An error occurs while trying to compute API rankings", ex.getCause());
+        }
+    }
+
+    private Rankings compute(String environment) throws TechnicalException {
+        LOGGER.debug("Compute API rankings of environment {}", environment);
+
+        final Set<String> apis = apiRepository.search(
+                new ApiCriteria.Builder().environment(environment).build(),
+                new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build())
+                .stream()
+                .map(Api::getId)
+                .collect(toSet());
+
+        final Map<String, RatingSummaryEntity> ratings = new HashMap<>();
+        if (ratingService.isEnabled()) {
+            ratingService.findSummariesByApis(apis).forEach((api, ratingSummary) -> {
+                if (ratingSummary.getNumberOfRatings() > 0) {
+                    ratings.put(api, ratingSummary);
+                }
+            });
+        }
+
+        final Map<String, Long> subscriptions = apis.isEmpty() ? emptyMap() : countSubscriptions(apis);
+
+        final List<String> featured = topApiService.findAll()
+                .stream()
+                .map(TopApiEntity::getApi)
+                .collect(toList());
+
+        return new Rankings(unmodifiableMap(ratings), unmodifiableMap(subscriptions), unmodifiableList(featured));
+    }
+
+    private Map<String, Long> countSubscriptions(Set<String> apis) throws TechnicalException {
+        final SubscriptionCriteria criteria = new SubscriptionCriteria.Builder().apis(apis).build();
+        final Map<String, Long> subscriptions = new HashMap<>();
+        List<Subscription> page;
+        int pageNumber = 0;
+        do {
+            page = subscriptionRepository.search(criteria,
+                    new PageableBuilder().pageNumber(pageNumber++).pageSize(SUBSCRIPTIONS_PAGE_SIZE).build())
+                    .getContent();
+            page.forEach(subscription -> subscriptions.merge(subscription.getApi(), 1L, Long::sum));
+        } while (page.size() == SUBSCRIPTIONS_PAGE_SIZE);
+        return subscriptions;
+    }
+
+    private static class Rankings {
+        private final Map<String, RatingSummaryEntity> ratings;
+        private final Map<String, Long> subscriptions;
+        private final List<String> featured;
+
+        private Rankings(Map<String, RatingSummaryEntity> ratings, Map<String, Long> subscriptions, List<String> featured) {
+            this.ratings = ratings;
+            this.subscriptions = subscriptions;
+            this.featured = featured;
+        }
+    }
+}
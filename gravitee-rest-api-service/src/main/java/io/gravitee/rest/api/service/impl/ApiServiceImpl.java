@@ -15,7 +15,10 @@
  */
 package io.gravitee.rest.api.service.impl;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -35,6 +38,8 @@ import io.gravitee.rest.api.model.alert.AlertReferenceType;
 import io.gravitee.rest.api.model.alert.AlertTriggerEntity;
 import io.gravitee.rest.api.model.api.*;
 import io.gravitee.rest.api.model.api.header.ApiHeaderEntity;
+import io.gravitee.rest.api.model.common.Pageable;
+import io.gravitee.rest.api.model.common.Sortable;
 import io.gravitee.rest.api.model.documentation.PageQuery;
 import io.gravitee.rest.api.model.notification.GenericNotificationConfigEntity;
 import io.gravitee.rest.api.model.parameters.Key;
@@ -74,6 +79,7 @@ import javax.xml.bind.DatatypeConverter;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.regex.Matcher;
@@ -169,6 +175,10 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
     private AlertService alertService;
     @Autowired
     private RoleService roleService;
+    @Autowired
+    private PermissionService permissionService;
+    @Autowired
+    private PageTemplateCache pageTemplateCache;
 
     private static final Pattern LOGGING_MAX_DURATION_PATTERN = Pattern.compile("(?<before>.*)\\#request.timestamp\\s*\\<\\=?\\s*(?<timestamp>\\d*)l(?<after>.*)");
     private static final String LOGGING_MAX_DURATION_CONDITION = "#request.timestamp <= %dl";
@@ -677,35 +687,13 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
         try {
             LOGGER.debug("Find APIs by user {}", userId);
 
-            //get all public apis
-            List<Api> publicApis = apiRepository.search(queryToCriteria(apiQuery).visibility(PUBLIC).build());
-
-            // get user apis
-            List<Api> userApis = emptyList();
-            final String[] userApiIds = membershipRepository
-                    .findByUserAndReferenceType(userId, MembershipReferenceType.API).stream()
-                    .map(Membership::getReferenceId)
-                    .toArray(String[]::new);
-            if (userApiIds.length > 0) {
-                userApis = apiRepository.search(queryToCriteria(apiQuery).ids(userApiIds).build());
-            }
-
-            // get user groups apis
-            List<Api> groupApis = emptyList();
-            final String[] groupIds = membershipRepository
-                    .findByUserAndReferenceType(userId, MembershipReferenceType.GROUP).stream()
-                    .filter(m -> m.getRoles().keySet().contains(RoleScope.API.getId()))
-                    .map(Membership::getReferenceId)
-                    .toArray(String[]::new);
-            if (groupIds.length > 0 && groupIds[0] != null) {
-                groupApis = apiRepository.search(queryToCriteria(apiQuery).groups(groupIds).build());
-            }
+            final List<List<Api>> userApis = findApisByUser(userId, apiQuery, apiRepository::search);
 
             // merge all apis
-            final Set<ApiEntity> apis = new HashSet<>(publicApis.size() + userApis.size() + groupApis.size());
-            apis.addAll(convert(publicApis));
-            apis.addAll(convert(userApis));
-            apis.addAll(convert(groupApis));
+            final Set<ApiEntity> apis = new HashSet<>();
+            for (List<Api> userApisPart : userApis) {
+                apis.addAll(convert(userApisPart));
+            }
             return filterApiByQuery(apis.stream(), apiQuery).collect(Collectors.toSet());
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to find APIs for user {}", userId, ex);
@@ -713,6 +701,38 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
         }
     }
 
+    /**
+     * Get the public APIs, the APIs of the user and the APIs of the groups of the user.
+     */
+    private List<List<Api>> findApisByUser(String userId, ApiQuery apiQuery, Function<ApiCriteria, List<Api>> searcher)
+            throws TechnicalException {
+        //get all public apis
+        List<Api> publicApis = searcher.apply(queryToCriteria(apiQuery).visibility(PUBLIC).build());
+
+        // get user apis
+        List<Api> userApis = emptyList();
+        final String[] userApiIds = membershipRepository
+                .findByUserAndReferenceType(userId, MembershipReferenceType.API).stream()
+                .map(Membership::getReferenceId)
+                .toArray(String[]::new);
+        if (userApiIds.length > 0) {
+            userApis = searcher.apply(queryToCriteria(apiQuery).ids(userApiIds).build());
+        }
+
+        // get user groups apis
+        List<Api> groupApis = emptyList();
+        final String[] groupIds = membershipRepository
+                .findByUserAndReferenceType(userId, MembershipReferenceType.GROUP).stream()
+                .filter(m -> m.getRoles().keySet().contains(RoleScope.API.getId()))
+                .map(Membership::getReferenceId)
+                .toArray(String[]::new);
+        if (groupIds.length > 0 && groupIds[0] != null) {
+            groupApis = searcher.apply(queryToCriteria(apiQuery).groups(groupIds).build());
+        }
+
+        return Arrays.asList(publicApis, userApis, groupApis);
+    }
+
     @Override
     public Set<ApiEntity> findPublishedByUser(String userId, ApiQuery apiQuery) {
         if(apiQuery == null) {
@@ -838,6 +858,11 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
                 }
 
                 Api updatedApi = apiRepository.update(api);
+                pageTemplateCache.invalidate(apiId);
+
+                if (!Objects.equals(apiToUpdate.getGroups(), updatedApi.getGroups())) {
+                    permissionService.invalidatePermissions(MembershipReferenceType.API, apiId);
+                }
 
                 // Audit
                 auditService.createApiAuditLog(
@@ -974,6 +999,8 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
 
                 // Delete API
                 apiRepository.delete(apiId);
+                permissionService.invalidatePermissions(MembershipReferenceType.API, apiId);
+                pageTemplateCache.invalidate(apiId);
                 // Delete top API
                 topApiService.delete(apiId);
                 // Delete alerts
@@ -1547,6 +1574,118 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
         }
     }
 
+    @Override
+    public io.gravitee.common.data.domain.Page<ApiEntity> searchListItems(final ApiQuery query, final Sortable sortable,
+                                                                           final Pageable pageable) {
+        try {
+            LOGGER.debug("Search API list items by {}", query);
+            final ApiFieldExclusionFilter exclusionFilter = listItemsExclusionFilter(query);
+            return toListItemsPage(singletonList(apiRepository.search(queryToCriteria(query).build(), exclusionFilter)),
+                    query, sortable, pageable);
+        } catch (TechnicalException ex) {
+            final String errorMessage = "An error occurs while trying to search for API list items: " + query;
+            LOGGER.error(errorMessage, ex);
+            throw new TechnicalManagementException(errorMessage, ex);
+        }
+    }
+
+    @Override
+    public io.gravitee.common.data.domain.Page<ApiEntity> findListItemsByUser(final String userId, final ApiQuery query,
+                                                                               final Sortable sortable, final Pageable pageable) {
+        try {
+            LOGGER.debug("Find API list items by user {}", userId);
+            final ApiFieldExclusionFilter exclusionFilter = listItemsExclusionFilter(query);
+            return toListItemsPage(findApisByUser(userId, query, criteria -> apiRepository.search(criteria, exclusionFilter)),
+                    query, sortable, pageable);
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to find API list items for user {}", userId, ex);
+            throw new TechnicalManagementException("An error occurs while trying to find API list items for user " + userId, ex);
+        }
+    }
+
+    /**
+     * The definition is only needed to filter by tag or context-path, the picture is never needed for a list.
+     */
+    private ApiFieldExclusionFilter listItemsExclusionFilter(ApiQuery query) {
+        if (requiresDefinition(query)) {
+            return new ApiFieldExclusionFilter.Builder().excludePicture().build();
+        }
+        return new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build();
+    }
+
+    private boolean requiresDefinition(ApiQuery query) {
+        return query != null && (query.getTag() != null || query.getContextPath() != null);
+    }
+
+    private io.gravitee.common.data.domain.Page<ApiEntity> toListItemsPage(List<List<Api>> apiLists, ApiQuery query,
+                                                                            Sortable sortable, Pageable pageable)
+            throws TechnicalException {
+        // merge all apis
+        final Map<String, Api> apis = new LinkedHashMap<>();
+        apiLists.forEach(apiList -> apiList.forEach(api -> apis.putIfAbsent(api.getId(), api)));
+
+        final Comparator<ApiEntity> comparator = listItemsComparator(sortable,
+                ApiEntity::getId, ApiEntity::getName, ApiEntity::getCreatedAt, ApiEntity::getUpdatedAt);
+        final int from = (pageable.getPageNumber() - 1) * pageable.getPageSize();
+
+        if (requiresDefinition(query)) {
+            // Definitions have been loaded to filter, so all APIs have to be converted
+            final List<ApiEntity> filteredApis = filterApiByQuery(
+                    convert(new ArrayList<>(apis.values()), this::setListItemDefinition).stream(), query)
+                    .sorted(comparator)
+                    .collect(toList());
+            final List<ApiEntity> content = filteredApis.subList(Math.min(from, filteredApis.size()),
+                    Math.min(from + pageable.getPageSize(), filteredApis.size()));
+            return new io.gravitee.common.data.domain.Page<>(new ArrayList<>(content), pageable.getPageNumber(),
+                    content.size(), filteredApis.size());
+        }
+
+        // Sort and paginate the light APIs, then convert only the APIs of the page
+        final List<Api> pageApis = apis.values()
+                .stream()
+                .sorted(listItemsComparator(sortable, Api::getId, Api::getName, Api::getCreatedAt, Api::getUpdatedAt))
+                .skip(from)
+                .limit(pageable.getPageSize())
+                .collect(toList());
+
+        final List<ApiEntity> content = convert(pageApis).stream().sorted(comparator).collect(toList());
+
+        // Then, load the definition of the APIs of the page only
+        if (!content.isEmpty()) {
+            final Map<String, ApiEntity> contentById = content.stream().collect(toMap(ApiEntity::getId, Function.identity()));
+            apiRepository.search(
+                    new ApiCriteria.Builder()
+                            .environment(GraviteeContext.getCurrentEnvironment())
+                            .ids(contentById.keySet().toArray(new String[0]))
+                            .build(),
+                    new ApiFieldExclusionFilter.Builder().excludePicture().build())
+                    .forEach(api -> {
+                        ApiEntity apiEntity = contentById.get(api.getId());
+                        if (apiEntity != null) {
+                            setListItemDefinition(apiEntity, api.getDefinition());
+                        }
+                    });
+        }
+
+        return new io.gravitee.common.data.domain.Page<>(content, pageable.getPageNumber(), content.size(), apis.size());
+    }
+
+    private <T> Comparator<T> listItemsComparator(Sortable sortable, Function<T, String> id, Function<T, String> name,
+                                                  Function<T, Date> createdAt, Function<T, Date> updatedAt) {
+        final Comparator<T> comparator;
+        final String field = sortable == null ? null : sortable.getField();
+        if ("created_at".equals(field)) {
+            comparator = comparing(createdAt, Comparator.nullsLast(Comparator.naturalOrder()));
+        } else if ("updated_at".equals(field)) {
+            comparator = comparing(updatedAt, Comparator.nullsLast(Comparator.naturalOrder()));
+        } else {
+            comparator = comparing(name, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+        }
+        final Comparator<T> orderedComparator = sortable == null || sortable.isAscOrder() ? comparator : comparator.reversed();
+        // Use the id as tie-breaker to get a stable pagination
+        return orderedComparator.thenComparing(id);
+    }
+
     @Override
     public Collection<ApiEntity> search(String query, Map<String, Object> filters) {
         Query<ApiEntity> apiQuery = QueryBuilder.create(ApiEntity.class)
@@ -1558,6 +1697,19 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
         return matchApis.getDocuments().stream().map(this::findById).collect(toList());
     }
 
+    @Override
+    public io.gravitee.common.data.domain.Page<ApiEntity> search(String query, Map<String, Object> filters, Pageable pageable) {
+        Query<ApiEntity> apiQuery = QueryBuilder.create(ApiEntity.class)
+                .setQuery(query)
+                .setFilters(filters)
+                .setPage(pageable)
+                .build();
+
+        SearchResult matchApis = searchEngineService.search(apiQuery);
+        final List<ApiEntity> content = matchApis.getDocuments().stream().map(this::findById).collect(toList());
+        return new io.gravitee.common.data.domain.Page<>(content, pageable.getPageNumber(), content.size(), matchApis.getHits());
+    }
+
     @Override
     public List<ApiHeaderEntity> getPortalHeaders(String apiId) {
             List<ApiHeaderEntity> entities = apiHeaderService.findAll();
@@ -1804,6 +1956,11 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
     }
 
     private Set<ApiEntity> convert(final List<Api> apis) throws TechnicalException {
+        return convert(apis, this::setDefinition);
+    }
+
+    private Set<ApiEntity> convert(final List<Api> apis, final BiConsumer<ApiEntity, String> definitionReader)
+            throws TechnicalException {
         if (apis == null || apis.isEmpty()) {
             return Collections.emptySet();
         }
@@ -1838,8 +1995,13 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
         userService.findByIds(memberships.stream().map(Membership::getUserId).collect(toList()))
                 .forEach(userEntity -> userIdToUserEntity.put(userEntity.getId(), userEntity));
 
+        // read the review parameter once for all the apis, WorkflowRepository can only find the workflows of one api
+        final boolean reviewEnabled = parameterService.findAsBoolean(Key.API_REVIEW_ENABLED);
+
         return streamApis
-                .map(publicApi -> this.convert(publicApi, userIdToUserEntity.get(apiToUser.get(publicApi.getId()))))
+                .map(publicApi -> this.convert(publicApi, userIdToUserEntity.get(apiToUser.get(publicApi.getId())),
+                        reviewEnabled ? workflowService.findByReferenceAndType(API, publicApi.getId(), REVIEW) : null,
+                        definitionReader))
                 .collect(toSet());
     }
 
@@ -1848,6 +2010,15 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
     }
 
     private ApiEntity convert(Api api, UserEntity primaryOwner) {
+        List<Workflow> workflows = null;
+        if (parameterService.findAsBoolean(Key.API_REVIEW_ENABLED)) {
+            workflows = workflowService.findByReferenceAndType(API, api.getId(), REVIEW);
+        }
+        return convert(api, primaryOwner, workflows, this::setDefinition);
+    }
+
+    private ApiEntity convert(Api api, UserEntity primaryOwner, List<Workflow> workflows,
+                              BiConsumer<ApiEntity, String> definitionReader) {
         ApiEntity apiEntity = new ApiEntity();
 
         apiEntity.setId(api.getId());
@@ -1856,25 +2027,7 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
         apiEntity.setCreatedAt(api.getCreatedAt());
         apiEntity.setGroups(api.getGroups());
 
-        if (api.getDefinition() != null) {
-            try {
-                io.gravitee.definition.model.Api apiDefinition = objectMapper.readValue(api.getDefinition(),
-                        io.gravitee.definition.model.Api.class);
-
-                apiEntity.setProxy(apiDefinition.getProxy());
-                apiEntity.setPaths(apiDefinition.getPaths());
-                apiEntity.setServices(apiDefinition.getServices());
-                apiEntity.setResources(apiDefinition.getResources());
-                apiEntity.setProperties(apiDefinition.getProperties());
-                apiEntity.setTags(apiDefinition.getTags());
-                if (apiDefinition.getPathMappings() != null) {
-                    apiEntity.setPathMappings(new HashSet<>(apiDefinition.getPathMappings().keySet()));
-                }
-                apiEntity.setResponseTemplates(apiDefinition.getResponseTemplates());
-            } catch (IOException ioe) {
-                LOGGER.error("Unexpected error while generating API definition", ioe);
-            }
-        }
+        definitionReader.accept(apiEntity, api.getDefinition());
         apiEntity.setUpdatedAt(api.getUpdatedAt());
         apiEntity.setVersion(api.getVersion());
         apiEntity.setDescription(api.getDescription());
@@ -1898,16 +2051,62 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
             apiEntity.setLifecycleState(io.gravitee.rest.api.model.api.ApiLifecycleState.valueOf(lifecycleState.name()));
         }
 
-        if (parameterService.findAsBoolean(Key.API_REVIEW_ENABLED)) {
-            final List<Workflow> workflows = workflowService.findByReferenceAndType(API, api.getId(), REVIEW);
-            if (workflows != null && !workflows.isEmpty()) {
-                apiEntity.setWorkflowState(WorkflowState.valueOf(workflows.get(0).getState()));
-            }
+        if (workflows != null && !workflows.isEmpty()) {
+            apiEntity.setWorkflowState(WorkflowState.valueOf(workflows.get(0).getState()));
         }
 
         return apiEntity;
     }
 
+    private void setDefinition(ApiEntity apiEntity, String definition) {
+        if (definition != null) {
+            try {
+                io.gravitee.definition.model.Api apiDefinition = objectMapper.readValue(definition,
+                        io.gravitee.definition.model.Api.class);
+
+                apiEntity.setProxy(apiDefinition.getProxy());
+                apiEntity.setPaths(apiDefinition.getPaths());
+                apiEntity.setServices(apiDefinition.getServices());
+                apiEntity.setResources(apiDefinition.getResources());
+                apiEntity.setProperties(apiDefinition.getProperties());
+                apiEntity.setTags(apiDefinition.getTags());
+                if (apiDefinition.getPathMappings() != null) {
+                    apiEntity.setPathMappings(new HashSet<>(apiDefinition.getPathMappings().keySet()));
+                }
+                apiEntity.setResponseTemplates(apiDefinition.getResponseTemplates());
+            } catch (IOException ioe) {
+                LOGGER.error("Unexpected error while generating API definition", ioe);
+            }
+        }
+    }
+
+    /**
+     * List items only need the virtual hosts and the tags of an API: the definition is read as a stream, the proxy and
+     * the tags are deserialized and the other parts (paths, services, resources...) are skipped.
+     */
+    private void setListItemDefinition(ApiEntity apiEntity, String definition) {
+        if (definition != null) {
+            try (JsonParser parser = objectMapper.getFactory().createParser(definition)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    return;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String field = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("proxy".equals(field)) {
+                        apiEntity.setProxy(objectMapper.readValue(parser, Proxy.class));
+                    } else if ("tags".equals(field)) {
+                        apiEntity.setTags(objectMapper.readValue(parser, new TypeReference<Set<String>>() {}));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } catch (IOException ioe) {
+                LOGGER.error("Unexpected error while reading API definition", ioe);
+            }
+        }
+    }
+
     private Api convert(String apiId, UpdateApiEntity updateApiEntity) {
         Api api = new Api();
 
@@ -28,9 +28,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -88,6 +90,7 @@ import io.gravitee.rest.api.service.AuditService;
 import io.gravitee.rest.api.service.GenericNotificationConfigService;
 import io.gravitee.rest.api.service.GroupService;
 import io.gravitee.rest.api.service.ParameterService;
+import io.gravitee.rest.api.service.PermissionService;
 import io.gravitee.rest.api.service.SubscriptionService;
 import io.gravitee.rest.api.service.UserService;
 import io.gravitee.rest.api.service.common.GraviteeContext;
@@ -136,6 +139,9 @@ public class ApplicationServiceImpl extends AbstractService implements Applicati
     @Autowired
     private ParameterService parameterService;
 
+    @Autowired
+    private PermissionService permissionService;
+
     @Value("${configuration.default-icon:${gravitee.home}/assets/default_application_logo.png}")
     private String defaultIcon;
     
@@ -445,6 +451,10 @@ public class ApplicationServiceImpl extends AbstractService implements Applicati
 
             Application updatedApplication =  applicationRepository.update(application);
 
+            if (!Objects.equals(optApplicationToUpdate.get().getGroups(), updatedApplication.getGroups())) {
+                permissionService.invalidatePermissions(MembershipReferenceType.APPLICATION, applicationId);
+            }
+
             // Audit
             auditService.createApplicationAuditLog(
                     updatedApplication.getId(),
@@ -591,6 +601,7 @@ public class ApplicationServiceImpl extends AbstractService implements Applicati
             application.setUpdatedAt(new Date());
             application.setStatus(ApplicationStatus.ARCHIVED);
             applicationRepository.update(application);
+            permissionService.invalidatePermissions(MembershipReferenceType.APPLICATION, applicationId);
             // Audit
             auditService.createApplicationAuditLog(
                     application.getId(),
@@ -15,12 +15,8 @@
  */
 package io.gravitee.rest.api.service.impl;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.github.fge.jsonpatch.diff.JsonDiff;
 import io.gravitee.common.data.domain.MetadataPage;
 import io.gravitee.common.data.domain.Page;
-import io.gravitee.common.utils.UUID;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.*;
 import io.gravitee.repository.management.api.search.AuditCriteria.Builder;
@@ -38,12 +34,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import static io.gravitee.rest.api.service.impl.MetadataServiceImpl.getDefautReferenceId;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -61,9 +57,6 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
     @Autowired
     private PageRepository pageRepository;
 
-    @Autowired
-    private PlanRepository planRepository;
-
     @Autowired
     private MetadataRepository metadataRepository;
 
@@ -71,17 +64,15 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
     private GroupRepository groupRepository;
 
     @Autowired
-    private ApiRepository apiRepository;
-
-    @Autowired
-    private ApplicationRepository applicationRepository;
+    @Lazy
+    private UserService userService;
 
     @Autowired
     @Lazy
-    private UserService userService;
+    private AnalyticsMetadataResolver metadataResolver;
 
     @Autowired
-    private ObjectMapper mapper;
+    private AuditWriter auditWriter;
 
     @Override
     public MetadataPage<AuditEntity> search(AuditQuery query) {
@@ -122,118 +113,117 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
     }
 
     private Map<String, String> getMetadata(List<AuditEntity> content) {
-        Map<String, String> metadata = new HashMap<>();
+        // collect the referenced ids by type first, to resolve their names by batch
+        final Set<String> users = new HashSet<>();
+        final Set<String> apis = new HashSet<>();
+        final Set<String> applications = new HashSet<>();
+        final Set<String> pages = new HashSet<>();
+        final Set<String> plans = new HashSet<>();
+        final Set<String> groups = new HashSet<>();
+        final Map<String, Set<String>> metadataKeysByReference = new HashMap<>();
+
         for (AuditEntity auditEntity : content) {
-            //add user's display name
-            String metadataKey = "USER:"+auditEntity.getUser()+":name";
-            try {
-                UserEntity user = userService.findById(auditEntity.getUser());
-                metadata.put(metadataKey, user.getDisplayName());
-            } catch (TechnicalManagementException e) {
-                LOGGER.error("Error finding metadata {}", auditEntity.getUser());
-            } catch (UserNotFoundException unfe) {
-                metadata.put(metadataKey, auditEntity.getUser());
+            users.add(auditEntity.getUser());
+            if (Audit.AuditReferenceType.API.name().equals(auditEntity.getReferenceType())) {
+                apis.add(auditEntity.getReferenceId());
+            } else if (Audit.AuditReferenceType.APPLICATION.name().equals(auditEntity.getReferenceType())) {
+                applications.add(auditEntity.getReferenceId());
             }
 
-            if (Audit.AuditReferenceType.API.name().equals(auditEntity.getReferenceType())) {
-                metadataKey = "API:" + auditEntity.getReferenceId() + ":name";
-                if (!metadata.containsKey(metadataKey)) {
-                    try {
-                        Optional<Api> optApi = apiRepository.findById(auditEntity.getReferenceId());
-                        if (optApi.isPresent()) {
-                            metadata.put(metadataKey, optApi.get().getName());
-                        }
-                    } catch (TechnicalException e) {
-                        LOGGER.error("Error finding metadata {}", metadataKey);
-                        metadata.put(metadataKey, auditEntity.getReferenceId());
+            if (auditEntity.getProperties() != null) {
+                for (Map.Entry<String, String> property : auditEntity.getProperties().entrySet()) {
+                    switch (Audit.AuditProperties.valueOf(property.getKey())) {
+                        case API:
+                            apis.add(property.getValue());
+                            break;
+                        case APPLICATION:
+                            applications.add(property.getValue());
+                            break;
+                        case PAGE:
+                            pages.add(property.getValue());
+                            break;
+                        case PLAN:
+                            plans.add(property.getValue());
+                            break;
+                        case METADATA:
+                            metadataKeysByReference.computeIfAbsent(getMetadataReference(auditEntity), ref -> new HashSet<>())
+                                    .add(property.getValue());
+                            break;
+                        case GROUP:
+                            groups.add(property.getValue());
+                            break;
+                        case USER:
+                            users.add(property.getValue());
+                            break;
+                        default:
+                            break;
                     }
                 }
+            }
+        }
+
+        final Map<String, String> userNames = getUserNames(users);
+        final Map<String, String> apiNames = getNames("API", apis, metadataResolver::getApisMetadata);
+        final Map<String, String> applicationNames =
+                getNames("APPLICATION", applications, metadataResolver::getApplicationsMetadata);
+        final Map<String, String> planNames =
+                getNames("PLAN", plans, ids -> metadataResolver.getPlansMetadata(ids, apis));
+        final Map<String, String> pageNames = getPageNames(pages);
+        final Map<String, String> groupNames = getGroupNames(groups);
+        final Map<String, Map<String, String>> metadataNames = getMetadataNames(metadataKeysByReference);
+
+        Map<String, String> metadata = new HashMap<>();
+        for (AuditEntity auditEntity : content) {
+            //add user's display name
+            metadata.put("USER:" + auditEntity.getUser() + ":name",
+                    userNames.getOrDefault(auditEntity.getUser(), auditEntity.getUser()));
+
+            if (Audit.AuditReferenceType.API.name().equals(auditEntity.getReferenceType())) {
+                putIfPresent(metadata, "API:" + auditEntity.getReferenceId() + ":name",
+                        apiNames.get(auditEntity.getReferenceId()));
             } else if (Audit.AuditReferenceType.APPLICATION.name().equals(auditEntity.getReferenceType())) {
-                metadataKey = "APPLICATION:" + auditEntity.getReferenceId() + ":name";
-                if (!metadata.containsKey(metadataKey)) {
-                    try {
-                        Optional<Application> optApp = applicationRepository.findById(auditEntity.getReferenceId());
-                        if (optApp.isPresent()) {
-                            metadata.put(metadataKey, optApp.get().getName());
-                        }
-                    } catch (TechnicalException e) {
-                        LOGGER.error("Error finding metadata {}", metadataKey);
-                        metadata.put(metadataKey, auditEntity.getReferenceId());
-                    }
-                }
+                putIfPresent(metadata, "APPLICATION:" + auditEntity.getReferenceId() + ":name",
+                        applicationNames.get(auditEntity.getReferenceId()));
             }
 
             //add property metadata
-            String name;
             if (auditEntity.getProperties() != null) {
                 for (Map.Entry<String, String> property : auditEntity.getProperties().entrySet()) {
-                    metadataKey = new StringJoiner(":").
+                    String metadataKey = new StringJoiner(":").
                             add(property.getKey()).
                             add(property.getValue()).
                             add("name").
                             toString();
                     if (!metadata.containsKey(metadataKey)) {
-                        name = property.getValue();
-                        try {
-                            switch (Audit.AuditProperties.valueOf(property.getKey())) {
-                                case API:
-                                    Optional<Api> optApi = apiRepository.findById(property.getValue());
-                                    if (optApi.isPresent()) {
-                                        name = optApi.get().getName();
-                                    }
-                                    break;
-                                case APPLICATION:
-                                    Optional<Application> optApp = applicationRepository.findById(property.getValue());
-                                    if (optApp.isPresent()) {
-                                        name = optApp.get().getName();
-                                    }
-                                    break;
-                                case PAGE:
-                                    Optional<io.gravitee.repository.management.model.Page> optPage = pageRepository.findById(property.getValue());
-                                    if (optPage.isPresent()) {
-                                        name = optPage.get().getName();
-                                    }
-                                    break;
-                                case PLAN:
-                                    Optional<Plan> optPlan = planRepository.findById(property.getValue());
-                                    if (optPlan.isPresent()) {
-                                        name = optPlan.get().getName();
-                                    }
-                                    break;
-                                case METADATA:
-                                    MetadataReferenceType refType = (Audit.AuditReferenceType.API.name().equals(auditEntity.getReferenceType()))
-                                            ? MetadataReferenceType.API :
-                                            (Audit.AuditReferenceType.APPLICATION.name().equals(auditEntity.getReferenceType())) ?
-                                                    MetadataReferenceType.APPLICATION :
-                                                    MetadataReferenceType.DEFAULT;
-                                    String refId = refType.equals(MetadataReferenceType.DEFAULT) ? getDefautReferenceId() : auditEntity.getReferenceId();
-
-                                    Optional<Metadata> optMetadata = metadataRepository.findById(property.getValue(), refId, refType);
-                                    if (optMetadata.isPresent()) {
-                                        name = optMetadata.get().getName();
-                                    }
-                                    break;
-                                case GROUP:
-                                    Optional<Group> optGroup = groupRepository.findById(property.getValue());
-                                    if (optGroup.isPresent()) {
-                                        name = optGroup.get().getName();
-                                    }
-                                    break;
-                                case USER:
-                                    try {
-                                        UserEntity user = userService.findById(property.getValue());
-                                        name = user.getDisplayName();
-                                    } catch (UserNotFoundException unfe) {
-                                        name = property.getValue();
-                                    }
-                                default:
-                                    break;
-                            }
-                        } catch (TechnicalException e) {
-                            LOGGER.error("Error finding metadata {}", metadataKey);
-                            name = property.getValue();
+                        String name;
+                        switch (Audit.AuditProperties.valueOf(property.getKey())) {
+                            case API:
+                                name = apiNames.get(property.getValue());
+                                break;
+                            case APPLICATION:
+                                name = applicationNames.get(property.getValue());
+                                break;
+                            case PAGE:
+                                name = pageNames.get(property.getValue());
+                                break;
+                            case PLAN:
+                                name = planNames.get(property.getValue());
+                                break;
+                            case METADATA:
+                                name = metadataNames.getOrDefault(getMetadataReference(auditEntity), Collections.emptyMap())
+                                        .get(property.getValue());
+                                break;
+                            case GROUP:
+                                name = groupNames.get(property.getValue());
+                                break;
+                            case USER:
+                                name = userNames.get(property.getValue());
+                                break;
+                            default:
+                                name = null;
+                                break;
                         }
-                        metadata.put(metadataKey, name);
+                        metadata.put(metadataKey, name == null ? property.getValue() : name);
                     }
                 }
             }
@@ -241,6 +231,104 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
         return metadata;
     }
 
+    private static void putIfPresent(Map<String, String> metadata, String key, String value) {
+        if (value != null) {
+            metadata.put(key, value);
+        }
+    }
+
+    private Map<String, String> getNames(String type, Set<String> ids,
+                                         Function<Set<String>, Map<String, Map<String, String>>> resolver) {
+        Map<String, String> names = new HashMap<>();
+        try {
+            // the placeholder names of the deleted entities are skipped, their raw ids are displayed instead
+            resolver.apply(ids).forEach((id, entityMetadata) -> {
+                if (!Boolean.parseBoolean(entityMetadata.get("deleted"))) {
+                    putIfPresent(names, id, entityMetadata.get("name"));
+                }
+            });
+        } catch (TechnicalManagementException e) {
+            // the raw ids are displayed rather than failing the whole page of audits
+            LOGGER.error("Error finding metadata of {} {}", type, ids);
+            ids.stream().filter(Objects::nonNull).forEach(id -> names.put(id, id));
+        }
+        return names;
+    }
+
+    private Map<String, String> getUserNames(Set<String> users) {
+        users.remove(null);
+        if (users.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        try {
+            return userService.findByIds(new ArrayList<>(users)).stream()
+                    .filter(user -> user.getDisplayName() != null)
+                    .collect(Collectors.toMap(UserEntity::getId, UserEntity::getDisplayName, (u1, u2) -> u1));
+        } catch (UserNotFoundException unfe) {
+            return Collections.emptyMap();
+        } catch (TechnicalManagementException e) {
+            LOGGER.error("Error finding metadata of users {}", users);
+            return Collections.emptyMap();
+        }
+    }
+
+    private Map<String, String> getPageNames(Set<String> pages) {
+        // pages can not be loaded by ids, they are loaded one by one but only once
+        Map<String, String> names = new HashMap<>();
+        for (String page : pages) {
+            try {
+                pageRepository.findById(page).ifPresent(p -> putIfPresent(names, page, p.getName()));
+            } catch (TechnicalException e) {
+                LOGGER.error("Error finding metadata PAGE:{}:name", page);
+            }
+        }
+        return names;
+    }
+
+    private Map<String, String> getGroupNames(Set<String> groups) {
+        if (groups.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        try {
+            Map<String, String> names = new HashMap<>();
+            groupRepository.findByIds(groups).forEach(group -> putIfPresent(names, group.getId(), group.getName()));
+            return names;
+        } catch (TechnicalException e) {
+            LOGGER.error("Error finding metadata of groups {}", groups);
+            return Collections.emptyMap();
+        }
+    }
+
+    private Map<String, Map<String, String>> getMetadataNames(Map<String, Set<String>> metadataKeysByReference) {
+        // all the metadata of a reference are loaded at once
+        Map<String, Map<String, String>> names = new HashMap<>();
+        metadataKeysByReference.forEach((reference, keys) -> {
+            final int separator = reference.indexOf(':');
+            final MetadataReferenceType referenceType = MetadataReferenceType.valueOf(reference.substring(0, separator));
+            final String referenceId = reference.substring(separator + 1);
+            try {
+                Map<String, String> referenceNames = new HashMap<>();
+                metadataRepository.findByReferenceTypeAndReferenceId(referenceType, referenceId).stream()
+                        .filter(metadata -> keys.contains(metadata.getKey()))
+                        .forEach(metadata -> putIfPresent(referenceNames, metadata.getKey(), metadata.getName()));
+                names.put(reference, referenceNames);
+            } catch (TechnicalException e) {
+                LOGGER.error("Error finding metadata of {}", reference);
+            }
+        });
+        return names;
+    }
+
+    private static String getMetadataReference(AuditEntity auditEntity) {
+        MetadataReferenceType refType = (Audit.AuditReferenceType.API.name().equals(auditEntity.getReferenceType()))
+                ? MetadataReferenceType.API :
+                (Audit.AuditReferenceType.APPLICATION.name().equals(auditEntity.getReferenceType())) ?
+                        MetadataReferenceType.APPLICATION :
+                        MetadataReferenceType.DEFAULT;
+        String refId = refType.equals(MetadataReferenceType.DEFAULT) ? getDefautReferenceId() : auditEntity.getReferenceId();
+        return refType.name() + ':' + refId;
+    }
+
     @Override
     public void createApiAuditLog(String apiId, Map<Audit.AuditProperties,String> properties, Audit.AuditEvent event, Date createdAt,
                                   Object oldValue, Object newValue) {
@@ -302,38 +390,11 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
                 newValue);
     }
 
-    @Async
-    protected void create(Audit.AuditReferenceType referenceType, String referenceId, Map<Audit.AuditProperties,String> properties,
-                          Audit.AuditEvent event, String userId, Date createdAt,
-                          Object oldValue, Object newValue) {
-
-        Audit audit = new Audit();
-        audit.setId(UUID.toString(UUID.random()));
-        audit.setUser(userId);
-        audit.setCreatedAt(createdAt);
-        if (properties != null) {
-            Map<String, String> stringStringMap = new HashMap<>(properties.size());
-            properties.forEach((auditProperties, s) -> stringStringMap.put(auditProperties.name(), s));
-            audit.setProperties(stringStringMap);
-        }
-        audit.setReferenceType(referenceType);
-        audit.setReferenceId(referenceId);
-        audit.setEvent(event.name());
-
-        ObjectNode oldNode = oldValue == null
-                ? mapper.createObjectNode()
-                : mapper.convertValue(oldValue, ObjectNode.class).remove(Arrays.asList("updatedAt", "createdAt"));
-        ObjectNode newNode = newValue == null
-                ? mapper.createObjectNode()
-                : mapper.convertValue(newValue, ObjectNode.class).remove(Arrays.asList("updatedAt", "createdAt"));
-
-        audit.setPatch(JsonDiff.asJson(oldNode, newNode).toString());
-
-        try {
-            auditRepository.create(audit);
-        } catch (TechnicalException e) {
-            LOGGER.error("Error occurs during the creation of an Audit Log {}.", e);
-        }
+    private void create(Audit.AuditReferenceType referenceType, String referenceId, Map<Audit.AuditProperties,String> properties,
+                        Audit.AuditEvent event, String userId, Date createdAt,
+                        Object oldValue, Object newValue) {
+        // The values are copied now, the patch is computed and the audit is written by the writer, off the request path
+        auditWriter.write(referenceType, referenceId, properties, event, userId, createdAt, oldValue, newValue);
     }
 
     private AuditEntity convert(Audit audit) {
@@ -0,0 +1,473 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jsonpatch.diff.JsonDiff;
+import io.gravitee.common.utils.UUID;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.AuditRepository;
+import io.gravitee.repository.management.model.Audit;
+import io.gravitee.rest.api.service.spring.AsyncConfiguration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes the audit logs off the request path.
+ *
+ * The old and new values of an audit are serialized when it is written, then the audit is queued
+ * (<code>management.audit.queue_size</code>), its patch is computed from the serialized values and it is saved by
+ * batches of <code>management.audit.batch_size</code> on the audit executor.
+ *
+ * When the queue is full, or when an audit can not be saved, the audits are appended to a spill file (in
+ * <code>management.audit.spill.path</code>, up to <code>management.audit.spill.max_size</code> MB). While this file
+ * exists, the next audits are appended to it too, so that they are saved in order once the queue has been drained,
+ * on the next flush or on the next start. The spill file is replayed with a checkpoint and the audits which may have
+ * been saved before an interruption are not saved twice.
+ * If the spill file is full or can not be written, the audit is saved by the calling thread.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class AuditWriter implements InitializingBean, DisposableBean {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(AuditWriter.class);
+
+    private static final String SPILL_FILE = "audit.spill";
+    private static final String REPLAY_FILE = "audit.spill.replay";
+    private static final String CHECKPOINT_FILE = "audit.spill.checkpoint";
+    private static final List<String> IGNORED_FIELDS = Arrays.asList("updatedAt", "createdAt");
+
+    @Autowired
+    private AuditRepository auditRepository;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    @Qualifier(AsyncConfiguration.AUDIT_EXECUTOR)
+    private Executor executor;
+
+    @Value("${management.audit.queue_size:10000}")
+    private int queueSize = 10000;
+
+    @Value("${management.audit.batch_size:100}")
+    private int batchSize = 100;
+
+    @Value("${management.audit.spill.path:${gravitee.home}/audit}")
+    private String spillPath;
+
+    @Value("${management.audit.spill.max_size:100}")
+    private long spillMaxSize = 100;
+
+    /**
+     * Spilled audits are serialized as is, without the filters and serializers of the application mapper.
+     */
+    private final ObjectMapper spillMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * Guards the spill file and the choice between the queue and the spill file.
+     */
+    private final Object spillLock = new Object();
+    /**
+     * Held while audits are saved, so that only one thread saves them at a time.
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    private BlockingQueue<Entry> queue;
+    private Path spillFile;
+    private Path replayFile;
+    private Path checkpointFile;
+    private boolean spilled;
+
+    @Override
+    public void afterPropertiesSet() {
+        queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+
+        try {
+            Path directory = Paths.get(spillPath);
+            Files.createDirectories(directory);
+            spillFile = directory.resolve(SPILL_FILE);
+            replayFile = directory.resolve(REPLAY_FILE);
+            checkpointFile = directory.resolve(CHECKPOINT_FILE);
+
+            // Audits spilled before the last stop
+            spilled = Files.exists(spillFile) || Files.exists(replayFile);
+            if (spilled) {
+                scheduleFlush();
+            }
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.warn("Audit spill directory {} can not be used, audits will be written by the calling thread " +
+                    "when the queue is full", spillPath, ex);
+            spillFile = null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        // Wait for the running flush, then write the pending audits before stopping
+        flushLock.lock();
+        try {
+            drain();
+            replay();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public void write(Audit.AuditReferenceType referenceType, String referenceId,
+                      Map<Audit.AuditProperties, String> properties, Audit.AuditEvent event, String userId,
+                      Date createdAt, Object oldValue, Object newValue) {
+        // The values may be changed by the caller once audited: keep them serialized, the trees are built later
+        Entry entry = new Entry(referenceType, referenceId, properties, event, userId, createdAt,
+                snapshot(oldValue), snapshot(newValue));
+
+        Audit overflow = null;
+        synchronized (spillLock) {
+            // Audits are queued only if none is waiting in the spill file, to keep them in order
+            if (spilled || !queue.offer(entry)) {
+                Audit audit = toAudit(entry);
+                if (!spill(audit)) {
+                    overflow = audit;
+                }
+            }
+        }
+
+        if (overflow != null && !create(overflow)) {
+            LOGGER.error("Audit Log {} has not been saved: {}", overflow.getId(), toString(overflow));
+        }
+
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (flushing.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::flush);
+            } catch (RejectedExecutionException ree) {
+                flushing.set(false);
+            }
+        }
+    }
+
+    void flush() {
+        flushLock.lock();
+        try {
+            drain();
+            replay();
+        } finally {
+            flushLock.unlock();
+            flushing.set(false);
+        }
+
+        // An audit may have been queued after the last drain
+        if (!queue.isEmpty()) {
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Save the queued audits. Once an audit can not be saved, it is spilled with all the audits queued after it.
+     */
+    private void drain() {
+        boolean failed = false;
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            // The repository has no bulk insert, the batch only saves the scheduling of a task by audit
+            for (Entry entry : batch) {
+                Audit audit;
+                try {
+                    audit = toAudit(entry);
+                } catch (RuntimeException ex) {
+                    LOGGER.error("Error occurs while computing the patch of an Audit Log", ex);
+                    continue;
+                }
+
+                if (failed || !create(audit)) {
+                    failed = true;
+                    boolean saved;
+                    synchronized (spillLock) {
+                        saved = spill(audit);
+                    }
+                    if (!saved) {
+                        LOGGER.error("Audit Log {} has not been saved: {}", audit.getId(), toString(audit));
+                    }
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private boolean spill(Audit audit) {
+        if (spillFile == null) {
+            return false;
+        }
+
+        try {
+            byte[] content = (spillMapper.writeValueAsString(audit) + '\n').getBytes(StandardCharsets.UTF_8);
+            if (Files.exists(spillFile) && Files.size(spillFile) + content.length > spillMaxSize * 1024 * 1024) {
+                LOGGER.warn("Audit spill file {} is full", spillFile);
+                return false;
+            }
+
+            Files.write(spillFile, content, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            spilled = true;
+            return true;
+        } catch (IOException ioe) {
+            LOGGER.error("Error occurs while spilling an Audit Log to {}", spillFile, ioe);
+            return false;
+        }
+    }
+
+    /**
+     * Save the spilled audits, until the spill file is empty or an audit can not be saved.
+     */
+    private void replay() {
+        if (spillFile == null) {
+            return;
+        }
+
+        while (true) {
+            boolean resumed;
+            synchronized (spillLock) {
+                try {
+                    // A replay file is left if the node has been stopped, or the repository failed, while replaying it
+                    resumed = Files.exists(replayFile);
+                    if (!resumed) {
+                        if (!Files.exists(spillFile)) {
+                            spilled = false;
+                            return;
+                        }
+                        Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                } catch (IOException ioe) {
+                    LOGGER.error("Error occurs while replaying Audit Logs from {}", spillFile, ioe);
+                    return;
+                }
+            }
+
+            if (!replay(resumed)) {
+                // Retried on the next flush
+                return;
+            }
+        }
+    }
+
+    private boolean replay(boolean resumed) {
+        long offset = readCheckpoint();
+        // Audits read after the checkpoint of an interrupted replay may have been saved already
+        int unchecked = resumed ? batchSize : 0;
+        int replayed = 0;
+
+        try (InputStream input = Files.newInputStream(replayFile)) {
+            skip(input, offset);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    Audit audit = readSpilledAudit(line);
+                    if (audit != null && !(unchecked-- > 0 && exists(audit)) && !create(audit)) {
+                        writeCheckpoint(offset);
+                        return false;
+                    }
+                }
+
+                offset += line.getBytes(StandardCharsets.UTF_8).length + 1;
+                if (++replayed % batchSize == 0) {
+                    writeCheckpoint(offset);
+                }
+            }
+        } catch (IOException ioe) {
+            LOGGER.error("Error occurs while replaying Audit Logs from {}", replayFile, ioe);
+            writeCheckpoint(offset);
+            return false;
+        }
+
+        try {
+            Files.delete(replayFile);
+            Files.deleteIfExists(checkpointFile);
+            return true;
+        } catch (IOException ioe) {
+            LOGGER.error("Error occurs while deleting replayed Audit Logs {}", replayFile, ioe);
+            return false;
+        }
+    }
+
+    private Audit readSpilledAudit(String line) {
+        try {
+            return spillMapper.readValue(line, Audit.class);
+        } catch (IOException ioe) {
+            LOGGER.error("Spilled Audit Log can not be read, it is skipped: {}", line, ioe);
+            return null;
+        }
+    }
+
+    private long readCheckpoint() {
+        try {
+            if (Files.exists(checkpointFile)) {
+                return Long.parseLong(new String(Files.readAllBytes(checkpointFile), StandardCharsets.UTF_8).trim());
+            }
+        } catch (IOException | NumberFormatException ex) {
+            LOGGER.warn("Audit spill checkpoint {} can not be read, the replay starts from the beginning",
+                    checkpointFile, ex);
+        }
+        return 0;
+    }
+
+    private void writeCheckpoint(long offset) {
+        try {
+            Path tmp = checkpointFile.resolveSibling(CHECKPOINT_FILE + ".tmp");
+            Files.write(tmp, Long.toString(offset).getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, checkpointFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ioe) {
+            LOGGER.warn("Audit spill checkpoint {} can not be written", checkpointFile, ioe);
+        }
+    }
+
+    private static void skip(InputStream input, long offset) throws IOException {
+        long remaining = offset;
+        while (remaining > 0) {
+            long skipped = input.skip(remaining);
+            if (skipped <= 0) {
+                break;
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private boolean exists(Audit audit) {
+        try {
+            return auditRepository.findById(audit.getId()).isPresent();
+        } catch (TechnicalException e) {
+            // Saving it will probably fail too, and keep it spilled
+            return false;
+        }
+    }
+
+    private boolean create(Audit audit) {
+        try {
+            auditRepository.create(audit);
+            return true;
+        } catch (TechnicalException | RuntimeException e) {
+            LOGGER.error("Error occurs during the creation of an Audit Log {}.", audit.getId(), e);
+            return false;
+        }
+    }
+
+    private String toString(Audit audit) {
+        try {
+            return spillMapper.writeValueAsString(audit);
+        } catch (IOException ioe) {
+            return audit.getReferenceType() + "/" + audit.getReferenceId() + " " + audit.getEvent();
+        }
+    }
+
+    private byte[] snapshot(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException jpe) {
+            throw new IllegalArgumentException(jpe.getMessage(), jpe);
+        }
+    }
+
+    private ObjectNode toTree(byte[] snapshot) {
+        if (snapshot == null) {
+            return mapper.createObjectNode();
+        }
+        try {
+            ObjectNode node = (ObjectNode) mapper.readTree(snapshot);
+            return node.remove(IGNORED_FIELDS);
+        } catch (IOException ioe) {
+            throw new IllegalArgumentException(ioe.getMessage(), ioe);
+        }
+    }
+
+    private Audit toAudit(Entry entry) {
+        Audit audit = new Audit();
+        audit.setId(UUID.toString(UUID.random()));
+        audit.setUser(entry.userId);
+        audit.setCreatedAt(entry.createdAt);
+        if (entry.properties != null) {
+            Map<String, String> stringStringMap = new HashMap<>(entry.properties.size());
+            entry.properties.forEach((auditProperties, s) -> stringStringMap.put(auditProperties.name(), s));
+            audit.setProperties(stringStringMap);
+        }
+        audit.setReferenceType(entry.referenceType);
+        audit.setReferenceId(entry.referenceId);
+        audit.setEvent(entry.event.name());
+        audit.setPatch(JsonDiff.asJson(toTree(entry.oldValue), toTree(entry.newValue)).toString());
+        return audit;
+    }
+
+    /**
+     * An audit event waiting for its patch to be computed, with its old and new values serialized.
+     */
+    private static class Entry {
+        private final Audit.AuditReferenceType referenceType;
+        private final String referenceId;
+        private final Map<Audit.AuditProperties, String> properties;
+        private final Audit.AuditEvent event;
+        private final String userId;
+        private final Date createdAt;
+        private final byte[] oldValue;
+        private final byte[] newValue;
+
+        private Entry(Audit.AuditReferenceType referenceType, String referenceId, Map<Audit.AuditProperties, String> properties,
+                      Audit.AuditEvent event, String userId, Date createdAt, byte[] oldValue, byte[] newValue) {
+            this.referenceType = referenceType;
+            this.referenceId = referenceId;
+            this.properties = properties == null ? null : new HashMap<>(properties);
+            this.event = event;
+            this.userId = userId;
+            this.createdAt = createdAt;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import io.gravitee.rest.api.service.EmailNotification;
 import io.gravitee.rest.api.service.EmailService;
 import io.gravitee.rest.api.service.exceptions.EmailDisabledException;
 import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
+import io.gravitee.rest.api.service.spring.AsyncConfiguration;
 
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
@@ -112,7 +113,7 @@ public class EmailServiceImpl extends TransactionalService implements EmailServi
         }
     }
 
-    @Async
+    @Async(AsyncConfiguration.EMAIL_EXECUTOR)
     public void sendAsyncEmailNotification(final EmailNotification emailNotification) {
         sendEmailNotification(emailNotification);
     }
@@ -314,6 +314,7 @@ public class GroupServiceImpl extends AbstractService implements GroupService {
             });
             //remove group
             groupRepository.delete(groupId);
+            permissionService.invalidateAllPermissions();
 
             // Audit
             auditService.createPortalAuditLog(
@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.impl;
+
+import io.gravitee.common.utils.UUID;
+import io.gravitee.node.api.Node;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.CommandRepository;
+import io.gravitee.repository.management.api.search.CommandCriteria;
+import io.gravitee.repository.management.model.Command;
+import io.gravitee.repository.management.model.MessageRecipient;
+import io.gravitee.rest.api.service.LeaderElectionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Leases are stored as commands shared by the management nodes: a lease is held by the node which created the oldest
+ * non expired command of the task, until it stops renewing it.
+ *
+ * When two nodes try to acquire a free lease at the same time, both of them create a command, then read all the
+ * commands again: the oldest one (then the lowest id) wins, so that both nodes agree on the leader.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class LeaderElectionServiceImpl implements LeaderElectionService {
+
+    private final Logger logger = LoggerFactory.getLogger(LeaderElectionServiceImpl.class);
+
+    static final String LEADER_ELECTION_TAG = "LEADER_ELECTION";
+    private static final String DEFAULT_ENVIRONMENT = "DEFAULT";
+
+    private static final Comparator<Command> LEASE_ORDER = Comparator
+            .comparing(Command::getCreatedAt)
+            .thenComparing(Command::getId);
+
+    @Autowired
+    private CommandRepository commandRepository;
+
+    @Autowired
+    private Node node;
+
+    @Value("${management.leader.lease:30}")
+    private long lease;
+
+    @Override
+    public boolean isLeader(String task) {
+        try {
+            final long now = System.currentTimeMillis();
+
+            Optional<Command> leader = findLeader(task, now);
+            if (!leader.isPresent()) {
+                acquire(task, now);
+                leader = findLeader(task, now);
+            }
+
+            if (leader.isPresent() && node.id().equals(leader.get().getFrom())) {
+                renew(leader.get(), now);
+                return true;
+            }
+
+            return false;
+        } catch (TechnicalException ex) {
+            // Nobody is able to hold the lease when the repository is not available.
+            logger.error("An error occurs while trying to elect the leader of task {}", task, ex);
+            return false;
+        }
+    }
+
+    private Optional<Command> findLeader(String task, long now) throws TechnicalException {
+        CommandCriteria criteria = new CommandCriteria.Builder()
+                .to(MessageRecipient.MANAGEMENT_APIS.name())
+                .tags(LEADER_ELECTION_TAG)
+                .notDeleted()
+                .build();
+
+        List<Command> leases = commandRepository.search(criteria)
+                .stream()
+                .filter(command -> task.equals(command.getContent()) && command.getCreatedAt() != null)
+                .collect(toList());
+
+        for (Command expired : leases) {
+            if (expired.getExpiredAt() != null && expired.getExpiredAt().getTime() <= now) {
+                commandRepository.delete(expired.getId());
+            }
+        }
+
+        return leases
+                .stream()
+                .filter(command -> command.getExpiredAt() == null || command.getExpiredAt().getTime() > now)
+                .min(LEASE_ORDER);
+    }
+
+    private void acquire(String task, long now) throws TechnicalException {
+        Command command = new Command();
+        command.setId(UUID.toString(java.util.UUID.randomUUID()));
+        command.setEnvironment(DEFAULT_ENVIRONMENT);
+        command.setFrom(node.id());
+        command.setTo(MessageRecipient.MANAGEMENT_APIS.name());
+        command.setTags(Collections.singletonList(LEADER_ELECTION_TAG));
+        command.setContent(task);
+        command.setCreatedAt(new Date(now));
+        command.setUpdatedAt(command.getCreatedAt());
+        command.setExpiredAt(new Date(now + lease * 1000));
+
+        logger.debug("Node {} tries to acquire the lease of task {}", node.id(), task);
+        commandRepository.create(command);
+    }
+
+    private void renew(Command command, long now) throws TechnicalException {
+        // Renew once half of the lease is elapsed, to avoid writing on each call.
+        if (command.getExpiredAt() == null || command.getExpiredAt().getTime() - now < lease * 500) {
+            command.setUpdatedAt(new Date(now));
+            command.setExpiredAt(new Date(now + lease * 1000));
+            commandRepository.update(command);
+        }
+    }
+}
@@ -17,7 +17,6 @@ package io.gravitee.rest.api.service.impl;
 
 import io.gravitee.rest.api.model.*;
 import io.gravitee.rest.api.model.analytics.query.LogQuery;
-import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.log.*;
 import io.gravitee.rest.api.model.log.extended.Request;
 import io.gravitee.rest.api.model.log.extended.Response;
@@ -29,7 +28,6 @@ import io.gravitee.repository.analytics.query.*;
 import io.gravitee.repository.analytics.query.tabular.TabularResponse;
 import io.gravitee.repository.log.api.LogRepository;
 import io.gravitee.repository.log.model.ExtendedLog;
-import io.gravitee.repository.management.model.ApplicationStatus;
 import io.netty.handler.codec.http.QueryStringDecoder;
 import org.apache.commons.lang3.time.FastDateFormat;
 import org.slf4j.Logger;
@@ -37,7 +35,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -55,18 +61,14 @@ public class LogsServiceImpl implements LogsService {
 
     private final Logger logger = LoggerFactory.getLogger(LogsServiceImpl.class);
 
-    private static final String APPLICATION_KEYLESS = "1";
     private static final String RFC_3339_DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
     private static final FastDateFormat dateFormatter = FastDateFormat.getInstance(RFC_3339_DATE_FORMAT);
     private static final char separator = ';';
+    private static final int EXPORT_CHUNK_SIZE = 1000;
 
     @Autowired
     private LogRepository logRepository;
     @Autowired
-    private ApiService apiService;
-    @Autowired
-    private ApplicationService applicationService;
-    @Autowired
     private PlanService planService;
     @Autowired
     private InstanceService instanceService;
@@ -78,54 +80,19 @@ public class LogsServiceImpl implements LogsService {
     private AuditService auditService;
     @Autowired
     private ParameterService parameterService;
+    @Autowired
+    private AnalyticsMetadataResolver metadataResolver;
 
     @Override
     public SearchLogResponse findByApi(String api, LogQuery query) {
-        try {
-            final String field = query.getField() == null ? "@timestamp" : query.getField();
-            TabularResponse response = logRepository.query(QueryBuilders.tabular()
-                    .page(query.getPage())
-                    .size(query.getSize())
-                    .query(query.getQuery())
-                    .sort(SortBuilder.on(field, query.isOrder() ? Order.ASC : Order.DESC, null))
-                    .timeRange(
-                            DateRangeBuilder.between(query.getFrom(), query.getTo()),
-                            IntervalBuilder.interval(query.getInterval())
-                    )
-                    .root("api", api)
-                    .build());
-
-            SearchLogResponse<ApiRequestItem> logResponse = new SearchLogResponse<>(response.getSize());
-
-            // Transform repository logs
-            logResponse.setLogs(response.getLogs().stream()
-                    .map(this::toApiRequestItem)
-                    .collect(Collectors.toList()));
-
-            // Add metadata (only if they are results)
-            if (response.getSize() > 0) {
-                Map<String, Map<String, String>> metadata = new HashMap<>();
-
-                logResponse.getLogs().forEach(logItem -> {
-                    String application = logItem.getApplication();
-                    String plan = logItem.getPlan();
-
-                    if (application != null) {
-                        metadata.computeIfAbsent(application, getApplicationMetadata(application));
-                    }
-                    if (plan != null) {
-                        metadata.computeIfAbsent(plan, getPlanMetadata(plan));
-                    }
-                });
-
-                logResponse.setMetadata(metadata);
-            }
+        SearchLogResponse<ApiRequestItem> logResponse = searchApiLogs(api, query, query.getPage(), query.getSize());
 
-            return logResponse;
-        } catch (AnalyticsException ae) {
-            logger.error("Unable to retrieve logs: ", ae);
-            throw new TechnicalManagementException("Unable to retrieve logs", ae);
+        // Add metadata (only if they are results)
+        if (logResponse.getTotal() > 0) {
+            logResponse.setMetadata(getApiLogsMetadata(api, logResponse.getLogs()));
         }
+
+        return logResponse;
     }
 
     @Override
@@ -149,48 +116,58 @@ public class LogsServiceImpl implements LogsService {
 
     @Override
     public SearchLogResponse findByApplication(String application, LogQuery query) {
+        SearchLogResponse<ApplicationRequestItem> logResponse =
+                searchApplicationLogs(application, query, query.getPage(), query.getSize());
+
+        // Add metadata (only if they are results)
+        if (logResponse.getTotal() > 0) {
+            logResponse.setMetadata(getApplicationLogsMetadata(logResponse.getLogs()));
+        }
+
+        return logResponse;
+    }
+
+    private SearchLogResponse<ApiRequestItem> searchApiLogs(String api, LogQuery query, int page, int size) {
+        TabularResponse response = search("api", api, query, page, size);
+
+        SearchLogResponse<ApiRequestItem> logResponse = new SearchLogResponse<>(response.getSize());
+
+        // Transform repository logs
+        logResponse.setLogs(response.getLogs().stream()
+                .map(this::toApiRequestItem)
+                .collect(Collectors.toList()));
+
+        return logResponse;
+    }
+
+    private SearchLogResponse<ApplicationRequestItem> searchApplicationLogs(String application, LogQuery query, int page, int size) {
+        TabularResponse response = search("application", application, query, page, size);
+
+        SearchLogResponse<ApplicationRequestItem> logResponse = new SearchLogResponse<>(response.getSize());
+
+        // Transform repository logs
+        logResponse.setLogs(response.getLogs().stream()
+                .map(this::toApplicationRequestItem)
+                .collect(Collectors.toList()));
+
+        return logResponse;
+    }
+
+    private TabularResponse search(String rootField, String rootIdentifier, LogQuery query, int page, int size) {
         try {
             final String field = query.getField() == null ? "@timestamp" : query.getField();
-            TabularResponse response = logRepository.query(
+            return logRepository.query(
                     QueryBuilders.tabular()
-                            .page(query.getPage())
-                            .size(query.getSize())
+                            .page(page)
+                            .size(size)
                             .query(query.getQuery())
                             .sort(SortBuilder.on(field, query.isOrder() ? Order.ASC : Order.DESC, null))
                             .timeRange(
                                     DateRangeBuilder.between(query.getFrom(), query.getTo()),
                                     IntervalBuilder.interval(query.getInterval())
                             )
-                            .root("application", application)
+                            .root(rootField, rootIdentifier)
                             .build());
-
-            SearchLogResponse<ApplicationRequestItem> logResponse = new SearchLogResponse<>(response.getSize());
-
-            // Transform repository logs
-            logResponse.setLogs(response.getLogs().stream()
-                    .map(this::toApplicationRequestItem)
-                    .collect(Collectors.toList()));
-
-            // Add metadata (only if they are results)
-            if (response.getSize() > 0) {
-                Map<String, Map<String, String>> metadata = new HashMap<>();
-
-                logResponse.getLogs().forEach(logItem -> {
-                    String api = logItem.getApi();
-                    String plan = logItem.getPlan();
-
-                    if (api != null) {
-                        metadata.computeIfAbsent(api, getAPIMetadata(api));
-                    }
-                    if (plan != null) {
-                        metadata.computeIfAbsent(plan, getPlanMetadata(plan));
-                    }
-                });
-
-                logResponse.setMetadata(metadata);
-            }
-
-            return logResponse;
         } catch (AnalyticsException ae) {
             logger.error("Unable to retrieve logs: ", ae);
             throw new TechnicalManagementException("Unable to retrieve logs", ae);
@@ -210,59 +187,28 @@ public class LogsServiceImpl implements LogsService {
         }
     }
 
-    private Function<String, Map<String, String>> getAPIMetadata(String api) {
-        return s -> {
-            Map<String, String> metadata = new HashMap<>();
-
-            try {
-                ApiEntity apiEntity = apiService.findById(api);
-                metadata.put("name", apiEntity.getName());
-                metadata.put("version", apiEntity.getVersion());
-            } catch (ApiNotFoundException anfe) {
-                metadata.put("name", "Deleted API");
-                metadata.put("deleted", "true");
-            }
-
-            return metadata;
-        };
-    }
-
-    private Function<String, Map<String, String>> getApplicationMetadata(String application) {
-        return s -> {
-            Map<String, String> metadata = new HashMap<>();
-
-            try {
-                ApplicationEntity applicationEntity = applicationService.findById(application);
-                metadata.put("name", applicationEntity.getName());
-                if (ApplicationStatus.ARCHIVED.toString().equals(applicationEntity.getStatus())) {
-                    metadata.put("deleted", "true");
-                }
-            } catch (ApplicationNotFoundException anfe) {
-                metadata.put("deleted", "true");
-                if (application.equals(APPLICATION_KEYLESS)) {
-                    metadata.put("name", "Unknown application (keyless)");
-                } else {
-                    metadata.put("name", "Deleted application");
-                }
-            }
-
-            return metadata;
-        };
+    /**
+     * Resolve the metadata of the applications and plans of a page of logs, at once for all the logs.
+     */
+    private Map<String, Map<String, String>> getApiLogsMetadata(String api, List<ApiRequestItem> logs) {
+        Map<String, Map<String, String>> metadata = new HashMap<>();
+        metadata.putAll(metadataResolver.getApplicationsMetadata(
+                logs.stream().map(ApiRequestItem::getApplication).collect(Collectors.toSet())));
+        metadata.putAll(metadataResolver.getPlansMetadata(
+                logs.stream().map(ApiRequestItem::getPlan).collect(Collectors.toSet()), Collections.singleton(api)));
+        return metadata;
     }
 
-    private Function<String, Map<String, String>> getPlanMetadata(String plan) {
-        return s -> {
-            Map<String, String> metadata = new HashMap<>();
-
-            try {
-                PlanEntity planEntity = planService.findById(plan);
-                metadata.put("name", planEntity.getName());
-            } catch (PlanNotFoundException anfe) {
-                metadata.put("deleted", "true");
-            }
-
-            return metadata;
-        };
+    /**
+     * Resolve the metadata of the APIs and plans of a page of logs, at once for all the logs.
+     */
+    private Map<String, Map<String, String>> getApplicationLogsMetadata(List<ApplicationRequestItem> logs) {
+        Map<String, Map<String, String>> metadata = new HashMap<>();
+        final Set<String> apis = logs.stream().map(ApplicationRequestItem::getApi).collect(Collectors.toSet());
+        metadata.putAll(metadataResolver.getApisMetadata(apis));
+        metadata.putAll(metadataResolver.getPlansMetadata(
+                logs.stream().map(ApplicationRequestItem::getPlan).collect(Collectors.toSet()), apis));
+        return metadata;
     }
 
     private Function<String, Map<String, String>> getGatewayMetadata(String gateway) {
@@ -313,28 +259,97 @@ public class LogsServiceImpl implements LogsService {
             return "";
         }
         final StringBuilder sb = new StringBuilder();
-        sb.append("Date");
-        sb.append(separator);
-        sb.append("Request Id");
-        sb.append(separator);
-        sb.append("Transaction Id");
-        sb.append(separator);
-        sb.append("Method");
-        sb.append(separator);
-        sb.append("Path");
-        sb.append(separator);
-        sb.append("Status");
-        sb.append(separator);
-        sb.append("Response Time");
-        sb.append(separator);
-        sb.append("Plan");
-        sb.append(separator);
+        try {
+            writeCsv(sb, searchLogResponse, true);
+        } catch (IOException ioe) {
+            // Never thrown when appending to a StringBuilder
+            throw new UncheckedIOException(ioe);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void exportApiLogsAsCsv(String api, LogQuery query, OutputStream output) throws IOException {
+        exportAsCsv(query, output, (page, size) -> {
+            SearchLogResponse<ApiRequestItem> logResponse = searchApiLogs(api, query, page, size);
+            logResponse.setMetadata(getApiLogsMetadata(api, logResponse.getLogs()));
+            return logResponse;
+        });
+    }
+
+    @Override
+    public void exportApplicationLogsAsCsv(String application, LogQuery query, OutputStream output) throws IOException {
+        exportAsCsv(query, output, (page, size) -> {
+            SearchLogResponse<ApplicationRequestItem> logResponse = searchApplicationLogs(application, query, page, size);
+            logResponse.setMetadata(getApplicationLogsMetadata(logResponse.getLogs()));
+            return logResponse;
+        });
+    }
 
+    /**
+     * Export the logs requested by the query by reading and writing them by chunks of at most
+     * {@link #EXPORT_CHUNK_SIZE} logs, so that the memory used does not depend on the number of exported logs.
+     */
+    private void exportAsCsv(LogQuery query, OutputStream output,
+                             BiFunction<Integer, Integer, SearchLogResponse> search) throws IOException {
+        if (query.getSize() <= 0) {
+            return;
+        }
+
+        // The chunks are aligned on their size, the logs preceding the requested page in the first chunk are skipped
+        final long offset = (long) (Math.max(query.getPage(), 1) - 1) * query.getSize();
+        final int chunkSize = Math.min(query.getSize(), EXPORT_CHUNK_SIZE);
+        int skipped = (int) (offset % chunkSize);
+
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        int exported = 0;
+        for (int page = (int) (offset / chunkSize) + 1; exported < query.getSize(); page++) {
+            final SearchLogResponse logResponse = search.apply(page, chunkSize);
+            final List logs = logResponse.getLogs();
+            if (logs == null || logs.size() <= skipped) {
+                break;
+            }
+
+            final int to = Math.min(logs.size(), skipped + query.getSize() - exported);
+            logResponse.setLogs(logs.subList(skipped, to));
+            writeCsv(writer, logResponse, exported == 0);
+            writer.flush();
+
+            exported += to - skipped;
+            skipped = 0;
+            if (logs.size() < chunkSize) {
+                break;
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeCsv(final Appendable sb, final SearchLogResponse searchLogResponse, boolean withHeader) throws IOException {
         //get the first item to define the type of export
-        if (searchLogResponse.getLogs().get(0) instanceof ApiRequestItem) {
-            sb.append("Application");
+        final boolean apiLogs = searchLogResponse.getLogs().get(0) instanceof ApiRequestItem;
+
+        if (withHeader) {
+            sb.append("Date");
+            sb.append(separator);
+            sb.append("Request Id");
+            sb.append(separator);
+            sb.append("Transaction Id");
+            sb.append(separator);
+            sb.append("Method");
+            sb.append(separator);
+            sb.append("Path");
+            sb.append(separator);
+            sb.append("Status");
+            sb.append(separator);
+            sb.append("Response Time");
+            sb.append(separator);
+            sb.append("Plan");
+            sb.append(separator);
+            sb.append(apiLogs ? "Application" : "API");
             sb.append(lineSeparator());
+        }
 
+        if (apiLogs) {
             for (final Object log : searchLogResponse.getLogs()) {
                 final ApiRequestItem apiLog = (ApiRequestItem) log;
                 sb.append(dateFormatter.format(apiLog.getTimestamp()));
@@ -343,13 +358,13 @@ public class LogsServiceImpl implements LogsService {
                 sb.append(separator);
                 sb.append(apiLog.getTransactionId());
                 sb.append(separator);
-                sb.append(apiLog.getMethod());
+                sb.append(String.valueOf(apiLog.getMethod()));
                 sb.append(separator);
                 sb.append(apiLog.getPath());
                 sb.append(separator);
-                sb.append(apiLog.getStatus());
+                sb.append(String.valueOf(apiLog.getStatus()));
                 sb.append(separator);
-                sb.append(apiLog.getResponseTime());
+                sb.append(String.valueOf(apiLog.getResponseTime()));
                 sb.append(separator);
                 final Object plan = searchLogResponse.getMetadata().get(apiLog.getPlan());
                 sb.append(getName(plan));
@@ -358,11 +373,7 @@ public class LogsServiceImpl implements LogsService {
                 sb.append(getName(application));
                 sb.append(lineSeparator());
             }
-
         } else if (searchLogResponse.getLogs().get(0) instanceof ApplicationRequestItem) {
-            sb.append("API");
-            sb.append(lineSeparator());
-
             for (final Object log : searchLogResponse.getLogs()) {
                 final ApplicationRequestItem applicationLog = (ApplicationRequestItem) log;
                 sb.append(dateFormatter.format(applicationLog.getTimestamp()));
@@ -371,13 +382,13 @@ public class LogsServiceImpl implements LogsService {
                 sb.append(separator);
                 sb.append(applicationLog.getTransactionId());
                 sb.append(separator);
-                sb.append(applicationLog.getMethod());
+                sb.append(String.valueOf(applicationLog.getMethod()));
                 sb.append(separator);
                 sb.append(applicationLog.getPath());
                 sb.append(separator);
-                sb.append(applicationLog.getStatus());
+                sb.append(String.valueOf(applicationLog.getStatus()));
                 sb.append(separator);
-                sb.append(applicationLog.getResponseTime());
+                sb.append(String.valueOf(applicationLog.getResponseTime()));
                 sb.append(separator);
                 final Object plan = searchLogResponse.getMetadata().get(applicationLog.getPlan());
                 sb.append(getName(plan));
@@ -387,7 +398,6 @@ public class LogsServiceImpl implements LogsService {
                 sb.append(lineSeparator());
             }
         }
-        return sb.toString();
     }
 
     private String getName(Object map) {
@@ -464,10 +474,10 @@ public class LogsServiceImpl implements LogsService {
 
 
         if (application != null) {
-            metadata.computeIfAbsent(application, getApplicationMetadata(application));
+            metadata.putAll(metadataResolver.getApplicationsMetadata(Collections.singleton(application)));
         }
         if (plan != null) {
-            metadata.computeIfAbsent(plan, getPlanMetadata(plan));
+            metadata.putAll(metadataResolver.getPlansMetadata(Collections.singleton(plan)));
         }
         if (gateway != null) {
             metadata.computeIfAbsent(gateway, getGatewayMetadata(gateway));
@@ -532,10 +542,10 @@ public class LogsServiceImpl implements LogsService {
         String gateway = log.getGateway();
 
         if (api != null) {
-            metadata.computeIfAbsent(api, getAPIMetadata(api));
+            metadata.putAll(metadataResolver.getApisMetadata(Collections.singleton(api)));
         }
         if (plan != null) {
-            metadata.computeIfAbsent(plan, getPlanMetadata(plan));
+            metadata.putAll(metadataResolver.getPlansMetadata(Collections.singleton(plan)));
         }
         if (gateway != null) {
             metadata.computeIfAbsent(gateway, getGatewayMetadata(gateway));
@@ -65,6 +65,8 @@ public class MetadataServiceImpl extends TransactionalService implements Metadat
 
     @Autowired
     private AuditService auditService;
+    @Autowired
+    private PageTemplateCache pageTemplateCache;
 
     @Override
     public List<MetadataEntity> findAllDefault() {
@@ -103,6 +105,7 @@ public class MetadataServiceImpl extends TransactionalService implements Metadat
             metadata.setCreatedAt(now);
             metadata.setUpdatedAt(now);
             metadataRepository.create(metadata);
+            pageTemplateCache.invalidateAll();
             // Audit
             auditService.createPortalAuditLog(
                     Collections.singletonMap(METADATA, metadata.getKey()),
@@ -135,6 +138,7 @@ public class MetadataServiceImpl extends TransactionalService implements Metadat
             final Date now = new Date();
             metadata.setUpdatedAt(now);
             metadataRepository.update(metadata);
+            pageTemplateCache.invalidateAll();
             // Audit
             auditService.createPortalAuditLog(
                     Collections.singletonMap(METADATA, metadata.getKey()),
@@ -155,6 +159,7 @@ public class MetadataServiceImpl extends TransactionalService implements Metadat
             final Optional<Metadata> optMetadata = metadataRepository.findById(key, DEFAUT_REFERENCE_ID, MetadataReferenceType.DEFAULT);
             if (optMetadata.isPresent()) {
                 metadataRepository.delete(key, DEFAUT_REFERENCE_ID, MetadataReferenceType.DEFAULT);
+                pageTemplateCache.invalidateAll();
                 // Audit
                 auditService.createPortalAuditLog(
                         Collections.singletonMap(METADATA, key),
@@ -38,6 +38,7 @@ import io.gravitee.rest.api.service.notification.Hook;
 import io.gravitee.rest.api.service.notification.PortalHook;
 import io.gravitee.rest.api.service.notifiers.EmailNotifierService;
 import io.gravitee.rest.api.service.notifiers.WebhookNotifierService;
+import io.gravitee.rest.api.service.spring.AsyncConfiguration;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -96,21 +97,21 @@ public class NotifierServiceImpl extends AbstractService implements NotifierServ
     WebhookNotifierService webhookNotifierService;
 
     @Override
-    @Async
+    @Async(AsyncConfiguration.NOTIFICATION_EXECUTOR)
     public void trigger(final ApiHook hook, final String apiId, Map<String, Object> params) {
         triggerPortalNotifications(hook, NotificationReferenceType.API, apiId, params);
         triggerGenericNotifications(hook, NotificationReferenceType.API, apiId, params);
     }
 
     @Override
-    @Async
+    @Async(AsyncConfiguration.NOTIFICATION_EXECUTOR)
     public void trigger(final ApplicationHook hook, final String applicationId, Map<String, Object> params) {
         triggerPortalNotifications(hook, NotificationReferenceType.APPLICATION, applicationId, params);
         triggerGenericNotifications(hook, NotificationReferenceType.APPLICATION, applicationId, params);
     }
 
     @Override
-    @Async
+    @Async(AsyncConfiguration.NOTIFICATION_EXECUTOR)
     public void trigger(final PortalHook hook, Map<String, Object> params) {
         triggerPortalNotifications(hook, NotificationReferenceType.PORTAL, PortalNotificationDefaultReferenceId.DEFAULT.name(), params);
         triggerGenericNotifications(hook, NotificationReferenceType.PORTAL, PortalNotificationDefaultReferenceId.DEFAULT.name(), params);
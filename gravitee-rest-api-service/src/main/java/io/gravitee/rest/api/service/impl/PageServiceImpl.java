@@ -17,8 +17,6 @@ package io.gravitee.rest.api.service.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.Gson;
-import freemarker.template.Configuration;
-import freemarker.template.Template;
 import freemarker.template.TemplateException;
 import io.gravitee.common.http.MediaType;
 import io.gravitee.common.utils.UUID;
@@ -55,6 +53,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -62,8 +61,10 @@ import static io.gravitee.repository.management.model.Audit.AuditProperties.PAGE
 import static io.gravitee.repository.management.model.Page.AuditEvent.*;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
-import static org.springframework.ui.freemarker.FreeMarkerTemplateUtils.processTemplateIntoString;
+import static java.util.stream.Collectors.toMap;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -78,6 +79,9 @@ public class PageServiceImpl extends TransactionalService implements PageService
 
 	private static final Logger logger = LoggerFactory.getLogger(PageServiceImpl.class);
 
+	private static final Comparator<Page> TRANSLATION_LANG_COMPARATOR = Comparator.comparing(
+			translation -> translation.getConfiguration().get(PageConfigurationKeys.TRANSLATION_LANG));
+
 	@Autowired
 	private PageRepository pageRepository;
 	@Autowired
@@ -89,8 +93,6 @@ public class PageServiceImpl extends TransactionalService implements PageService
 	@Autowired
 	private FetcherConfigurationFactory fetcherConfigurationFactory;
 	@Autowired
-	private Configuration freemarkerConfiguration;
-	@Autowired
 	private ApplicationContext applicationContext;
 	@Autowired
 	private MembershipService membershipService;
@@ -101,7 +103,7 @@ public class PageServiceImpl extends TransactionalService implements PageService
 	@Autowired
 	private SearchEngineService searchEngineService;
 	@Autowired
-	private MetadataService metadataService;
+	private PageTemplateCache pageTemplateCache;
 
 	@Autowired
 	private GraviteeDescriptorService graviteeDescriptorService;
@@ -247,11 +249,16 @@ public class PageServiceImpl extends TransactionalService implements PageService
             List<PageEntity> pages = pagesStream
 			        .map(this::convert)
 			        .collect(Collectors.toList());
-			
+
+			// translations of all the pages are loaded at once, then dispatched by parent
+			final Map<String, List<Page>> translationsByParent = pages.stream()
+                    .anyMatch(p -> !PageType.TRANSLATION.name().equals(p.getType())) ?
+                    getTranslationsByParent(query) : emptyMap();
+
 			if (acceptedLocale == null || acceptedLocale.isEmpty()) {
                 pages.forEach(p-> {
                     if (!PageType.TRANSLATION.name().equals(p.getType())) {
-                        List<PageEntity> translations = convert(getTranslations(p.getId()));
+                        List<PageEntity> translations = convert(translationsByParent.get(p.getId()));
                         if(translations != null && !translations.isEmpty()) {
                             p.setTranslations(translations);
                         }
@@ -260,7 +267,7 @@ public class PageServiceImpl extends TransactionalService implements PageService
             } else {
                 pages.forEach(p-> {
                     if (!PageType.TRANSLATION.name().equals(p.getType())) {
-                        Page translation = getTranslation(p, acceptedLocale);
+                        Page translation = getTranslation(p, acceptedLocale, translationsByParent);
                         if(translation != null) {
                             String translationName = translation.getName();
                             if(translationName != null && !translationName.isEmpty()) {
@@ -277,12 +284,13 @@ public class PageServiceImpl extends TransactionalService implements PageService
 
 			if (query != null && query.getPublished() != null && query.getPublished()) {
 				// remove child of unpublished folders
+				final Map<String, PageEntity> pagesById = pages.stream()
+						.collect(toMap(PageEntity::getId, Function.identity(), (p1, p2) -> p1));
 				return pages.stream()
 					.filter(page -> {
 						if (page.getParentId() != null) {
-							final Optional<PageEntity> optionalPage =
-									pages.stream().filter(p -> p.getId().equals(page.getParentId())).findFirst();
-							return optionalPage.map(PageEntity::isPublished).orElse(false);
+							final PageEntity parent = pagesById.get(page.getParentId());
+							return parent != null && parent.isPublished();
 						}
 						return true;
 					})
@@ -316,6 +324,33 @@ public class PageServiceImpl extends TransactionalService implements PageService
         }
         return getTranslation(pageToTranslate.getId(), acceptedLocale);
     }
+
+    private Page getTranslation(PageEntity pageToTranslate, String acceptedLocale, Map<String, List<Page>> translationsByParent) {
+        final boolean inheritedLink = PageType.LINK.name().equals(pageToTranslate.getType())
+                && pageToTranslate.getConfiguration() != null
+                && "true".equals(pageToTranslate.getConfiguration().get(PageConfigurationKeys.LINK_INHERIT));
+        final String pageId = inheritedLink ? pageToTranslate.getContent() : pageToTranslate.getId();
+
+        if (inheritedLink && !translationsByParent.containsKey(pageId)) {
+            // the linked page may not be in the scope of the search, fallback to a dedicated query
+            return getTranslation(pageToTranslate, acceptedLocale);
+        }
+
+        final Page translation = translationsByParent.getOrDefault(pageId, emptyList())
+                .stream()
+                .filter(t -> acceptedLocale.equals(t.getConfiguration().get(PageConfigurationKeys.TRANSLATION_LANG)))
+                .findFirst()
+                .orElse(null);
+
+        if (inheritedLink && translation != null) {
+            Page linkTranslation = new Page();
+            linkTranslation.setName(translation.getName());
+            linkTranslation.setContent(translation.getContent());
+            linkTranslation.setConfiguration(Collections.emptyMap());
+            return linkTranslation;
+        }
+        return translation;
+    }
     
    private Page getTranslation(String pageId, String acceptedLocale) {
         try {
@@ -344,22 +379,7 @@ public class PageServiceImpl extends TransactionalService implements PageService
 	public void transformWithTemplate(final PageEntity pageEntity, final String api) {
 		if (pageEntity.getContent() != null) {
 			try {
-				final Template template = new Template(pageEntity.getId(), pageEntity.getContent(), freemarkerConfiguration);
-				final Map<String, Object> model = new HashMap<>();
-				if (api == null) {
-					final List<MetadataEntity> metadataList = metadataService.findAllDefault();
-					if (metadataList != null) {
-						final Map<String, String> mapMetadata = new HashMap<>(metadataList.size());
-						metadataList.forEach(metadata -> mapMetadata.put(metadata.getKey(), metadata.getValue()));
-						model.put("metadata", mapMetadata);
-					}
-				} else {
-					ApiModelEntity apiEntity = apiService.findByIdForTemplates(api);
-					model.put("api", apiEntity);
-				}
-
-				final String content = processTemplateIntoString(template, model);
-
+				final String content = pageTemplateCache.render(pageEntity.getId(), pageEntity.getContent(), api);
 				pageEntity.setContent(content);
 			} catch (IOException | TemplateException ex) {
 				logger.error("An error occurs while transforming page content for {}", pageEntity.getId(), ex);
@@ -1433,11 +1453,7 @@ public class PageServiceImpl extends TransactionalService implements PageService
         try {
             List<Page> searchResult = this.pageRepository
                     .search(new PageCriteria.Builder().parent(pageId).type(PageType.TRANSLATION.name()).build());
-            searchResult.sort((p1, p2) -> {
-                String lang1 = p1.getConfiguration().get(PageConfigurationKeys.TRANSLATION_LANG);
-                String lang2 = p2.getConfiguration().get(PageConfigurationKeys.TRANSLATION_LANG);
-                return lang1.compareTo(lang2);
-            });
+            searchResult.sort(TRANSLATION_LANG_COMPARATOR);
             return searchResult;
         } catch (TechnicalException ex) {
             logger.error("An error occurs while trying to search pages", ex);
@@ -1446,6 +1462,31 @@ public class PageServiceImpl extends TransactionalService implements PageService
         }
     }
 
+    /**
+     * Load the translations of all the pages in the scope (API or environment) of the query, by parent page.
+     */
+    private Map<String, List<Page>> getTranslationsByParent(PageQuery query) {
+        try {
+            final PageCriteria.Builder builder = new PageCriteria.Builder().type(PageType.TRANSLATION.name());
+            if (query != null && query.getApi() != null) {
+                builder.referenceId(query.getApi()).referenceType(PageReferenceType.API.name());
+            } else if (query != null) {
+                builder.referenceId(GraviteeContext.getCurrentEnvironment()).referenceType(PageReferenceType.ENVIRONMENT.name());
+            }
+
+            final Map<String, List<Page>> translationsByParent = this.pageRepository.search(builder.build())
+                    .stream()
+                    .filter(translation -> translation.getParentId() != null)
+                    .collect(groupingBy(Page::getParentId));
+            translationsByParent.values().forEach(translations -> translations.sort(TRANSLATION_LANG_COMPARATOR));
+            return translationsByParent;
+        } catch (TechnicalException ex) {
+            logger.error("An error occurs while trying to search pages", ex);
+            throw new TechnicalManagementException(
+                    "An error occurs while trying to search pages", ex);
+        }
+    }
+
     private static Page merge(UpdatePageEntity updatePageEntity, Page withUpdatePage) {
 
         Page page = new Page();
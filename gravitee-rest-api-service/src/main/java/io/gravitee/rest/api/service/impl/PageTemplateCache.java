@@ -0,0 +1,185 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import io.gravitee.rest.api.model.ApiModelEntity;
+import io.gravitee.rest.api.model.MetadataEntity;
+import io.gravitee.rest.api.service.ApiService;
+import io.gravitee.rest.api.service.MetadataService;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.ui.freemarker.FreeMarkerTemplateUtils.processTemplateIntoString;
+
+/**
+ * Renders the content of the documentation pages as Freemarker templates.
+ *
+ * Parsed templates are kept by page, as long as the content of the page does not change. The model of an API (or the
+ * default metadata for portal pages) is kept for <code>management.documentation.templates.cache.ttl</code> seconds,
+ * or until the API or its metadata are updated on this node. The output of a page is rendered again only when its
+ * template or its model have changed.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class PageTemplateCache implements InitializingBean {
+
+    private static final String DEFAULT_MODEL = "";
+
+    @Autowired
+    private Configuration freemarkerConfiguration;
+
+    @Autowired
+    private ApiService apiService;
+
+    @Autowired
+    private MetadataService metadataService;
+
+    @Value("${management.documentation.templates.cache.ttl:30}")
+    private long cacheTtl;
+
+    @Value("${management.documentation.templates.cache.max_size:1000}")
+    private long cacheMaxSize;
+
+    private Cache<String, PageTemplate> templates;
+    private Cache<String, Map<String, Object>> models;
+
+    @Override
+    public void afterPropertiesSet() {
+        // Templates are checked against the content of the page, so they do not need to expire.
+        templates = CacheBuilder
+                .newBuilder()
+                .maximumSize(cacheMaxSize)
+                .build();
+        models = CacheBuilder
+                .newBuilder()
+                .expireAfterWrite(cacheTtl, TimeUnit.SECONDS)
+                .maximumSize(cacheMaxSize)
+                .build();
+    }
+
+    /**
+     * Render the content of a page with the model of its API, or with the default metadata if the page does not belong
+     * to an API.
+     */
+    public String render(String page, String content, String api) throws IOException, TemplateException {
+        final Map<String, Object> model = getModel(api);
+
+        if (page == null) {
+            return processTemplateIntoString(new Template(null, content, freemarkerConfiguration), model);
+        }
+
+        PageTemplate template = templates.getIfPresent(page);
+        if (template == null || !template.content.equals(content)) {
+            template = new PageTemplate(content, new Template(page, content, freemarkerConfiguration));
+            templates.put(page, template);
+        }
+
+        return template.render(model);
+    }
+
+    /**
+     * Forget the model of an API, for example when the API or its metadata are updated.
+     */
+    public void invalidate(String api) {
+        models.invalidate(api);
+    }
+
+    /**
+     * Forget the model of all the APIs and the default metadata, for example when a default metadata is updated.
+     */
+    public void invalidateAll() {
+        models.invalidateAll();
+    }
+
+    private Map<String, Object> getModel(String api) {
+        final String key = api == null ? DEFAULT_MODEL : api;
+
+        Map<String, Object> model = models.getIfPresent(key);
+        if (model == null) {
+            model = Collections.unmodifiableMap(loadModel(api));
+            models.put(key, model);
+        }
+
+        return model;
+    }
+
+    private Map<String, Object> loadModel(String api) {
+        final Map<String, Object> model = new HashMap<>();
+        if (api == null) {
+            final List<MetadataEntity> metadataList = metadataService.findAllDefault();
+            if (metadataList != null) {
+                final Map<String, String> mapMetadata = new HashMap<>(metadataList.size());
+                metadataList.forEach(metadata -> mapMetadata.put(metadata.getKey(), metadata.getValue()));
+                model.put("metadata", mapMetadata);
+            }
+        } else {
+            ApiModelEntity apiEntity = apiService.findByIdForTemplates(api);
+            model.put("api", apiEntity);
+        }
+        return model;
+    }
+
+    private static final class PageTemplate {
+
+        private final String content;
+        private final Template template;
+
+        private volatile RenderedPage rendered;
+
+        private PageTemplate(String content, Template template) {
+            this.content = content;
+            this.template = template;
+        }
+
+        private String render(Map<String, Object> model) throws IOException, TemplateException {
+            final RenderedPage last = rendered;
+            if (last != null && last.model == model) {
+                return last.output;
+            }
+
+            final String output = processTemplateIntoString(template, model);
+            rendered = new RenderedPage(model, output);
+            return output;
+        }
+    }
+
+    private static final class RenderedPage {
+
+        private final Map<String, Object> model;
+        private final String output;
+
+        private RenderedPage(Map<String, Object> model, String output) {
+            this.model = model;
+            this.output = output;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.impl;
+
+import io.gravitee.rest.api.model.RoleEntity;
+import io.gravitee.rest.api.model.permissions.Permission;
+import io.gravitee.rest.api.model.permissions.RolePermissionAction;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The permissions of a single user, by reference.
+ *
+ * The permissions of a reference are merged from the direct membership of the user or from the memberships of the
+ * groups of the reference. They are stored as a bitset: one byte by permission (indexed by the permission mask divided
+ * by 100), holding the CRUD flags of the {@link RolePermissionAction}.
+ *
+ * @author GraviteeSource Team
+ */
+public class PermissionMatrix {
+
+    private static final byte[] NO_PERMISSION = new byte[0];
+    private static final int MASK_FACTOR = 100;
+
+    private final Map<String, byte[]> permissions = new ConcurrentHashMap<>();
+
+    public byte[] get(String reference, Function<String, byte[]> loader) {
+        return permissions.computeIfAbsent(reference, loader);
+    }
+
+    public void invalidate(String reference) {
+        permissions.remove(reference);
+    }
+
+    public int size() {
+        return permissions.size();
+    }
+
+    /**
+     * Merge the permissions of the given roles into a bitset.
+     */
+    public static byte[] toBits(Collection<RoleEntity> roles) {
+        byte[] bits = NO_PERMISSION;
+        for (RoleEntity role : roles) {
+            if (role == null || role.getPermissions() == null) {
+                continue;
+            }
+            for (Map.Entry<String, char[]> entry : role.getPermissions().entrySet()) {
+                Permission permission;
+                try {
+                    permission = Permission.findByScopeAndName(role.getScope(), entry.getKey());
+                } catch (IllegalArgumentException iae) {
+                    // Unknown permission, probably coming from a previous version
+                    continue;
+                }
+                int index = permission.getMask() / MASK_FACTOR;
+                if (index >= bits.length) {
+                    bits = Arrays.copyOf(bits, index + 1);
+                }
+                for (char action : entry.getValue()) {
+                    bits[index] |= RolePermissionAction.findById(action).getMask();
+                }
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * @return <code>true</code> if at least one of the given actions is granted for the permission.
+     */
+    public static boolean hasPermission(byte[] bits, Permission permission, RolePermissionAction... acls) {
+        int index = permission.getMask() / MASK_FACTOR;
+        if (index < 0 || index >= bits.length) {
+            return false;
+        }
+        for (RolePermissionAction acl : acls) {
+            if ((bits[index] & acl.getMask()) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
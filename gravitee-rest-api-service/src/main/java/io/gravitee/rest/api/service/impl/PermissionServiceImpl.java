@@ -15,27 +15,66 @@
  */
 package io.gravitee.rest.api.service.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.gravitee.common.utils.UUID;
+import io.gravitee.node.api.Node;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.ApplicationRepository;
+import io.gravitee.repository.management.api.CommandRepository;
+import io.gravitee.repository.management.api.GroupRepository;
+import io.gravitee.repository.management.api.search.CommandCriteria;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Application;
+import io.gravitee.repository.management.model.Command;
 import io.gravitee.repository.management.model.MembershipDefaultReferenceId;
 import io.gravitee.repository.management.model.MembershipReferenceType;
+import io.gravitee.repository.management.model.MessageRecipient;
 import io.gravitee.rest.api.model.RoleEntity;
 import io.gravitee.rest.api.model.permissions.RolePermission;
 import io.gravitee.rest.api.model.permissions.RolePermissionAction;
 import io.gravitee.rest.api.service.*;
 import io.gravitee.rest.api.service.exceptions.ApiNotFoundException;
+import io.gravitee.rest.api.service.exceptions.ApplicationNotFoundException;
+import io.gravitee.rest.api.service.exceptions.GroupNotFoundException;
+import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.Collections;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * The permissions of the users are cached for <code>management.permissions.cache.ttl</code> seconds.
+ *
+ * Invalidations are propagated to the other nodes by using the command channel, the same way as the repository
+ * caches: the other nodes drop the permissions at their next check, every
+ * <code>management.permissions.cache.invalidation.interval</code> seconds. A node which fails to check for
+ * invalidations stops serving its cached permissions until the next successful check.
+ *
  * @author Nicolas GERAUD(nicolas.geraud at graviteesource.com)
  * @author GraviteeSource Team
  */
 @Component
-public class PermissionServiceImpl extends AbstractService implements PermissionService {
+public class PermissionServiceImpl extends AbstractService implements PermissionService, InitializingBean, DisposableBean {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(PermissionServiceImpl.class);
+
+    static final String PERMISSION_INVALIDATION_TAG = "PERMISSION_INVALIDATION";
+    private static final String REFERENCE_SEPARATOR = ":";
+    private static final String USER_INVALIDATION = "USER";
+    private static final String REFERENCE_INVALIDATION = "REFERENCE";
+    private static final String ALL_INVALIDATION = "ALL";
+    private static final String DEFAULT_ENVIRONMENT = "DEFAULT";
 
     @Autowired
     MembershipService membershipService;
@@ -49,6 +88,60 @@ public class PermissionServiceImpl extends AbstractService implements Permission
     @Autowired
     RoleService roleService;
 
+    @Autowired
+    ApiRepository apiRepository;
+
+    @Autowired
+    ApplicationRepository applicationRepository;
+
+    @Autowired
+    GroupRepository groupRepository;
+
+    @Autowired
+    CommandRepository commandRepository;
+
+    @Autowired
+    Node node;
+
+    @Value("${management.permissions.cache.ttl:60}")
+    private long cacheTtl;
+
+    @Value("${management.permissions.cache.max_size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${management.permissions.cache.invalidation.interval:1}")
+    private long invalidationInterval;
+
+    /**
+     * Permission matrices, by user.
+     */
+    private Cache<String, PermissionMatrix> matrices;
+
+    private volatile long lastInvalidationCheck;
+    private ScheduledExecutorService invalidationExecutor;
+
+    @Override
+    public void afterPropertiesSet() {
+        matrices = CacheBuilder
+                .newBuilder()
+                .expireAfterWrite(cacheTtl, TimeUnit.SECONDS)
+                .maximumSize(cacheMaxSize)
+                .build();
+
+        lastInvalidationCheck = System.currentTimeMillis();
+        invalidationExecutor = Executors.newSingleThreadScheduledExecutor(
+                runnable -> new Thread(runnable, "permission-cache-invalidation"));
+        invalidationExecutor.scheduleWithFixedDelay(this::processRemoteInvalidations,
+                invalidationInterval, invalidationInterval, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (invalidationExecutor != null) {
+            invalidationExecutor.shutdownNow();
+        }
+    }
+
     @Override
     public boolean hasPermission(RolePermission permission, String referenceId, RolePermissionAction... acls) {
         Optional<String> optionalReferenceId = Optional.ofNullable(referenceId);
@@ -101,4 +194,198 @@ public class PermissionServiceImpl extends AbstractService implements Permission
         }
         return false;
     }
+
+    @Override
+    public boolean hasPermission(String userId, RolePermission permission, String referenceId, RolePermissionAction... acls) {
+        if (userId == null) {
+            return false;
+        }
+
+        final MembershipReferenceType referenceType;
+        final String id;
+        switch (permission.getScope()) {
+            case MANAGEMENT:
+                referenceType = MembershipReferenceType.MANAGEMENT;
+                id = MembershipDefaultReferenceId.DEFAULT.name();
+                break;
+            case PORTAL:
+                referenceType = MembershipReferenceType.PORTAL;
+                id = MembershipDefaultReferenceId.DEFAULT.name();
+                break;
+            case API:
+                referenceType = MembershipReferenceType.API;
+                id = referenceId;
+                break;
+            case APPLICATION:
+                referenceType = MembershipReferenceType.APPLICATION;
+                id = referenceId;
+                break;
+            case GROUP:
+                referenceType = MembershipReferenceType.GROUP;
+                id = referenceId;
+                break;
+            default:
+                return false;
+        }
+
+        if (id == null) {
+            return false;
+        }
+
+        if (!isUpToDate()) {
+            return PermissionMatrix.hasPermission(loadPermissions(userId, referenceType, id), permission.getPermission(), acls);
+        }
+
+        final String reference = referenceType.name() + REFERENCE_SEPARATOR + id;
+        final PermissionMatrix matrix;
+        try {
+            matrix = matrices.get(userId, PermissionMatrix::new);
+        } catch (Exception ex) {
+            throw new TechnicalManagementException("An error occurs while trying to get permissions of user " + userId, ex);
+        }
+
+        byte[] permissions = matrix.get(reference, key -> loadPermissions(userId, referenceType, id));
+        return PermissionMatrix.hasPermission(permissions, permission.getPermission(), acls);
+    }
+
+    @Override
+    public void invalidatePermissions(String userId) {
+        if (userId != null) {
+            invalidate(USER_INVALIDATION + REFERENCE_SEPARATOR + userId);
+        }
+    }
+
+    @Override
+    public void invalidatePermissions(MembershipReferenceType referenceType, String referenceId) {
+        invalidate(REFERENCE_INVALIDATION + REFERENCE_SEPARATOR + referenceType.name() + REFERENCE_SEPARATOR + referenceId);
+    }
+
+    @Override
+    public void invalidateAllPermissions() {
+        invalidate(ALL_INVALIDATION);
+    }
+
+    /**
+     * Invalidate permissions on the local node, then ask the other nodes to do the same.
+     */
+    private void invalidate(String invalidation) {
+        invalidateLocally(invalidation);
+
+        Command command = new Command();
+        command.setId(UUID.toString(java.util.UUID.randomUUID()));
+        command.setEnvironment(DEFAULT_ENVIRONMENT);
+        command.setFrom(node.id());
+        command.setTo(MessageRecipient.MANAGEMENT_APIS.name());
+        command.setTags(Collections.singletonList(PERMISSION_INVALIDATION_TAG));
+        long now = System.currentTimeMillis();
+        command.setCreatedAt(new Date(now));
+        command.setUpdatedAt(command.getCreatedAt());
+        command.setExpiredAt(new Date(now + 60 * 1000));
+        command.setContent(invalidation);
+
+        try {
+            commandRepository.create(command);
+        } catch (Exception ex) {
+            LOGGER.error("An error occurs while sending permission invalidation {}", invalidation, ex);
+        }
+    }
+
+    private void invalidateLocally(String invalidation) {
+        if (ALL_INVALIDATION.equals(invalidation)) {
+            matrices.invalidateAll();
+            return;
+        }
+
+        int separator = invalidation.indexOf(REFERENCE_SEPARATOR);
+        if (separator < 0) {
+            return;
+        }
+
+        String type = invalidation.substring(0, separator);
+        String value = invalidation.substring(separator + 1);
+        if (USER_INVALIDATION.equals(type)) {
+            matrices.invalidate(value);
+        } else if (REFERENCE_INVALIDATION.equals(type)) {
+            matrices.asMap().values().forEach(matrix -> matrix.invalidate(value));
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the invalidations sent by the other nodes have been checked recently enough for the
+     * cached permissions to be served.
+     */
+    boolean isUpToDate() {
+        return System.currentTimeMillis() - lastInvalidationCheck <= 3 * TimeUnit.SECONDS.toMillis(invalidationInterval);
+    }
+
+    void processRemoteInvalidations() {
+        try {
+            long startedAt = System.currentTimeMillis();
+
+            CommandCriteria criteria = new CommandCriteria.Builder()
+                    .to(MessageRecipient.MANAGEMENT_APIS.name())
+                    .tags(PERMISSION_INVALIDATION_TAG)
+                    .notAckBy(node.id())
+                    .notDeleted()
+                    .build();
+
+            for (Command command : commandRepository.search(criteria)) {
+                if (!node.id().equals(command.getFrom()) && command.getContent() != null) {
+                    invalidateLocally(command.getContent());
+                }
+
+                List<String> acknowledgments = command.getAcknowledgments() == null ?
+                        new ArrayList<>() : new ArrayList<>(command.getAcknowledgments());
+                acknowledgments.add(node.id());
+                command.setAcknowledgments(acknowledgments);
+                commandRepository.update(command);
+            }
+
+            lastInvalidationCheck = startedAt;
+        } catch (Exception ex) {
+            LOGGER.error("An error occurs while processing remote permission invalidations", ex);
+        }
+    }
+
+    private byte[] loadPermissions(String userId, MembershipReferenceType referenceType, String referenceId) {
+        try {
+            LOGGER.debug("Load permissions of user {} for {} {}", userId, referenceType, referenceId);
+            final io.gravitee.repository.management.model.RoleScope roleScope;
+            Set<String> groups = null;
+            switch (referenceType) {
+                case API:
+                    roleScope = io.gravitee.repository.management.model.RoleScope.API;
+                    Api api = apiRepository.findById(referenceId).orElseThrow(() -> new ApiNotFoundException(referenceId));
+                    groups = api.getGroups();
+                    break;
+                case APPLICATION:
+                    roleScope = io.gravitee.repository.management.model.RoleScope.APPLICATION;
+                    Application application = applicationRepository.findById(referenceId).orElseThrow(() -> new ApplicationNotFoundException(referenceId));
+                    groups = application.getGroups();
+                    break;
+                case GROUP:
+                    roleScope = io.gravitee.repository.management.model.RoleScope.GROUP;
+                    if (!groupRepository.findById(referenceId).isPresent()) {
+                        throw new GroupNotFoundException(referenceId);
+                    }
+                    break;
+                case MANAGEMENT:
+                    roleScope = io.gravitee.repository.management.model.RoleScope.MANAGEMENT;
+                    break;
+                default:
+                    roleScope = io.gravitee.repository.management.model.RoleScope.PORTAL;
+            }
+
+            RoleEntity role = membershipService.getRole(referenceType, referenceId, userId, roleScope);
+            if (role != null) {
+                return PermissionMatrix.toBits(Collections.singleton(role));
+            } else if (groups != null && !groups.isEmpty()) {
+                return PermissionMatrix.toBits(membershipService.getRoles(MembershipReferenceType.GROUP, groups, userId, roleScope));
+            }
+            return PermissionMatrix.toBits(Collections.emptySet());
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to load permissions of user {} for {} {}", userId, referenceType, referenceId, ex);
+            throw new TechnicalManagementException("An error occurs while trying to load permissions of user " + userId + " for " + referenceType + " " + referenceId, ex);
+        }
+    }
 }
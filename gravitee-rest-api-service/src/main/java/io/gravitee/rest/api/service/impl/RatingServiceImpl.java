@@ -15,6 +15,9 @@
  */
 package io.gravitee.rest.api.service.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.utils.UUID;
 import io.gravitee.rest.api.model.*;
@@ -37,10 +40,15 @@ import io.gravitee.repository.management.model.RatingReferenceType;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static java.util.Comparator.comparing;
 import static java.util.Comparator.reverseOrder;
@@ -48,11 +56,14 @@ import static java.util.stream.Collectors.*;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
 /**
+ * Rating summaries are computed once by API, then kept up to date on each rating creation, update or deletion made
+ * by this node. Changes made by other nodes are seen after <code>management.ratings.summaries.cache.ttl</code> seconds.
+ *
  * @author Azize ELAMRANI (azize at graviteesource.com)
  * @author GraviteeSource Team
  */
 @Component
-public class RatingServiceImpl extends AbstractService implements RatingService {
+public class RatingServiceImpl extends AbstractService implements RatingService, InitializingBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RatingServiceImpl.class);
 
@@ -76,6 +87,23 @@ public class RatingServiceImpl extends AbstractService implements RatingService
     @Autowired
     private ApiService apiService;
 
+    @Value("${management.ratings.summaries.cache.ttl:300}")
+    private long summariesCacheTtl;
+
+    @Value("${management.ratings.summaries.cache.max_size:10000}")
+    private long summariesCacheMaxSize;
+
+    private Cache<String, RatingAggregate> summaries;
+
+    @Override
+    public void afterPropertiesSet() {
+        summaries = CacheBuilder
+                .newBuilder()
+                .expireAfterWrite(summariesCacheTtl, TimeUnit.SECONDS)
+                .maximumSize(summariesCacheMaxSize)
+                .build();
+    }
+
     @Override
     public RatingEntity create(final NewRatingEntity ratingEntity) {
         if (!isEnabled()) {
@@ -86,7 +114,9 @@ public class RatingServiceImpl extends AbstractService implements RatingService
             if (ratingOptional.isPresent()) {
                 throw new RatingAlreadyExistsException(ratingEntity.getApi(), getAuthenticatedUsername());
             }
+            final RatingAggregate summary = summaries.getIfPresent(ratingEntity.getApi());
             Rating rating = ratingRepository.create(convert(ratingEntity));
+            updateSummary(rating.getReferenceId(), summary, aggregate -> aggregate.add(rating.getRate()));
             auditService.createApiAuditLog(rating.getReferenceId(), null, Rating.RatingEvent.RATING_CREATED, rating.getCreatedAt(), null, rating);
 
             notifierService.trigger(
@@ -174,24 +204,26 @@ public class RatingServiceImpl extends AbstractService implements RatingService
 
     @Override
     public RatingSummaryEntity findSummaryByApi(final String api) {
+        return findSummariesByApis(Collections.singleton(api)).get(api);
+    }
+
+    @Override
+    public Map<String, RatingSummaryEntity> findSummariesByApis(final Collection<String> apis) {
         if (!isEnabled()) {
             throw new ApiRatingUnavailableException();
         }
-        try {
-            final List<Rating> ratings = ratingRepository.findByReferenceIdAndReferenceType(api, RatingReferenceType.API);
-            final RatingSummaryEntity ratingSummary = new RatingSummaryEntity();
-            ratingSummary.setApi(api);
-            ratingSummary.setNumberOfRatings(ratings.size());
-            final OptionalDouble optionalAvg = ratings.stream().mapToInt(Rating::getRate).average();
-            if (optionalAvg.isPresent()) {
-                ratingSummary.setAverageRate(optionalAvg.getAsDouble());
+        final Map<String, RatingSummaryEntity> ratingSummaries = new HashMap<>(apis.size());
+        for (String api : apis) {
+            try {
+                final RatingAggregate aggregate = summaries.get(api, () -> new RatingAggregate(
+                        ratingRepository.findByReferenceIdAndReferenceType(api, RatingReferenceType.API)));
+                ratingSummaries.put(api, aggregate.toSummary(api));
+            } catch (ExecutionException | UncheckedExecutionException ex) {
+                LOGGER.error("An error occurred while trying to find summary rating for api {}", api, ex.getCause());
+                throw new TechnicalManagementException("An error occurred while trying to find summary rating for api " + api, ex.getCause());
             }
-            ratingSummary.setNumberOfRatingsByRate(ratings.stream().collect(groupingBy(Rating::getRate, counting())));
-            return ratingSummary;
-        } catch (TechnicalException ex) {
-            LOGGER.error("An error occurred while trying to find summary rating for api {}", api, ex);
-            throw new TechnicalManagementException("An error occurred while trying to find summary rating for api " + api, ex);
         }
+        return ratingSummaries;
     }
 
     @Override
@@ -234,7 +266,12 @@ public class RatingServiceImpl extends AbstractService implements RatingService
             if (isBlank(rating.getComment())) {
                 rating.setComment(ratingEntity.getComment());
             }
+            final RatingAggregate summary = summaries.getIfPresent(rating.getReferenceId());
             Rating updatedRating = ratingRepository.update(rating);
+            updateSummary(updatedRating.getReferenceId(), summary, aggregate -> {
+                aggregate.remove(oldRating.getRate());
+                aggregate.add(updatedRating.getRate());
+            });
             auditService.createApiAuditLog(rating.getReferenceId(), null, Rating.RatingEvent.RATING_UPDATED, updatedRating.getUpdatedAt(), oldRating, updatedRating);
             return convert(updatedRating);
         } catch (TechnicalException ex) {
@@ -250,7 +287,9 @@ public class RatingServiceImpl extends AbstractService implements RatingService
         }
         try {
             Rating rating = findModelById(id);
+            final RatingAggregate summary = summaries.getIfPresent(rating.getReferenceId());
             ratingRepository.delete(id);
+            updateSummary(rating.getReferenceId(), summary, aggregate -> aggregate.remove(rating.getRate()));
             auditService.createApiAuditLog(rating.getReferenceId(), null, Rating.RatingEvent.RATING_DELETED, new Date(), rating, null);
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to delete rating {}", id, ex);
@@ -294,6 +333,18 @@ public class RatingServiceImpl extends AbstractService implements RatingService
         }
     }
 
+    /**
+     * Apply a change to the summary of an API, as it was cached before the change was written. If it was not cached,
+     * or has been reloaded since then, the cached summary may already include the change: it is invalidated instead.
+     */
+    private void updateSummary(String api, RatingAggregate summary, Consumer<RatingAggregate> update) {
+        if (summary != null && summaries.getIfPresent(api) == summary) {
+            update.accept(summary);
+        } else {
+            summaries.invalidate(api);
+        }
+    }
+
     private RatingEntity convert(final Rating rating) {
         final RatingEntity ratingEntity = new RatingEntity();
 
@@ -351,4 +402,41 @@ public class RatingServiceImpl extends AbstractService implements RatingService
         rating.setUpdatedAt(now);
         return rating;
     }
+
+    /**
+     * Number of ratings by rate of an API, from which the rating summary is computed.
+     */
+    private static class RatingAggregate {
+
+        private final Map<Byte, Long> numberOfRatingsByRate = new HashMap<>();
+
+        private RatingAggregate(List<Rating> ratings) {
+            ratings.forEach(rating -> add(rating.getRate()));
+        }
+
+        private synchronized void add(byte rate) {
+            numberOfRatingsByRate.merge(rate, 1L, Long::sum);
+        }
+
+        private synchronized void remove(byte rate) {
+            numberOfRatingsByRate.computeIfPresent(rate, (r, count) -> count > 1 ? count - 1 : null);
+        }
+
+        private synchronized RatingSummaryEntity toSummary(String api) {
+            final RatingSummaryEntity ratingSummary = new RatingSummaryEntity();
+            ratingSummary.setApi(api);
+            long numberOfRatings = 0;
+            long sumOfRates = 0;
+            for (Map.Entry<Byte, Long> rate : numberOfRatingsByRate.entrySet()) {
+                numberOfRatings += rate.getValue();
+                sumOfRates += rate.getKey() * rate.getValue();
+            }
+            ratingSummary.setNumberOfRatings((int) numberOfRatings);
+            if (numberOfRatings > 0) {
+                ratingSummary.setAverageRate((double) sumOfRates / numberOfRatings);
+            }
+            ratingSummary.setNumberOfRatingsByRate(new HashMap<>(numberOfRatingsByRate));
+            return ratingSummary;
+        }
+    }
 }
@@ -26,6 +26,7 @@ import io.gravitee.rest.api.model.UpdateRoleEntity;
 import io.gravitee.rest.api.model.permissions.*;
 import io.gravitee.rest.api.service.AuditService;
 import io.gravitee.rest.api.service.MembershipService;
+import io.gravitee.rest.api.service.PermissionService;
 import io.gravitee.rest.api.service.RoleService;
 import io.gravitee.rest.api.service.common.DefaultRoleEntityDefinition;
 import io.gravitee.rest.api.service.common.GraviteeContext;
@@ -68,6 +69,8 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
 
     @Autowired
     private AuditService auditService;
+    @Autowired
+    private PermissionService permissionService;
 
     @Override
     public RoleEntity findById(final RoleScope scope, final String name) {
@@ -154,6 +157,7 @@ public class RoleServiceImpl extends AbstractService implements RoleService {
             Role updatedRole = convert(roleEntity);
             updatedRole.setCreatedAt(role.getCreatedAt());
             RoleEntity entity = convert(roleRepository.update(updatedRole));
+            permissionService.invalidateAllPermissions();
             auditService.createPortalAuditLog(
                     Collections.singletonMap(ROLE, role.getScope()+":"+role.getName()),
                     ROLE_UPDATED,
@@ -19,7 +19,6 @@ import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.utils.UUID;
 import io.gravitee.repository.management.model.ApplicationStatus;
 import io.gravitee.rest.api.model.*;
-import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.application.ApplicationListItem;
 import io.gravitee.rest.api.model.common.Pageable;
 import io.gravitee.rest.api.model.pagedresult.Metadata;
@@ -92,6 +91,8 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
     private NotifierService notifierService;
     @Autowired
     private GroupService groupService;
+    @Autowired
+    private AnalyticsMetadataResolver metadataResolver;
 
     @Override
     public SubscriptionEntity findById(String subscription) {
@@ -706,6 +707,10 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
         try {
             logger.debug("Search subscriptions {}", query);
 
+            if (query.getApiKey() != null && !query.getApiKey().isEmpty()) {
+                return findByApiKey(query).map(this::convert).map(Collections::singletonList).orElse(emptyList());
+            }
+
             SubscriptionCriteria.Builder builder = new SubscriptionCriteria.Builder()
                     .apis(query.getApis())
                     .applications(query.getApplications())
@@ -720,15 +725,15 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
                         .collect(Collectors.toSet()));
             }
 
-            Stream<SubscriptionEntity> subscriptionsStream =
-                    subscriptionRepository.search(builder.build()).stream().map(this::convert);
-            if (query.getApiKey() != null && !query.getApiKey().isEmpty()) {
-                subscriptionsStream = subscriptionsStream.filter(subscriptionEntity -> {
-                    final Set<ApiKeyEntity> apiKeys = apiKeyService.findBySubscription(subscriptionEntity.getId());
-                    return apiKeys.stream().anyMatch(apiKeyEntity -> apiKeyEntity.getKey().equals(query.getApiKey()));
-                });
+            Stream<Subscription> stream = subscriptionRepository.search(builder.build()).stream();
+            if (query.getEndingAtBefore() > 0) {
+                // SubscriptionCriteria has no end date filter: the subscriptions matching the other criteria are all
+                // loaded, only the conversion is saved for those which are not ending.
+                stream = stream.filter(subscription -> subscription.getEndingAt() != null
+                        && subscription.getEndingAt().getTime() < query.getEndingAtBefore());
             }
-            return subscriptionsStream.collect(toList());
+
+            return stream.map(this::convert).collect(toList());
         } catch (TechnicalException ex) {
             logger.error("An error occurs while trying to search for subscriptions: {}", query, ex);
             throw new TechnicalManagementException(
@@ -741,6 +746,17 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
         try {
             logger.debug("Search pageable subscriptions {}", query);
 
+            if (query.getEndingAtBefore() > 0) {
+                // Filtering a page in memory would break the page size and the total
+                throw new IllegalArgumentException("The end date is not supported by paginated subscription searches");
+            }
+
+            if (query.getApiKey() != null && !query.getApiKey().isEmpty()) {
+                List<SubscriptionEntity> subscriptionEntities = findByApiKey(query)
+                        .map(this::convert).map(Collections::singletonList).orElse(emptyList());
+                return new Page<>(subscriptionEntities, 1, subscriptionEntities.size(), subscriptionEntities.size());
+            }
+
             SubscriptionCriteria.Builder builder = new SubscriptionCriteria.Builder()
                     .apis(query.getApis())
                     .applications(query.getApplications())
@@ -762,20 +778,11 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
                                     .pageSize(pageable.getPageSize())
                                     .build());
 
-            Stream<SubscriptionEntity> subscriptionsStream = pageSubscription.getContent().stream().map(this::convert);
-
-            if (query.getApiKey() != null && !query.getApiKey().isEmpty()) {
-                subscriptionsStream = subscriptionsStream.filter(subscriptionEntity -> {
-                    final Set<ApiKeyEntity> apiKeys = apiKeyService.findBySubscription(subscriptionEntity.getId());
-                    return apiKeys.stream().anyMatch(apiKeyEntity -> apiKeyEntity.getKey().equals(query.getApiKey()));
-                });
-                final Optional<SubscriptionEntity> sub = subscriptionsStream.findAny();
-                List<SubscriptionEntity> subscriptionEntities = sub.map(Collections::singletonList).orElse(emptyList());
-                return new Page<>(subscriptionEntities, 1, subscriptionEntities.size(), subscriptionEntities.size());
-            } else {
-                return new Page<>(subscriptionsStream.collect(toList()), pageSubscription.getPageNumber() + 1,
-                        (int) pageSubscription.getPageElements(), pageSubscription.getTotalElements());
-            }
+            List<SubscriptionEntity> subscriptionEntities = pageSubscription.getContent().stream()
+                    .map(this::convert)
+                    .collect(toList());
+            return new Page<>(subscriptionEntities, pageSubscription.getPageNumber() + 1,
+                    (int) pageSubscription.getPageElements(), pageSubscription.getTotalElements());
         } catch (TechnicalException ex) {
             logger.error("An error occurs while trying to search for pageable subscriptions: {}", query, ex);
             throw new TechnicalManagementException(
@@ -783,6 +790,33 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
         }
     }
 
+    /**
+     * Find the subscription of the API key of the query, if it matches the other criteria of the query.
+     * The key is looked up directly, rather than by loading the keys of each subscription. The period of the query
+     * is not supported along with an API key.
+     */
+    private Optional<Subscription> findByApiKey(SubscriptionQuery query) throws TechnicalException {
+        final ApiKeyEntity apiKey;
+        try {
+            apiKey = apiKeyService.findByKey(query.getApiKey());
+        } catch (ApiKeyNotFoundException anfe) {
+            return Optional.empty();
+        }
+
+        return subscriptionRepository.findById(apiKey.getSubscription())
+                .filter(subscription -> matches(query.getApis(), subscription.getApi()))
+                .filter(subscription -> matches(query.getApplications(), subscription.getApplication()))
+                .filter(subscription -> matches(query.getPlans(), subscription.getPlan()))
+                .filter(subscription -> query.getStatuses() == null || query.getStatuses().isEmpty() ||
+                        query.getStatuses().stream().anyMatch(status -> status.name().equals(subscription.getStatus().name())))
+                .filter(subscription -> query.getEndingAtBefore() <= 0 || (subscription.getEndingAt() != null
+                        && subscription.getEndingAt().getTime() < query.getEndingAtBefore()));
+    }
+
+    private static boolean matches(Collection<String> values, String value) {
+        return values == null || values.isEmpty() || values.contains(value);
+    }
+
     @Override
     public SubscriptionEntity transfer(final TransferSubscriptionEntity transferSubscription, String userId) {
         try {
@@ -904,28 +938,25 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
 
     public Metadata getMetadata(List<SubscriptionEntity> subscriptions) {
         Metadata metadata = new Metadata();
+        if (subscriptions.isEmpty()) {
+            return metadata;
+        }
 
-        subscriptions.forEach( subscription -> {
-            if (!metadata.containsKey(subscription.getApplication())) {
-                ApplicationEntity applicationEntity = applicationService.findById(subscription.getApplication());
-                metadata.put(subscription.getApplication(), "name", applicationEntity.getName());
-            }
-
-
-            if (!metadata.containsKey(subscription.getPlan())) {
-                PlanEntity planEntity = planService.findById(subscription.getPlan());
-                metadata.put(subscription.getPlan(), "name", planEntity.getName());
-            }
-
-            if (!metadata.containsKey(subscription.getApi())) {
-                ApiEntity api = apiService.findById(subscription.getApi());
-                metadata.put(subscription.getApi(), "name", api.getName());
-            }
-        });
+        // Resolve the names by type, with one lookup for all the subscriptions
+        putNames(metadata, metadataResolver.getApplicationsMetadata(subscriptions.stream()
+                .map(SubscriptionEntity::getApplication).collect(Collectors.toSet())));
+        final Set<String> apis = subscriptions.stream().map(SubscriptionEntity::getApi).collect(Collectors.toSet());
+        putNames(metadata, metadataResolver.getApisMetadata(apis));
+        putNames(metadata, metadataResolver.getPlansMetadata(subscriptions.stream()
+                .map(SubscriptionEntity::getPlan).collect(Collectors.toSet()), apis));
 
         return metadata;
     }
 
+    private static void putNames(Metadata metadata, Map<String, Map<String, String>> resolved) {
+        resolved.forEach((id, values) -> metadata.put(id, "name", values.get("name")));
+    }
+
     private SubscriptionEntity convert(Subscription subscription) {
         SubscriptionEntity entity = new SubscriptionEntity();
 
@@ -17,6 +17,9 @@ package io.gravitee.rest.api.service.impl;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
 import io.gravitee.common.http.MediaType;
 import io.gravitee.rest.api.model.ImportSwaggerDescriptorEntity;
 import io.gravitee.rest.api.model.PageEntity;
@@ -53,6 +56,7 @@ import io.swagger.v3.parser.core.models.SwaggerParseResult;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
@@ -64,6 +68,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.Map.Entry;
@@ -83,7 +88,7 @@ import static java.util.stream.Collectors.toMap;
  * @author GraviteeSource Team
  */
 @Component
-public class SwaggerServiceImpl implements SwaggerService {
+public class SwaggerServiceImpl implements SwaggerService, InitializingBean {
 
     private final Logger logger = LoggerFactory.getLogger(SwaggerServiceImpl.class);
 
@@ -92,6 +97,14 @@ public class SwaggerServiceImpl implements SwaggerService {
     @Inject
     private ObjectMapper mapper;
 
+    @Value("${management.documentation.swagger.cache.max_bytes:52428800}")
+    private long cacheMaxBytes;
+
+    /**
+     * Transformed descriptors, by hash of the original descriptor and of the transformation settings.
+     */
+    private Cache<String, String> transformations;
+
     static {
         System.setProperty(String.format("%s.trustAll", RemoteUrl.class.getName()), Boolean.TRUE.toString());
         System.setProperty(String.format("%s.trustAll", io.swagger.v3.parser.util.RemoteUrl.class.getName()), Boolean.TRUE.toString());
@@ -167,6 +180,16 @@ public class SwaggerServiceImpl implements SwaggerService {
         return apiEntity;
     }
 
+    @Override
+    public void afterPropertiesSet() {
+        // Weighted by the size of the transformed descriptors (2 bytes by char)
+        transformations = CacheBuilder
+                .newBuilder()
+                .maximumWeight(cacheMaxBytes)
+                .weigher((String key, String content) -> 2 * content.length())
+                .build();
+    }
+
     @Override
     public void transform(final PageEntity page) {
         if (page.getContent() != null
@@ -174,33 +197,50 @@ public class SwaggerServiceImpl implements SwaggerService {
                 && page.getConfiguration().get("tryItURL") != null
                 && !page.getConfiguration().get("tryItURL").isEmpty()) {
 
-            Object swagger = transformV2(page.getContent(), page.getConfiguration());
-
-            if (swagger == null) {
-                swagger = transformV1(page.getContent(), page.getConfiguration());
+            // The same descriptor is transformed the same way, whatever the page it comes from
+            final boolean json = page.getContentType().equalsIgnoreCase(MediaType.APPLICATION_JSON);
+            final String tryItUrl = page.getConfiguration().get("tryItURL");
+            final String key = Hashing.sha256().newHasher()
+                    .putInt(tryItUrl.length())
+                    .putString(tryItUrl, StandardCharsets.UTF_8)
+                    .putBoolean(json)
+                    .putString(page.getContent(), StandardCharsets.UTF_8)
+                    .hash()
+                    .toString();
+
+            String content = transformations.getIfPresent(key);
+            if (content == null) {
+                content = transform(page.getContent(), page.getConfiguration(), json);
+                if (content == null) {
+                    return;
+                }
+                transformations.put(key, content);
             }
 
-            if (swagger == null) {
-                swagger = transformV3(page.getContent(), page.getConfiguration());
-            }
+            page.setContent(content);
+        }
+    }
 
-            if (swagger == null) {
-                throw new SwaggerDescriptorException();
-            }
+    private String transform(String content, Map<String, String> config, boolean json) {
+        Object swagger = transformV2(content, config);
 
-            if (page.getContentType().equalsIgnoreCase(MediaType.APPLICATION_JSON)) {
-                try {
-                    page.setContent(Json.pretty().writeValueAsString(swagger));
-                } catch (JsonProcessingException e) {
-                    logger.error("Unexpected error", e);
-                }
-            } else {
-                try {
-                    page.setContent(Yaml.pretty().writeValueAsString(swagger));
-                } catch (JsonProcessingException e) {
-                    logger.error("Unexpected error", e);
-                }
-            }
+        if (swagger == null) {
+            swagger = transformV1(content, config);
+        }
+
+        if (swagger == null) {
+            swagger = transformV3(content, config);
+        }
+
+        if (swagger == null) {
+            throw new SwaggerDescriptorException();
+        }
+
+        try {
+            return json ? Json.pretty().writeValueAsString(swagger) : Yaml.pretty().writeValueAsString(swagger);
+        } catch (JsonProcessingException e) {
+            logger.error("Unexpected error", e);
+            return null;
         }
     }
 
@@ -37,15 +37,23 @@ import io.gravitee.rest.api.service.impl.search.lucene.DocumentSearcher;
 import io.gravitee.rest.api.service.impl.search.lucene.DocumentTransformer;
 import io.gravitee.rest.api.service.impl.search.lucene.SearchEngineIndexer;
 import io.gravitee.rest.api.service.search.SearchEngineService;
+import io.gravitee.rest.api.service.spring.AsyncConfiguration;
 
+import org.apache.lucene.document.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -69,6 +77,10 @@ public class SearchEngineServiceImpl implements SearchEngineService {
     @Autowired
     private Collection<DocumentSearcher> searchers;
 
+    @Autowired
+    @Qualifier(AsyncConfiguration.REINDEX_EXECUTOR)
+    private Executor reindexExecutor;
+
     @Autowired
     @Lazy
     private CommandService commandService;
@@ -87,10 +99,15 @@ public class SearchEngineServiceImpl implements SearchEngineService {
 
     private ObjectMapper mapper = new ObjectMapper();
 
+    /**
+     * Number of sources being transformed at once by a bulk indexing.
+     */
+    private static final int TRANSFORM_WINDOW = 256;
+
     private static final String ACTION_INDEX = "I";
     private static final String ACTION_DELETE = "D";
 
-    @Async
+    @Async(AsyncConfiguration.INDEXER_EXECUTOR)
     @Override
     public void index(Indexable source, boolean locally) {
         if (locally) {
@@ -105,7 +122,56 @@ public class SearchEngineServiceImpl implements SearchEngineService {
         }
     }
 
-    @Async
+    @Override
+    public long indexAll(Stream<? extends Indexable> sources) {
+        long start = System.nanoTime();
+        try {
+            // Sources are transformed in parallel by the reindex executor, not the common fork-join pool as they may do
+            // some I/O (e.g. swagger pages), then all the documents are written in a single batch.
+            long count = indexer.indexAll(transformAll(sources).filter(Objects::nonNull));
+
+            long duration = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            logger.info("{} documents indexed in {} ms ({} documents/s)", count, duration, count * 1000 / duration);
+            return count;
+        } catch (TechnicalException te) {
+            logger.error("Unexpected error while indexing documents", te);
+            throw new TechnicalManagementException("Unexpected error while indexing documents", te);
+        }
+    }
+
+    /**
+     * Transform the sources on the reindex executor, keeping their order. Only a window of sources is submitted at a
+     * time, so that the documents do not pile up in memory faster than the indexer consumes them.
+     */
+    private Stream<Document> transformAll(Stream<? extends Indexable> sources) {
+        final Iterator<? extends Indexable> iterator = sources.iterator();
+        final Deque<CompletableFuture<Document>> window = new ArrayDeque<>(TRANSFORM_WINDOW);
+
+        final Iterator<Document> documents = new Iterator<Document>() {
+            @Override
+            public boolean hasNext() {
+                while (window.size() < TRANSFORM_WINDOW && iterator.hasNext()) {
+                    final Indexable source = iterator.next();
+                    window.add(CompletableFuture.supplyAsync(() -> transform(source), reindexExecutor));
+                }
+                return !window.isEmpty();
+            }
+
+            @Override
+            public Document next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return window.poll().join();
+            }
+        };
+
+        return StreamSupport
+                .stream(Spliterators.spliteratorUnknownSize(documents, Spliterator.ORDERED), false)
+                .onClose(() -> window.forEach(transformation -> transformation.cancel(false)));
+    }
+
+    @Async(AsyncConfiguration.INDEXER_EXECUTOR)
     @Override
     public void delete(Indexable source, boolean locally) {
         if (locally) {
@@ -172,6 +238,23 @@ public class SearchEngineServiceImpl implements SearchEngineService {
                 });
     }
 
+    @SuppressWarnings("unchecked")
+    private Document transform(Indexable source) {
+        return transformers.stream()
+                .filter(transformer -> transformer.handle(source.getClass()))
+                .findFirst()
+                .map(transformer -> {
+                    try {
+                        return transformer.transform(source);
+                    } catch (Exception ex) {
+                        logger.error("Unexpected error while transforming {} [{}] into a document",
+                                source.getClass().getSimpleName(), source.getId(), ex);
+                        return null;
+                    }
+                })
+                .orElse(null);
+    }
+
     private void deleteLocally(Indexable source) {
         transformers.stream()
                 .filter(transformer -> transformer.handle(source.getClass()))
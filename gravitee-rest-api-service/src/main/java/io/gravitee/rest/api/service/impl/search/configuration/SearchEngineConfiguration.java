@@ -19,6 +19,9 @@ import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.springframework.beans.factory.annotation.Value;
@@ -26,6 +29,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import io.gravitee.rest.api.service.impl.search.lucene.SearchEngineIndexer;
+import io.gravitee.rest.api.service.impl.search.lucene.SearchEngineMetrics;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -41,11 +45,27 @@ public class SearchEngineConfiguration {
     @Value("${search.data:${gravitee.home}/data}")
     private String indexDirectory;
 
+    /**
+     * Maximum delay (in milliseconds) for the changes of the index to be visible to the searchers.
+     */
+    @Value("${search.refresh.interval:1000}")
+    private long refreshInterval;
+
+    /**
+     * Minimum delay between two refreshes, when a searcher is waiting for a change.
+     */
+    private final static double MIN_REFRESH_INTERVAL = 0.025;
+
     @Bean
     public SearchEngineIndexer searchEngineIndexer() {
         return new SearchEngineIndexer();
     }
 
+    @Bean
+    public SearchEngineMetrics searchEngineMetrics() {
+        return new SearchEngineMetrics();
+    }
+
     @Bean
     public Directory indexDirectory() throws IOException {
         Path path = Paths.get(indexDirectory);
@@ -59,11 +79,30 @@ public class SearchEngineConfiguration {
     @Bean
     public IndexWriter indexWriter(Directory directory, Analyzer analyzer) throws IOException {
         IndexWriterConfig iwc = new IndexWriterConfig(analyzer);
-        iwc.setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+        iwc.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
 
         return new IndexWriter(directory, iwc);
     }
 
+    @Bean
+    public SearcherManager searcherManager(IndexWriter indexWriter, SearchEngineMetrics metrics) throws IOException {
+        SearcherManager searcherManager = new SearcherManager(indexWriter, null);
+        searcherManager.addListener(metrics);
+
+        return searcherManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ControlledRealTimeReopenThread<IndexSearcher> searcherRefreshThread(IndexWriter indexWriter, SearcherManager searcherManager) {
+        ControlledRealTimeReopenThread<IndexSearcher> refreshThread = new ControlledRealTimeReopenThread<>(
+                indexWriter, searcherManager, refreshInterval / 1000d, MIN_REFRESH_INTERVAL);
+        refreshThread.setName("search-engine-refresh");
+        refreshThread.setDaemon(true);
+        refreshThread.start();
+
+        return refreshThread;
+    }
+
     @Bean
     public Analyzer analyzer() {
         return new StandardAnalyzer();
@@ -17,22 +17,47 @@ package io.gravitee.rest.api.service.impl.search.lucene;
 
 import io.gravitee.repository.exceptions.TechnicalException;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.Bits;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
+ * Writes documents into the Lucene index.
+ *
+ * Changes are not committed one by one: they are committed as soon as <code>search.commit.max_documents</code> changes
+ * are pending, or every <code>search.commit.interval</code> milliseconds. Uncommitted changes are visible to the
+ * searchers anyway, thanks to the near-real-time searcher.
+ *
+ * The index is kept across restarts: each commit holds the version of the index format and a checkpoint, the time
+ * before which all the changes are known to be indexed.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class SearchEngineIndexer {
+public class SearchEngineIndexer implements InitializingBean, DisposableBean {
 
     /**
      * Logger.
@@ -41,16 +66,73 @@ public class SearchEngineIndexer {
 
     private final static String ID_FIELD = "id";
     private final static String TYPE_FIELD = "type";
+    private final static Set<String> REFERENCE_FIELDS = new HashSet<>(Arrays.asList(ID_FIELD, TYPE_FIELD));
+
+    /**
+     * Version of the structure of the documents, to increase when a document transformer is changed so that the index
+     * is rebuilt from scratch.
+     */
+    private final static String INDEX_VERSION = "3";
+    private final static String VERSION_KEY = "version";
+    private final static String CHECKPOINT_KEY = "checkpoint";
+
+    /**
+     * Safety margin applied to the checkpoints, to cover clock drifts between nodes and the changes coming from the
+     * other nodes which are not yet processed.
+     */
+    private final static long CHECKPOINT_MARGIN = TimeUnit.MINUTES.toMillis(5);
 
     @Autowired
     private IndexWriter writer;
 
+    @Autowired
+    private SearchEngineMetrics metrics;
+
+    @Value("${search.commit.interval:1000}")
+    private long commitInterval;
+
+    @Value("${search.commit.max_documents:1000}")
+    private long commitMaxDocuments;
+
+    private final AtomicLong pendingDocuments = new AtomicLong();
+
+    /**
+     * Sequence number of the last change done on the index.
+     */
+    private final AtomicLong lastSequenceNumber = new AtomicLong(-1);
+
+    private ScheduledExecutorService commitExecutor;
+
+    private volatile boolean checkpointed;
+
+    @Override
+    public void afterPropertiesSet() {
+        commitExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "search-engine-commit"));
+        commitExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                commit();
+            } catch (TechnicalException te) {
+                logger.error("Unexpected error while committing the search index", te);
+            }
+        }, commitInterval, commitInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        commitExecutor.shutdownNow();
+        if (checkpointed) {
+            checkpoint(System.currentTimeMillis());
+        } else {
+            commit();
+        }
+    }
+
     public long index(Document document) throws TechnicalException {
         logger.debug("Updating a document into the Lucene index");
         String id = document.get(ID_FIELD);
         try {
             long seq = writer.updateDocument(new Term(ID_FIELD, id), document);
-            writer.commit();
+            changed(seq);
             return seq;
         } catch (IOException ioe) {
             logger.error("Fail to index document with ID: {}", id, ioe);
@@ -58,6 +140,34 @@ public class SearchEngineIndexer {
         }
     }
 
+    /**
+     * Index all the given documents, then commit them at once.
+     *
+     * @return the number of indexed documents.
+     */
+    public long indexAll(Stream<Document> documents) throws TechnicalException {
+        final AtomicLong count = new AtomicLong();
+        try {
+            documents.forEach(document -> {
+                try {
+                    long seq = writer.updateDocument(new Term(ID_FIELD, document.get(ID_FIELD)), document);
+                    lastSequenceNumber.accumulateAndGet(seq, Math::max);
+                    count.incrementAndGet();
+                } catch (IOException ioe) {
+                    throw new UncheckedIOException(ioe);
+                }
+            });
+        } catch (UncheckedIOException uioe) {
+            logger.error("Fail to index documents", uioe.getCause());
+            throw new TechnicalException("Fail to index documents", uioe.getCause());
+        } finally {
+            pendingDocuments.addAndGet(count.get());
+        }
+
+        commit();
+        return count.get();
+    }
+
     public void remove(Document document) throws TechnicalException {
         String type = document.get(TYPE_FIELD);
         String id = document.get(ID_FIELD);
@@ -69,10 +179,166 @@ public class SearchEngineIndexer {
         bq.add(new TermQuery(new Term(TYPE_FIELD, type)), BooleanClause.Occur.MUST);
 
         try {
-            writer.deleteDocuments(bq.build());
+            changed(writer.deleteDocuments(bq.build()));
         } catch (IOException ioe) {
             logger.error("Fail to index document with ID: {}", id, ioe);
             throw new TechnicalException("Fail to index document with ID: " + id, ioe);
         }
     }
+
+    /**
+     * @return the checkpoint of the index: all the changes done before it are already indexed. Returns
+     * <code>null</code> if there is no usable index, meaning that everything has to be indexed.
+     */
+    public Long getCheckpoint() {
+        Map<String, String> commitData = new HashMap<>();
+        Iterable<Map.Entry<String, String>> liveCommitData = writer.getLiveCommitData();
+        if (liveCommitData != null) {
+            liveCommitData.forEach(entry -> commitData.put(entry.getKey(), entry.getValue()));
+        }
+
+        if (!INDEX_VERSION.equals(commitData.get(VERSION_KEY)) || commitData.get(CHECKPOINT_KEY) == null) {
+            logger.info("No usable search index found (version: {}), it will be fully rebuilt", commitData.get(VERSION_KEY));
+            return null;
+        }
+
+        return Long.parseLong(commitData.get(CHECKPOINT_KEY));
+    }
+
+    /**
+     * Record that all the changes done before the given time are indexed, then commit.
+     */
+    public void checkpoint(long timestamp) throws TechnicalException {
+        Map<String, String> commitData = new HashMap<>();
+        commitData.put(VERSION_KEY, INDEX_VERSION);
+        commitData.put(CHECKPOINT_KEY, Long.toString(timestamp - CHECKPOINT_MARGIN));
+        writer.setLiveCommitData(commitData.entrySet());
+        checkpointed = true;
+
+        commit(true);
+    }
+
+    /**
+     * Remove all the documents of the index.
+     */
+    public void reset() throws TechnicalException {
+        try {
+            changed(writer.deleteAll());
+        } catch (IOException ioe) {
+            logger.error("Fail to reset the search index", ioe);
+            throw new TechnicalException("Fail to reset the search index", ioe);
+        }
+    }
+
+    /**
+     * Remove the documents which do not reference one of the given ids.
+     *
+     * @return the number of removed documents.
+     */
+    public long retainAll(Set<String> ids) throws TechnicalException {
+        List<Document> removedDocuments = new ArrayList<>();
+        forEachDocument(REFERENCE_FIELDS, document -> {
+            if (!ids.contains(document.get(ID_FIELD))) {
+                removedDocuments.add(document);
+            }
+        });
+
+        for (Document document : removedDocuments) {
+            remove(document);
+        }
+        return removedDocuments.size();
+    }
+
+    /**
+     * @return the value of a stored field of the documents of the given type, by document id.
+     */
+    public Map<String, String> getStoredField(String type, String field) throws TechnicalException {
+        Map<String, String> values = new HashMap<>();
+        Set<String> fields = new HashSet<>(REFERENCE_FIELDS);
+        fields.add(field);
+        forEachDocument(fields, document -> {
+            if (type.equals(document.get(TYPE_FIELD))) {
+                values.put(document.get(ID_FIELD), document.get(field));
+            }
+        });
+        return values;
+    }
+
+    private void forEachDocument(Set<String> fields, Consumer<Document> consumer) throws TechnicalException {
+        try (DirectoryReader reader = DirectoryReader.open(writer)) {
+            for (LeafReaderContext leaf : reader.leaves()) {
+                LeafReader leafReader = leaf.reader();
+                Bits liveDocs = leafReader.getLiveDocs();
+                for (int i = 0; i < leafReader.maxDoc(); i++) {
+                    if (liveDocs == null || liveDocs.get(i)) {
+                        consumer.accept(leafReader.document(i, fields));
+                    }
+                }
+            }
+        } catch (IOException ioe) {
+            logger.error("Fail to read the search index", ioe);
+            throw new TechnicalException("Fail to read the search index", ioe);
+        }
+    }
+
+    /**
+     * Commit the pending changes, if any.
+     */
+    public void commit() throws TechnicalException {
+        commit(false);
+    }
+
+    private synchronized void commit(boolean force) throws TechnicalException {
+        long pending = pendingDocuments.get();
+        if (pending == 0 && !force) {
+            return;
+        }
+
+        try {
+            long start = System.nanoTime();
+            writer.commit();
+            pendingDocuments.addAndGet(-pending);
+            metrics.commit(System.nanoTime() - start, pending, writer.numDocs(), sizeOf(writer.getDirectory()));
+
+            logger.debug("Search index committed: {} changes in {} ms, {} documents, {} bytes",
+                    pending, metrics.getLastCommitDuration(), metrics.getIndexedDocuments(), metrics.getIndexSize());
+        } catch (IOException ioe) {
+            logger.error("Fail to commit the search index", ioe);
+            throw new TechnicalException("Fail to commit the search index", ioe);
+        }
+    }
+
+    /**
+     * @return the number of changes which are not committed yet.
+     */
+    public long getPendingDocuments() {
+        return pendingDocuments.get();
+    }
+
+    /**
+     * @return the sequence number of the last change done on the index, searchers have to wait for it to be
+     * refreshed to see all the changes.
+     */
+    public long getLastSequenceNumber() {
+        return lastSequenceNumber.get();
+    }
+
+    private void changed(long seq) throws TechnicalException {
+        lastSequenceNumber.accumulateAndGet(seq, Math::max);
+        if (pendingDocuments.incrementAndGet() >= commitMaxDocuments) {
+            commit();
+        }
+    }
+
+    private static long sizeOf(Directory directory) throws IOException {
+        long size = 0;
+        for (String file : directory.listAll()) {
+            try {
+                size += directory.fileLength(file);
+            } catch (IOException ioe) {
+                // The file may have been removed by a merge in the meantime
+            }
+        }
+        return size;
+    }
 }
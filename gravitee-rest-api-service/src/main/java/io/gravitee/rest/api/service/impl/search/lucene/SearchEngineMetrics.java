@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.impl.search.lucene;
+
+import org.apache.lucene.search.ReferenceManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters about the search engine: refreshes of the searcher and commits of the index.
+ *
+ * @author GraviteeSource Team
+ */
+public class SearchEngineMetrics implements ReferenceManager.RefreshListener {
+
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshTime = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong commitTime = new AtomicLong();
+    private final AtomicLong committedDocuments = new AtomicLong();
+
+    private volatile long refreshStart;
+    private volatile long lastRefreshDuration;
+    private volatile long lastCommitDuration;
+    private volatile int indexedDocuments;
+    private volatile long indexSize;
+
+    @Override
+    public void beforeRefresh() {
+        refreshStart = System.nanoTime();
+    }
+
+    @Override
+    public void afterRefresh(boolean didRefresh) {
+        if (didRefresh) {
+            lastRefreshDuration = System.nanoTime() - refreshStart;
+            refreshes.incrementAndGet();
+            refreshTime.addAndGet(lastRefreshDuration);
+        }
+    }
+
+    void commit(long duration, long documents, int indexedDocuments, long indexSize) {
+        lastCommitDuration = duration;
+        commits.incrementAndGet();
+        commitTime.addAndGet(duration);
+        committedDocuments.addAndGet(documents);
+        this.indexedDocuments = indexedDocuments;
+        this.indexSize = indexSize;
+    }
+
+    public long getRefreshes() {
+        return refreshes.get();
+    }
+
+    /**
+     * @return duration of the last refresh of the searcher, in milliseconds.
+     */
+    public long getLastRefreshDuration() {
+        return TimeUnit.NANOSECONDS.toMillis(lastRefreshDuration);
+    }
+
+    /**
+     * @return average duration of the refreshes of the searcher, in milliseconds.
+     */
+    public long getAverageRefreshDuration() {
+        long count = refreshes.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(refreshTime.get() / count);
+    }
+
+    public long getCommits() {
+        return commits.get();
+    }
+
+    /**
+     * @return duration of the last commit of the index, in milliseconds.
+     */
+    public long getLastCommitDuration() {
+        return TimeUnit.NANOSECONDS.toMillis(lastCommitDuration);
+    }
+
+    /**
+     * @return number of added, updated or removed documents which have been committed.
+     */
+    public long getCommittedDocuments() {
+        return committedDocuments.get();
+    }
+
+    /**
+     * @return number of documents of the index, as of the last commit.
+     */
+    public int getIndexedDocuments() {
+        return indexedDocuments;
+    }
+
+    /**
+     * @return size of the index on disk, in bytes, as of the last commit.
+     */
+    public long getIndexSize() {
+        return indexSize;
+    }
+}
@@ -19,12 +19,15 @@ import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.rest.api.model.common.Pageable;
 import io.gravitee.rest.api.service.impl.search.SearchResult;
 import io.gravitee.rest.api.service.impl.search.lucene.DocumentSearcher;
+import io.gravitee.rest.api.service.impl.search.lucene.SearchEngineIndexer;
 import io.gravitee.rest.api.service.impl.search.lucene.analyzer.CustomWhitespaceAnalyzer;
 
 import org.apache.lucene.analysis.Analyzer;
-import org.apache.lucene.document.Document;
-import org.apache.lucene.index.DirectoryReader;
-import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.index.SortedDocValues;
 import org.apache.lucene.search.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,8 +35,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -51,54 +55,139 @@ public abstract class AbstractDocumentSearcher implements DocumentSearcher {
 
     protected Analyzer analyzer = new CustomWhitespaceAnalyzer();
 
+    /**
+     * Maximum time to wait for the searcher to see the last changes of the index.
+     */
+    private final static int MAX_REFRESH_WAIT = 1000;
+
+    /**
+     * Maximum number of hits collected at once when skipping the hits of the previous pages.
+     */
+    private final static int MAX_SKIPPED_HITS = 1000;
+
     @Autowired
-    protected IndexWriter indexWriter;
+    protected SearcherManager searcherManager;
+
+    @Autowired
+    protected ControlledRealTimeReopenThread<IndexSearcher> searcherRefreshThread;
+
+    @Autowired
+    protected SearchEngineIndexer indexer;
 
     protected SearchResult search(Query query) throws TechnicalException {
         return search(query, null);
     }
 
+    /**
+     * Search for the references of the documents matching the query, ordered by relevance. When the references are
+     * not unique by document (see {@link #hasUniqueReferences()}), the hits are deduplicated before being paginated.
+     */
     protected SearchResult search(Query query, Pageable pageable) throws TechnicalException {
         logger.debug("Searching for: {}", query.toString());
 
+        IndexSearcher searcher = null;
         try {
-            IndexSearcher searcher = getIndexSearcher();
-            TopDocs topDocs;
+            searcher = acquireIndexSearcher();
 
-            if (pageable != null) {
-                //TODO: How to find the accurate numhits ?
-                TopScoreDocCollector collector = TopScoreDocCollector.create(1000);
-                searcher.search(query, collector);
+            if (pageable != null && hasUniqueReferences()) {
+                TopDocs topDocs = searchPage(searcher, query, pageable);
+                logger.debug("Found {} total matching documents", topDocs.totalHits);
 
-                topDocs = collector.topDocs((pageable.getPageNumber() - 1) * pageable.getPageSize(), pageable.getPageSize());
-            } else {
-                topDocs = searcher.search(query, Integer.MAX_VALUE);
+                return new SearchResult(getReferences(searcher, topDocs.scoreDocs), topDocs.totalHits);
             }
 
-            final ScoreDoc[] hits = topDocs.scoreDocs;
-            final List<String> results = new ArrayList<>();
-
+            // Collect all the hits, the priority queue being sized with the actual number of hits
+            TopDocs topDocs = searcher.search(query, Math.max(1, searcher.count(query)));
             logger.debug("Found {} total matching documents", topDocs.totalHits);
 
-            if (hits.length > 0) {
-                // Iterate over found results
-                for (ScoreDoc hit : hits) {
-                    results.add(getReference(searcher.doc(hit.doc)));
-                }
+            List<String> references = getReferences(searcher, topDocs.scoreDocs);
+            if (pageable == null) {
+                return new SearchResult(references, references.size());
             }
 
-            return new SearchResult(results.stream().distinct().collect(Collectors.toList()), topDocs.totalHits);
+            int from = Math.min(references.size(), Math.max(0, (pageable.getPageNumber() - 1) * pageable.getPageSize()));
+            int to = Math.min(references.size(), from + pageable.getPageSize());
+            return new SearchResult(new ArrayList<>(references.subList(from, to)), references.size());
         } catch (IOException ioe) {
             logger.error("An error occurs while getting documents from search result", ioe);
             throw new TechnicalException("An error occurs while getting documents from search result", ioe);
+        } finally {
+            releaseIndexSearcher(searcher);
         }
     }
 
-    protected String getReference(Document document) {
-        return document.get(FIELD_ID);
+    /**
+     * @return <code>true</code> if each document gives a distinct reference, so that the hits can be paginated as is.
+     */
+    protected boolean hasUniqueReferences() {
+        return true;
+    }
+
+    /**
+     * @return the reference of a document, read from the doc values instead of loading the stored document.
+     */
+    protected String getReference(LeafReader reader, int doc) throws IOException {
+        return getValue(reader, FIELD_ID, doc);
+    }
+
+    protected static String getValue(LeafReader reader, String field, int doc) throws IOException {
+        SortedDocValues values = DocValues.getSorted(reader, field);
+        return values.advanceExact(doc) ? values.binaryValue().utf8ToString() : null;
     }
 
-    private IndexSearcher getIndexSearcher() throws IOException {
-        return new IndexSearcher(DirectoryReader.open(indexWriter));
+    /**
+     * Search for the hits of the requested page, the hits of the previous pages being skipped by chunks with
+     * search-after to keep the collected hits bounded for deep pages. The total hits stay accurate as they count all
+     * the matching documents.
+     */
+    private TopDocs searchPage(IndexSearcher searcher, Query query, Pageable pageable) throws IOException {
+        ScoreDoc after = null;
+        int skip = (pageable.getPageNumber() - 1) * pageable.getPageSize();
+        while (skip > 0) {
+            TopDocs skipped = searcher.searchAfter(after, query, Math.min(skip, MAX_SKIPPED_HITS));
+            if (skipped.scoreDocs.length == 0) {
+                return new TopDocs(skipped.totalHits, new ScoreDoc[0], Float.NaN);
+            }
+            after = skipped.scoreDocs[skipped.scoreDocs.length - 1];
+            skip -= skipped.scoreDocs.length;
+        }
+
+        return searcher.searchAfter(after, query, Math.max(1, pageable.getPageSize()));
+    }
+
+    private List<String> getReferences(IndexSearcher searcher, ScoreDoc[] hits) throws IOException {
+        final List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+        final Set<String> references = new LinkedHashSet<>();
+
+        for (ScoreDoc hit : hits) {
+            LeafReaderContext leaf = leaves.get(ReaderUtil.subIndex(hit.doc, leaves));
+            String reference = getReference(leaf.reader(), hit.doc - leaf.docBase);
+            if (reference != null) {
+                references.add(reference);
+            }
+        }
+
+        return new ArrayList<>(references);
+    }
+
+    private IndexSearcher acquireIndexSearcher() throws IOException {
+        // Make sure that the changes done until now are visible
+        try {
+            searcherRefreshThread.waitForGeneration(indexer.getLastSequenceNumber(), MAX_REFRESH_WAIT);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+
+        return searcherManager.acquire();
+    }
+
+    private void releaseIndexSearcher(IndexSearcher searcher) {
+        if (searcher != null) {
+            try {
+                searcherManager.release(searcher);
+            } catch (IOException ioe) {
+                logger.error("An error occurs while releasing the index searcher", ioe);
+            }
+        }
     }
 }
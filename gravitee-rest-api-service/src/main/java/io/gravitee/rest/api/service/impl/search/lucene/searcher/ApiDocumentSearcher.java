@@ -19,7 +19,7 @@ import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.search.Indexable;
 import io.gravitee.rest.api.service.impl.search.SearchResult;
 import io.gravitee.repository.exceptions.TechnicalException;
-import org.apache.lucene.document.Document;
+import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
 import org.apache.lucene.queryparser.classic.ParseException;
@@ -28,6 +28,7 @@ import org.apache.lucene.queryparser.classic.QueryParserBase;
 import org.apache.lucene.search.*;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -151,7 +152,7 @@ public class ApiDocumentSearcher extends AbstractDocumentSearcher {
                 }
 
             }
-            return search(mainQuery.build());
+            return search(mainQuery.build(), query.getPage());
         } catch (ParseException pe) {
             logger.error("Invalid query to search for API documents", pe);
             throw new TechnicalException("Invalid query to search for API documents", pe);
@@ -179,12 +180,18 @@ public class ApiDocumentSearcher extends AbstractDocumentSearcher {
     }
 
     @Override
-    protected String getReference(Document document) {
-        String type = document.get(FIELD_TYPE);
+    protected boolean hasUniqueReferences() {
+        // An API is referenced by its own document and by the documents of its pages
+        return false;
+    }
+
+    @Override
+    protected String getReference(LeafReader reader, int doc) throws IOException {
+        String type = getValue(reader, FIELD_TYPE, doc);
         if (FIELD_API_TYPE_VALUE.equals(type)) {
-            return document.get(FIELD_ID);
+            return getValue(reader, FIELD_ID, doc);
         } else if (FIELD_PAGE_TYPE_VALUE.equals(type)) {
-            return document.get(FIELD_API_TYPE_VALUE);
+            return getValue(reader, FIELD_API_TYPE_VALUE, doc);
         }
 
         return null;
@@ -20,6 +20,7 @@ import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.search.Indexable;
 import io.gravitee.rest.api.service.impl.search.lucene.DocumentTransformer;
 import org.apache.lucene.document.*;
+import org.apache.lucene.util.BytesRef;
 import org.springframework.stereotype.Component;
 
 import java.util.function.Consumer;
@@ -33,13 +34,17 @@ public class ApiDocumentTransformer implements DocumentTransformer<ApiEntity> {
 
     private final static String FIELD_ID = "id";
     private final static String FIELD_TYPE = "type";
-    private final static String FIELD_TYPE_VALUE = "api";
+    public final static String FIELD_TYPE_VALUE = "api";
     private final static String FIELD_NAME = "name";
     private final static String FIELD_NAME_LOWERCASE = "name_lowercase";
     private final static String FIELD_NAME_SPLIT = "name_split";
     private final static String FIELD_DESCRIPTION = "description";
     private final static String FIELD_OWNER = "ownerName";
     private final static String FIELD_OWNER_MAIL = "ownerMail";
+    /**
+     * Stored only, to know if the primary owner of an indexed API has changed since it was indexed.
+     */
+    public final static String FIELD_OWNER_FINGERPRINT = "ownerFingerprint";
     private final static String FIELD_LABELS = "labels";
     private final static String FIELD_VIEWS = "views";
     private final static String FIELD_CREATED_AT = "createdAt";
@@ -56,6 +61,8 @@ public class ApiDocumentTransformer implements DocumentTransformer<ApiEntity> {
 
         doc.add(new StringField(FIELD_ID, api.getId(), Field.Store.YES));
         doc.add(new StringField(FIELD_TYPE, FIELD_TYPE_VALUE, Field.Store.YES));
+        doc.add(new SortedDocValuesField(FIELD_ID, new BytesRef(api.getId())));
+        doc.add(new SortedDocValuesField(FIELD_TYPE, new BytesRef(FIELD_TYPE_VALUE)));
         doc.add(new StringField(FIELD_NAME, api.getName(), Field.Store.NO));
         doc.add(new StringField(FIELD_NAME_LOWERCASE, api.getName().toLowerCase(), Field.Store.NO));
         doc.add(new TextField(FIELD_NAME_SPLIT, api.getName(), Field.Store.NO));
@@ -64,6 +71,7 @@ public class ApiDocumentTransformer implements DocumentTransformer<ApiEntity> {
         if (api.getPrimaryOwner().getEmail() != null) {
             doc.add(new TextField(FIELD_OWNER_MAIL, api.getPrimaryOwner().getEmail(), Field.Store.NO));
         }
+        doc.add(new StoredField(FIELD_OWNER_FINGERPRINT, ownerFingerprint(api)));
 
         api.getProxy().getVirtualHosts().forEach(new Consumer<VirtualHost>() {
             @Override
@@ -105,6 +113,14 @@ public class ApiDocumentTransformer implements DocumentTransformer<ApiEntity> {
         return doc;
     }
 
+    /**
+     * @return the primary owner data held by the document of an API.
+     */
+    public static String ownerFingerprint(ApiEntity api) {
+        return api.getPrimaryOwner() == null ? "" : api.getPrimaryOwner().getId() + '\n'
+                + api.getPrimaryOwner().getDisplayName() + '\n' + api.getPrimaryOwner().getEmail();
+    }
+
     @Override
     public boolean handle(Class<? extends Indexable> source) {
         return ApiEntity.class.isAssignableFrom(source);
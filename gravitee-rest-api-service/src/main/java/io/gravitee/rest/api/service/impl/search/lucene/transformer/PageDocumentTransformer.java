@@ -21,8 +21,10 @@ import io.gravitee.rest.api.model.search.Indexable;
 import io.gravitee.rest.api.service.impl.search.lucene.DocumentTransformer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
+import org.apache.lucene.util.BytesRef;
 import org.springframework.stereotype.Component;
 
 /**
@@ -45,6 +47,8 @@ public class PageDocumentTransformer implements DocumentTransformer<PageEntity>
 
         doc.add(new StringField(FIELD_ID, page.getId(), Field.Store.YES));
         doc.add(new StringField(FIELD_TYPE, FIELD_TYPE_VALUE, Field.Store.YES));
+        doc.add(new SortedDocValuesField(FIELD_ID, new BytesRef(page.getId())));
+        doc.add(new SortedDocValuesField(FIELD_TYPE, new BytesRef(FIELD_TYPE_VALUE)));
         doc.add(new TextField(FIELD_NAME, page.getName(), Field.Store.NO));
 
         if (page.getContent() != null) {
@@ -53,6 +57,7 @@ public class PageDocumentTransformer implements DocumentTransformer<PageEntity>
 
         if (page instanceof ApiPageEntity) {
             doc.add(new StringField(FIELD_API, ((ApiPageEntity)page).getApi(), Field.Store.YES));
+            doc.add(new SortedDocValuesField(FIELD_API, new BytesRef(((ApiPageEntity)page).getApi())));
         }
 
         return doc;
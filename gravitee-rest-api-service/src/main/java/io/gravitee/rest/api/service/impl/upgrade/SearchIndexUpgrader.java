@@ -16,6 +16,7 @@
 package io.gravitee.rest.api.service.impl.upgrade;
 
 import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.search.UserCriteria;
 import io.gravitee.repository.management.model.UserStatus;
 import io.gravitee.rest.api.model.PageEntity;
@@ -28,16 +29,32 @@ import io.gravitee.rest.api.service.ApiService;
 import io.gravitee.rest.api.service.PageService;
 import io.gravitee.rest.api.service.Upgrader;
 import io.gravitee.rest.api.service.UserService;
+import io.gravitee.rest.api.service.impl.search.lucene.SearchEngineIndexer;
+import io.gravitee.rest.api.service.impl.search.lucene.transformer.ApiDocumentTransformer;
 import io.gravitee.rest.api.service.search.SearchEngineService;
-
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.Ordered;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
+ * Index the APIs, pages and users at startup.
+ *
+ * When the index has been kept since the last run, only the entities updated since its checkpoint are indexed again,
+ * with the APIs whose primary owner (or its name or email) differs from the indexed one, and the documents of the
+ * deleted entities are removed. Otherwise, the index is fully rebuilt.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com)
  * @author GraviteeSource Team
@@ -45,6 +62,8 @@ import java.util.Set;
 @Component
 public class SearchIndexUpgrader implements Upgrader, Ordered {
 
+    private final Logger logger = LoggerFactory.getLogger(SearchIndexUpgrader.class);
+
     @Autowired
     private ApiService apiService;
 
@@ -57,40 +76,90 @@ public class SearchIndexUpgrader implements Upgrader, Ordered {
     @Autowired
     private SearchEngineService searchEngineService;
 
+    @Autowired
+    private SearchEngineIndexer searchEngineIndexer;
+
     @Override
     public boolean upgrade() {
-        // Index APIs
-        Set<ApiEntity> apis = apiService.findAll();
-        apis.forEach(apiEntity -> {
-            // API
-            searchEngineService.index(apiEntity, true);
-
-            // Pages
-            List<PageEntity> apiPages = pageService.search(new PageQuery.Builder().api(apiEntity.getId()).published(true).build(), true);
-            apiPages.forEach(page -> {
-                try {
-                    if (!PageType.FOLDER.name().equals(page.getType())
-                            && !PageType.ROOT.name().equals(page.getType())
-                            && !PageType.SYSTEM_FOLDER.name().equals(page.getType())
-                            && !PageType.LINK.name().equals(page.getType())) {
-                        pageService.transformSwagger(page, apiEntity.getId());
-                        searchEngineService.index(page, true);
-                    }
-                } catch (Exception ignored) {}
-            });
-        });
-
-        // Index users
-        Page<UserEntity> users = userService.search(
-                new UserCriteria.Builder().statuses(UserStatus.ACTIVE).build(),
-                new PageableImpl(1, Integer.MAX_VALUE));
-        users.getContent().forEach(userEntity ->
-                searchEngineService.index(userEntity, true)
-        );
+        try {
+            final long start = System.currentTimeMillis();
+            final Long checkpoint = searchEngineIndexer.getCheckpoint();
+            if (checkpoint == null) {
+                searchEngineIndexer.reset();
+            } else {
+                logger.info("Reuse the search index, index the changes since {}", new Date(checkpoint));
+            }
+
+            // Index APIs, the ones whose primary owner has changed too as the documents hold its name and email
+            Set<ApiEntity> apis = apiService.findAll();
+            Map<String, String> indexedOwners = checkpoint == null ? Collections.emptyMap() :
+                    searchEngineIndexer.getStoredField(ApiDocumentTransformer.FIELD_TYPE_VALUE,
+                            ApiDocumentTransformer.FIELD_OWNER_FINGERPRINT);
+            Set<ApiEntity> updatedApis = apis.stream()
+                    .filter(api -> isUpdated(api.getUpdatedAt(), checkpoint)
+                            || !ApiDocumentTransformer.ownerFingerprint(api).equals(indexedOwners.get(api.getId())))
+                    .collect(Collectors.toSet());
+            searchEngineService.indexAll(updatedApis.stream());
+
+            // Index pages, all the pages of an updated API are indexed again as they hold some of its data
+            Map<ApiEntity, List<PageEntity>> pages = apis.stream()
+                    .collect(Collectors.toMap(Function.identity(), this::getIndexablePages));
+            searchEngineService.indexAll(pages.entrySet().stream()
+                    .flatMap(apiPages -> apiPages.getValue().stream()
+                            .filter(page -> updatedApis.contains(apiPages.getKey())
+                                    || isUpdated(page.getLastModificationDate(), checkpoint))
+                            .filter(page -> transformSwagger(page, apiPages.getKey()))));
+
+            // Index users
+            Page<UserEntity> users = userService.search(
+                    new UserCriteria.Builder().statuses(UserStatus.ACTIVE).build(),
+                    new PageableImpl(1, Integer.MAX_VALUE));
+            searchEngineService.indexAll(users.getContent().stream()
+                    .filter(user -> isUpdated(user.getUpdatedAt(), checkpoint)));
+
+            // Remove the documents of the entities deleted since the checkpoint
+            if (checkpoint != null) {
+                Set<String> ids = new HashSet<>();
+                apis.forEach(api -> ids.add(api.getId()));
+                pages.values().forEach(apiPages -> apiPages.forEach(page -> ids.add(page.getId())));
+                users.getContent().forEach(user -> ids.add(user.getId()));
+
+                long removed = searchEngineIndexer.retainAll(ids);
+                logger.info("{} documents of deleted entities removed from the search index", removed);
+            }
+
+            searchEngineIndexer.checkpoint(start);
+        } catch (TechnicalException te) {
+            logger.error("An error occurs while indexing APIs, pages and users", te);
+            return false;
+        }
 
         return true;
     }
 
+    private static boolean isUpdated(Date updatedAt, Long checkpoint) {
+        return checkpoint == null || updatedAt == null || updatedAt.getTime() >= checkpoint;
+    }
+
+    private List<PageEntity> getIndexablePages(ApiEntity apiEntity) {
+        List<PageEntity> apiPages = pageService.search(new PageQuery.Builder().api(apiEntity.getId()).published(true).build(), true);
+        return apiPages.stream()
+                .filter(page -> !PageType.FOLDER.name().equals(page.getType())
+                        && !PageType.ROOT.name().equals(page.getType())
+                        && !PageType.SYSTEM_FOLDER.name().equals(page.getType())
+                        && !PageType.LINK.name().equals(page.getType()))
+                .collect(Collectors.toList());
+    }
+
+    private boolean transformSwagger(PageEntity page, ApiEntity apiEntity) {
+        try {
+            pageService.transformSwagger(page, apiEntity.getId());
+            return true;
+        } catch (Exception ignored) {
+            return false;
+        }
+    }
+
     @Override
     public int getOrder() {
         return 250;
@@ -20,7 +20,7 @@ import io.gravitee.rest.api.model.search.Indexable;
 import io.gravitee.rest.api.service.impl.search.SearchResult;
 import io.gravitee.rest.api.service.search.query.Query;
 
-import java.util.Collection;
+import java.util.stream.Stream;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -30,6 +30,13 @@ public interface SearchEngineService {
 
     void index(Indexable source, boolean locally);
 
+    /**
+     * Index the given sources locally, in a single batch. Documents are built in parallel.
+     *
+     * @return the number of indexed documents.
+     */
+    long indexAll(Stream<? extends Indexable> sources);
+
     void delete(Indexable source, boolean locally);
 
     SearchResult search(Query<? extends Indexable> query);
@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.spring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executors of the <code>@Async</code> methods, one by workload so that a burst of tasks of one kind does not delay
+ * the others.
+ *
+ * Each executor can be tuned with <code>management.executors.[name].threads</code> and
+ * <code>management.executors.[name].queue_size</code>.
+ *
+ * @author GraviteeSource Team
+ */
+@Configuration
+public class AsyncConfiguration implements AsyncConfigurer {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(AsyncConfiguration.class);
+
+    public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+    public static final String AUDIT_EXECUTOR = "auditExecutor";
+    public static final String INDEXER_EXECUTOR = "indexerExecutor";
+    public static final String REINDEX_EXECUTOR = "reindexExecutor";
+    public static final String EMAIL_EXECUTOR = "emailExecutor";
+    public static final String DEFAULT_EXECUTOR = "defaultExecutor";
+
+    @Autowired
+    private Environment environment;
+
+    @Bean(name = NOTIFICATION_EXECUTOR)
+    public MonitoredTaskExecutor notificationExecutor() {
+        return createExecutor("notification", 4, 1000);
+    }
+
+    /**
+     * Runs the audit writer, which drains its own queue.
+     */
+    @Bean(name = AUDIT_EXECUTOR)
+    public MonitoredTaskExecutor auditExecutor() {
+        return createExecutor("audit", 1, 100);
+    }
+
+    /**
+     * A single thread keeps the index and delete operations in order: when its queue is full, the producers wait
+     * instead of running the operation themselves, ahead of the queued ones.
+     */
+    @Bean(name = INDEXER_EXECUTOR)
+    public MonitoredTaskExecutor indexerExecutor() {
+        return createExecutor("indexer", 1, 10000, true);
+    }
+
+    /**
+     * Transforms the documents of a bulk indexing, one thread by core by default.
+     */
+    @Bean(name = REINDEX_EXECUTOR)
+    public MonitoredTaskExecutor reindexExecutor() {
+        return createExecutor("reindex", Runtime.getRuntime().availableProcessors(), 1000);
+    }
+
+    @Bean(name = EMAIL_EXECUTOR)
+    public MonitoredTaskExecutor emailExecutor() {
+        return createExecutor("email", 2, 1000);
+    }
+
+    /**
+     * Used by the <code>@Async</code> methods which do not name an executor.
+     */
+    @Bean(name = DEFAULT_EXECUTOR)
+    public MonitoredTaskExecutor defaultExecutor() {
+        return createExecutor("default", 4, 1000);
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return defaultExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, method, params) -> LOGGER.error("An error occurs while running asynchronous method {}", method, ex);
+    }
+
+    private MonitoredTaskExecutor createExecutor(String name, int defaultThreads, int defaultQueueSize) {
+        return createExecutor(name, defaultThreads, defaultQueueSize, false);
+    }
+
+    private MonitoredTaskExecutor createExecutor(String name, int defaultThreads, int defaultQueueSize, boolean ordered) {
+        int threads = environment.getProperty("management.executors." + name + ".threads", Integer.class, defaultThreads);
+        int queueSize = environment.getProperty("management.executors." + name + ".queue_size", Integer.class, defaultQueueSize);
+        LOGGER.info("Create executor {} [threads: {}, queue size: {}]", name, threads, queueSize);
+
+        return new MonitoredTaskExecutor(name, threads, queueSize, ordered);
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.spring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of named threads used to run asynchronous tasks.
+ *
+ * When the queue is full, the task is run by the calling thread, which slows the producer down instead of creating
+ * more threads or dropping the task. An ordered executor, whose tasks must run in submission order, makes the calling
+ * thread wait for room in the queue instead. Completed tasks, time spent in the queue and running are counted.
+ *
+ * @author GraviteeSource Team
+ */
+public class MonitoredTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(MonitoredTaskExecutor.class);
+
+    private final String name;
+    private final int queueSize;
+
+    private final AtomicLong completedTasks = new AtomicLong();
+    private final AtomicLong callerRuns = new AtomicLong();
+    private final AtomicLong blockedSubmissions = new AtomicLong();
+    private final AtomicLong waitTime = new AtomicLong();
+    private final AtomicLong executionTime = new AtomicLong();
+
+    public MonitoredTaskExecutor(String name, int threads, int queueSize) {
+        this(name, threads, queueSize, false);
+    }
+
+    public MonitoredTaskExecutor(String name, int threads, int queueSize, boolean ordered) {
+        this.name = name;
+        this.queueSize = queueSize;
+
+        setThreadNamePrefix("async-" + name + "-");
+        setCorePoolSize(Math.max(1, threads));
+        setMaxPoolSize(Math.max(1, threads));
+        setQueueCapacity(queueSize);
+        setTaskDecorator(this::monitor);
+        setRejectedExecutionHandler((runnable, executor) -> {
+            if (executor.isShutdown()) {
+                LOGGER.warn("Executor {} is shut down, task is discarded", name);
+            } else if (ordered) {
+                blockedSubmissions.incrementAndGet();
+                LOGGER.debug("Executor {} queue is full, waiting for room to keep the tasks in order", name);
+                try {
+                    executor.getQueue().put(runnable);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException("Interrupted while waiting for room in executor " + name, ie);
+                }
+            } else {
+                callerRuns.incrementAndGet();
+                LOGGER.debug("Executor {} queue is full, task is run by the calling thread", name);
+                runnable.run();
+            }
+        });
+        setWaitForTasksToCompleteOnShutdown(true);
+        setAwaitTerminationSeconds(10);
+    }
+
+    private Runnable monitor(Runnable task) {
+        final long submittedAt = System.nanoTime();
+        return () -> {
+            final long startedAt = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                waitTime.addAndGet(startedAt - submittedAt);
+                executionTime.addAndGet(System.nanoTime() - startedAt);
+                completedTasks.incrementAndGet();
+            }
+        };
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * @return the number of tasks waiting for a thread.
+     */
+    public int getQueueDepth() {
+        return getThreadPoolExecutor().getQueue().size();
+    }
+
+    public long getCompletedTasks() {
+        return completedTasks.get();
+    }
+
+    /**
+     * @return the number of tasks run by the calling thread because the queue was full.
+     */
+    public long getCallerRuns() {
+        return callerRuns.get();
+    }
+
+    /**
+     * @return the number of submissions which had to wait for room in the queue of an ordered executor.
+     */
+    public long getBlockedSubmissions() {
+        return blockedSubmissions.get();
+    }
+
+    public long getAverageWaitTime() {
+        return average(waitTime);
+    }
+
+    public long getAverageExecutionTime() {
+        return average(executionTime);
+    }
+
+    private long average(AtomicLong nanos) {
+        long count = completedTasks.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(nanos.get() / count);
+    }
+}
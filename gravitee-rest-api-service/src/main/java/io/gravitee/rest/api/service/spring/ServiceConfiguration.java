@@ -30,6 +30,8 @@ import io.gravitee.plugin.policy.spring.PolicyPluginConfiguration;
 import io.gravitee.plugin.resource.spring.ResourcePluginConfiguration;
 import io.gravitee.rest.api.management.fetcher.spring.FetcherConfigurationConfiguration;
 import io.gravitee.rest.api.model.api.ApiEntity;
+import io.gravitee.rest.api.service.healthcheck.DynamicPropertiesMetrics;
+import io.gravitee.rest.api.service.healthcheck.SyncMetrics;
 import io.gravitee.rest.api.service.impl.search.configuration.SearchEngineConfiguration;
 import io.gravitee.rest.api.service.jackson.filter.ApiPermissionFilter;
 import io.gravitee.rest.api.service.jackson.ser.api.ApiCompositeSerializer;
@@ -57,6 +59,7 @@ import java.util.Collections;
 		FetcherPluginConfiguration.class, FetcherConfigurationConfiguration.class,
 		SearchEngineConfiguration.class, NotifierPluginConfiguration.class,
 		AlertPluginConfiguration.class, ServiceDiscoveryPluginConfiguration.class,
+		AsyncConfiguration.class,
 		})
 public class ServiceConfiguration {
 
@@ -87,4 +90,14 @@ public class ServiceConfiguration {
 	public ApiSerializer apiSerializer() {
 		return new ApiCompositeSerializer();
 	}
+
+	@Bean
+	public SyncMetrics syncMetrics() {
+		return new SyncMetrics();
+	}
+
+	@Bean
+	public DynamicPropertiesMetrics dynamicPropertiesMetrics() {
+		return new DynamicPropertiesMetrics();
+	}
 }
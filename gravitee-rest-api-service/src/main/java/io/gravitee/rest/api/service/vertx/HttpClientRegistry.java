@@ -0,0 +1,219 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service.vertx;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.net.ProxyOptions;
+import io.vertx.core.net.ProxyType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the HTTP clients used to call external services (webhooks, dynamic properties, dictionaries...).
+ *
+ * One pooled client is created by origin (scheme, host, port and proxy usage) and reused for all the requests sent to
+ * this origin, so that connections are kept alive between requests. The pool can be tuned with
+ * <code>httpClient.pool.max_size</code> and <code>httpClient.pool.idle_timeout</code> (in seconds). HTTP/2 can be
+ * negotiated with HTTPS origins by enabling <code>httpClient.http2.enabled</code>.
+ *
+ * Clients must not be closed by the callers, they are closed when the registry is destroyed.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class HttpClientRegistry implements DisposableBean {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(HttpClientRegistry.class);
+
+    private static final String HTTPS_SCHEME = "https";
+
+    @Value("${httpClient.timeout:10000}")
+    private int httpClientTimeout;
+    @Value("${httpClient.pool.max_size:10}")
+    private int maxPoolSize;
+    @Value("${httpClient.pool.idle_timeout:60}")
+    private int idleTimeout;
+    @Value("${httpClient.http2.enabled:false}")
+    private boolean http2;
+    @Value("${httpClient.proxy.type:HTTP}")
+    private String httpClientProxyType;
+
+    @Value("${httpClient.proxy.http.host:#{systemProperties['http.proxyHost'] ?: 'localhost'}}")
+    private String httpClientProxyHttpHost;
+    @Value("${httpClient.proxy.http.port:#{systemProperties['http.proxyPort'] ?: 3128}}")
+    private int httpClientProxyHttpPort;
+    @Value("${httpClient.proxy.http.username:#{null}}")
+    private String httpClientProxyHttpUsername;
+    @Value("${httpClient.proxy.http.password:#{null}}")
+    private String httpClientProxyHttpPassword;
+
+    @Value("${httpClient.proxy.https.host:#{systemProperties['https.proxyHost'] ?: 'localhost'}}")
+    private String httpClientProxyHttpsHost;
+    @Value("${httpClient.proxy.https.port:#{systemProperties['https.proxyPort'] ?: 3128}}")
+    private int httpClientProxyHttpsPort;
+    @Value("${httpClient.proxy.https.username:#{null}}")
+    private String httpClientProxyHttpsUsername;
+    @Value("${httpClient.proxy.https.password:#{null}}")
+    private String httpClientProxyHttpsPassword;
+
+    @Autowired
+    private Vertx vertx;
+
+    private final Map<String, PooledClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * @return the client to use to send a request to the given URI.
+     */
+    public HttpClient get(URI uri, boolean useSystemProxy) {
+        final String origin = getOrigin(uri, useSystemProxy);
+        final PooledClient client = clients.computeIfAbsent(origin, key -> create(key, uri, useSystemProxy));
+        client.requests.incrementAndGet();
+        return client.httpClient;
+    }
+
+    /**
+     * @return the port of the given URI, or the default port of its scheme.
+     */
+    public static int getPort(URI uri) {
+        if (uri.getPort() != -1) {
+            return uri.getPort();
+        }
+        return HTTPS_SCHEME.equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    /**
+     * @return requests sent, connections opened and connections currently open, by origin.
+     */
+    public Map<String, Stats> stats() {
+        Map<String, Stats> stats = new TreeMap<>();
+        clients.forEach((origin, client) -> stats.put(origin,
+                new Stats(client.requests.get(), client.connections.get(), client.openConnections.get())));
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        clients.values().forEach(client -> {
+            try {
+                client.httpClient.close();
+            } catch (IllegalStateException ise) {
+                // Do not take care about exception when closing client
+            }
+        });
+        clients.clear();
+    }
+
+    private PooledClient create(String origin, URI uri, boolean useSystemProxy) {
+        final boolean ssl = HTTPS_SCHEME.equalsIgnoreCase(uri.getScheme());
+
+        final HttpClientOptions options = new HttpClientOptions()
+                .setSsl(ssl)
+                .setTrustAll(true)
+                .setMaxPoolSize(maxPoolSize)
+                .setKeepAlive(true)
+                .setTcpKeepAlive(true)
+                .setIdleTimeout(idleTimeout)
+                .setConnectTimeout(httpClientTimeout);
+
+        if (ssl && http2) {
+            options.setProtocolVersion(HttpVersion.HTTP_2)
+                    .setUseAlpn(true)
+                    .setAlpnVersions(Arrays.asList(HttpVersion.HTTP_2, HttpVersion.HTTP_1_1));
+        }
+
+        if (useSystemProxy) {
+            ProxyOptions proxyOptions = new ProxyOptions();
+            proxyOptions.setType(ProxyType.valueOf(httpClientProxyType));
+            if (ssl) {
+                proxyOptions.setHost(httpClientProxyHttpsHost);
+                proxyOptions.setPort(httpClientProxyHttpsPort);
+                proxyOptions.setUsername(httpClientProxyHttpsUsername);
+                proxyOptions.setPassword(httpClientProxyHttpsPassword);
+            } else {
+                proxyOptions.setHost(httpClientProxyHttpHost);
+                proxyOptions.setPort(httpClientProxyHttpPort);
+                proxyOptions.setUsername(httpClientProxyHttpUsername);
+                proxyOptions.setPassword(httpClientProxyHttpPassword);
+            }
+            options.setProxyOptions(proxyOptions);
+        }
+
+        LOGGER.debug("Create HTTP client for {} [max pool size: {}, idle timeout: {}s]", origin, maxPoolSize, idleTimeout);
+
+        final PooledClient client = new PooledClient(vertx.createHttpClient(options));
+        client.httpClient.connectionHandler(connection -> {
+            client.connections.incrementAndGet();
+            LOGGER.debug("HTTP connection opened to {} ({} open)", origin, client.openConnections.incrementAndGet());
+            connection.closeHandler(event ->
+                    LOGGER.debug("HTTP connection closed to {} ({} open)", origin, client.openConnections.decrementAndGet()));
+        });
+        return client;
+    }
+
+    private static String getOrigin(URI uri, boolean useSystemProxy) {
+        return uri.getScheme().toLowerCase() + "://" + uri.getHost() + ':' + getPort(uri) + (useSystemProxy ? " (proxy)" : "");
+    }
+
+    private static class PooledClient {
+        private final HttpClient httpClient;
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong connections = new AtomicLong();
+        private final AtomicLong openConnections = new AtomicLong();
+
+        private PooledClient(HttpClient httpClient) {
+            this.httpClient = httpClient;
+        }
+    }
+
+    public static class Stats {
+        private final long requests;
+        private final long connections;
+        private final long openConnections;
+
+        Stats(long requests, long connections, long openConnections) {
+            this.requests = requests;
+            this.connections = connections;
+            this.openConnections = openConnections;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getConnections() {
+            return connections;
+        }
+
+        public long getOpenConnections() {
+            return openConnections;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.ApplicationRepository;
+import io.gravitee.repository.management.api.PlanRepository;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Application;
+import io.gravitee.repository.management.model.ApplicationStatus;
+import io.gravitee.repository.management.model.Plan;
+import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
+import io.gravitee.rest.api.service.impl.AnalyticsMetadataResolver;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AnalyticsMetadataResolverTest {
+
+    @InjectMocks
+    private AnalyticsMetadataResolver metadataResolver = new AnalyticsMetadataResolver();
+
+    @Mock
+    private ApiRepository apiRepository;
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+
+    @Mock
+    private PlanRepository planRepository;
+
+    @Before
+    public void init() {
+        ReflectionTestUtils.setField(metadataResolver, "cacheTtl", 60L);
+        ReflectionTestUtils.setField(metadataResolver, "cacheMaxSize", 100L);
+        metadataResolver.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldResolveApisOnceThenFromCache() throws TechnicalException {
+        when(apiRepository.search(any(), any())).thenReturn(Collections.singletonList(api("api1", "My API")));
+
+        final Map<String, Map<String, String>> metadata = metadataResolver.getApisMetadata(asList("api1", "api2", "1"));
+        final Map<String, Map<String, String>> cached = metadataResolver.getApisMetadata(asList("api1", "api2", "1"));
+
+        assertEquals(metadata, cached);
+        assertEquals("My API", cached.get("api1").get("name"));
+        assertEquals("1.0", cached.get("api1").get("version"));
+        assertNull(cached.get("api1").get("deleted"));
+        assertEquals("Deleted API", cached.get("api2").get("name"));
+        assertEquals("true", cached.get("api2").get("deleted"));
+        assertEquals("Unknown API (not found)", cached.get("1").get("name"));
+        verify(apiRepository, times(1)).search(any(), any());
+    }
+
+    @Test
+    public void shouldLoadOnlyMissingApis() throws TechnicalException {
+        when(apiRepository.search(any(), any()))
+                .thenReturn(Collections.singletonList(api("api1", "My API")))
+                .thenReturn(Collections.singletonList(api("api2", "My other API")));
+
+        metadataResolver.getApisMetadata(singleton("api1"));
+        final Map<String, Map<String, String>> metadata = metadataResolver.getApisMetadata(asList("api1", "api2"));
+
+        assertEquals("My API", metadata.get("api1").get("name"));
+        assertEquals("My other API", metadata.get("api2").get("name"));
+        verify(apiRepository, times(2)).search(any(), any());
+    }
+
+    @Test
+    public void shouldNotExposeCachedMetadata() throws TechnicalException {
+        when(apiRepository.search(any(), any())).thenReturn(Collections.singletonList(api("api1", "My API")));
+
+        metadataResolver.getApisMetadata(singleton("api1")).get("api1").put("name", "Changed");
+
+        assertEquals("My API", metadataResolver.getApisMetadata(singleton("api1")).get("api1").get("name"));
+    }
+
+    @Test
+    public void shouldIgnoreNullIds() {
+        assertTrue(metadataResolver.getApisMetadata(Collections.singletonList(null)).isEmpty());
+
+        verify(apiRepository, never()).search(any(), any());
+    }
+
+    @Test
+    public void shouldResolveDeletedApplications() throws TechnicalException {
+        final Application archived = new Application();
+        archived.setId("app1");
+        archived.setName("My application");
+        archived.setStatus(ApplicationStatus.ARCHIVED);
+        when(applicationRepository.findByIds(any())).thenReturn(singleton(archived));
+
+        final Map<String, Map<String, String>> metadata =
+                metadataResolver.getApplicationsMetadata(asList("app1", "app2", "1"));
+
+        assertEquals("My application", metadata.get("app1").get("name"));
+        assertEquals("true", metadata.get("app1").get("deleted"));
+        assertEquals("Deleted application", metadata.get("app2").get("name"));
+        assertEquals("true", metadata.get("app2").get("deleted"));
+        assertEquals("Unknown application (keyless)", metadata.get("1").get("name"));
+    }
+
+    @Test
+    public void shouldResolvePlansByApi() throws TechnicalException {
+        when(planRepository.findByApi("api1")).thenReturn(new HashSet<>(asList(
+                plan("plan1", "My plan"), plan("plan3", "Not requested"))));
+        when(planRepository.findById("plan2")).thenReturn(Optional.empty());
+
+        final Map<String, Map<String, String>> metadata =
+                metadataResolver.getPlansMetadata(asList("plan1", "plan2"), singleton("api1"));
+
+        assertEquals(2, metadata.size());
+        assertEquals("My plan", metadata.get("plan1").get("name"));
+        assertEquals("Deleted plan", metadata.get("plan2").get("name"));
+        assertEquals("true", metadata.get("plan2").get("deleted"));
+        verify(planRepository, never()).findById("plan1");
+    }
+
+    @Test
+    public void shouldNotLoadPlansOfOtherApisOnceResolved() throws TechnicalException {
+        when(planRepository.findByApi(anyString())).thenReturn(singleton(plan("plan1", "My plan")));
+
+        final Map<String, Map<String, String>> metadata =
+                metadataResolver.getPlansMetadata(singleton("plan1"), asList("api1", "api2"));
+
+        assertEquals("My plan", metadata.get("plan1").get("name"));
+        verify(planRepository, times(1)).findByApi(anyString());
+        verify(planRepository, never()).findById(anyString());
+    }
+
+    @Test
+    public void shouldResolvePlansOneByOneWithoutApi() throws TechnicalException {
+        when(planRepository.findById("plan1")).thenReturn(Optional.of(plan("plan1", "My plan")));
+
+        assertEquals("My plan", metadataResolver.getPlansMetadata(singleton("plan1")).get("plan1").get("name"));
+        assertEquals("My plan", metadataResolver.getPlansMetadata(singleton("plan1")).get("plan1").get("name"));
+
+        verify(planRepository, times(1)).findById("plan1");
+        verify(planRepository, never()).findByApi(anyString());
+    }
+
+    @Test
+    public void shouldNotCacheFailures() throws TechnicalException {
+        when(planRepository.findById("plan1"))
+                .thenThrow(TechnicalException.class)
+                .thenReturn(Optional.of(plan("plan1", "My plan")));
+
+        try {
+            metadataResolver.getPlansMetadata(singleton("plan1"));
+            fail("The failure must be propagated");
+        } catch (TechnicalManagementException tme) {
+            assertTrue(tme.getCause() instanceof TechnicalException);
+        }
+
+        assertEquals("My plan", metadataResolver.getPlansMetadata(singleton("plan1")).get("plan1").get("name"));
+    }
+
+    private static Api api(String id, String name) {
+        final Api api = new Api();
+        api.setId(id);
+        api.setName(name);
+        api.setVersion("1.0");
+        return api;
+    }
+
+    private static Plan plan(String id, String name) {
+        final Plan plan = new Plan();
+        plan.setId(id);
+        plan.setName(name);
+        return plan;
+    }
+}
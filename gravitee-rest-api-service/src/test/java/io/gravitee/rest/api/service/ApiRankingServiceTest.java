@@ -0,0 +1,201 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.SubscriptionRepository;
+import io.gravitee.repository.management.api.search.Pageable;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Subscription;
+import io.gravitee.rest.api.model.RatingSummaryEntity;
+import io.gravitee.rest.api.model.TopApiEntity;
+import io.gravitee.rest.api.service.common.GraviteeContext;
+import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
+import io.gravitee.rest.api.service.impl.ApiRankingServiceImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ApiRankingServiceTest {
+
+    @InjectMocks
+    private ApiRankingServiceImpl apiRankingService = new ApiRankingServiceImpl();
+
+    @Mock
+    private ApiRepository apiRepository;
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+    @Mock
+    private RatingService ratingService;
+    @Mock
+    private TopApiService topApiService;
+
+    private final List<Runnable> reloads = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(apiRankingService, "cacheTtl", 1L);
+        ReflectionTestUtils.setField(apiRankingService, "executor", (Executor) reloads::add);
+        apiRankingService.afterPropertiesSet();
+    }
+
+    @After
+    public void tearDown() {
+        GraviteeContext.cleanContext();
+    }
+
+    @Test
+    public void shouldComputeRankingsOnce() throws TechnicalException {
+        when(apiRepository.search(any(), any())).thenReturn(asList(api("api1"), api("api2")));
+        when(ratingService.isEnabled()).thenReturn(true);
+        final Map<String, RatingSummaryEntity> ratingSummaries = new HashMap<>();
+        ratingSummaries.put("api1", ratingSummary("api1", 2));
+        ratingSummaries.put("api2", ratingSummary("api2", 0));
+        when(ratingService.findSummariesByApis(any())).thenReturn(ratingSummaries);
+        when(subscriptionRepository.search(any(), any())).thenReturn(page(
+                subscription("api1"), subscription("api2"), subscription("api2")));
+        final TopApiEntity topApi = new TopApiEntity();
+        topApi.setApi("api2");
+        when(topApiService.findAll()).thenReturn(singletonList(topApi));
+
+        final Map<String, RatingSummaryEntity> ratings = apiRankingService.findRatingSummaries();
+        final Map<String, Long> subscriptions = apiRankingService.findSubscriptionCounts();
+
+        assertEquals(1, ratings.size());
+        assertTrue(ratings.containsKey("api1"));
+        assertEquals(2, subscriptions.size());
+        assertEquals(1L, subscriptions.get("api1").longValue());
+        assertEquals(2L, subscriptions.get("api2").longValue());
+        assertEquals(singletonList("api2"), apiRankingService.findFeaturedApis());
+
+        verify(apiRepository, times(1)).search(any(), any());
+        verify(subscriptionRepository, times(1)).search(any(), any());
+        verify(topApiService, times(1)).findAll();
+    }
+
+    @Test
+    public void shouldCountSubscriptionsPageByPage() throws TechnicalException {
+        when(apiRepository.search(any(), any())).thenReturn(asList(api("api1"), api("api2")));
+        when(ratingService.isEnabled()).thenReturn(false);
+        final Subscription[] fullPage = new Subscription[1000];
+        Arrays.fill(fullPage, subscription("api1"));
+        when(subscriptionRepository.search(any(), any()))
+                .thenReturn(page(fullPage))
+                .thenReturn(page(subscription("api1"), subscription("api2")));
+
+        final Map<String, Long> subscriptions = apiRankingService.findSubscriptionCounts();
+
+        assertEquals(1001L, subscriptions.get("api1").longValue());
+        assertEquals(1L, subscriptions.get("api2").longValue());
+        final ArgumentCaptor<Pageable> pageables = ArgumentCaptor.forClass(Pageable.class);
+        verify(subscriptionRepository, times(2)).search(any(), pageables.capture());
+        assertEquals(0, pageables.getAllValues().get(0).pageNumber());
+        assertEquals(1, pageables.getAllValues().get(1).pageNumber());
+    }
+
+    @Test
+    public void shouldServePreviousRankingsWhileRefreshing() throws Exception {
+        GraviteeContext.setCurrentEnvironment("env1");
+        when(apiRepository.search(any(), any())).thenReturn(singletonList(api("api1")));
+        when(ratingService.isEnabled()).thenReturn(false);
+        when(subscriptionRepository.search(any(), any()))
+                .thenReturn(page(subscription("api1")))
+                .thenReturn(page(subscription("api1"), subscription("api1")));
+        final List<String> environments = new ArrayList<>();
+        when(topApiService.findAll()).thenAnswer(invocation -> {
+            environments.add(GraviteeContext.getCurrentEnvironment());
+            return Collections.emptyList();
+        });
+
+        assertEquals(1L, apiRankingService.findSubscriptionCounts().get("api1").longValue());
+        Thread.sleep(1100);
+
+        // The reload is submitted to the executor, the previous rankings are served meanwhile
+        assertEquals(1L, apiRankingService.findSubscriptionCounts().get("api1").longValue());
+        assertEquals(1, reloads.size());
+
+        GraviteeContext.setCurrentEnvironment("env2");
+        reloads.get(0).run();
+        GraviteeContext.setCurrentEnvironment("env1");
+
+        assertEquals(2L, apiRankingService.findSubscriptionCounts().get("api1").longValue());
+        assertEquals(asList("env1", "env1"), environments);
+    }
+
+    @Test
+    public void shouldNotComputeRatingsIfDisabled() throws TechnicalException {
+        when(apiRepository.search(any(), any())).thenReturn(singletonList(api("api1")));
+        when(ratingService.isEnabled()).thenReturn(false);
+
+        assertTrue(apiRankingService.findRatingSummaries().isEmpty());
+
+        verify(ratingService, never()).findSummariesByApis(any());
+    }
+
+    @Test(expected = TechnicalManagementException.class)
+    public void shouldNotComputeRankingsBecauseTechnicalException() throws TechnicalException {
+        when(apiRepository.search(any(), any())).thenReturn(singletonList(api("api1")));
+        when(ratingService.isEnabled()).thenReturn(false);
+        when(subscriptionRepository.search(any(), any())).thenThrow(TechnicalException.class);
+
+        apiRankingService.findRatingSummaries();
+    }
+
+    private static Api api(String id) {
+        final Api api = new Api();
+        api.setId(id);
+        return api;
+    }
+
+    private static RatingSummaryEntity ratingSummary(String api, int numberOfRatings) {
+        final RatingSummaryEntity ratingSummary = new RatingSummaryEntity();
+        ratingSummary.setApi(api);
+        ratingSummary.setNumberOfRatings(numberOfRatings);
+        return ratingSummary;
+    }
+
+    private static Page<Subscription> page(Subscription... subscriptions) {
+        return new Page<>(asList(subscriptions), 0, subscriptions.length, subscriptions.length);
+    }
+
+    private static Subscription subscription(String api) {
+        final Subscription subscription = new Subscription();
+        subscription.setApi(api);
+        return subscription;
+    }
+}
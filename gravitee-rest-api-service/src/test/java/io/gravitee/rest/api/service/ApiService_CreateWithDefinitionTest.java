@@ -27,6 +27,7 @@ import io.gravitee.rest.api.model.UserEntity;
 import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.permissions.SystemRole;
 import io.gravitee.rest.api.service.impl.ApiServiceImpl;
+import io.gravitee.rest.api.service.impl.PageTemplateCache;
 import io.gravitee.rest.api.service.search.SearchEngineService;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
@@ -100,6 +101,8 @@ public class ApiService_CreateWithDefinitionTest {
 
     @Mock
     private  GenericNotificationConfigService  genericNotificationConfigService;
+    @Mock
+    private PageTemplateCache pageTemplateCache;
 
     @Before
     public void init() {
@@ -34,6 +34,7 @@ import io.gravitee.rest.api.service.TopApiService;
 import io.gravitee.rest.api.service.exceptions.ApiNotDeletableException;
 import io.gravitee.rest.api.service.exceptions.ApiRunningStateException;
 import io.gravitee.rest.api.service.impl.ApiServiceImpl;
+import io.gravitee.rest.api.service.impl.PageTemplateCache;
 import io.gravitee.rest.api.service.jackson.filter.ApiPermissionFilter;
 
 import org.junit.Before;
@@ -84,6 +85,10 @@ public class ApiService_DeleteTest {
     private AlertService alertService;
     @Mock
     private ApiQualityRuleRepository apiQualityRuleRepository;
+    @Mock
+    private PermissionService permissionService;
+    @Mock
+    private PageTemplateCache pageTemplateCache;
 
     @Before
     public void setUp() {
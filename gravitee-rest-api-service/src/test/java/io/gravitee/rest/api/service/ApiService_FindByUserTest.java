@@ -23,9 +23,15 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
 
 import org.junit.Before;
@@ -35,25 +41,37 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ser.PropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 
 import io.gravitee.definition.jackson.datatype.GraviteeMapper;
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
 import io.gravitee.repository.management.api.MembershipRepository;
+import io.gravitee.repository.management.api.WorkflowRepository;
 import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
 import io.gravitee.repository.management.model.Api;
 import io.gravitee.repository.management.model.Membership;
 import io.gravitee.repository.management.model.MembershipReferenceType;
 import io.gravitee.repository.management.model.RoleScope;
+import io.gravitee.repository.management.model.Workflow;
+import io.gravitee.rest.api.model.WorkflowReferenceType;
+import io.gravitee.rest.api.model.WorkflowState;
+import io.gravitee.rest.api.model.WorkflowType;
 import io.gravitee.rest.api.model.api.ApiEntity;
+import io.gravitee.rest.api.model.api.ApiQuery;
+import io.gravitee.rest.api.model.common.PageableImpl;
+import io.gravitee.rest.api.model.parameters.Key;
 import io.gravitee.rest.api.model.permissions.SystemRole;
 import io.gravitee.rest.api.service.ParameterService;
 import io.gravitee.rest.api.service.UserService;
 import io.gravitee.rest.api.service.impl.ApiServiceImpl;
+import io.gravitee.rest.api.service.impl.WorkflowServiceImpl;
 import io.gravitee.rest.api.service.jackson.filter.ApiPermissionFilter;
 
 /**
@@ -80,6 +98,8 @@ public class ApiService_FindByUserTest {
     private UserService userService;
     @Mock
     private ParameterService parameterService;
+    @Mock
+    private WorkflowService workflowService;
 
     @Before
     public void setUp() {
@@ -119,4 +139,87 @@ public class ApiService_FindByUserTest {
         assertNotNull(apiEntities);
         assertTrue(apiEntities.isEmpty());
     }
+
+    @Test
+    public void shouldReadReviewParameterOnceAndQueryWorkflowsByApi() throws TechnicalException {
+        final WorkflowRepository workflowRepository = givenWorkflowRepository();
+        when(apiRepository.search(new ApiCriteria.Builder().environment("DEFAULT").visibility(PUBLIC).build()))
+                .thenReturn(Arrays.asList(api("api-1"), api("api-2")));
+        when(membershipRepository.findByUserAndReferenceType(anyString(), any(MembershipReferenceType.class)))
+                .thenReturn(Collections.emptySet());
+        when(membershipRepository.findByReferencesAndRole(any(), any(), any(), any()))
+                .thenReturn(new HashSet<>(Arrays.asList(primaryOwner("api-1"), primaryOwner("api-2"))));
+        when(parameterService.findAsBoolean(Key.API_REVIEW_ENABLED)).thenReturn(true);
+        final Workflow workflow = new Workflow();
+        workflow.setState(WorkflowState.IN_REVIEW.name());
+        when(workflowRepository.findByReferenceAndType(WorkflowReferenceType.API.name(), "api-1", WorkflowType.REVIEW.name()))
+                .thenReturn(singletonList(workflow));
+
+        final Set<ApiEntity> apiEntities = apiService.findByUser(USER_NAME, null);
+
+        assertEquals(2, apiEntities.size());
+        apiEntities.forEach(apiEntity -> assertEquals("api-1".equals(apiEntity.getId()) ? WorkflowState.IN_REVIEW : null,
+                apiEntity.getWorkflowState()));
+        verify(parameterService, times(1)).findAsBoolean(Key.API_REVIEW_ENABLED);
+        // WorkflowRepository has no lookup by several references: one query by API
+        verify(workflowRepository, times(2)).findByReferenceAndType(any(), any(), any());
+    }
+
+    @Test
+    public void shouldNotQueryWorkflowsWhenReviewIsDisabled() throws TechnicalException {
+        final WorkflowRepository workflowRepository = givenWorkflowRepository();
+        when(apiRepository.search(new ApiCriteria.Builder().environment("DEFAULT").visibility(PUBLIC).build()))
+                .thenReturn(Arrays.asList(api("api-1"), api("api-2")));
+        when(membershipRepository.findByUserAndReferenceType(anyString(), any(MembershipReferenceType.class)))
+                .thenReturn(Collections.emptySet());
+        when(membershipRepository.findByReferencesAndRole(any(), any(), any(), any()))
+                .thenReturn(new HashSet<>(Arrays.asList(primaryOwner("api-1"), primaryOwner("api-2"))));
+
+        assertEquals(2, apiService.findByUser(USER_NAME, null).size());
+
+        verify(workflowRepository, never()).findByReferenceAndType(any(), any(), any());
+    }
+
+    @Test
+    public void shouldOnlyReadProxyAndTagsOfListItems() throws TechnicalException {
+        final Api listedApi = api("api-1");
+        listedApi.setDefinition("{\"id\": \"api-1\", \"tags\": [\"internal\"], " +
+                "\"paths\": {\"/\": [{\"methods\": [\"GET\"], \"mock\": {\"status\": \"200\"}}]}, " +
+                "\"proxy\": {\"context_path\": \"/listed\", \"endpoints\": [{\"name\": \"default\", \"target\": \"http://localhost\"}]}}");
+        when(apiRepository.search(any(ApiCriteria.class), any(ApiFieldExclusionFilter.class)))
+                .thenReturn(singletonList(listedApi));
+        when(membershipRepository.findByReferencesAndRole(any(), any(), any(), any()))
+                .thenReturn(Collections.singleton(primaryOwner("api-1")));
+
+        final ApiQuery query = new ApiQuery();
+        query.setTag("internal");
+        final Page<ApiEntity> page = apiService.searchListItems(query, null, new PageableImpl(1, 10));
+
+        assertEquals(1, page.getContent().size());
+        final ApiEntity apiEntity = page.getContent().get(0);
+        assertEquals(Collections.singleton("internal"), apiEntity.getTags());
+        assertEquals("/listed", apiEntity.getProxy().getVirtualHosts().get(0).getPath());
+        assertTrue(apiEntity.getPaths().isEmpty());
+    }
+
+    private WorkflowRepository givenWorkflowRepository() {
+        final WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+        final WorkflowServiceImpl workflowService = new WorkflowServiceImpl();
+        ReflectionTestUtils.setField(workflowService, "workflowRepository", workflowRepository);
+        ReflectionTestUtils.setField(apiService, "workflowService", workflowService);
+        return workflowRepository;
+    }
+
+    private static Api api(String id) {
+        final Api api = new Api();
+        api.setId(id);
+        api.setName(id);
+        return api;
+    }
+
+    private static Membership primaryOwner(String apiId) {
+        final Membership po = new Membership(USER_NAME, apiId, MembershipReferenceType.API);
+        po.setRoles(Collections.singletonMap(RoleScope.API.getId(), SystemRole.PRIMARY_OWNER.name()));
+        return po;
+    }
 }
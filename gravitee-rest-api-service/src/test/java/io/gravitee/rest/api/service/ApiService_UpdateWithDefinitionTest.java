@@ -23,6 +23,7 @@ import io.gravitee.rest.api.model.*;
 import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.permissions.SystemRole;
 import io.gravitee.rest.api.service.impl.ApiServiceImpl;
+import io.gravitee.rest.api.service.impl.PageTemplateCache;
 import io.gravitee.rest.api.service.search.SearchEngineService;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
@@ -90,6 +91,10 @@ public class ApiService_UpdateWithDefinitionTest {
     private ParameterService parameterService;
     @Mock
     private VirtualHostService virtualHostService;
+    @Mock
+    private PermissionService permissionService;
+    @Mock
+    private PageTemplateCache pageTemplateCache;
 
     @Before
     public void init() {
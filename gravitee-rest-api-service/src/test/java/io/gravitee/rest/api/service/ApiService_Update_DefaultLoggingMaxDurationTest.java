@@ -28,6 +28,7 @@ import io.gravitee.rest.api.model.api.UpdateApiEntity;
 import io.gravitee.rest.api.model.parameters.Key;
 import io.gravitee.rest.api.model.permissions.SystemRole;
 import io.gravitee.rest.api.service.impl.ApiServiceImpl;
+import io.gravitee.rest.api.service.impl.PageTemplateCache;
 import io.gravitee.rest.api.service.jackson.filter.ApiPermissionFilter;
 import io.gravitee.rest.api.service.search.SearchEngineService;
 import io.gravitee.repository.exceptions.TechnicalException;
@@ -100,6 +101,11 @@ public class ApiService_Update_DefaultLoggingMaxDurationTest {
     @Mock
     private VirtualHostService virtualHostService;
 
+    @Mock
+    private PermissionService permissionService;
+    @Mock
+    private PageTemplateCache pageTemplateCache;
+
     @Before
     public void setUp()  throws TechnicalException {
         existingApi = new UpdateApiEntity();
@@ -73,6 +73,9 @@ public class ApplicationService_ArchiveTest {
     @Mock
     private AuditService auditService;
 
+    @Mock
+    private PermissionService permissionService;
+
     @Test
     public void shouldArchive() throws TechnicalException {
         when(applicationRepository.findById(APPLICATION_ID)).thenReturn(Optional.of(application));
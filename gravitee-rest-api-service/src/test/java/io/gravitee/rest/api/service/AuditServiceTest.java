@@ -0,0 +1,199 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.common.data.domain.MetadataPage;
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.AuditRepository;
+import io.gravitee.repository.management.api.GroupRepository;
+import io.gravitee.repository.management.api.MetadataRepository;
+import io.gravitee.repository.management.api.PageRepository;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Audit;
+import io.gravitee.repository.management.model.Group;
+import io.gravitee.repository.management.model.Metadata;
+import io.gravitee.repository.management.model.MetadataReferenceType;
+import io.gravitee.rest.api.model.UserEntity;
+import io.gravitee.rest.api.model.audit.AuditEntity;
+import io.gravitee.rest.api.model.audit.AuditQuery;
+import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
+import io.gravitee.rest.api.service.impl.AnalyticsMetadataResolver;
+import io.gravitee.rest.api.service.impl.AuditServiceImpl;
+import io.gravitee.rest.api.service.impl.AuditWriter;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.*;
+
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AuditServiceTest {
+
+    private static final String API_ID = "my-api";
+
+    @InjectMocks
+    private AuditServiceImpl auditService = new AuditServiceImpl();
+
+    @Mock
+    private AuditRepository auditRepository;
+    @Mock
+    private PageRepository pageRepository;
+    @Mock
+    private MetadataRepository metadataRepository;
+    @Mock
+    private GroupRepository groupRepository;
+    @Mock
+    private UserService userService;
+    @Mock
+    private AnalyticsMetadataResolver metadataResolver;
+    @Mock
+    private AuditWriter auditWriter;
+
+    @Test
+    public void shouldResolveMetadataByBatch() throws TechnicalException {
+        final Map<String, String> properties1 = new HashMap<>();
+        properties1.put(Audit.AuditProperties.PLAN.name(), "plan1");
+        properties1.put(Audit.AuditProperties.GROUP.name(), "group1");
+        final Map<String, String> properties2 = new HashMap<>();
+        properties2.put(Audit.AuditProperties.METADATA.name(), "email-support");
+        properties2.put(Audit.AuditProperties.GROUP.name(), "unknown-group");
+        when(auditRepository.search(any(), any())).thenReturn(new Page<>(Arrays.asList(
+                audit("audit1", "user1", properties1), audit("audit2", "user1", properties2),
+                audit("audit3", "user2", null)), 0, 3, 3));
+
+        final UserEntity user1 = new UserEntity();
+        user1.setId("user1");
+        user1.setFirstname("John");
+        user1.setLastname("Doe");
+        when(userService.findByIds(any())).thenReturn(singleton(user1));
+        when(metadataResolver.getApisMetadata(singleton(API_ID)))
+                .thenReturn(singletonMap(API_ID, singletonMap("name", "My API")));
+        when(metadataResolver.getApplicationsMetadata(Collections.emptySet())).thenReturn(Collections.emptyMap());
+        when(metadataResolver.getPlansMetadata(singleton("plan1"), singleton(API_ID)))
+                .thenReturn(singletonMap("plan1", singletonMap("name", "My plan")));
+        final Group group = new Group();
+        group.setId("group1");
+        group.setName("My group");
+        when(groupRepository.findByIds(new HashSet<>(Arrays.asList("group1", "unknown-group"))))
+                .thenReturn(singleton(group));
+        final Metadata metadata = new Metadata();
+        metadata.setKey("email-support");
+        metadata.setName("Email support");
+        when(metadataRepository.findByReferenceTypeAndReferenceId(MetadataReferenceType.API, API_ID))
+                .thenReturn(Collections.singletonList(metadata));
+
+        final AuditQuery query = new AuditQuery();
+        query.setPage(1);
+        query.setSize(10);
+        final MetadataPage<AuditEntity> audits = auditService.search(query);
+
+        final Map<String, String> auditMetadata = audits.getMetadata();
+        assertEquals("John Doe", auditMetadata.get("USER:user1:name"));
+        assertEquals("user2", auditMetadata.get("USER:user2:name"));
+        assertEquals("My API", auditMetadata.get("API:" + API_ID + ":name"));
+        assertEquals("My plan", auditMetadata.get("PLAN:plan1:name"));
+        assertEquals("My group", auditMetadata.get("GROUP:group1:name"));
+        assertEquals("unknown-group", auditMetadata.get("GROUP:unknown-group:name"));
+        assertEquals("Email support", auditMetadata.get("METADATA:email-support:name"));
+
+        verify(userService, times(1)).findByIds(any());
+        verify(groupRepository, times(1)).findByIds(any());
+        verify(metadataRepository, times(1)).findByReferenceTypeAndReferenceId(any(), any());
+        verify(pageRepository, never()).findById(any());
+    }
+
+    @Test
+    public void shouldFallBackToIdsWhenMetadataCanNotBeResolved() {
+        when(auditRepository.search(any(), any())).thenReturn(new Page<>(Collections.singletonList(
+                audit("audit1", "user1", singletonMap(Audit.AuditProperties.PLAN.name(), "plan1"))), 0, 1, 1));
+        when(metadataResolver.getApisMetadata(singleton(API_ID))).thenThrow(TechnicalManagementException.class);
+        when(metadataResolver.getApplicationsMetadata(Collections.emptySet())).thenReturn(Collections.emptyMap());
+        when(metadataResolver.getPlansMetadata(singleton("plan1"), singleton(API_ID)))
+                .thenThrow(TechnicalManagementException.class);
+
+        final AuditQuery query = new AuditQuery();
+        query.setPage(1);
+        query.setSize(10);
+        final Map<String, String> auditMetadata = auditService.search(query).getMetadata();
+
+        assertEquals(API_ID, auditMetadata.get("API:" + API_ID + ":name"));
+        assertEquals("plan1", auditMetadata.get("PLAN:plan1:name"));
+        assertEquals("user1", auditMetadata.get("USER:user1:name"));
+    }
+
+    @Test
+    public void shouldFallBackToIdsForDeletedEntities() {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(Audit.AuditProperties.PLAN.name(), "plan1");
+        properties.put(Audit.AuditProperties.APPLICATION.name(), "app1");
+        when(auditRepository.search(any(), any())).thenReturn(new Page<>(Collections.singletonList(
+                audit("audit1", "user1", properties)), 0, 1, 1));
+        when(metadataResolver.getApisMetadata(singleton(API_ID))).thenReturn(singletonMap(API_ID, deleted("Deleted API")));
+        when(metadataResolver.getApplicationsMetadata(singleton("app1")))
+                .thenReturn(singletonMap("app1", deleted("Deleted application")));
+        when(metadataResolver.getPlansMetadata(singleton("plan1"), singleton(API_ID)))
+                .thenReturn(singletonMap("plan1", deleted("Deleted plan")));
+
+        final AuditQuery query = new AuditQuery();
+        query.setPage(1);
+        query.setSize(10);
+        final Map<String, String> auditMetadata = auditService.search(query).getMetadata();
+
+        assertNull(auditMetadata.get("API:" + API_ID + ":name"));
+        assertEquals("app1", auditMetadata.get("APPLICATION:app1:name"));
+        assertEquals("plan1", auditMetadata.get("PLAN:plan1:name"));
+    }
+
+    @Test
+    public void shouldQueueAuditInsteadOfWritingIt() throws TechnicalException {
+        auditService.createApiAuditLog(API_ID, Collections.emptyMap(), Api.AuditEvent.API_UPDATED, new Date(),
+                singletonMap("name", "old"), singletonMap("name", "new"));
+
+        verify(auditWriter).write(eq(Audit.AuditReferenceType.API), eq(API_ID), any(), eq(Api.AuditEvent.API_UPDATED),
+                any(), any(), eq(singletonMap("name", "old")), eq(singletonMap("name", "new")));
+        verify(auditRepository, never()).create(any());
+    }
+
+    private static Audit audit(String id, String user, Map<String, String> properties) {
+        final Audit audit = new Audit();
+        audit.setId(id);
+        audit.setUser(user);
+        audit.setReferenceType(Audit.AuditReferenceType.API);
+        audit.setReferenceId(API_ID);
+        audit.setProperties(properties);
+        return audit;
+    }
+
+    private static Map<String, String> deleted(String name) {
+        final Map<String, String> metadata = new HashMap<>();
+        metadata.put("name", name);
+        metadata.put("deleted", "true");
+        return metadata;
+    }
+}
@@ -0,0 +1,233 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.AuditRepository;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Audit;
+import io.gravitee.rest.api.service.impl.AuditWriter;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AuditWriterTest {
+
+    private static final String PATCH = "[{\"op\":\"replace\",\"path\":\"/name\",\"value\":\"new\"}]";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @InjectMocks
+    private AuditWriter auditWriter = new AuditWriter();
+
+    @Mock
+    private AuditRepository auditRepository;
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    @Before
+    public void init() {
+        ReflectionTestUtils.setField(auditWriter, "mapper", new ObjectMapper());
+        ReflectionTestUtils.setField(auditWriter, "executor", (Executor) tasks::add);
+        ReflectionTestUtils.setField(auditWriter, "queueSize", 1);
+        ReflectionTestUtils.setField(auditWriter, "spillPath", folder.getRoot().getAbsolutePath());
+        auditWriter.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldWriteAuditOffTheCallerThread() throws TechnicalException {
+        write("api1");
+
+        verify(auditRepository, never()).create(any());
+        assertEquals(1, tasks.size());
+
+        runTasks();
+
+        ArgumentCaptor<Audit> audit = ArgumentCaptor.forClass(Audit.class);
+        verify(auditRepository).create(audit.capture());
+        assertEquals("api1", audit.getValue().getReferenceId());
+        assertEquals(Audit.AuditReferenceType.API, audit.getValue().getReferenceType());
+        assertEquals(PATCH, audit.getValue().getPatch());
+    }
+
+    @Test
+    public void shouldCopyValuesWhenAuditIsWritten() throws TechnicalException {
+        Map<String, String> newValue = new HashMap<>(singletonMap("name", "new"));
+        auditWriter.write(Audit.AuditReferenceType.API, "api1", Collections.emptyMap(), Api.AuditEvent.API_UPDATED,
+                "user", new Date(), singletonMap("name", "old"), newValue);
+
+        newValue.put("name", "changed after audit");
+        runTasks();
+
+        assertEquals(singletonList(PATCH), patches(1));
+    }
+
+    @Test
+    public void shouldSpillAuditsInOrderWhenQueueIsFull() throws TechnicalException {
+        write("api1");
+        write("api2");
+
+        verify(auditRepository, never()).create(any());
+        assertTrue(Files.exists(spillFile()));
+
+        runTasks();
+
+        assertEquals(Arrays.asList("api1", "api2"), references(2));
+        assertFalse(Files.exists(spillFile()));
+        assertFalse(Files.exists(replayFile()));
+    }
+
+    @Test
+    public void shouldKeepSpillingWhileSpilledAuditsAreNotSaved() throws TechnicalException {
+        when(auditRepository.create(any())).thenReturn(null).thenThrow(new TechnicalException("error")).thenReturn(null);
+
+        write("api1");
+        write("api2");
+        runTasks();
+
+        // The queue has room again, but the audit is spilled after the previous one to keep the order
+        write("api3");
+        runTasks();
+
+        assertEquals(Arrays.asList("api1", "api2", "api2", "api3"), references(4));
+        assertFalse(Files.exists(spillFile()));
+        assertFalse(Files.exists(replayFile()));
+    }
+
+    @Test
+    public void shouldSpillAuditWhenItCanNotBeSaved() throws TechnicalException {
+        when(auditRepository.create(any())).thenThrow(new TechnicalException("error"), new TechnicalException("error"))
+                .thenReturn(null);
+
+        write("api1");
+        runTasks();
+
+        // The first replay happens during the failing flush and fails too
+        assertTrue(Files.exists(replayFile()));
+
+        write("api2");
+        runTasks();
+
+        List<String> references = references(4);
+        assertEquals(Arrays.asList("api1", "api1", "api1", "api2"), references);
+        assertFalse(Files.exists(replayFile()));
+        assertFalse(Files.exists(checkpointFile()));
+    }
+
+    @Test
+    public void shouldResumeInterruptedReplayWithoutDuplicates() throws Exception {
+        Audit saved = audit("audit1", "api1");
+        Audit notSaved = audit("audit2", "api2");
+        ObjectMapper mapper = new ObjectMapper();
+        Files.write(replayFile(), Arrays.asList(
+                mapper.writeValueAsString(audit("audit0", "api0")),
+                mapper.writeValueAsString(saved),
+                mapper.writeValueAsString(notSaved)));
+        // The first audit was checkpointed, the second one was saved just before the interruption
+        Files.write(checkpointFile(), String.valueOf(mapper.writeValueAsString(audit("audit0", "api0")).length() + 1).getBytes());
+        when(auditRepository.findById("audit1")).thenReturn(Optional.of(saved));
+        when(auditRepository.findById("audit2")).thenReturn(Optional.empty());
+
+        tasks.clear();
+        auditWriter.afterPropertiesSet();
+        runTasks();
+
+        assertEquals(singletonList("api2"), references(1));
+        assertFalse(Files.exists(replayFile()));
+        assertFalse(Files.exists(checkpointFile()));
+    }
+
+    @Test
+    public void shouldWritePendingAndSpilledAuditsOnDestroy() throws TechnicalException {
+        write("api1");
+        write("api2");
+
+        auditWriter.destroy();
+
+        assertEquals(Arrays.asList("api1", "api2"), references(2));
+        assertFalse(Files.exists(spillFile()));
+    }
+
+    private void write(String api) {
+        auditWriter.write(Audit.AuditReferenceType.API, api, Collections.emptyMap(), Api.AuditEvent.API_UPDATED,
+                "user", new Date(), singletonMap("name", "old"), singletonMap("name", "new"));
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    private List<String> references(int count) throws TechnicalException {
+        ArgumentCaptor<Audit> audits = ArgumentCaptor.forClass(Audit.class);
+        verify(auditRepository, times(count)).create(audits.capture());
+        return audits.getAllValues().stream().map(Audit::getReferenceId).collect(Collectors.toList());
+    }
+
+    private List<String> patches(int count) throws TechnicalException {
+        ArgumentCaptor<Audit> audits = ArgumentCaptor.forClass(Audit.class);
+        verify(auditRepository, times(count)).create(audits.capture());
+        return audits.getAllValues().stream().map(Audit::getPatch).collect(Collectors.toList());
+    }
+
+    private static Audit audit(String id, String api) {
+        Audit audit = new Audit();
+        audit.setId(id);
+        audit.setReferenceType(Audit.AuditReferenceType.API);
+        audit.setReferenceId(api);
+        audit.setEvent(Api.AuditEvent.API_UPDATED.name());
+        audit.setPatch(PATCH);
+        return audit;
+    }
+
+    private Path spillFile() {
+        return folder.getRoot().toPath().resolve("audit.spill");
+    }
+
+    private Path replayFile() {
+        return folder.getRoot().toPath().resolve("audit.spill.replay");
+    }
+
+    private Path checkpointFile() {
+        return folder.getRoot().toPath().resolve("audit.spill.checkpoint");
+    }
+}
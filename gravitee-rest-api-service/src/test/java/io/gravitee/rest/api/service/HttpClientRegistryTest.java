@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.node.api.healthcheck.Result;
+import io.gravitee.rest.api.service.healthcheck.HttpClientsProbe;
+import io.gravitee.rest.api.service.vertx.HttpClientRegistry;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class HttpClientRegistryTest {
+
+    @InjectMocks
+    private HttpClientRegistry httpClientRegistry = new HttpClientRegistry();
+
+    @Mock
+    private Vertx vertx;
+
+    @Test
+    public void shouldReuseClientByOrigin() {
+        ReflectionTestUtils.setField(httpClientRegistry, "httpClientProxyType", "HTTP");
+        when(vertx.createHttpClient(any(HttpClientOptions.class))).thenAnswer(invocation -> mock(HttpClient.class));
+
+        HttpClient client = httpClientRegistry.get(URI.create("https://api.company.com/hooks/1"), false);
+
+        assertSame(client, httpClientRegistry.get(URI.create("https://api.company.com:443/hooks/2"), false));
+        assertNotSame(client, httpClientRegistry.get(URI.create("https://api.company.com/hooks/1"), true));
+        assertNotSame(client, httpClientRegistry.get(URI.create("http://api.company.com/hooks/1"), false));
+
+        verify(vertx, times(3)).createHttpClient(any(HttpClientOptions.class));
+        assertEquals(2, httpClientRegistry.stats().get("https://api.company.com:443").getRequests());
+    }
+
+    @Test
+    public void shouldCreatePooledKeepAliveClient() {
+        ReflectionTestUtils.setField(httpClientRegistry, "maxPoolSize", 5);
+        ReflectionTestUtils.setField(httpClientRegistry, "idleTimeout", 30);
+        when(vertx.createHttpClient(any(HttpClientOptions.class))).thenReturn(mock(HttpClient.class));
+
+        httpClientRegistry.get(URI.create("https://api.company.com/hooks/1"), false);
+
+        ArgumentCaptor<HttpClientOptions> options = ArgumentCaptor.forClass(HttpClientOptions.class);
+        verify(vertx).createHttpClient(options.capture());
+        assertTrue(options.getValue().isSsl());
+        assertTrue(options.getValue().isKeepAlive());
+        assertEquals(5, options.getValue().getMaxPoolSize());
+        assertEquals(30, options.getValue().getIdleTimeout());
+        assertNull(options.getValue().getProxyOptions());
+    }
+
+    @Test
+    public void shouldCloseClientsOnDestroy() {
+        HttpClient httpClient = mock(HttpClient.class);
+        when(vertx.createHttpClient(any(HttpClientOptions.class))).thenReturn(httpClient);
+
+        httpClientRegistry.get(URI.create("http://api.company.com/hooks/1"), false);
+        httpClientRegistry.destroy();
+
+        verify(httpClient).close();
+        assertTrue(httpClientRegistry.stats().isEmpty());
+    }
+
+    @Test
+    public void shouldReportStatsThroughProbe() throws Exception {
+        when(vertx.createHttpClient(any(HttpClientOptions.class))).thenReturn(mock(HttpClient.class));
+        HttpClientsProbe probe = new HttpClientsProbe();
+        ReflectionTestUtils.setField(probe, "httpClientRegistry", httpClientRegistry);
+
+        httpClientRegistry.get(URI.create("http://api.company.com/hooks/1"), false);
+        httpClientRegistry.get(URI.create("http://api.company.com/hooks/2"), false);
+
+        Result result = probe.check().get();
+        assertTrue(result.isHealthy());
+        assertEquals("http://api.company.com:80: requests=2, connections=0, open=0", result.getMessage());
+    }
+
+    @Test
+    public void shouldUseDefaultPortOfScheme() {
+        assertEquals(443, HttpClientRegistry.getPort(URI.create("https://api.company.com/")));
+        assertEquals(80, HttpClientRegistry.getPort(URI.create("http://api.company.com/")));
+        assertEquals(8080, HttpClientRegistry.getPort(URI.create("http://api.company.com:8080/")));
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.node.api.Node;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.CommandRepository;
+import io.gravitee.repository.management.api.search.CommandCriteria;
+import io.gravitee.repository.management.model.Command;
+import io.gravitee.rest.api.service.impl.LeaderElectionServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LeaderElectionServiceTest {
+
+    private static final String TASK = "my-task";
+    private static final String NODE_ID = "my-node";
+
+    @InjectMocks
+    private LeaderElectionService leaderElectionService = new LeaderElectionServiceImpl();
+
+    @Mock
+    private CommandRepository commandRepository;
+
+    @Mock
+    private Node node;
+
+    @Before
+    public void init() {
+        ReflectionTestUtils.setField(leaderElectionService, "lease", 30L);
+    }
+
+    @Test
+    public void shouldAcquireFreeLease() throws TechnicalException {
+        when(node.id()).thenReturn(NODE_ID);
+        Command lease = lease("lease", NODE_ID, 0, 30_000);
+        when(commandRepository.search(any(CommandCriteria.class))).thenReturn(emptyList(), singletonList(lease));
+
+        assertTrue(leaderElectionService.isLeader(TASK));
+
+        ArgumentCaptor<Command> created = ArgumentCaptor.forClass(Command.class);
+        verify(commandRepository).create(created.capture());
+        assertEquals(NODE_ID, created.getValue().getFrom());
+        assertEquals(TASK, created.getValue().getContent());
+    }
+
+    @Test
+    public void shouldNotBeLeaderIfLeaseIsHeldByAnotherNode() throws TechnicalException {
+        when(node.id()).thenReturn(NODE_ID);
+        when(commandRepository.search(any(CommandCriteria.class)))
+                .thenReturn(singletonList(lease("lease", "other-node", 0, 30_000)));
+
+        assertFalse(leaderElectionService.isLeader(TASK));
+
+        verify(commandRepository, never()).create(any());
+        verify(commandRepository, never()).update(any());
+    }
+
+    @Test
+    public void shouldElectOldestLeaseOnConcurrentAcquisition() throws TechnicalException {
+        when(node.id()).thenReturn(NODE_ID);
+        when(commandRepository.search(any(CommandCriteria.class))).thenReturn(
+                emptyList(),
+                asList(lease("mine", NODE_ID, -1000, 30_000), lease("other", "other-node", -2000, 30_000)));
+
+        assertFalse(leaderElectionService.isLeader(TASK));
+    }
+
+    @Test
+    public void shouldTakeOverExpiredLease() throws TechnicalException {
+        when(node.id()).thenReturn(NODE_ID);
+        Command lease = lease("lease", NODE_ID, 0, 30_000);
+        when(commandRepository.search(any(CommandCriteria.class))).thenReturn(
+                singletonList(lease("expired", "other-node", -60_000, -30_000)),
+                singletonList(lease));
+
+        assertTrue(leaderElectionService.isLeader(TASK));
+
+        verify(commandRepository).delete("expired");
+        verify(commandRepository).create(any());
+    }
+
+    @Test
+    public void shouldRenewLease() throws TechnicalException {
+        when(node.id()).thenReturn(NODE_ID);
+        Command lease = lease("lease", NODE_ID, -20_000, 10_000);
+        when(commandRepository.search(any(CommandCriteria.class))).thenReturn(singletonList(lease));
+
+        assertTrue(leaderElectionService.isLeader(TASK));
+
+        verify(commandRepository).update(lease);
+        assertTrue(lease.getExpiredAt().getTime() > System.currentTimeMillis() + 20_000);
+    }
+
+    @Test
+    public void shouldNotBeLeaderOnTechnicalError() throws TechnicalException {
+        when(commandRepository.search(any(CommandCriteria.class))).thenThrow(TechnicalException.class);
+
+        assertFalse(leaderElectionService.isLeader(TASK));
+    }
+
+    private Command lease(String id, String from, long createdAt, long expiredAt) {
+        long now = System.currentTimeMillis();
+        Command command = new Command();
+        command.setId(id);
+        command.setFrom(from);
+        command.setContent(TASK);
+        command.setCreatedAt(new Date(now + createdAt));
+        command.setExpiredAt(new Date(now + expiredAt));
+        return command;
+    }
+}
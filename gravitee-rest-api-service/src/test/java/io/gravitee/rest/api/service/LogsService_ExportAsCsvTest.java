@@ -0,0 +1,196 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.repository.analytics.AnalyticsException;
+import io.gravitee.repository.analytics.query.tabular.TabularQuery;
+import io.gravitee.repository.analytics.query.tabular.TabularResponse;
+import io.gravitee.repository.log.api.LogRepository;
+import io.gravitee.repository.log.model.Log;
+import io.gravitee.rest.api.model.analytics.query.LogQuery;
+import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
+import io.gravitee.rest.api.service.impl.AnalyticsMetadataResolver;
+import io.gravitee.rest.api.service.impl.LogsServiceImpl;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LogsService_ExportAsCsvTest {
+
+    private static final String API_ID = "my-api";
+
+    @InjectMocks
+    private LogsServiceImpl logsService = new LogsServiceImpl();
+
+    @Mock
+    private LogRepository logRepository;
+
+    @Mock
+    private AnalyticsMetadataResolver metadataResolver;
+
+    private void givenLogs(int totalLogs) throws AnalyticsException {
+        when(logRepository.query(any())).thenAnswer(invocation -> {
+            final TabularQuery query = invocation.getArgument(0);
+            final int from = (query.page() - 1) * query.size();
+            final TabularResponse response = new TabularResponse(totalLogs);
+            final List<Log> logs = new ArrayList<>();
+            for (int i = from; i < Math.min(from + query.size(), totalLogs); i++) {
+                logs.add(log(i));
+            }
+            response.setLogs(logs);
+            return response;
+        });
+    }
+
+    @Test
+    public void shouldExportByChunks() throws Exception {
+        givenLogs(10000);
+
+        final List<String> ids = export(1, 2500);
+
+        assertEquals(range(0, 2500), ids);
+        assertEquals(asList(1, 2, 3), requestedPages(3, 1000));
+    }
+
+    @Test
+    public void shouldExportPageNotAlignedOnChunks() throws Exception {
+        givenLogs(10000);
+
+        final List<String> ids = export(2, 1500);
+
+        // Logs 1500 to 2999, read from the chunks 1000-1999 and 2000-2999
+        assertEquals(range(1500, 3000), ids);
+        assertEquals(asList(2, 3), requestedPages(2, 1000));
+    }
+
+    @Test
+    public void shouldExportSmallPage() throws Exception {
+        givenLogs(100);
+
+        final List<String> ids = export(3, 20);
+
+        assertEquals(range(40, 60), ids);
+        assertEquals(asList(3), requestedPages(1, 20));
+    }
+
+    @Test
+    public void shouldStopAtLastLog() throws Exception {
+        givenLogs(1200);
+
+        final List<String> ids = export(1, 5000);
+
+        assertEquals(range(0, 1200), ids);
+        assertEquals(asList(1, 2), requestedPages(2, 1000));
+    }
+
+    @Test
+    public void shouldExportNothingAfterLastLog() throws Exception {
+        givenLogs(1200);
+
+        assertEquals(0, export(2, 1500).size());
+    }
+
+    @Test
+    public void shouldPropagateFailureAfterFirstChunk() throws Exception {
+        when(logRepository.query(any()))
+                .thenAnswer(invocation -> {
+                    final TabularResponse response = new TabularResponse(10000);
+                    response.setLogs(range(0, 1000).stream().map(id -> log(Integer.parseInt(id))).collect(Collectors.toList()));
+                    return response;
+                })
+                .thenThrow(AnalyticsException.class);
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            logsService.exportApiLogsAsCsv(API_ID, query(1, 2000), output);
+            fail("The failure must be propagated");
+        } catch (TechnicalManagementException tme) {
+            assertEquals(range(0, 1000), ids(output));
+        }
+    }
+
+    private List<String> export(int page, int size) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        logsService.exportApiLogsAsCsv(API_ID, query(page, size), output);
+        return ids(output);
+    }
+
+    private List<Integer> requestedPages(int queries, int size) throws AnalyticsException {
+        final ArgumentCaptor<TabularQuery> captor = ArgumentCaptor.forClass(TabularQuery.class);
+        verify(logRepository, times(queries)).query(captor.capture());
+        captor.getAllValues().forEach(query -> assertEquals(size, query.size()));
+        return captor.getAllValues().stream().map(TabularQuery::page).collect(Collectors.toList());
+    }
+
+    private static List<String> ids(ByteArrayOutputStream output) {
+        final String csv = new String(output.toByteArray(), StandardCharsets.UTF_8);
+        return Stream.of(csv.split(System.lineSeparator()))
+                .skip(1)
+                .filter(line -> !line.isEmpty())
+                .map(line -> line.split(";")[1])
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> range(int from, int to) {
+        final List<String> ids = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            ids.add(String.valueOf(i));
+        }
+        return ids;
+    }
+
+    private static List<Integer> asList(Integer... pages) {
+        return Stream.of(pages).collect(Collectors.toList());
+    }
+
+    private static LogQuery query(int page, int size) {
+        final LogQuery query = new LogQuery();
+        query.setPage(page);
+        query.setSize(size);
+        query.setFrom(1);
+        query.setTo(2);
+        return query;
+    }
+
+    private static Log log(int id) {
+        final Log log = new Log();
+        log.setId(String.valueOf(id));
+        log.setTimestamp(id);
+        log.setUri("/path");
+        log.setApi(API_ID);
+        return log;
+    }
+}
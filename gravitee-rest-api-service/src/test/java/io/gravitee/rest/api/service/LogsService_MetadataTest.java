@@ -0,0 +1,189 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.repository.analytics.AnalyticsException;
+import io.gravitee.repository.analytics.query.tabular.TabularResponse;
+import io.gravitee.repository.log.api.LogRepository;
+import io.gravitee.repository.log.model.Log;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.ApplicationRepository;
+import io.gravitee.repository.management.api.PlanRepository;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Application;
+import io.gravitee.repository.management.model.ApplicationStatus;
+import io.gravitee.repository.management.model.Plan;
+import io.gravitee.rest.api.model.analytics.query.LogQuery;
+import io.gravitee.rest.api.service.impl.AnalyticsMetadataResolver;
+import io.gravitee.rest.api.service.impl.LogsServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pins the metadata labels returned with the logs of an API or an application, resolved by the
+ * {@link AnalyticsMetadataResolver}.
+ *
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LogsService_MetadataTest {
+
+    private static final String API_ID = "my-api";
+    private static final String APPLICATION_ID = "my-application";
+
+    @InjectMocks
+    private LogsServiceImpl logsService = new LogsServiceImpl();
+
+    @Mock
+    private LogRepository logRepository;
+
+    @Mock
+    private ApiRepository apiRepository;
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+
+    @Mock
+    private PlanRepository planRepository;
+
+    @Before
+    public void init() {
+        final AnalyticsMetadataResolver metadataResolver = new AnalyticsMetadataResolver();
+        ReflectionTestUtils.setField(metadataResolver, "apiRepository", apiRepository);
+        ReflectionTestUtils.setField(metadataResolver, "applicationRepository", applicationRepository);
+        ReflectionTestUtils.setField(metadataResolver, "planRepository", planRepository);
+        ReflectionTestUtils.setField(metadataResolver, "cacheTtl", 60L);
+        ReflectionTestUtils.setField(metadataResolver, "cacheMaxSize", 100L);
+        metadataResolver.afterPropertiesSet();
+        ReflectionTestUtils.setField(logsService, "metadataResolver", metadataResolver);
+    }
+
+    @Test
+    public void shouldResolveApiLogsMetadata() throws Exception {
+        givenLogs(
+                log("1", API_ID, "app", "plan"),
+                log("2", API_ID, "archived-app", "plan"),
+                log("3", API_ID, "deleted-app", "deleted-plan"),
+                log("4", API_ID, "1", "plan"));
+        when(applicationRepository.findByIds(any())).thenReturn(new HashSet<>(Arrays.asList(
+                application("app", ApplicationStatus.ACTIVE), application("archived-app", ApplicationStatus.ARCHIVED))));
+        when(planRepository.findByApi(API_ID)).thenReturn(Collections.singleton(plan("plan")));
+        when(planRepository.findById("deleted-plan")).thenReturn(Optional.empty());
+
+        final Map<String, Map<String, String>> metadata = logsService.findByApi(API_ID, query()).getMetadata();
+
+        assertEquals(6, metadata.size());
+        assertEquals("Name of app", metadata.get("app").get("name"));
+        assertNull(metadata.get("app").get("deleted"));
+        assertEquals("Name of archived-app", metadata.get("archived-app").get("name"));
+        assertEquals("true", metadata.get("archived-app").get("deleted"));
+        assertEquals("Deleted application", metadata.get("deleted-app").get("name"));
+        assertEquals("true", metadata.get("deleted-app").get("deleted"));
+        assertEquals("Unknown application (keyless)", metadata.get("1").get("name"));
+        assertEquals("true", metadata.get("1").get("deleted"));
+        assertEquals("Name of plan", metadata.get("plan").get("name"));
+        assertNull(metadata.get("plan").get("deleted"));
+        assertEquals("Deleted plan", metadata.get("deleted-plan").get("name"));
+        assertEquals("true", metadata.get("deleted-plan").get("deleted"));
+    }
+
+    @Test
+    public void shouldResolveApplicationLogsMetadata() throws Exception {
+        givenLogs(
+                log("1", API_ID, APPLICATION_ID, "plan"),
+                log("2", "deleted-api", APPLICATION_ID, "deleted-plan"));
+        when(apiRepository.search(any(), any())).thenReturn(Collections.singletonList(api(API_ID)));
+        when(planRepository.findByApi(any())).thenReturn(Collections.singleton(plan("plan")));
+        when(planRepository.findById("deleted-plan")).thenReturn(Optional.empty());
+
+        final Map<String, Map<String, String>> metadata =
+                logsService.findByApplication(APPLICATION_ID, query()).getMetadata();
+
+        assertEquals(4, metadata.size());
+        assertEquals("Name of my-api", metadata.get(API_ID).get("name"));
+        assertEquals("1.0", metadata.get(API_ID).get("version"));
+        assertNull(metadata.get(API_ID).get("deleted"));
+        assertEquals("Deleted API", metadata.get("deleted-api").get("name"));
+        assertEquals("true", metadata.get("deleted-api").get("deleted"));
+        assertEquals("Name of plan", metadata.get("plan").get("name"));
+        assertEquals("Deleted plan", metadata.get("deleted-plan").get("name"));
+        assertEquals("true", metadata.get("deleted-plan").get("deleted"));
+    }
+
+    private void givenLogs(Log... logs) throws AnalyticsException {
+        final TabularResponse response = new TabularResponse(logs.length);
+        response.setLogs(Arrays.asList(logs));
+        when(logRepository.query(any())).thenReturn(response);
+    }
+
+    private static LogQuery query() {
+        final LogQuery query = new LogQuery();
+        query.setPage(1);
+        query.setSize(10);
+        query.setFrom(1);
+        query.setTo(2);
+        return query;
+    }
+
+    private static Log log(String id, String api, String application, String plan) {
+        final Log log = new Log();
+        log.setId(id);
+        log.setUri("/path");
+        log.setApi(api);
+        log.setApplication(application);
+        log.setPlan(plan);
+        return log;
+    }
+
+    private static Api api(String id) {
+        final Api api = new Api();
+        api.setId(id);
+        api.setName("Name of " + id);
+        api.setVersion("1.0");
+        return api;
+    }
+
+    private static Application application(String id, ApplicationStatus status) {
+        final Application application = new Application();
+        application.setId(id);
+        application.setName("Name of " + id);
+        application.setStatus(status);
+        return application;
+    }
+
+    private static Plan plan(String id) {
+        final Plan plan = new Plan();
+        plan.setId(id);
+        plan.setName("Name of " + id);
+        return plan;
+    }
+}
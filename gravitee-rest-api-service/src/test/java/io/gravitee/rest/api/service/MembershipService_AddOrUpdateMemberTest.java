@@ -80,6 +80,8 @@ public class MembershipService_AddOrUpdateMemberTest {
     private IdentityService identityService;
     @Mock
     private NotifierService notifierService;
+    @Mock
+    private PermissionService permissionService;
 
     @Test
     public void shouldAddApiGroupMembership() throws Exception {
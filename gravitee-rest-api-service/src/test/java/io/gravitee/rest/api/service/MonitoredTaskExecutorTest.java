@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.rest.api.service.spring.MonitoredTaskExecutor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MonitoredTaskExecutorTest {
+
+    private MonitoredTaskExecutor executor;
+
+    @Before
+    public void init() {
+        executor = new MonitoredTaskExecutor("test", 1, 1);
+        executor.initialize();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void shouldRunTaskOnNamedThread() throws InterruptedException {
+        final AtomicReference<String> threadName = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+
+        executor.execute(() -> {
+            threadName.set(Thread.currentThread().getName());
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(threadName.get().startsWith("async-test-"));
+    }
+
+    @Test
+    public void shouldRunTaskInCallerThreadWhenQueueIsFull() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicReference<Thread> callerRunThread = new AtomicReference<>();
+
+        // Occupy the single thread, then fill the queue
+        executor.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> { });
+
+        executor.execute(() -> callerRunThread.set(Thread.currentThread()));
+
+        assertSame(Thread.currentThread(), callerRunThread.get());
+        assertEquals(1, executor.getCallerRuns());
+        assertEquals(1, executor.getQueueDepth());
+
+        release.countDown();
+    }
+
+    @Test
+    public void shouldWaitForRoomInOrderedExecutorWhenQueueIsFull() throws InterruptedException {
+        final MonitoredTaskExecutor ordered = new MonitoredTaskExecutor("ordered", 1, 1, true);
+        ordered.initialize();
+        try {
+            final CountDownLatch release = new CountDownLatch(1);
+            final CountDownLatch started = new CountDownLatch(1);
+            final CountDownLatch done = new CountDownLatch(3);
+            final List<String> runs = Collections.synchronizedList(new ArrayList<>());
+
+            // Occupy the single thread, then fill the queue
+            ordered.execute(() -> {
+                started.countDown();
+                awaitQuietly(release);
+                runs.add("first");
+                done.countDown();
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            ordered.execute(() -> {
+                runs.add("second");
+                done.countDown();
+            });
+
+            // The third task is submitted once the queue has room, and run after the others
+            new Thread(() -> {
+                awaitQuietly(new CountDownLatch(1), 200);
+                release.countDown();
+            }).start();
+            ordered.execute(() -> {
+                runs.add("third");
+                done.countDown();
+            });
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList("first", "second", "third"), runs);
+            assertEquals(0, ordered.getCallerRuns());
+            assertEquals(1, ordered.getBlockedSubmissions());
+        } finally {
+            ordered.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        awaitQuietly(latch, 5000);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch, long millis) {
+        try {
+            latch.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.PageRepository;
+import io.gravitee.repository.management.model.Page;
+import io.gravitee.repository.management.model.PageReferenceType;
+import io.gravitee.rest.api.model.PageConfigurationKeys;
+import io.gravitee.rest.api.model.PageEntity;
+import io.gravitee.rest.api.model.PageType;
+import io.gravitee.rest.api.model.documentation.PageQuery;
+import io.gravitee.rest.api.service.impl.PageServiceImpl;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PageService_SearchTest {
+
+    private static final String API_ID = "myAPI";
+
+    @InjectMocks
+    private PageServiceImpl pageService = new PageServiceImpl();
+
+    @Mock
+    private PageRepository pageRepository;
+
+    @Test
+    public void shouldSearchWithTranslations() throws TechnicalException {
+        Page folder = page("folder", PageType.FOLDER, null, true);
+        Page markdown = page("markdown", PageType.MARKDOWN, "folder", true);
+        Page frTranslation = translation("markdown-fr", "markdown", "fr");
+        Page deTranslation = translation("markdown-de", "markdown", "de");
+
+        when(pageRepository.search(argThat(c -> c != null && c.getType() == null)))
+                .thenReturn(Arrays.asList(folder, markdown));
+        when(pageRepository.search(argThat(c -> c != null && PageType.TRANSLATION.name().equals(c.getType()))))
+                .thenReturn(Arrays.asList(frTranslation, deTranslation));
+
+        final List<PageEntity> pages = pageService.search(new PageQuery.Builder().api(API_ID).build());
+
+        assertEquals(2, pages.size());
+        assertNull(pages.get(0).getTranslations());
+        final List<PageEntity> translations = pages.get(1).getTranslations();
+        assertEquals(2, translations.size());
+        assertEquals("markdown-de", translations.get(0).getId());
+        assertEquals("markdown-fr", translations.get(1).getId());
+        verify(pageRepository, times(2)).search(any());
+        verify(pageRepository).search(argThat(c -> c != null && PageType.TRANSLATION.name().equals(c.getType())
+                && API_ID.equals(c.getReferenceId()) && PageReferenceType.API.name().equals(c.getReferenceType())
+                && c.getParent() == null));
+    }
+
+    @Test
+    public void shouldSearchWithAcceptedLocale() throws TechnicalException {
+        Page markdown = page("markdown", PageType.MARKDOWN, null, true);
+        Page other = page("other", PageType.MARKDOWN, null, true);
+        Page frTranslation = translation("markdown-fr", "markdown", "fr");
+        frTranslation.getConfiguration().put(PageConfigurationKeys.TRANSLATION_INHERIT_CONTENT, "false");
+
+        when(pageRepository.search(argThat(c -> c != null && c.getType() == null)))
+                .thenReturn(Arrays.asList(markdown, other));
+        when(pageRepository.search(argThat(c -> c != null && PageType.TRANSLATION.name().equals(c.getType()))))
+                .thenReturn(Collections.singletonList(frTranslation));
+
+        final List<PageEntity> pages = pageService.search(new PageQuery.Builder().api(API_ID).build(), "fr");
+
+        assertEquals(2, pages.size());
+        assertEquals("markdown-fr name", pages.get(0).getName());
+        assertEquals("markdown-fr content", pages.get(0).getContent());
+        assertEquals("other name", pages.get(1).getName());
+        verify(pageRepository, times(2)).search(any());
+    }
+
+    @Test
+    public void shouldRemoveChildrenOfUnpublishedFolders() throws TechnicalException {
+        Page publishedFolder = page("published", PageType.FOLDER, null, true);
+        Page unpublishedFolder = page("unpublished", PageType.FOLDER, null, false);
+        Page visible = page("visible", PageType.MARKDOWN, "published", true);
+        Page hidden = page("hidden", PageType.MARKDOWN, "unpublished", true);
+        Page orphan = page("orphan", PageType.MARKDOWN, "unknown", true);
+
+        when(pageRepository.search(argThat(c -> c != null && c.getType() == null)))
+                .thenReturn(Arrays.asList(publishedFolder, unpublishedFolder, visible, hidden, orphan));
+        when(pageRepository.search(argThat(c -> c != null && PageType.TRANSLATION.name().equals(c.getType()))))
+                .thenReturn(Collections.emptyList());
+
+        final List<PageEntity> pages = pageService.search(new PageQuery.Builder().api(API_ID).published(true).build());
+
+        assertEquals(3, pages.size());
+        assertEquals("published", pages.get(0).getId());
+        assertEquals("unpublished", pages.get(1).getId());
+        assertEquals("visible", pages.get(2).getId());
+    }
+
+    private static Page page(String id, PageType type, String parentId, boolean published) {
+        Page page = new Page();
+        page.setId(id);
+        page.setName(id + " name");
+        page.setContent(id + " content");
+        page.setType(type.name());
+        page.setParentId(parentId);
+        page.setPublished(published);
+        page.setReferenceId(API_ID);
+        page.setReferenceType(PageReferenceType.API);
+        return page;
+    }
+
+    private static Page translation(String id, String parentId, String lang) {
+        Page translation = page(id, PageType.TRANSLATION, parentId, true);
+        translation.setConfiguration(new HashMap<>(Collections.singletonMap(PageConfigurationKeys.TRANSLATION_LANG, lang)));
+        return translation;
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import freemarker.template.Configuration;
+import io.gravitee.rest.api.model.ApiModelEntity;
+import io.gravitee.rest.api.model.MetadataEntity;
+import io.gravitee.rest.api.service.impl.PageTemplateCache;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PageTemplateCacheTest {
+
+    private static final String PAGE_ID = "my-page";
+    private static final String API_ID = "my-api";
+
+    @InjectMocks
+    private PageTemplateCache pageTemplateCache = new PageTemplateCache();
+
+    @Mock
+    private ApiService apiService;
+
+    @Mock
+    private MetadataService metadataService;
+
+    @Before
+    public void init() {
+        ReflectionTestUtils.setField(pageTemplateCache, "freemarkerConfiguration",
+                new Configuration(Configuration.getVersion()));
+        ReflectionTestUtils.setField(pageTemplateCache, "cacheTtl", 30L);
+        ReflectionTestUtils.setField(pageTemplateCache, "cacheMaxSize", 100L);
+        pageTemplateCache.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldRenderWithApiModelOnce() throws Exception {
+        ApiModelEntity api = new ApiModelEntity();
+        api.setName("My API");
+        when(apiService.findByIdForTemplates(API_ID)).thenReturn(api);
+
+        assertEquals("Hello My API", pageTemplateCache.render(PAGE_ID, "Hello ${api.name}", API_ID));
+        assertEquals("Hello My API", pageTemplateCache.render(PAGE_ID, "Hello ${api.name}", API_ID));
+
+        verify(apiService, times(1)).findByIdForTemplates(API_ID);
+    }
+
+    @Test
+    public void shouldRenderAgainWhenContentChanges() throws Exception {
+        ApiModelEntity api = new ApiModelEntity();
+        api.setName("My API");
+        when(apiService.findByIdForTemplates(API_ID)).thenReturn(api);
+
+        assertEquals("Hello My API", pageTemplateCache.render(PAGE_ID, "Hello ${api.name}", API_ID));
+        assertEquals("Bye My API", pageTemplateCache.render(PAGE_ID, "Bye ${api.name}", API_ID));
+    }
+
+    @Test
+    public void shouldReloadModelWhenInvalidated() throws Exception {
+        ApiModelEntity api = new ApiModelEntity();
+        api.setName("My API");
+        ApiModelEntity renamedApi = new ApiModelEntity();
+        renamedApi.setName("My renamed API");
+        when(apiService.findByIdForTemplates(API_ID)).thenReturn(api, renamedApi);
+
+        assertEquals("Hello My API", pageTemplateCache.render(PAGE_ID, "Hello ${api.name}", API_ID));
+        pageTemplateCache.invalidate(API_ID);
+        assertEquals("Hello My renamed API", pageTemplateCache.render(PAGE_ID, "Hello ${api.name}", API_ID));
+    }
+
+    @Test
+    public void shouldRenderWithDefaultMetadata() throws Exception {
+        MetadataEntity metadata = new MetadataEntity();
+        metadata.setKey("email");
+        metadata.setValue("support@gravitee.io");
+        when(metadataService.findAllDefault()).thenReturn(singletonList(metadata));
+
+        assertEquals("Contact: support@gravitee.io",
+                pageTemplateCache.render(PAGE_ID, "Contact: ${metadata.email}", null));
+        pageTemplateCache.invalidateAll();
+        assertEquals("Contact: support@gravitee.io",
+                pageTemplateCache.render(PAGE_ID, "Contact: ${metadata.email}", null));
+
+        verify(metadataService, times(2)).findAllDefault();
+        verify(apiService, never()).findByIdForTemplates(anyString());
+    }
+}
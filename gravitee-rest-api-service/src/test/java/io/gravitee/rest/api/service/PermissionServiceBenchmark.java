@@ -0,0 +1,201 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.node.api.Node;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.CommandRepository;
+import io.gravitee.repository.management.api.MembershipRepository;
+import io.gravitee.repository.management.api.RoleRepository;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Membership;
+import io.gravitee.repository.management.model.MembershipReferenceType;
+import io.gravitee.repository.management.model.Role;
+import io.gravitee.repository.management.model.RoleScope;
+import io.gravitee.rest.api.model.permissions.RolePermission;
+import io.gravitee.rest.api.model.permissions.RolePermissionAction;
+import io.gravitee.rest.api.service.impl.MembershipServiceImpl;
+import io.gravitee.rest.api.service.impl.PermissionServiceImpl;
+import io.gravitee.rest.api.service.impl.RoleServiceImpl;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures the permission checks done by the permissions filter of the REST APIs, for a user being member of
+ * 10 000 APIs (half directly, half through a group).
+ *
+ * The permission, membership and role services are the real ones, only the repositories are replaced by in-memory
+ * maps: the filter itself only extracts the reference from the request before calling
+ * {@link PermissionService#hasPermission}, and needs a running Jersey context.
+ *
+ * Run it with the <code>main</code> method, it is not part of the test suite.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PermissionServiceBenchmark {
+
+    private static final int APIS = 10_000;
+    private static final String USERNAME = "johndoe";
+    private static final String GROUP_ID = "group";
+    private static final String ROLE = "USER";
+
+    private PermissionServiceImpl permissionService;
+    private String[] apiIds;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        final Role role = new Role();
+        role.setName(ROLE);
+        role.setScope(RoleScope.API);
+        final Map<String, char[]> permissions = new HashMap<>();
+        permissions.put("DEFINITION", new char[]{'R'});
+        permissions.put("PLAN", new char[]{'C', 'R', 'U', 'D'});
+        permissions.put("ANALYTICS", new char[]{'R'});
+        role.setPermissions(permissions);
+
+        final Map<String, Api> apis = new HashMap<>();
+        final Map<String, Membership> memberships = new HashMap<>();
+        apiIds = new String[APIS];
+        for (int i = 0; i < APIS; i++) {
+            apiIds[i] = "api-" + i;
+            final Api api = new Api();
+            api.setId(apiIds[i]);
+            if (i % 2 == 0) {
+                memberships.put(membershipKey(USERNAME, MembershipReferenceType.API, apiIds[i]),
+                        membership(USERNAME, MembershipReferenceType.API, apiIds[i]));
+            } else {
+                api.setGroups(Collections.singleton(GROUP_ID));
+            }
+            apis.put(api.getId(), api);
+        }
+        memberships.put(membershipKey(USERNAME, MembershipReferenceType.GROUP, GROUP_ID),
+                membership(USERNAME, MembershipReferenceType.GROUP, GROUP_ID));
+
+        final Map<String, Function<Object[], Object>> apiMethods = new HashMap<>();
+        apiMethods.put("findById/1", args -> Optional.ofNullable(apis.get((String) args[0])));
+
+        final Map<String, Function<Object[], Object>> membershipMethods = new HashMap<>();
+        membershipMethods.put("findById/3", args -> Optional.ofNullable(memberships.get(
+                membershipKey((String) args[0], (MembershipReferenceType) args[1], (String) args[2]))));
+        membershipMethods.put("findByIds/3", args -> {
+            final Set<Membership> found = new HashSet<>();
+            for (Object referenceId : (Set<?>) args[2]) {
+                final Membership membership = memberships.get(
+                        membershipKey((String) args[0], (MembershipReferenceType) args[1], (String) referenceId));
+                if (membership != null) {
+                    found.add(membership);
+                }
+            }
+            return found;
+        });
+
+        final Map<String, Function<Object[], Object>> roleMethods = new HashMap<>();
+        roleMethods.put("findById/4", args ->
+                role.getScope() == args[0] && role.getName().equals(args[1]) ? Optional.of(role) : Optional.empty());
+
+        final RoleServiceImpl roleService = new RoleServiceImpl();
+        ReflectionTestUtils.setField(roleService, "roleRepository", inMemory(RoleRepository.class, roleMethods));
+
+        final MembershipServiceImpl membershipService = new MembershipServiceImpl();
+        ReflectionTestUtils.setField(membershipService, "membershipRepository",
+                inMemory(MembershipRepository.class, membershipMethods));
+        ReflectionTestUtils.setField(membershipService, "roleService", roleService);
+
+        final Map<String, Function<Object[], Object>> commandMethods = new HashMap<>();
+        commandMethods.put("create/1", args -> args[0]);
+        commandMethods.put("search/1", args -> Collections.emptyList());
+
+        permissionService = new PermissionServiceImpl();
+        ReflectionTestUtils.setField(permissionService, "membershipService", membershipService);
+        ReflectionTestUtils.setField(permissionService, "apiRepository", inMemory(ApiRepository.class, apiMethods));
+        ReflectionTestUtils.setField(permissionService, "cacheTtl", 3600L);
+        ReflectionTestUtils.setField(permissionService, "cacheMaxSize", 1000L);
+        ReflectionTestUtils.setField(permissionService, "invalidationInterval", 1L);
+        ReflectionTestUtils.setField(permissionService, "commandRepository", inMemory(CommandRepository.class, commandMethods));
+        ReflectionTestUtils.setField(permissionService, "node",
+                inMemory(Node.class, Collections.singletonMap("id/0", args -> "benchmark")));
+        permissionService.afterPropertiesSet();
+    }
+
+    @TearDown
+    public void tearDown() {
+        permissionService.destroy();
+    }
+
+    @Benchmark
+    public boolean hasPermission() {
+        index = (index + 1) % APIS;
+        String apiId = apiIds[index];
+        return permissionService.hasPermission(USERNAME, RolePermission.API_PLAN, apiId, RolePermissionAction.UPDATE);
+    }
+
+    @Benchmark
+    public boolean hasPermissionWithoutMatrix() {
+        index = (index + 1) % APIS;
+        String apiId = apiIds[index];
+        permissionService.invalidatePermissions(USERNAME);
+        return permissionService.hasPermission(USERNAME, RolePermission.API_PLAN, apiId, RolePermissionAction.UPDATE);
+    }
+
+    private static Membership membership(String userId, MembershipReferenceType referenceType, String referenceId) {
+        final Membership membership = new Membership(userId, referenceId, referenceType);
+        membership.setRoles(Collections.singletonMap(RoleScope.API.getId(), ROLE));
+        return membership;
+    }
+
+    private static String membershipKey(String userId, MembershipReferenceType referenceType, String referenceId) {
+        return userId + ':' + referenceType + ':' + referenceId;
+    }
+
+    /**
+     * Repositories have too many methods to be implemented here: only the methods used by the benchmark are backed
+     * by the given functions, by name and number of arguments.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T inMemory(Class<T> repository, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(repository.getClassLoader(), new Class[]{repository}, (proxy, method, args) -> {
+            final Function<Object[], Object> implementation =
+                    methods.get(method.getName() + '/' + (args == null ? 0 : args.length));
+            if (implementation == null) {
+                throw new UnsupportedOperationException(repository.getSimpleName() + '.' + method.getName());
+            }
+            return implementation.apply(args);
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PermissionServiceBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,273 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.node.api.Node;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.ApplicationRepository;
+import io.gravitee.repository.management.api.CommandRepository;
+import io.gravitee.repository.management.api.GroupRepository;
+import io.gravitee.repository.management.model.*;
+import io.gravitee.rest.api.model.RoleEntity;
+import io.gravitee.rest.api.model.permissions.RolePermission;
+import io.gravitee.rest.api.model.permissions.RolePermissionAction;
+import io.gravitee.rest.api.service.exceptions.ApiNotFoundException;
+import io.gravitee.rest.api.service.exceptions.GroupNotFoundException;
+import io.gravitee.rest.api.service.impl.PermissionServiceImpl;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PermissionService_HasPermissionTest {
+
+    private static final String API_ID = "api-id";
+    private static final String APPLICATION_ID = "application-id";
+    private static final String GROUP_ID = "group-id";
+    private static final String USERNAME = "johndoe";
+
+    @InjectMocks
+    private PermissionServiceImpl permissionService = new PermissionServiceImpl();
+
+    @Mock
+    private MembershipService membershipService;
+
+    @Mock
+    private ApiRepository apiRepository;
+
+    @Mock
+    private ApplicationRepository applicationRepository;
+
+    @Mock
+    private GroupRepository groupRepository;
+
+    @Mock
+    private CommandRepository commandRepository;
+
+    @Mock
+    private Node node;
+
+    @Before
+    public void init() {
+        ReflectionTestUtils.setField(permissionService, "cacheTtl", 60L);
+        ReflectionTestUtils.setField(permissionService, "cacheMaxSize", 100L);
+        // remote invalidations are processed by the tests themselves
+        ReflectionTestUtils.setField(permissionService, "invalidationInterval", 60L);
+        permissionService.afterPropertiesSet();
+    }
+
+    @After
+    public void destroy() {
+        permissionService.destroy();
+    }
+
+    @Test
+    public void shouldHavePermissionAsMember() throws Exception {
+        when(apiRepository.findById(API_ID)).thenReturn(Optional.of(new Api()));
+        when(membershipService.getRole(MembershipReferenceType.API, API_ID, USERNAME, RoleScope.API))
+                .thenReturn(role(io.gravitee.rest.api.model.permissions.RoleScope.API, "ANALYTICS", 'R', 'U'));
+
+        assertTrue(permissionService.hasPermission(USERNAME, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.UPDATE));
+        assertTrue(permissionService.hasPermission(USERNAME, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.CREATE, RolePermissionAction.READ));
+        assertFalse(permissionService.hasPermission(USERNAME, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.DELETE));
+        assertFalse(permissionService.hasPermission(USERNAME, RolePermission.API_PLAN, API_ID, RolePermissionAction.READ));
+
+        // the permissions of the user are only loaded once
+        verify(apiRepository, times(1)).findById(API_ID);
+        verify(membershipService, times(1)).getRole(MembershipReferenceType.API, API_ID, USERNAME, RoleScope.API);
+    }
+
+    @Test
+    public void shouldHavePermissionFromGroups() throws Exception {
+        Api api = new Api();
+        api.setGroups(new HashSet<>(Collections.singletonList(GROUP_ID)));
+        when(apiRepository.findById(API_ID)).thenReturn(Optional.of(api));
+        when(membershipService.getRoles(MembershipReferenceType.GROUP, api.getGroups(), USERNAME, RoleScope.API))
+                .thenReturn(new HashSet<>(asList(role(io.gravitee.rest.api.model.permissions.RoleScope.API, "ANALYTICS", 'R'), role(io.gravitee.rest.api.model.permissions.RoleScope.API, "PLAN", 'D'))));
+
+        assertTrue(permissionService.hasPermission(USERNAME, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.READ));
+        assertTrue(permissionService.hasPermission(USERNAME, RolePermission.API_PLAN, API_ID, RolePermissionAction.DELETE));
+        assertFalse(permissionService.hasPermission(USERNAME, RolePermission.API_PLAN, API_ID, RolePermissionAction.READ));
+    }
+
+    @Test
+    public void shouldReloadPermissionsAfterInvalidation() throws Exception {
+        when(apiRepository.findById(API_ID)).thenReturn(Optional.of(new Api()));
+        when(membershipService.getRole(MembershipReferenceType.API, API_ID, USERNAME, RoleScope.API))
+                .thenReturn(null, role(io.gravitee.rest.api.model.permissions.RoleScope.API, "ANALYTICS", 'R'));
+
+        assertFalse(permissionService.hasPermission(USERNAME, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.READ));
+        assertFalse(permissionService.hasPermission(USERNAME, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.READ));
+
+        permissionService.invalidatePermissions(USERNAME);
+
+        assertTrue(permissionService.hasPermission(USERNAME, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.READ));
+        verify(membershipService, times(2)).getRole(MembershipReferenceType.API, API_ID, USERNAME, RoleScope.API);
+    }
+
+    @Test(expected = ApiNotFoundException.class)
+    public void shouldNotHavePermissionOnUnknownApi() throws Exception {
+        when(apiRepository.findById(API_ID)).thenReturn(Optional.empty());
+
+        permissionService.hasPermission(USERNAME, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.READ);
+    }
+
+    @Test
+    public void shouldHavePermissionOnApplicationAsMember() throws Exception {
+        when(applicationRepository.findById(APPLICATION_ID)).thenReturn(Optional.of(new Application()));
+        when(membershipService.getRole(MembershipReferenceType.APPLICATION, APPLICATION_ID, USERNAME, RoleScope.APPLICATION))
+                .thenReturn(role(io.gravitee.rest.api.model.permissions.RoleScope.APPLICATION, "SUBSCRIPTION", 'C', 'R'));
+
+        assertTrue(permissionService.hasPermission(USERNAME, RolePermission.APPLICATION_SUBSCRIPTION, APPLICATION_ID, RolePermissionAction.CREATE));
+        assertFalse(permissionService.hasPermission(USERNAME, RolePermission.APPLICATION_SUBSCRIPTION, APPLICATION_ID, RolePermissionAction.DELETE));
+        assertFalse(permissionService.hasPermission(USERNAME, RolePermission.APPLICATION_DEFINITION, APPLICATION_ID, RolePermissionAction.READ));
+
+        verify(applicationRepository, times(1)).findById(APPLICATION_ID);
+        verify(membershipService, never()).getRoles(any(), any(), any(), any());
+    }
+
+    @Test
+    public void shouldHavePermissionOnApplicationFromGroups() throws Exception {
+        Application application = new Application();
+        application.setGroups(new HashSet<>(Collections.singletonList(GROUP_ID)));
+        when(applicationRepository.findById(APPLICATION_ID)).thenReturn(Optional.of(application));
+        when(membershipService.getRoles(MembershipReferenceType.GROUP, application.getGroups(), USERNAME, RoleScope.APPLICATION))
+                .thenReturn(Collections.singleton(role(io.gravitee.rest.api.model.permissions.RoleScope.APPLICATION, "ANALYTICS", 'R')));
+
+        assertTrue(permissionService.hasPermission(USERNAME, RolePermission.APPLICATION_ANALYTICS, APPLICATION_ID, RolePermissionAction.READ));
+        assertFalse(permissionService.hasPermission(USERNAME, RolePermission.APPLICATION_ANALYTICS, APPLICATION_ID, RolePermissionAction.UPDATE));
+        assertFalse(permissionService.hasPermission(USERNAME, RolePermission.APPLICATION_MEMBER, APPLICATION_ID, RolePermissionAction.READ));
+
+        verify(membershipService, times(1)).getRoles(MembershipReferenceType.GROUP, application.getGroups(), USERNAME, RoleScope.APPLICATION);
+    }
+
+    @Test
+    public void shouldHavePermissionOnGroup() throws Exception {
+        when(groupRepository.findById(GROUP_ID)).thenReturn(Optional.of(new Group()));
+        when(membershipService.getRole(MembershipReferenceType.GROUP, GROUP_ID, USERNAME, RoleScope.GROUP))
+                .thenReturn(role(io.gravitee.rest.api.model.permissions.RoleScope.GROUP, "MEMBER", 'R', 'U'));
+
+        assertTrue(permissionService.hasPermission(USERNAME, RolePermission.GROUP_MEMBER, GROUP_ID, RolePermissionAction.UPDATE));
+        assertFalse(permissionService.hasPermission(USERNAME, RolePermission.GROUP_INVITATION, GROUP_ID, RolePermissionAction.READ));
+    }
+
+    @Test(expected = GroupNotFoundException.class)
+    public void shouldNotHavePermissionOnUnknownGroup() throws Exception {
+        when(groupRepository.findById(GROUP_ID)).thenReturn(Optional.empty());
+
+        permissionService.hasPermission(USERNAME, RolePermission.GROUP_MEMBER, GROUP_ID, RolePermissionAction.READ);
+    }
+
+    @Test
+    public void shouldHaveManagementPermission() {
+        when(membershipService.getRole(MembershipReferenceType.MANAGEMENT, MembershipDefaultReferenceId.DEFAULT.name(), USERNAME, RoleScope.MANAGEMENT))
+                .thenReturn(role(io.gravitee.rest.api.model.permissions.RoleScope.MANAGEMENT, "API", 'C', 'R'));
+
+        // the reference is ignored for the management scope
+        assertTrue(permissionService.hasPermission(USERNAME, RolePermission.MANAGEMENT_API, null, RolePermissionAction.CREATE));
+        assertTrue(permissionService.hasPermission(USERNAME, RolePermission.MANAGEMENT_API, "any", RolePermissionAction.READ));
+        assertFalse(permissionService.hasPermission(USERNAME, RolePermission.MANAGEMENT_API, null, RolePermissionAction.DELETE));
+        assertFalse(permissionService.hasPermission(USERNAME, RolePermission.MANAGEMENT_USERS, null, RolePermissionAction.READ));
+
+        verify(membershipService, times(1)).getRole(MembershipReferenceType.MANAGEMENT, MembershipDefaultReferenceId.DEFAULT.name(), USERNAME, RoleScope.MANAGEMENT);
+    }
+
+    @Test
+    public void shouldHavePortalPermission() {
+        when(membershipService.getRole(MembershipReferenceType.PORTAL, MembershipDefaultReferenceId.DEFAULT.name(), USERNAME, RoleScope.PORTAL))
+                .thenReturn(role(io.gravitee.rest.api.model.permissions.RoleScope.PORTAL, "DOCUMENTATION", 'R'));
+
+        assertTrue(permissionService.hasPermission(USERNAME, RolePermission.PORTAL_DOCUMENTATION, null, RolePermissionAction.READ));
+        assertFalse(permissionService.hasPermission(USERNAME, RolePermission.PORTAL_DOCUMENTATION, null, RolePermissionAction.UPDATE));
+        assertFalse(permissionService.hasPermission(USERNAME, RolePermission.PORTAL_METADATA, null, RolePermissionAction.READ));
+    }
+
+    @Test
+    public void shouldSendInvalidationToOtherNodes() throws Exception {
+        when(node.id()).thenReturn("node1");
+
+        permissionService.invalidatePermissions(MembershipReferenceType.API, API_ID);
+
+        ArgumentCaptor<Command> command = ArgumentCaptor.forClass(Command.class);
+        verify(commandRepository).create(command.capture());
+        assertEquals("REFERENCE:API:" + API_ID, command.getValue().getContent());
+        assertEquals("node1", command.getValue().getFrom());
+        assertEquals(Collections.singletonList("PERMISSION_INVALIDATION"), command.getValue().getTags());
+    }
+
+    @Test
+    public void shouldReloadPermissionsAfterRemoteInvalidation() throws Exception {
+        when(node.id()).thenReturn("node1");
+        when(apiRepository.findById(API_ID)).thenReturn(Optional.of(new Api()));
+        when(membershipService.getRole(MembershipReferenceType.API, API_ID, USERNAME, RoleScope.API))
+                .thenReturn(role(io.gravitee.rest.api.model.permissions.RoleScope.API, "ANALYTICS", 'R'), null);
+
+        assertTrue(permissionService.hasPermission(USERNAME, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.READ));
+
+        // the membership has been removed on another node
+        Command command = new Command();
+        command.setFrom("node2");
+        command.setContent("REFERENCE:API:" + API_ID);
+        when(commandRepository.search(any())).thenReturn(Collections.singletonList(command));
+        ReflectionTestUtils.invokeMethod(permissionService, "processRemoteInvalidations");
+
+        assertFalse(permissionService.hasPermission(USERNAME, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.READ));
+        assertEquals(Collections.singletonList("node1"), command.getAcknowledgments());
+        verify(commandRepository).update(command);
+    }
+
+    @Test
+    public void shouldNotServeCachedPermissionsWhenInvalidationsAreNotChecked() throws Exception {
+        when(apiRepository.findById(API_ID)).thenReturn(Optional.of(new Api()));
+        when(membershipService.getRole(MembershipReferenceType.API, API_ID, USERNAME, RoleScope.API))
+                .thenReturn(role(io.gravitee.rest.api.model.permissions.RoleScope.API, "ANALYTICS", 'R'));
+        ReflectionTestUtils.setField(permissionService, "lastInvalidationCheck", 0L);
+
+        assertTrue(permissionService.hasPermission(USERNAME, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.READ));
+        assertTrue(permissionService.hasPermission(USERNAME, RolePermission.API_ANALYTICS, API_ID, RolePermissionAction.READ));
+
+        verify(membershipService, times(2)).getRole(MembershipReferenceType.API, API_ID, USERNAME, RoleScope.API);
+    }
+
+    private RoleEntity role(io.gravitee.rest.api.model.permissions.RoleScope scope, String permission, char... actions) {
+        RoleEntity role = new RoleEntity();
+        role.setName(permission + "_ROLE");
+        role.setScope(scope);
+        role.setPermissions(Collections.singletonMap(permission, actions));
+        return role;
+    }
+}
@@ -47,8 +47,10 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Date;
+import java.util.Map;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
@@ -108,6 +110,10 @@ public class RatingServiceTest {
 
     @Before
     public void init() {
+        ReflectionTestUtils.setField(ratingService, "summariesCacheTtl", 300L);
+        ReflectionTestUtils.setField(ratingService, "summariesCacheMaxSize", 100L);
+        ((RatingServiceImpl) ratingService).afterPropertiesSet();
+
         final Authentication authentication = mock(Authentication.class);
         when(authentication.getPrincipal()).thenReturn(new UserDetails(USER, "", emptyList()));
         final SecurityContext securityContext = mock(SecurityContext.class);
@@ -307,4 +313,72 @@ public class RatingServiceTest {
         assertEquals(1, ratingSummary.getNumberOfRatingsByRate().get(new Byte("3")), 0);
         assertEquals(1, ratingSummary.getNumberOfRatingsByRate().get(new Byte("4")), 0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldFindSummariesByApis() throws TechnicalException {
+        final Rating r = new Rating();
+        r.setRate(new Byte("5"));
+
+        when(ratingRepository.findByReferenceIdAndReferenceType(API_ID, RatingReferenceType.API)).thenReturn(asList(rating, r));
+        when(ratingRepository.findByReferenceIdAndReferenceType("other-api", RatingReferenceType.API)).thenReturn(emptyList());
+
+        final Map<String, RatingSummaryEntity> ratingSummaries = ratingService.findSummariesByApis(asList(API_ID, "other-api"));
+
+        assertEquals(2, ratingSummaries.size());
+        assertEquals(2, ratingSummaries.get(API_ID).getNumberOfRatings());
+        assertEquals(4, ratingSummaries.get(API_ID).getAverageRate(), 0);
+        assertEquals(0, ratingSummaries.get("other-api").getNumberOfRatings());
+        assertNull(ratingSummaries.get("other-api").getAverageRate());
+    }
+
+    @Test
+    public void shouldUpdateSummaryWithoutLoadingRatingsAgain() throws TechnicalException {
+        when(ratingRepository.findByReferenceIdAndReferenceType(API_ID, RatingReferenceType.API)).thenReturn(singletonList(rating));
+        assertEquals(1, ratingService.findSummaryByApi(API_ID).getNumberOfRatings());
+
+        final Rating created = new Rating();
+        created.setReferenceId(API_ID);
+        created.setRate(new Byte("5"));
+        created.setUser(USER);
+        when(ratingRepository.findByReferenceIdAndReferenceTypeAndUser(API_ID, RatingReferenceType.API, USER)).thenReturn(empty());
+        when(ratingRepository.create(any())).thenReturn(created);
+        when(newRatingEntity.getApi()).thenReturn(API_ID);
+        ratingService.create(newRatingEntity);
+
+        RatingSummaryEntity ratingSummary = ratingService.findSummaryByApi(API_ID);
+        assertEquals(2, ratingSummary.getNumberOfRatings());
+        assertEquals(4, ratingSummary.getAverageRate(), 0);
+
+        when(ratingRepository.findById(RATING_ID)).thenReturn(of(rating));
+        ratingService.delete(RATING_ID);
+
+        ratingSummary = ratingService.findSummaryByApi(API_ID);
+        assertEquals(1, ratingSummary.getNumberOfRatings());
+        assertEquals(5, ratingSummary.getAverageRate(), 0);
+        assertNull(ratingSummary.getNumberOfRatingsByRate().get(RATE));
+
+        verify(ratingRepository, times(1)).findByReferenceIdAndReferenceType(API_ID, RatingReferenceType.API);
+    }
+
+    @Test
+    public void shouldNotCountTwiceRatingLoadedDuringItsCreation() throws TechnicalException {
+        final Rating created = new Rating();
+        created.setReferenceId(API_ID);
+        created.setRate(new Byte("5"));
+        created.setUser(USER);
+        when(ratingRepository.findByReferenceIdAndReferenceType(API_ID, RatingReferenceType.API)).thenReturn(asList(rating, created));
+        when(ratingRepository.findByReferenceIdAndReferenceTypeAndUser(API_ID, RatingReferenceType.API, USER)).thenReturn(empty());
+        when(newRatingEntity.getApi()).thenReturn(API_ID);
+        // The summary is loaded by another request once the rating has been written
+        when(ratingRepository.create(any())).thenAnswer(invocation -> {
+            assertEquals(2, ratingService.findSummaryByApi(API_ID).getNumberOfRatings());
+            return created;
+        });
+
+        ratingService.create(newRatingEntity);
+
+        RatingSummaryEntity ratingSummary = ratingService.findSummaryByApi(API_ID);
+        assertEquals(2, ratingSummary.getNumberOfRatings());
+        assertEquals(4, ratingSummary.getAverageRate(), 0);
+    }
+}
@@ -58,6 +58,8 @@ public class RoleService_UpdateTest {
     @Mock
     private AuditService auditService;
 
+    @Mock
+    private PermissionService permissionService;
 
     @Test
     public void shouldUpdate() throws TechnicalException {
@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.rest.api.service.impl.search.lucene.SearchEngineIndexer;
+import io.gravitee.rest.api.service.impl.search.lucene.SearchEngineMetrics;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class SearchEngineIndexerTest {
+
+    private static final long CHECKPOINT_MARGIN = TimeUnit.MINUTES.toMillis(5);
+
+    private final RAMDirectory directory = new RAMDirectory();
+    private IndexWriter writer;
+    private SearchEngineIndexer indexer;
+
+    @Before
+    public void init() throws IOException {
+        writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()));
+        indexer = newIndexer(writer);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        writer.close();
+        directory.close();
+    }
+
+    @Test
+    public void shouldHaveNoCheckpointOnNewIndex() {
+        assertNull(indexer.getCheckpoint());
+    }
+
+    @Test
+    public void shouldKeepCheckpointAcrossRestarts() throws Exception {
+        indexer.indexAll(Stream.of(document("api1", "api", "owner1")));
+        indexer.checkpoint(1_000_000_000L);
+        writer.close();
+
+        writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()));
+        indexer = newIndexer(writer);
+
+        assertEquals(Long.valueOf(1_000_000_000L - CHECKPOINT_MARGIN), indexer.getCheckpoint());
+        assertEquals(1, writer.numDocs());
+    }
+
+    @Test
+    public void shouldIgnoreCheckpointOfAnotherIndexVersion() throws Exception {
+        Map<String, String> commitData = new HashMap<>();
+        commitData.put("version", "1");
+        commitData.put("checkpoint", "1000");
+        writer.setLiveCommitData(commitData.entrySet());
+        writer.commit();
+
+        assertNull(indexer.getCheckpoint());
+    }
+
+    @Test
+    public void shouldRemoveDocumentsOfDeletedEntities() throws TechnicalException {
+        indexer.indexAll(Stream.of(
+                document("api1", "api", "owner1"),
+                document("api2", "api", "owner2"),
+                document("user1", "user", null)));
+
+        long removed = indexer.retainAll(new HashSet<>(Arrays.asList("api1", "user1")));
+
+        assertEquals(1, removed);
+        indexer.commit();
+        assertEquals(2, writer.numDocs());
+        assertEquals(Collections.singletonMap("api1", "owner1"), indexer.getStoredField("api", "owner"));
+    }
+
+    @Test
+    public void shouldReadStoredFieldOfType() throws TechnicalException {
+        indexer.indexAll(Stream.of(
+                document("api1", "api", "owner1"),
+                document("api2", "api", null),
+                document("page1", "page", "owner3")));
+
+        Map<String, String> owners = indexer.getStoredField("api", "owner");
+
+        assertEquals(2, owners.size());
+        assertEquals("owner1", owners.get("api1"));
+        assertNull(owners.get("api2"));
+    }
+
+    private static SearchEngineIndexer newIndexer(IndexWriter writer) {
+        SearchEngineIndexer indexer = new SearchEngineIndexer();
+        ReflectionTestUtils.setField(indexer, "writer", writer);
+        ReflectionTestUtils.setField(indexer, "metrics", new SearchEngineMetrics());
+        ReflectionTestUtils.setField(indexer, "commitMaxDocuments", 1000L);
+        return indexer;
+    }
+
+    private static Document document(String id, String type, String owner) {
+        Document document = new Document();
+        document.add(new StringField("id", id, Field.Store.YES));
+        document.add(new StringField("type", type, Field.Store.YES));
+        if (owner != null) {
+            document.add(new StoredField("owner", owner));
+        }
+        return document;
+    }
+}
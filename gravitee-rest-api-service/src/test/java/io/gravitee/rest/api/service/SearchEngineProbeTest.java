@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.node.api.healthcheck.Result;
+import io.gravitee.rest.api.service.healthcheck.SearchEngineProbe;
+import io.gravitee.rest.api.service.impl.search.lucene.SearchEngineIndexer;
+import io.gravitee.rest.api.service.impl.search.lucene.SearchEngineMetrics;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.store.RAMDirectory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class SearchEngineProbeTest {
+
+    private final RAMDirectory directory = new RAMDirectory();
+    private final SearchEngineMetrics metrics = new SearchEngineMetrics();
+    private final SearchEngineIndexer indexer = new SearchEngineIndexer();
+    private final SearchEngineProbe probe = new SearchEngineProbe();
+    private IndexWriter writer;
+
+    @Before
+    public void init() throws IOException {
+        writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()));
+        ReflectionTestUtils.setField(indexer, "writer", writer);
+        ReflectionTestUtils.setField(indexer, "metrics", metrics);
+        ReflectionTestUtils.setField(indexer, "commitMaxDocuments", 1000L);
+        ReflectionTestUtils.setField(probe, "indexer", indexer);
+        ReflectionTestUtils.setField(probe, "metrics", metrics);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        writer.close();
+        directory.close();
+    }
+
+    @Test
+    public void shouldReportEmptyIndex() throws Exception {
+        final Result result = probe.check().get();
+
+        assertTrue(result.isHealthy());
+        assertTrue(result.getMessage().startsWith("documents=0, size=0 bytes, pending=0, commits=0, committed=0"));
+    }
+
+    @Test
+    public void shouldReportCommitsAndPendingChanges() throws Exception {
+        indexer.indexAll(Stream.of(document("api1"), document("api2")));
+        indexer.index(document("api3"));
+
+        final String message = probe.check().get().getMessage();
+
+        assertTrue(message, message.startsWith("documents=2, size="));
+        assertTrue(message, message.contains("pending=1, commits=1, committed=2,"));
+        assertTrue(metrics.getIndexSize() > 0);
+    }
+
+    @Test
+    public void shouldReportRefreshes() throws Exception {
+        metrics.beforeRefresh();
+        metrics.afterRefresh(true);
+        metrics.beforeRefresh();
+        metrics.afterRefresh(false);
+
+        final String message = probe.check().get().getMessage();
+
+        assertTrue(message, message.contains("refreshes=1,"));
+        assertEquals(1, metrics.getRefreshes());
+    }
+
+    private static Document document(String id) {
+        final Document document = new Document();
+        document.add(new StringField("id", id, Field.Store.YES));
+        document.add(new StringField("type", "api", Field.Store.YES));
+        return document;
+    }
+}
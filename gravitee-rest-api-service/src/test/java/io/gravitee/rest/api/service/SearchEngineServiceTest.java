@@ -0,0 +1,143 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.rest.api.model.UserEntity;
+import io.gravitee.rest.api.model.api.ApiEntity;
+import io.gravitee.rest.api.model.search.Indexable;
+import io.gravitee.rest.api.service.exceptions.TechnicalManagementException;
+import io.gravitee.rest.api.service.impl.search.SearchEngineServiceImpl;
+import io.gravitee.rest.api.service.impl.search.lucene.DocumentTransformer;
+import io.gravitee.rest.api.service.impl.search.lucene.SearchEngineIndexer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SearchEngineServiceTest {
+
+    private final SearchEngineServiceImpl searchEngineService = new SearchEngineServiceImpl();
+
+    @Mock
+    private SearchEngineIndexer indexer;
+
+    private final Set<String> transformingThreads = Collections.synchronizedSet(new HashSet<>());
+
+    private ExecutorService reindexExecutor;
+
+    @Before
+    public void init() {
+        reindexExecutor = Executors.newFixedThreadPool(4, runnable -> new Thread(runnable, "reindex-test"));
+        ReflectionTestUtils.setField(searchEngineService, "indexer", indexer);
+        ReflectionTestUtils.setField(searchEngineService, "reindexExecutor", reindexExecutor);
+        ReflectionTestUtils.setField(searchEngineService, "transformers",
+                Collections.singletonList(new ApiTransformer()));
+    }
+
+    @After
+    public void shutdown() {
+        reindexExecutor.shutdownNow();
+    }
+
+    @Test
+    public void shouldTransformSourcesOnReindexExecutorInOrder() throws TechnicalException {
+        List<String> indexed = new ArrayList<>();
+        when(indexer.indexAll(any())).thenAnswer(invocation -> {
+            Stream<Document> documents = invocation.getArgument(0);
+            indexed.addAll(documents.map(document -> document.get("id")).collect(Collectors.toList()));
+            return (long) indexed.size();
+        });
+        List<String> ids = IntStream.range(0, 1000).mapToObj(i -> "api" + i).collect(Collectors.toList());
+
+        long count = searchEngineService.indexAll(ids.stream().map(SearchEngineServiceTest::api));
+
+        // a single batch, in the order of the sources
+        verify(indexer, times(1)).indexAll(any());
+        assertEquals(1000, count);
+        assertEquals(ids, indexed);
+        assertEquals(Collections.singleton("reindex-test"), transformingThreads);
+    }
+
+    @Test
+    public void shouldSkipSourcesWhichCannotBeTransformed() throws TechnicalException {
+        List<String> indexed = new ArrayList<>();
+        when(indexer.indexAll(any())).thenAnswer(invocation -> {
+            Stream<Document> documents = invocation.getArgument(0);
+            indexed.addAll(documents.map(document -> document.get("id")).collect(Collectors.toList()));
+            return (long) indexed.size();
+        });
+        UserEntity user = new UserEntity();
+        user.setId("user1");
+
+        long count = searchEngineService.indexAll(Stream.of(api("api1"), api(null), user));
+
+        assertEquals(1, count);
+        assertEquals(Collections.singletonList("api1"), indexed);
+    }
+
+    @Test(expected = TechnicalManagementException.class)
+    public void shouldFailWhenIndexingFails() throws TechnicalException {
+        when(indexer.indexAll(any())).thenThrow(TechnicalException.class);
+
+        searchEngineService.indexAll(Stream.of(api("api1")));
+    }
+
+    private static ApiEntity api(String id) {
+        ApiEntity api = new ApiEntity();
+        api.setId(id);
+        return api;
+    }
+
+    private class ApiTransformer implements DocumentTransformer<ApiEntity> {
+
+        @Override
+        public Document transform(ApiEntity api) {
+            transformingThreads.add(Thread.currentThread().getName());
+            Document document = new Document();
+            document.add(new StringField("id", api.getId(), Field.Store.YES));
+            return document;
+        }
+
+        @Override
+        public boolean handle(Class<? extends Indexable> source) {
+            return ApiEntity.class.isAssignableFrom(source);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.search.UserCriteria;
+import io.gravitee.rest.api.model.PrimaryOwnerEntity;
+import io.gravitee.rest.api.model.UserEntity;
+import io.gravitee.rest.api.model.api.ApiEntity;
+import io.gravitee.rest.api.service.impl.search.lucene.SearchEngineIndexer;
+import io.gravitee.rest.api.service.impl.search.lucene.transformer.ApiDocumentTransformer;
+import io.gravitee.rest.api.service.impl.upgrade.SearchIndexUpgrader;
+import io.gravitee.rest.api.service.search.SearchEngineService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SearchIndexUpgraderTest {
+
+    private static final long CHECKPOINT = 1_000_000L;
+
+    @InjectMocks
+    private SearchIndexUpgrader upgrader = new SearchIndexUpgrader();
+
+    @Mock
+    private ApiService apiService;
+
+    @Mock
+    private PageService pageService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private SearchEngineService searchEngineService;
+
+    @Mock
+    private SearchEngineIndexer searchEngineIndexer;
+
+    private final List<Object> indexed = new ArrayList<>();
+
+    @Before
+    public void init() {
+        when(searchEngineService.indexAll(any())).thenAnswer(invocation -> {
+            Stream<?> sources = invocation.getArgument(0);
+            sources.forEach(indexed::add);
+            return 0L;
+        });
+        when(pageService.search(any(), eq(true))).thenReturn(Collections.emptyList());
+        when(userService.search(any(UserCriteria.class), any())).thenReturn(new Page<>(Collections.emptyList(), 1, 0, 0));
+    }
+
+    @Test
+    public void shouldRebuildIndexWithoutCheckpoint() throws TechnicalException {
+        ApiEntity api = api("api1", CHECKPOINT - 1, owner("user1", "john@doe.com"));
+        when(apiService.findAll()).thenReturn(Collections.singleton(api));
+
+        assertTrue(upgrader.upgrade());
+
+        verify(searchEngineIndexer).reset();
+        verify(searchEngineIndexer, never()).getStoredField(any(), any());
+        verify(searchEngineIndexer, never()).retainAll(any());
+        verify(searchEngineIndexer).checkpoint(anyLong());
+        assertEquals(Collections.singletonList(api), indexed);
+    }
+
+    @Test
+    public void shouldIndexOnlyChangesSinceCheckpoint() throws TechnicalException {
+        UserEntity owner = owner("user1", "john@doe.com");
+        ApiEntity unchanged = api("api1", CHECKPOINT - 1, owner);
+        ApiEntity updated = api("api2", CHECKPOINT + 1, owner);
+        when(searchEngineIndexer.getCheckpoint()).thenReturn(CHECKPOINT);
+        when(apiService.findAll()).thenReturn(new HashSet<>(Arrays.asList(unchanged, updated)));
+        Map<String, String> indexedOwners = new HashMap<>();
+        indexedOwners.put("api1", ApiDocumentTransformer.ownerFingerprint(unchanged));
+        indexedOwners.put("api2", ApiDocumentTransformer.ownerFingerprint(updated));
+        when(searchEngineIndexer.getStoredField(ApiDocumentTransformer.FIELD_TYPE_VALUE,
+                ApiDocumentTransformer.FIELD_OWNER_FINGERPRINT)).thenReturn(indexedOwners);
+
+        assertTrue(upgrader.upgrade());
+
+        verify(searchEngineIndexer, never()).reset();
+        assertEquals(Collections.singletonList(updated), indexed);
+    }
+
+    @Test
+    public void shouldIndexApisWhosePrimaryOwnerChanged() throws TechnicalException {
+        ApiEntity renamedOwner = api("api1", CHECKPOINT - 1, owner("user1", "john.doe@new.com"));
+        ApiEntity newOwner = api("api2", CHECKPOINT - 1, owner("user2", "jane@doe.com"));
+        when(searchEngineIndexer.getCheckpoint()).thenReturn(CHECKPOINT);
+        when(apiService.findAll()).thenReturn(new HashSet<>(Arrays.asList(renamedOwner, newOwner)));
+        Map<String, String> indexedOwners = new HashMap<>();
+        indexedOwners.put("api1", ApiDocumentTransformer.ownerFingerprint(
+                api("api1", CHECKPOINT - 1, owner("user1", "john@doe.com"))));
+        indexedOwners.put("api2", ApiDocumentTransformer.ownerFingerprint(
+                api("api2", CHECKPOINT - 1, owner("user1", "john@doe.com"))));
+        when(searchEngineIndexer.getStoredField(ApiDocumentTransformer.FIELD_TYPE_VALUE,
+                ApiDocumentTransformer.FIELD_OWNER_FINGERPRINT)).thenReturn(indexedOwners);
+
+        assertTrue(upgrader.upgrade());
+
+        assertEquals(new HashSet<>(Arrays.asList(renamedOwner, newOwner)), new HashSet<>(indexed));
+    }
+
+    @Test
+    public void shouldIndexApisMissingFromIndex() throws TechnicalException {
+        ApiEntity api = api("api1", CHECKPOINT - 1, owner("user1", "john@doe.com"));
+        when(searchEngineIndexer.getCheckpoint()).thenReturn(CHECKPOINT);
+        when(apiService.findAll()).thenReturn(Collections.singleton(api));
+        when(searchEngineIndexer.getStoredField(ApiDocumentTransformer.FIELD_TYPE_VALUE,
+                ApiDocumentTransformer.FIELD_OWNER_FINGERPRINT)).thenReturn(Collections.emptyMap());
+
+        assertTrue(upgrader.upgrade());
+
+        assertEquals(Collections.singletonList(api), indexed);
+    }
+
+    @Test
+    public void shouldRemoveDocumentsOfDeletedEntities() throws TechnicalException {
+        ApiEntity api = api("api1", CHECKPOINT - 1, owner("user1", "john@doe.com"));
+        when(searchEngineIndexer.getCheckpoint()).thenReturn(CHECKPOINT);
+        when(apiService.findAll()).thenReturn(Collections.singleton(api));
+        when(searchEngineIndexer.getStoredField(ApiDocumentTransformer.FIELD_TYPE_VALUE,
+                ApiDocumentTransformer.FIELD_OWNER_FINGERPRINT))
+                .thenReturn(Collections.singletonMap("api1", ApiDocumentTransformer.ownerFingerprint(api)));
+
+        assertTrue(upgrader.upgrade());
+
+        verify(searchEngineIndexer).retainAll(Collections.singleton("api1"));
+        verify(searchEngineIndexer).checkpoint(anyLong());
+    }
+
+    @Test
+    public void shouldNotCheckpointOnFailure() throws TechnicalException {
+        when(searchEngineIndexer.getCheckpoint()).thenReturn(CHECKPOINT);
+        when(apiService.findAll()).thenReturn(Collections.singleton(api("api1", CHECKPOINT - 1, owner("user1", "john@doe.com"))));
+        when(searchEngineIndexer.getStoredField(any(), any())).thenReturn(Collections.emptyMap());
+        when(searchEngineIndexer.retainAll(any())).thenThrow(TechnicalException.class);
+
+        assertFalse(upgrader.upgrade());
+
+        verify(searchEngineIndexer, never()).checkpoint(anyLong());
+    }
+
+    private static ApiEntity api(String id, long updatedAt, UserEntity owner) {
+        ApiEntity api = new ApiEntity();
+        api.setId(id);
+        api.setUpdatedAt(new Date(updatedAt));
+        api.setPrimaryOwner(new PrimaryOwnerEntity(owner));
+        return api;
+    }
+
+    private static UserEntity owner(String id, String email) {
+        UserEntity user = new UserEntity();
+        user.setId(id);
+        user.setEmail(email);
+        user.setFirstname("John");
+        user.setLastname("Doe");
+        return user;
+    }
+}
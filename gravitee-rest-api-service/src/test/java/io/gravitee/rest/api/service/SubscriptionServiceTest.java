@@ -15,12 +15,18 @@
  */
 package io.gravitee.rest.api.service;
 
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.rest.api.idp.api.authentication.UserDetails;
 import io.gravitee.rest.api.model.*;
 import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.application.ApplicationSettings;
 import io.gravitee.rest.api.model.application.OAuthClientSettings;
+import io.gravitee.rest.api.model.common.Pageable;
+import io.gravitee.rest.api.model.common.PageableImpl;
+import io.gravitee.rest.api.model.pagedresult.Metadata;
+import io.gravitee.rest.api.model.subscription.SubscriptionQuery;
 import io.gravitee.rest.api.service.exceptions.*;
+import io.gravitee.rest.api.service.impl.AnalyticsMetadataResolver;
 import io.gravitee.rest.api.service.impl.SubscriptionServiceImpl;
 import io.gravitee.rest.api.service.notification.ApiHook;
 import io.gravitee.rest.api.service.notification.ApplicationHook;
@@ -45,8 +51,11 @@ import java.util.*;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -97,6 +106,8 @@ public class SubscriptionServiceTest {
     private NotifierService notifierService;
     @Mock
     private GroupService groupService;
+    @Mock
+    private AnalyticsMetadataResolver metadataResolver;
 
     @Test
     public void shouldFindById() throws TechnicalException {
@@ -143,6 +154,151 @@ public class SubscriptionServiceTest {
         assertEquals(2, subscriptions.size());
     }
 
+    @Test
+    public void shouldSearchSubscriptionsEndingBefore() throws TechnicalException {
+        Subscription ended = new Subscription();
+        ended.setId("subscription-1");
+        ended.setStatus(Subscription.Status.ACCEPTED);
+        ended.setEndingAt(new Date(1000));
+
+        Subscription notEnded = new Subscription();
+        notEnded.setId("subscription-2");
+        notEnded.setStatus(Subscription.Status.ACCEPTED);
+        notEnded.setEndingAt(new Date(3000));
+
+        Subscription noEndingDate = new Subscription();
+        noEndingDate.setId("subscription-3");
+        noEndingDate.setStatus(Subscription.Status.ACCEPTED);
+
+        when(subscriptionRepository.search(any(SubscriptionCriteria.class))).thenReturn(
+                asList(ended, notEnded, noEndingDate));
+
+        SubscriptionQuery query = new SubscriptionQuery();
+        query.setStatuses(singleton(SubscriptionStatus.ACCEPTED));
+        query.setEndingAtBefore(2000);
+        Collection<SubscriptionEntity> subscriptions = subscriptionService.search(query);
+
+        assertEquals(1, subscriptions.size());
+        assertEquals("subscription-1", subscriptions.iterator().next().getId());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotSearchPageOfSubscriptionsEndingBefore() throws TechnicalException {
+        SubscriptionQuery query = new SubscriptionQuery();
+        query.setStatuses(singleton(SubscriptionStatus.ACCEPTED));
+        query.setEndingAtBefore(2000);
+
+        try {
+            subscriptionService.search(query, new PageableImpl(1, 10));
+        } finally {
+            verify(subscriptionRepository, never()).search(any(SubscriptionCriteria.class), any());
+        }
+    }
+
+    @Test
+    public void shouldSearchByApiKey() throws TechnicalException {
+        Subscription subscription = new Subscription();
+        subscription.setId(SUBSCRIPTION_ID);
+        subscription.setApi(API_ID);
+        subscription.setStatus(Subscription.Status.ACCEPTED);
+
+        when(apiKeyEntity.getSubscription()).thenReturn(SUBSCRIPTION_ID);
+        when(apiKeyService.findByKey("my-api-key")).thenReturn(apiKeyEntity);
+        when(subscriptionRepository.findById(SUBSCRIPTION_ID)).thenReturn(Optional.of(subscription));
+
+        SubscriptionQuery query = new SubscriptionQuery();
+        query.setApi(API_ID);
+        query.setApiKey("my-api-key");
+        Collection<SubscriptionEntity> subscriptions = subscriptionService.search(query);
+
+        assertEquals(1, subscriptions.size());
+        assertEquals(SUBSCRIPTION_ID, subscriptions.iterator().next().getId());
+        verify(subscriptionRepository, never()).search(any(SubscriptionCriteria.class));
+        verify(apiKeyService, never()).findBySubscription(anyString());
+    }
+
+    @Test
+    public void shouldNotSearchByApiKeyOfAnotherApi() throws TechnicalException {
+        Subscription subscription = new Subscription();
+        subscription.setId(SUBSCRIPTION_ID);
+        subscription.setApi("another-api");
+        subscription.setStatus(Subscription.Status.ACCEPTED);
+
+        when(apiKeyEntity.getSubscription()).thenReturn(SUBSCRIPTION_ID);
+        when(apiKeyService.findByKey("my-api-key")).thenReturn(apiKeyEntity);
+        when(subscriptionRepository.findById(SUBSCRIPTION_ID)).thenReturn(Optional.of(subscription));
+
+        SubscriptionQuery query = new SubscriptionQuery();
+        query.setApi(API_ID);
+        query.setApiKey("my-api-key");
+        Page<SubscriptionEntity> subscriptions = subscriptionService.search(query, mock(Pageable.class));
+
+        assertEquals(0, subscriptions.getTotalElements());
+        assertTrue(subscriptions.getContent().isEmpty());
+    }
+
+    @Test
+    public void shouldNotSearchByUnknownApiKey() {
+        when(apiKeyService.findByKey("unknown")).thenThrow(new ApiKeyNotFoundException());
+
+        SubscriptionQuery query = new SubscriptionQuery();
+        query.setApiKey("unknown");
+        Collection<SubscriptionEntity> subscriptions = subscriptionService.search(query);
+
+        assertTrue(subscriptions.isEmpty());
+    }
+
+    @Test
+    public void shouldGetMetadata() {
+        SubscriptionEntity subscription1 = new SubscriptionEntity();
+        subscription1.setApplication(APPLICATION_ID);
+        subscription1.setApi(API_ID);
+        subscription1.setPlan(PLAN_ID);
+        SubscriptionEntity subscription2 = new SubscriptionEntity();
+        subscription2.setApplication(APPLICATION_ID);
+        subscription2.setApi(API_ID);
+        subscription2.setPlan(PLAN_ID);
+
+        when(metadataResolver.getApplicationsMetadata(singleton(APPLICATION_ID)))
+                .thenReturn(singletonMap(APPLICATION_ID, singletonMap("name", "My application")));
+        when(metadataResolver.getApisMetadata(singleton(API_ID)))
+                .thenReturn(singletonMap(API_ID, singletonMap("name", "My API")));
+        when(metadataResolver.getPlansMetadata(singleton(PLAN_ID), singleton(API_ID)))
+                .thenReturn(singletonMap(PLAN_ID, singletonMap("name", "My plan")));
+
+        Metadata metadata = subscriptionService.getMetadata(asList(subscription1, subscription2));
+
+        assertEquals("My application", metadata.getMetadata().get(APPLICATION_ID).get("name"));
+        assertEquals("My API", metadata.getMetadata().get(API_ID).get("name"));
+        assertEquals("My plan", metadata.getMetadata().get(PLAN_ID).get("name"));
+        verify(applicationService, never()).findById(anyString());
+        verify(apiService, never()).findById(anyString());
+        verify(apiService, never()).searchListItems(any(), any(), any());
+        verify(planService, never()).findById(anyString());
+        verify(planService, never()).findByApi(anyString());
+    }
+
+    @Test
+    public void shouldGetMetadataOfDeletedReferences() {
+        SubscriptionEntity subscription = new SubscriptionEntity();
+        subscription.setApplication(APPLICATION_ID);
+        subscription.setApi(API_ID);
+        subscription.setPlan(PLAN_ID);
+
+        when(metadataResolver.getApplicationsMetadata(singleton(APPLICATION_ID)))
+                .thenReturn(singletonMap(APPLICATION_ID, singletonMap("name", "Deleted application")));
+        when(metadataResolver.getApisMetadata(singleton(API_ID)))
+                .thenReturn(singletonMap(API_ID, singletonMap("name", "Deleted API")));
+        when(metadataResolver.getPlansMetadata(singleton(PLAN_ID), singleton(API_ID)))
+                .thenReturn(singletonMap(PLAN_ID, singletonMap("name", "Deleted plan")));
+
+        Metadata metadata = subscriptionService.getMetadata(singletonList(subscription));
+
+        assertEquals("Deleted application", metadata.getMetadata().get(APPLICATION_ID).get("name"));
+        assertEquals("Deleted API", metadata.getMetadata().get(API_ID).get("name"));
+        assertEquals("Deleted plan", metadata.getMetadata().get(PLAN_ID).get("name"));
+    }
+
 
     @Test
     public void shouldFindByApi() throws TechnicalException {
@@ -0,0 +1,143 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Charsets;
+import com.google.common.io.Resources;
+import io.gravitee.common.http.MediaType;
+import io.gravitee.rest.api.model.PageConfigurationKeys;
+import io.gravitee.rest.api.model.PageEntity;
+import io.gravitee.rest.api.service.impl.SwaggerServiceImpl;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the transformation of the Swagger pages done on each read, for v1, v2 and v3 descriptors made of
+ * 1, 100 or 1000 times the paths of the test descriptors.
+ *
+ * Run it with the <code>main</code> method, it is not part of the test suite.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SwaggerServiceBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Param({"swagger-v1.json", "swagger-v2.json", "openapi.json"})
+    public String descriptor;
+
+    @Param({"1", "100", "1000"})
+    public int copies;
+
+    private SwaggerServiceImpl cachedSwaggerService;
+    private SwaggerServiceImpl swaggerService;
+    private String content;
+
+    @Setup
+    public void setUp() throws Exception {
+        content = MAPPER.writeValueAsString(grow(MAPPER.readTree(Resources.toString(
+                Resources.getResource("io/gravitee/rest/api/management/service/" + descriptor), Charsets.UTF_8))));
+
+        cachedSwaggerService = swaggerService(512 * 1024 * 1024L);
+        // Nothing can be cached, each read transforms the descriptor
+        swaggerService = swaggerService(0L);
+    }
+
+    @Benchmark
+    public String transform() {
+        return transform(swaggerService);
+    }
+
+    @Benchmark
+    public String transformWithCache() {
+        return transform(cachedSwaggerService);
+    }
+
+    private String transform(SwaggerService service) {
+        PageEntity page = new PageEntity();
+        page.setContent(content);
+        page.setContentType(MediaType.APPLICATION_JSON);
+        Map<String, String> configuration = new HashMap<>();
+        configuration.put(PageConfigurationKeys.SWAGGER_SWAGGERUI_TRY_IT_URL, "https://my.domain.com/v1");
+        page.setConfiguration(configuration);
+
+        service.transform(page);
+        return page.getContent();
+    }
+
+    private JsonNode grow(JsonNode node) {
+        if (node.has("apis")) {
+            // Swagger 1.x: list of APIs
+            ArrayNode apis = (ArrayNode) node.get("apis");
+            List<JsonNode> originals = new ArrayList<>();
+            apis.forEach(originals::add);
+            for (int i = 1; i < copies; i++) {
+                for (JsonNode api : originals) {
+                    ObjectNode copy = api.deepCopy();
+                    copy.put("path", api.get("path").asText() + "/copy-" + i);
+                    apis.add(copy);
+                }
+            }
+        } else {
+            // Swagger 2.x and OpenAPI 3.x: map of paths
+            ObjectNode paths = (ObjectNode) node.get("paths");
+            Map<String, JsonNode> originals = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = paths.fields();
+            fields.forEachRemaining(field -> originals.put(field.getKey(), field.getValue()));
+            for (int i = 1; i < copies; i++) {
+                for (Map.Entry<String, JsonNode> path : originals.entrySet()) {
+                    paths.set(path.getKey() + "/copy-" + i, path.getValue().deepCopy());
+                }
+            }
+        }
+        return node;
+    }
+
+    private static SwaggerServiceImpl swaggerService(long cacheMaxBytes) {
+        SwaggerServiceImpl swaggerService = new SwaggerServiceImpl();
+        ReflectionTestUtils.setField(swaggerService, "cacheMaxBytes", cacheMaxBytes);
+        swaggerService.afterPropertiesSet();
+        return swaggerService;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SwaggerServiceBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
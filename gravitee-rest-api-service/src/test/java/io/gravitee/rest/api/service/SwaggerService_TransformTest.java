@@ -30,6 +30,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
 import java.net.URL;
@@ -37,7 +38,9 @@ import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 
 /**
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com)
@@ -50,7 +53,10 @@ public class SwaggerService_TransformTest {
 
     @Before
     public void setUp() {
-        swaggerService = new SwaggerServiceImpl();
+        SwaggerServiceImpl swaggerServiceImpl = new SwaggerServiceImpl();
+        ReflectionTestUtils.setField(swaggerServiceImpl, "cacheMaxBytes", 1024 * 1024L);
+        swaggerServiceImpl.afterPropertiesSet();
+        swaggerService = swaggerServiceImpl;
     }
 
 
@@ -118,6 +124,33 @@ public class SwaggerService_TransformTest {
         validateV3(Yaml.mapper().readTree(pageEntity.getContent()));
     }
 
+    @Test
+    public void shouldTransformSameDescriptorTheSameWay() throws IOException {
+        PageEntity pageEntity = getPage("io/gravitee/rest/api/management/service/openapi.json", MediaType.APPLICATION_JSON);
+        PageEntity samePageEntity = getPage("io/gravitee/rest/api/management/service/openapi.json", MediaType.APPLICATION_JSON);
+
+        swaggerService.transform(pageEntity);
+        swaggerService.transform(samePageEntity);
+
+        // the second page is served from the cache: it gets the very same transformed content
+        assertSame(pageEntity.getContent(), samePageEntity.getContent());
+        validateV3(Json.mapper().readTree(samePageEntity.getContent()));
+    }
+
+    @Test
+    public void shouldTransformAgainWithAnotherTryItUrl() throws IOException {
+        PageEntity pageEntity = getPage("io/gravitee/rest/api/management/service/openapi.json", MediaType.APPLICATION_JSON);
+        PageEntity otherPageEntity = getPage("io/gravitee/rest/api/management/service/openapi.json", MediaType.APPLICATION_JSON);
+        otherPageEntity.getConfiguration().put(PageConfigurationKeys.SWAGGER_SWAGGERUI_TRY_IT_URL, "https://other.domain.com/v2");
+
+        swaggerService.transform(pageEntity);
+        swaggerService.transform(otherPageEntity);
+
+        assertNotEquals(pageEntity.getContent(), otherPageEntity.getContent());
+        assertEquals("https://other.domain.com/v2",
+                Json.mapper().readTree(otherPageEntity.getContent()).get("servers").get(0).get("url").asText());
+    }
+
     private void validateV2(JsonNode node) {
         assertEquals("1.2.3", node.get("info").get("version").asText());
         assertEquals("Gravitee.io Swagger API", node.get("info").get("title").asText());
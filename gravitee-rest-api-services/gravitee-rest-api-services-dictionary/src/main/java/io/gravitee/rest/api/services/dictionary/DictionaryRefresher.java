@@ -70,13 +70,17 @@ public class DictionaryRefresher implements Handler<Long> {
 
         // Compare properties with latest values
         if (! properties.equals(dictionary.getProperties())) {
-            dictionary.setProperties(properties);
+            // Keep the previous properties until the update succeeds, so that a failed update is retried
+            UpdateDictionaryEntity updateDictionary = convert(dictionary);
+            updateDictionary.setProperties(properties);
 
             try {
-                dictionary = dictionaryService.update(dictionary.getId(), convert(dictionary));
+                dictionary = dictionaryService.update(dictionary.getId(), updateDictionary);
                 dictionaryService.deploy(dictionary.getId());
             } catch (Exception ex) {
                 logger.error("Unexpected error while updating and deploying the dictionary", ex);
+                // Get the properties again on the next refresh, even if they have not changed
+                provider.reset();
             }
         }
     }
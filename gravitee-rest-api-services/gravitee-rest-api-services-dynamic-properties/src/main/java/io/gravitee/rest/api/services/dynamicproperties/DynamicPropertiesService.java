@@ -25,19 +25,33 @@ import io.gravitee.definition.model.services.dynamicproperty.DynamicPropertyServ
 import io.gravitee.definition.model.services.schedule.Trigger;
 import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.service.ApiService;
+import io.gravitee.rest.api.service.LeaderElectionService;
 import io.gravitee.rest.api.service.event.ApiEvent;
+import io.gravitee.rest.api.service.healthcheck.DynamicPropertiesMetrics;
+import io.gravitee.rest.api.service.vertx.HttpClientRegistry;
 import io.gravitee.rest.api.services.dynamicproperties.provider.http.HttpProvider;
 import io.vertx.core.Vertx;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * Poll the dynamic properties of the deployed APIs.
+ *
+ * Polls are triggered by a dedicated scheduler and run on a bounded pool of workers, never on the Vert.x event loop.
+ * Only the leader node polls (see <code>management.leader.lease</code>): leadership is checked every
+ * <code>services.dynamicproperties.election.interval</code> seconds and the ticks received by the other nodes are
+ * counted as skipped. The latencies and skipped ticks of the pollers are reported by the dynamic properties probe.
+ *
  * @author Alexandre FARIA (lusoalex on github.com)
+ * @author GraviteeSource Team
  */
 public class DynamicPropertiesService extends AbstractService implements EventListener<ApiEvent, ApiEntity> {
 
@@ -55,7 +69,34 @@ public class DynamicPropertiesService extends AbstractService implements EventLi
     @Autowired
     private Vertx vertx;
 
-    private final Map<ApiEntity, Long> timers = new HashMap<>();
+    @Autowired
+    private HttpClientRegistry httpClientRegistry;
+
+    @Autowired
+    private LeaderElectionService leaderElectionService;
+
+    @Autowired
+    private DynamicPropertiesMetrics metrics;
+
+    @Value("${services.dynamicproperties.threads:4}")
+    private int threads = 4;
+
+    @Value("${services.dynamicproperties.election.interval:10}")
+    private long electionInterval = 10;
+
+    static final String LEADER_TASK = "dynamic-properties";
+
+    private final Map<String, ScheduledPoll> polls = new ConcurrentHashMap<>();
+
+    /**
+     * In-flight flags by API id, kept when an API is updated as its previous poll may still be running, and removed
+     * when it is undeployed.
+     */
+    private final Map<String, AtomicBoolean> inFlight = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService workers;
+    private volatile boolean leader;
 
     @Override
     protected String name() {
@@ -66,11 +107,32 @@ public class DynamicPropertiesService extends AbstractService implements EventLi
     protected void doStart() throws Exception {
         super.doStart();
 
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "dynamic-properties-scheduler"));
+        final AtomicInteger index = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(Math.max(1, threads),
+                runnable -> new Thread(runnable, "dynamic-properties-poller-" + index.incrementAndGet()));
+
+        // Submitted first, the election runs before the first polls
+        scheduler.scheduleWithFixedDelay(this::elect, 0, electionInterval, TimeUnit.SECONDS);
+
         eventManager.subscribeForEvents(this, ApiEvent.class);
     }
 
     @Override
     protected void doStop() throws Exception {
+        polls.forEach((api, poll) -> {
+            poll.future.cancel(false);
+            metrics.unregister(api, poll.updater);
+        });
+        polls.clear();
+        inFlight.clear();
+
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (workers != null) {
+            workers.shutdownNow();
+        }
         super.doStop();
     }
 
@@ -84,6 +146,7 @@ public class DynamicPropertiesService extends AbstractService implements EventLi
                 break;
             case UNDEPLOY:
                 stopDynamicProperties(api);
+                inFlight.remove(api.getId());
                 break;
             case UPDATE:
                 stopDynamicProperties(api);
@@ -96,22 +159,25 @@ public class DynamicPropertiesService extends AbstractService implements EventLi
         if (api.getState() == Lifecycle.State.STARTED) {
             DynamicPropertyService dynamicPropertyService = api.getServices().get(DynamicPropertyService.class);
             if (dynamicPropertyService != null && dynamicPropertyService.isEnabled()) {
-                DynamicPropertyUpdater updater = new DynamicPropertyUpdater(api);
+                final DynamicPropertyUpdater updater = new DynamicPropertyUpdater(api,
+                        inFlight.computeIfAbsent(api.getId(), id -> new AtomicBoolean()));
 
                 if (dynamicPropertyService.getProvider() == DynamicPropertyProvider.HTTP) {
                     HttpProvider provider = new HttpProvider(dynamicPropertyService);
                     provider.setVertx(vertx);
+                    provider.setHttpClientRegistry(httpClientRegistry);
 
                     updater.setProvider(provider);
                     updater.setApiService(apiService);
+                    updater.setExecutor(workers);
                     logger.info("Add a scheduled task to poll dynamic properties each {} {} ", dynamicPropertyService.getTrigger().getRate(),
                             dynamicPropertyService.getTrigger().getUnit());
 
                     // Force the first refresh, and then run it periodically
-                    updater.handle(null);
-
-                    long periodicTimer = vertx.setPeriodic(getDelayMillis(dynamicPropertyService.getTrigger()), updater);
-                    timers.put(api, periodicTimer);
+                    ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(() -> tick(updater), 0,
+                            getDelayMillis(dynamicPropertyService.getTrigger()), TimeUnit.MILLISECONDS);
+                    polls.put(api.getId(), new ScheduledPoll(updater, future));
+                    metrics.register(api.getId(), updater);
                 }
             } else {
                 logger.info("Dynamic properties service is disabled for: {} [{}]", api.getName(), api.getVersion());
@@ -135,10 +201,51 @@ public class DynamicPropertiesService extends AbstractService implements EventLi
     }
 
     private void stopDynamicProperties(ApiEntity api) {
-        Long timer = timers.remove(api);
-        if (timer != null) {
+        ScheduledPoll poll = polls.remove(api.getId());
+        if (poll != null) {
             logger.info("Stop Dynamic properties service for API id[{}] name[{}]", api.getId(), api.getName());
-            vertx.cancelTimer(timer);
+            poll.future.cancel(false);
+            metrics.unregister(api.getId(), poll.updater);
+        }
+    }
+
+    private void tick(DynamicPropertyUpdater updater) {
+        if (!leader) {
+            updater.skip();
+        } else if (updater.tryAcquire()) {
+            try {
+                workers.execute(updater::poll);
+            } catch (RejectedExecutionException ree) {
+                // The service is stopping
+                updater.skip();
+            }
+        }
+    }
+
+    private void elect() {
+        try {
+            boolean elected = leaderElectionService.isLeader(LEADER_TASK);
+            if (elected != leader) {
+                logger.info(elected ? "Dynamic properties are now polled by this node" :
+                        "Dynamic properties are now polled by another node");
+            }
+            leader = elected;
+            metrics.setLeader(elected);
+        } catch (Exception ex) {
+            // Do not poll if the leadership can not be checked, another node may have taken it over
+            logger.error("An error occurs while checking the dynamic properties leadership", ex);
+            leader = false;
+            metrics.setLeader(false);
+        }
+    }
+
+    private static class ScheduledPoll {
+        private final DynamicPropertyUpdater updater;
+        private final ScheduledFuture<?> future;
+
+        private ScheduledPoll(DynamicPropertyUpdater updater, ScheduledFuture<?> future) {
+            this.updater = updater;
+            this.future = future;
         }
     }
 }
@@ -23,6 +23,7 @@ import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.permissions.RoleScope;
 import io.gravitee.rest.api.model.permissions.SystemRole;
 import io.gravitee.rest.api.service.ApiService;
+import io.gravitee.rest.api.service.healthcheck.DynamicPropertiesMetrics;
 import io.gravitee.rest.api.services.dynamicproperties.model.DynamicProperty;
 import io.gravitee.rest.api.services.dynamicproperties.provider.Provider;
 import io.vertx.core.Handler;
@@ -36,22 +37,46 @@ import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 /**
+ * Polls the dynamic properties of an API and updates the API when they have changed.
+ *
+ * At most one poll of an API is in flight at a time: a tick received while the previous poll is still running is
+ * skipped. The in-flight flag may be shared by the successive updaters of an API, so that a poll started before the
+ * API was redeployed is still taken into account.
+ * The API is updated on the given executor so that repository calls never run on the thread completing the provider
+ * call (the Vert.x event loop for the HTTP provider).
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
-public class DynamicPropertyUpdater implements Handler<Long> {
+public class DynamicPropertyUpdater implements Handler<Long>, DynamicPropertiesMetrics.Poller {
 
     private final Logger logger = LoggerFactory.getLogger(DynamicPropertyUpdater.class);
 
     private ApiEntity api;
     private Provider provider;
     private ApiService apiService;
+    private Executor executor;
+
+    private final AtomicBoolean running;
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicLong skips = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private volatile long lastLatency;
 
     public DynamicPropertyUpdater(final ApiEntity api) {
+        this(api, new AtomicBoolean());
+    }
+
+    public DynamicPropertyUpdater(final ApiEntity api, final AtomicBoolean running) {
         this.api = api;
+        this.running = running;
     }
 
     private void authenticateAsAdmin() {
@@ -105,19 +130,85 @@ public class DynamicPropertyUpdater implements Handler<Long> {
 
     @Override
     public void handle(Long event) {
+        if (tryAcquire()) {
+            poll();
+        }
+    }
+
+    /**
+     * Reserve the next poll.
+     *
+     * @return <code>false</code> (and count a skip) if the previous poll is not completed yet.
+     */
+    public boolean tryAcquire() {
+        if (running.compareAndSet(false, true)) {
+            return true;
+        }
+
+        skip();
+        logger.debug("[{}] Dynamic properties poll skipped: the previous one is still running", api.getId());
+        return false;
+    }
+
+    /**
+     * Count a tick which has not been polled.
+     */
+    public void skip() {
+        skips.incrementAndGet();
+    }
+
+    /**
+     * Poll the provider then update the API. Must be preceded by a successful {@link #tryAcquire()}.
+     */
+    public void poll() {
         logger.debug("Running dynamic-properties poller for {}", api);
-        authenticateAsAdmin();
+        final long start = System.currentTimeMillis();
 
-        provider.get()
-                .whenComplete((dynamicProperties, throwable) -> {
+        try {
+            final BiConsumer<Collection<DynamicProperty>, Throwable> callback = (dynamicProperties, throwable) -> {
+                try {
                     if (throwable != null) {
                         logger.error("[{}] Unexpected error while getting dynamic properties from provider: {}",
                                 api.getId(), provider.name(),
                                 throwable);
                     } else if (dynamicProperties != null) {
-                        update(dynamicProperties);
+                        authenticateAsAdmin();
+                        try {
+                            update(dynamicProperties);
+                        } finally {
+                            // The thread is pooled, do not leave it authenticated
+                            SecurityContextHolder.clearContext();
+                        }
                     }
-                });
+                } catch (Exception ex) {
+                    logger.error("[{}] Unexpected error while updating dynamic properties", api.getId(), ex);
+                    // Get the properties again on the next poll, even if they have not changed
+                    provider.reset();
+                } finally {
+                    release(start);
+                }
+            };
+
+            if (executor == null) {
+                provider.get().whenComplete(callback);
+            } else {
+                provider.get().whenCompleteAsync(callback, executor);
+            }
+        } catch (Exception ex) {
+            logger.error("[{}] Unexpected error while getting dynamic properties from provider: {}",
+                    api.getId(), provider.name(), ex);
+            release(start);
+        }
+    }
+
+    private void release(long start) {
+        lastLatency = System.currentTimeMillis() - start;
+        totalLatency.addAndGet(lastLatency);
+        polls.incrementAndGet();
+        running.set(false);
+
+        logger.debug("[{}] Dynamic properties polled in {} ms (polls: {}, average: {} ms, skipped: {})",
+                api.getId(), lastLatency, polls.get(), getAverageLatency(), skips.get());
     }
 
     private void update(Collection<DynamicProperty> dynamicProperties) {
@@ -182,4 +273,33 @@ public class DynamicPropertyUpdater implements Handler<Long> {
     public void setProvider(Provider provider) {
         this.provider = provider;
     }
+
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public ApiEntity getApi() {
+        return api;
+    }
+
+    @Override
+    public long getPolls() {
+        return polls.get();
+    }
+
+    @Override
+    public long getSkips() {
+        return skips.get();
+    }
+
+    @Override
+    public long getLastLatency() {
+        return lastLatency;
+    }
+
+    @Override
+    public long getAverageLatency() {
+        long count = polls.get();
+        return count == 0 ? 0 : totalLatency.get() / count;
+    }
 }
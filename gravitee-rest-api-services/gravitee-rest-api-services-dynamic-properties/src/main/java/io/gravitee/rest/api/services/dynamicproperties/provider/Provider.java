@@ -26,7 +26,17 @@ import io.gravitee.rest.api.services.dynamicproperties.model.DynamicProperty;
  */
 public interface Provider {
 
+    /**
+     * @return the properties, or <code>null</code> if they can not be retrieved or have not changed since the
+     * previous call.
+     */
     CompletableFuture<Collection<DynamicProperty>> get();
 
+    /**
+     * Forget about the previous call: the next one returns the properties even if they have not changed.
+     */
+    default void reset() {
+    }
+
     String name();
 }
@@ -22,16 +22,20 @@ import io.gravitee.rest.api.services.dynamicproperties.model.DynamicProperty;
 import io.gravitee.rest.api.services.dynamicproperties.provider.Provider;
 import io.gravitee.rest.api.services.dynamicproperties.provider.http.mapper.JoltMapper;
 import io.gravitee.rest.api.services.dynamicproperties.provider.http.vertx.VertxCompletableFuture;
+import io.gravitee.rest.api.service.vertx.HttpClientRegistry;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
-import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
@@ -44,14 +48,21 @@ public class HttpProvider implements Provider {
 
     private final Logger logger = LoggerFactory.getLogger(HttpProvider.class);
 
-    private static final String HTTPS_SCHEME = "https";
-
     private final HttpDynamicPropertyProviderConfiguration dpConfiguration;
 
     private JoltMapper mapper;
 
     private Vertx vertx;
 
+    private HttpClientRegistry httpClientRegistry;
+
+    /**
+     * Validators and hash of the last mapped response, used to avoid downloading and mapping an unchanged source.
+     */
+    private volatile String etag;
+    private volatile String lastModified;
+    private volatile byte[] contentHash;
+
     public HttpProvider(final DynamicPropertyService dpService) {
         Objects.requireNonNull(dpService, "Service must not be null");
 
@@ -64,20 +75,8 @@ public class HttpProvider implements Provider {
         CompletableFuture<Buffer> future = new VertxCompletableFuture<>(vertx);
 
         URI requestUri = URI.create(dpConfiguration.getUrl());
-        boolean ssl = HTTPS_SCHEME.equalsIgnoreCase(requestUri.getScheme());
-
-        final HttpClientOptions options = new HttpClientOptions()
-                .setSsl(ssl)
-                .setTrustAll(true)
-                .setMaxPoolSize(1)
-                .setKeepAlive(false)
-                .setTcpKeepAlive(false)
-                .setConnectTimeout(2000);
-
-        final HttpClient httpClient = vertx.createHttpClient(options);
-
-        final int port = requestUri.getPort() != -1 ? requestUri.getPort() :
-                (HTTPS_SCHEME.equals(requestUri.getScheme()) ? 443 : 80);
+        final HttpClient httpClient = httpClientRegistry.get(requestUri, false);
+        final int port = HttpClientRegistry.getPort(requestUri);
 
         try {
             HttpClientRequest request = httpClient.request(
@@ -87,29 +86,29 @@ public class HttpProvider implements Provider {
                     requestUri.toString()
             );
 
+            if (etag != null) {
+                request.putHeader(HttpHeaders.IF_NONE_MATCH, etag);
+            }
+            if (lastModified != null) {
+                request.putHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+            }
+
             request.handler(response -> {
                 if (response.statusCode() == HttpStatusCode.OK_200) {
                     response.bodyHandler(buffer -> {
+                        etag = response.getHeader(HttpHeaders.ETAG);
+                        lastModified = response.getHeader(HttpHeaders.LAST_MODIFIED);
                         future.complete(buffer);
-
-                        // Close client
-                        httpClient.close();
                     });
+                } else if (response.statusCode() == HttpStatusCode.NOT_MODIFIED_304) {
+                    logger.debug("{} has not been modified", requestUri);
+                    future.complete(null);
                 } else {
                     future.complete(null);
                 }
             });
 
-            request.exceptionHandler(event -> {
-                try {
-                    future.completeExceptionally(event);
-
-                    // Close client
-                    httpClient.close();
-                } catch (IllegalStateException ise) {
-                    // Do not take care about exception when closing client
-                }
-            });
+            request.exceptionHandler(future::completeExceptionally);
 
             request.end();
         } catch (Exception ex) {
@@ -121,10 +120,38 @@ public class HttpProvider implements Provider {
             if (buffer == null) {
                 return null;
             }
-            return mapper.map(buffer.toString());
+
+            // Do not run the transformation again if the content is the same as the last mapped one
+            final byte[] hash = hash(buffer);
+            if (Arrays.equals(hash, contentHash)) {
+                logger.debug("{} content has not changed", requestUri);
+                return null;
+            }
+
+            Collection<DynamicProperty> properties = mapper.map(buffer.toString());
+            contentHash = hash;
+            return properties;
         });
     }
 
+    @Override
+    public void reset() {
+        etag = null;
+        lastModified = null;
+        contentHash = null;
+    }
+
+    private static byte[] hash(Buffer buffer) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(buffer.getByteBuf().nioBuffer());
+            return digest.digest();
+        } catch (NoSuchAlgorithmException nsae) {
+            // SHA-256 is always supported by the JVM
+            throw new IllegalStateException(nsae);
+        }
+    }
+
     @Override
     public String name() {
         return "custom";
@@ -138,4 +165,8 @@ public class HttpProvider implements Provider {
     public void setVertx(Vertx vertx) {
         this.vertx = vertx;
     }
+
+    public void setHttpClientRegistry(HttpClientRegistry httpClientRegistry) {
+        this.httpClientRegistry = httpClientRegistry;
+    }
 }
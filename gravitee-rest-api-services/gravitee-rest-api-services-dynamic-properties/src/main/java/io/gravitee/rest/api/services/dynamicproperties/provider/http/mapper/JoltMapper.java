@@ -35,7 +35,6 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -58,32 +57,24 @@ public class JoltMapper {
     }
 
     public Collection<DynamicProperty> map(String source) {
-        //Default value is equal to the input json value (in case empty jolt specs)
-        String jsonProperties = source;
-        ArrayList transformed;
-        if (jsonProperties != null && jsonProperties.charAt(0) == '[') {
-            transformed = (ArrayList) chainr.transform(JsonUtils.jsonToList(source));
-        } else {
-            transformed = (ArrayList) chainr.transform(JsonUtils.jsonToMap(source));
+        // The transformation output is mapped as is, without being serialized and parsed again
+        final Object transformed = chainr.transform(JsonUtils.jsonToObject(source));
+        if (transformed == null) {
+            // Nothing has been extracted from the source, keep the current properties
+            return null;
         }
-        jsonProperties = JsonUtils.toJsonString(transformed);
 
-        //Now ensure current json properties is well formatted.
-    //    if (validateJson(jsonProperties)) {
+        final List<?> items = (List<?>) transformed;
+        final List<DynamicProperty> properties = new ArrayList<>(items.size());
+        for (Object item : items) {
+            Map<?, ?> mapItem = (Map<?, ?>) item;
+            properties.add(new DynamicProperty(toString(mapItem.get("key")), toString(mapItem.get("value"))));
+        }
 
-        List<Object> items = JsonUtils.jsonToList(jsonProperties);
-        Object collect = items.stream()
-                .map(item -> {
-                    Map<String, String> mapItem = (Map<String, String>) item;
-                    Object key = mapItem.get("key");
-                    if (key instanceof Number) {
-                        return new DynamicProperty(key.toString(), mapItem.get("value"));
-                    } else {
-                        return new DynamicProperty((String) key, mapItem.get("value"));
-                    }
-                })
-                .collect(Collectors.toList());
+        return properties;
+    }
 
-        return (Collection<DynamicProperty>) collect;
+    private static String toString(Object value) {
+        return value == null ? null : value.toString();
     }
 }
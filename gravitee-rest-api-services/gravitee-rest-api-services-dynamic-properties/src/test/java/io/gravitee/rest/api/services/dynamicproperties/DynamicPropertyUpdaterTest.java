@@ -16,6 +16,7 @@
 package io.gravitee.rest.api.services.dynamicproperties;
 
 import io.gravitee.rest.api.model.api.ApiEntity;
+import io.gravitee.rest.api.service.ApiService;
 import io.gravitee.rest.api.services.dynamicproperties.DynamicPropertyUpdater;
 import io.gravitee.rest.api.services.dynamicproperties.model.DynamicProperty;
 import io.gravitee.rest.api.services.dynamicproperties.provider.Provider;
@@ -25,10 +26,21 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.Collection;
 import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -44,12 +56,17 @@ public class DynamicPropertyUpdaterTest {
     @Mock
     private Provider provider;
 
+    @Mock
+    private ApiService apiService;
+
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
         poller = new DynamicPropertyUpdater(apiEntity);
         Mockito.when(provider.name()).thenReturn("mock");
         poller.setProvider(provider);
+        poller.setApiService(apiService);
+        Mockito.when(apiEntity.getId()).thenReturn("api-id");
     }
 
     @Test
@@ -79,4 +96,88 @@ public class DynamicPropertyUpdaterTest {
 
         poller.handle(1L);
     }
+
+    @Test
+    public void shouldSkipPollWhilePreviousOneIsRunning() {
+        CompletableFuture<Collection<DynamicProperty>> pending = new CompletableFuture<>();
+        Mockito.when(provider.get()).thenReturn(pending);
+        Mockito.when(apiService.findById("api-id")).thenReturn(new ApiEntity());
+
+        poller.handle(1L);
+        poller.handle(2L);
+
+        Mockito.verify(provider, Mockito.times(1)).get();
+        assertEquals(1, poller.getSkips());
+        assertEquals(0, poller.getPolls());
+
+        pending.complete(Collections.emptyList());
+
+        assertEquals(1, poller.getPolls());
+        assertTrue(poller.tryAcquire());
+    }
+
+    @Test
+    public void shouldUpdateApiOnExecutor() {
+        Mockito.when(provider.get()).thenReturn(CompletableFuture.completedFuture((Collection<DynamicProperty>) Collections.<DynamicProperty>emptyList()));
+        Mockito.when(apiService.findById("api-id")).thenReturn(new ApiEntity());
+        Executor executor = Mockito.mock(Executor.class);
+        poller.setExecutor(executor);
+
+        poller.handle(1L);
+
+        Mockito.verify(executor).execute(Mockito.any(Runnable.class));
+        Mockito.verify(apiService, Mockito.never()).findById("api-id");
+        assertFalse(poller.tryAcquire());
+    }
+
+    @Test
+    public void shouldSkipPollOfRedeployedApiWhilePreviousOneIsRunning() {
+        AtomicBoolean running = new AtomicBoolean();
+        DynamicPropertyUpdater previous = new DynamicPropertyUpdater(apiEntity, running);
+        previous.setProvider(provider);
+        previous.setApiService(apiService);
+        DynamicPropertyUpdater redeployed = new DynamicPropertyUpdater(apiEntity, running);
+        redeployed.setProvider(provider);
+        redeployed.setApiService(apiService);
+        CompletableFuture<Collection<DynamicProperty>> pending = new CompletableFuture<>();
+        Mockito.when(provider.get()).thenReturn(pending);
+        Mockito.when(apiService.findById("api-id")).thenReturn(new ApiEntity());
+
+        previous.handle(1L);
+        redeployed.handle(2L);
+
+        Mockito.verify(provider, Mockito.times(1)).get();
+        assertEquals(1, redeployed.getSkips());
+
+        pending.complete(Collections.emptyList());
+
+        assertTrue(redeployed.tryAcquire());
+    }
+
+    @Test
+    public void shouldClearSecurityContextAfterUpdate() {
+        AtomicReference<Authentication> authentication = new AtomicReference<>();
+        Mockito.when(provider.get()).thenReturn(CompletableFuture.completedFuture((Collection<DynamicProperty>) Collections.<DynamicProperty>emptyList()));
+        Mockito.when(apiService.findById("api-id")).thenAnswer(invocation -> {
+            authentication.set(SecurityContextHolder.getContext().getAuthentication());
+            return new ApiEntity();
+        });
+
+        poller.handle(1L);
+
+        assertNotNull(authentication.get());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    public void shouldClearSecurityContextAfterFailedUpdate() {
+        Mockito.when(provider.get()).thenReturn(CompletableFuture.completedFuture((Collection<DynamicProperty>) Collections.<DynamicProperty>emptyList()));
+        Mockito.when(apiService.findById("api-id")).thenThrow(new IllegalStateException());
+
+        poller.handle(1L);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        Mockito.verify(provider).reset();
+        assertTrue(poller.tryAcquire());
+    }
 }
@@ -18,6 +18,7 @@ package io.gravitee.rest.api.services.dynamicproperties.provider.http;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
 import io.gravitee.definition.model.services.dynamicproperty.DynamicPropertyService;
 import io.gravitee.definition.model.services.dynamicproperty.http.HttpDynamicPropertyProviderConfiguration;
+import io.gravitee.rest.api.service.vertx.HttpClientRegistry;
 import io.gravitee.rest.api.services.dynamicproperties.model.DynamicProperty;
 import io.gravitee.rest.api.services.dynamicproperties.provider.http.HttpProvider;
 import io.gravitee.rest.api.services.dynamicproperties.provider.http.mapper.JoltMapper;
@@ -31,14 +32,18 @@ import org.mockito.MockitoAnnotations;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
 import java.nio.charset.Charset;
 import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -60,9 +65,15 @@ public class HttpProviderTest {
     @Mock
     private JoltMapper mapper;
 
+    @Mock
+    private HttpClientRegistry httpClientRegistry;
+
+    private Vertx vertx = Vertx.vertx();
+
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
+        when(httpClientRegistry.get(any(URI.class), anyBoolean())).thenReturn(vertx.createHttpClient());
     }
 
     @Test
@@ -73,7 +84,8 @@ public class HttpProviderTest {
 
         HttpProvider provider = new HttpProvider(dynamicPropertyService);
         provider.setMapper(mapper);
-        provider.setVertx(Vertx.vertx());
+        provider.setVertx(vertx);
+        provider.setHttpClientRegistry(httpClientRegistry);
 
         CompletableFuture<Collection<DynamicProperty>> future = provider.get();
         Collection<DynamicProperty> dynamicProperties = future.join();
@@ -91,7 +103,8 @@ public class HttpProviderTest {
 
         HttpProvider provider = new HttpProvider(dynamicPropertyService);
         provider.setMapper(mapper);
-        provider.setVertx(Vertx.vertx());
+        provider.setVertx(vertx);
+        provider.setHttpClientRegistry(httpClientRegistry);
 
         CompletableFuture<Collection<DynamicProperty>> future = provider.get();
         Collection<DynamicProperty> dynamicProperties = future.join();
@@ -109,12 +122,56 @@ public class HttpProviderTest {
 
         HttpProvider provider = new HttpProvider(dynamicPropertyService);
         provider.setMapper(mapper);
-        provider.setVertx(Vertx.vertx());
+        provider.setVertx(vertx);
+        provider.setHttpClientRegistry(httpClientRegistry);
 
         CompletableFuture<Collection<DynamicProperty>> future = provider.get();
         future.join();
     }
 
+    @Test
+    public void shouldNotMapPropertiesBecauseNotModified() throws IOException {
+        wireMockRule.stubFor(get(urlEqualTo("/etag"))
+                .willReturn(aResponse().withStatus(200).withHeader("ETag", "\"v1\"").withBody("{\"key\": \"value\"}")));
+        wireMockRule.stubFor(get(urlEqualTo("/etag")).withHeader("If-None-Match", equalTo("\"v1\""))
+                .willReturn(aResponse().withStatus(304)));
+
+        when(dynamicPropertyService.getConfiguration()).thenReturn(providerConfiguration);
+        when(providerConfiguration.getUrl()).thenReturn("http://localhost:" + wireMockRule.port() + "/etag");
+        when(providerConfiguration.getSpecification()).thenReturn(IOUtils.toString(read("/jolt/specification.json"), Charset.defaultCharset()));
+
+        HttpProvider provider = new HttpProvider(dynamicPropertyService);
+        provider.setMapper(mapper);
+        provider.setVertx(vertx);
+        provider.setHttpClientRegistry(httpClientRegistry);
+
+        assertNotNull(provider.get().join());
+        assertNull(provider.get().join());
+
+        verify(mapper, times(1)).map(anyString());
+        wireMockRule.verify(2, getRequestedFor(urlEqualTo("/etag")));
+    }
+
+    @Test
+    public void shouldNotMapPropertiesBecauseContentHasNotChanged() throws IOException {
+        when(dynamicPropertyService.getConfiguration()).thenReturn(providerConfiguration);
+        when(providerConfiguration.getUrl()).thenReturn("http://localhost:" + wireMockRule.port() + "/success");
+        when(providerConfiguration.getSpecification()).thenReturn(IOUtils.toString(read("/jolt/specification.json"), Charset.defaultCharset()));
+
+        HttpProvider provider = new HttpProvider(dynamicPropertyService);
+        provider.setMapper(mapper);
+        provider.setVertx(vertx);
+        provider.setHttpClientRegistry(httpClientRegistry);
+
+        assertNotNull(provider.get().join());
+        assertNull(provider.get().join());
+
+        provider.reset();
+        assertNotNull(provider.get().join());
+
+        verify(mapper, times(2)).map(anyString());
+    }
+
     private InputStream read(String resource) throws IOException {
         return this.getClass().getResourceAsStream(resource);
     }
@@ -18,9 +18,8 @@ package io.gravitee.rest.api.services.subscriptions;
 import io.gravitee.common.service.AbstractService;
 import io.gravitee.rest.api.model.SubscriptionEntity;
 import io.gravitee.rest.api.model.SubscriptionStatus;
-import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.subscription.SubscriptionQuery;
-import io.gravitee.rest.api.service.ApiService;
+import io.gravitee.rest.api.service.LeaderElectionService;
 import io.gravitee.rest.api.service.SubscriptionService;
 
 import org.slf4j.Logger;
@@ -31,15 +30,23 @@ import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.support.CronTrigger;
 
 import java.time.Instant;
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Date;
-import java.util.Set;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
-import static java.util.stream.Collectors.toSet;
-
 /**
+ * Close the accepted subscriptions whose end date is reached.
+ *
+ * Only the leader node looks for expired subscriptions, which are then closed by batches, in parallel within a batch.
+ * The repository can not filter subscriptions on their end date: all the accepted subscriptions are read on each run,
+ * and only the expired ones are converted and closed.
+ * The lease is checked again before each batch, so that a node which lost it stops closing subscriptions.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
@@ -50,6 +57,8 @@ public class ScheduledSubscriptionsService extends AbstractService implements Ru
      */
     private final Logger logger = LoggerFactory.getLogger(ScheduledSubscriptionsService.class);
 
+    static final String LEADER_TASK = "subscriptions-expiry";
+
     @Autowired
     private TaskScheduler scheduler;
 
@@ -59,14 +68,22 @@ public class ScheduledSubscriptionsService extends AbstractService implements Ru
     @Value("${services.subscriptions.enabled:true}")
     private boolean enabled;
 
+    @Value("${services.subscriptions.expiry.threads:4}")
+    private int threads = 4;
+
+    @Value("${services.subscriptions.expiry.batch_size:100}")
+    private int batchSize = 100;
+
     private final AtomicLong counter = new AtomicLong(0);
 
-    @Autowired
-    private ApiService apiService;
+    private ExecutorService executor;
 
     @Autowired
     private SubscriptionService subscriptionService;
 
+    @Autowired
+    private LeaderElectionService leaderElectionService;
+
     @Override
     protected String name() {
         return "Subscriptions Refresher Service";
@@ -76,6 +93,7 @@ public class ScheduledSubscriptionsService extends AbstractService implements Ru
     protected void doStart() throws Exception {
         if (enabled) {
             super.doStart();
+            executor = createExecutor();
             logger.info("Subscriptions Refresher service has been initialized with cron [{}]", cronTrigger);
             scheduler.schedule(this, new CronTrigger(cronTrigger));
         } else {
@@ -83,25 +101,66 @@ public class ScheduledSubscriptionsService extends AbstractService implements Ru
         }
     }
 
+    @Override
+    protected void doStop() throws Exception {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        super.doStop();
+    }
+
     @Override
     public void run() {
+        if (!leaderElectionService.isLeader(LEADER_TASK)) {
+            logger.debug("Refresh subscriptions skipped: another node is in charge of it");
+            return;
+        }
+
         logger.debug("Refresh subscriptions #{} started at {}", counter.incrementAndGet(), Instant.now().toString());
-        final Set<String> apiIds = apiService.findAllLight().stream()
-                .map(ApiEntity::getId)
-                .collect(toSet());
 
         final SubscriptionQuery query = new SubscriptionQuery();
-        query.setApis(apiIds);
         query.setStatuses(Collections.singleton(SubscriptionStatus.ACCEPTED));
-        final Collection<SubscriptionEntity> subscriptions = subscriptionService.search(query);
-        final Date now = new Date();
-        subscriptions
-                .forEach(subscription -> {
-                    if (subscription.getEndingAt() != null && subscription.getEndingAt().before(now)) {
-                        subscriptionService.close(subscription.getId());
-                    }
-                });
-
-        logger.debug("Refresh subscriptions #{} ended at {}", counter.get(), Instant.now().toString());
+        query.setEndingAtBefore(System.currentTimeMillis());
+        final List<SubscriptionEntity> subscriptions = new ArrayList<>(subscriptionService.search(query));
+
+        if (executor == null) {
+            executor = createExecutor();
+        }
+
+        int processed = 0;
+        for (int from = 0; from < subscriptions.size(); from += batchSize) {
+            // Renew the lease between batches: another node may have taken it over if the closes took too long.
+            if (from > 0 && !leaderElectionService.isLeader(LEADER_TASK)) {
+                logger.warn("Refresh subscriptions #{} interrupted: the lease of the task has been lost", counter.get());
+                break;
+            }
+
+            final List<SubscriptionEntity> batch = subscriptions.subList(from, Math.min(from + batchSize, subscriptions.size()));
+            CompletableFuture<?>[] closes = batch
+                    .stream()
+                    .map(subscription -> CompletableFuture.runAsync(() -> close(subscription), executor))
+                    .toArray(CompletableFuture[]::new);
+
+            CompletableFuture.allOf(closes).join();
+            processed += batch.size();
+        }
+
+        logger.debug("Refresh subscriptions #{} ended at {}, {} expired subscriptions processed",
+                counter.get(), Instant.now().toString(), processed);
+    }
+
+    private void close(SubscriptionEntity subscription) {
+        try {
+            subscriptionService.close(subscription.getId());
+        } catch (Exception ex) {
+            // Do not stop the other closes, the subscription will be closed on the next run.
+            logger.error("An error occurs while closing expired subscription {}", subscription.getId(), ex);
+        }
+    }
+
+    private ExecutorService createExecutor() {
+        final AtomicInteger index = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads),
+                runnable -> new Thread(runnable, "subscriptions-expiry-" + index.incrementAndGet()));
     }
 }
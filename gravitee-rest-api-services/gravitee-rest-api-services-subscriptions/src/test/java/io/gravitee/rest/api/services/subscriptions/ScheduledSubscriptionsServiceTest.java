@@ -17,23 +17,24 @@ package io.gravitee.rest.api.services.subscriptions;
 
 import io.gravitee.rest.api.model.SubscriptionEntity;
 import io.gravitee.rest.api.model.SubscriptionStatus;
-import io.gravitee.rest.api.model.api.ApiEntity;
 import io.gravitee.rest.api.model.subscription.SubscriptionQuery;
-import io.gravitee.rest.api.service.ApiService;
+import io.gravitee.rest.api.service.LeaderElectionService;
 import io.gravitee.rest.api.service.SubscriptionService;
-import io.gravitee.rest.api.services.subscriptions.ScheduledSubscriptionsService;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Date;
-import java.util.HashSet;
+import java.util.List;
 
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 /**
@@ -47,52 +48,79 @@ public class ScheduledSubscriptionsServiceTest {
     ScheduledSubscriptionsService service = new ScheduledSubscriptionsService();
 
     @Mock
-    ApiService apiService;
+    SubscriptionService subscriptionService;
 
     @Mock
-    SubscriptionService subscriptionService;
+    LeaderElectionService leaderElectionService;
 
     @Test
     public void shouldCloseOutdatedSubscriptions() {
-        ApiEntity apiEntity = mock(ApiEntity.class);
-        when(apiEntity.getId()).thenReturn("API_ID");
-        SubscriptionEntity endDateInThePast = createSubscription(
-                "end_date_in_the_past",
-                SubscriptionStatus.ACCEPTED,
-                new Date(0));
-        SubscriptionEntity noEndDate = createSubscription(
-                "no_end_date",
-                SubscriptionStatus.ACCEPTED,
-                null);
-        SubscriptionEntity endDateInTheFuture = createSubscription(
-                "end_date_in_the_future",
-                SubscriptionStatus.ACCEPTED,
-                new Date(Long.MAX_VALUE));
-        when(apiService.findAllLight()).thenReturn(Collections.singleton(apiEntity));
-
-        SubscriptionQuery query = new SubscriptionQuery();
-        query.setApi(apiEntity.getId());
-        query.setStatuses(Collections.singleton(SubscriptionStatus.ACCEPTED));
-
-        when(subscriptionService.search(query)).
-                thenReturn(new HashSet<>(Arrays.asList(
-                        endDateInThePast,
-                        noEndDate,
-                        endDateInTheFuture)));
+        when(leaderElectionService.isLeader(ScheduledSubscriptionsService.LEADER_TASK)).thenReturn(true);
+        SubscriptionEntity endDateInThePast = createSubscription("end_date_in_the_past");
+        SubscriptionEntity otherEndDateInThePast = createSubscription("other_end_date_in_the_past");
+        when(subscriptionService.search(any(SubscriptionQuery.class)))
+                .thenReturn(Arrays.asList(endDateInThePast, otherEndDateInThePast));
 
+        long before = System.currentTimeMillis();
         service.run();
 
-        verify(apiService, times(1)).findAllLight();
-        verify(subscriptionService, times(1)).search(query);
+        ArgumentCaptor<SubscriptionQuery> query = ArgumentCaptor.forClass(SubscriptionQuery.class);
+        verify(subscriptionService, times(1)).search(query.capture());
+        assertNull(query.getValue().getApis());
+        assertEquals(Collections.singleton(SubscriptionStatus.ACCEPTED), query.getValue().getStatuses());
+        assertTrue(query.getValue().getEndingAtBefore() >= before);
         verify(subscriptionService, times(1)).close("end_date_in_the_past");
-        verify(subscriptionService, never()).close("no_end_date");
-        verify(subscriptionService, never()).close("end_date_in_the_future");
+        verify(subscriptionService, times(1)).close("other_end_date_in_the_past");
+    }
+
+    @Test
+    public void shouldCloseOtherSubscriptionsOnError() {
+        when(leaderElectionService.isLeader(ScheduledSubscriptionsService.LEADER_TASK)).thenReturn(true);
+        SubscriptionEntity endDateInThePast = createSubscription("end_date_in_the_past");
+        SubscriptionEntity otherEndDateInThePast = createSubscription("other_end_date_in_the_past");
+        when(subscriptionService.search(any(SubscriptionQuery.class)))
+                .thenReturn(Arrays.asList(endDateInThePast, otherEndDateInThePast));
+        when(subscriptionService.close("end_date_in_the_past")).thenThrow(new RuntimeException("error"));
+
+        service.run();
+
+        verify(subscriptionService, times(1)).close("other_end_date_in_the_past");
+    }
+
+    @Test
+    public void shouldNotCloseSubscriptionsIfNotLeader() {
+        when(leaderElectionService.isLeader(ScheduledSubscriptionsService.LEADER_TASK)).thenReturn(false);
+
+        service.run();
+
+        verify(subscriptionService, never()).search(any(SubscriptionQuery.class));
+        verify(subscriptionService, never()).close(anyString());
+    }
+
+    @Test
+    public void shouldStopClosingSubscriptionsWhenLeaseIsLost() {
+        when(leaderElectionService.isLeader(ScheduledSubscriptionsService.LEADER_TASK))
+                .thenReturn(true, true, false);
+        List<SubscriptionEntity> subscriptions = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            SubscriptionEntity subscription = new SubscriptionEntity();
+            subscription.setId("subscription-" + i);
+            subscriptions.add(subscription);
+        }
+        when(subscriptionService.search(any(SubscriptionQuery.class))).thenReturn(subscriptions);
+
+        service.run();
+
+        // the lease is checked before the run, then before each of the 2 next batches of 100 subscriptions
+        verify(leaderElectionService, times(3)).isLeader(ScheduledSubscriptionsService.LEADER_TASK);
+        verify(subscriptionService, times(200)).close(anyString());
+        verify(subscriptionService, times(1)).close("subscription-199");
+        verify(subscriptionService, never()).close("subscription-200");
     }
 
-    private SubscriptionEntity createSubscription(String id, SubscriptionStatus status, Date endingDate) {
+    private SubscriptionEntity createSubscription(String id) {
         SubscriptionEntity subscriptionEntity = mock(SubscriptionEntity.class);
         when(subscriptionEntity.getId()).thenReturn(id);
-        when(subscriptionEntity.getEndingAt()).thenReturn(endingDate);
         return subscriptionEntity;
     }
 }
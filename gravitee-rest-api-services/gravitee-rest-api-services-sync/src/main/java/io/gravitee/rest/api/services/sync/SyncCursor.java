@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.services.sync;
+
+import io.gravitee.repository.management.model.Event;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps track of the events already handled by the synchronization process.
+ *
+ * The cursor holds a high-water mark (last event id and creation date) plus the events seen within the
+ * overlap window, so that each event is processed only once even if it is read several times.
+ *
+ * @author GraviteeSource Team
+ */
+class SyncCursor {
+
+    private String lastEventId;
+    private long lastEventCreatedAt = -1;
+
+    /**
+     * Events already processed, by id, with their creation date.
+     */
+    private final Map<String, Long> processedEvents = new HashMap<>();
+
+    /**
+     * Creation date of the last processed event, by reference (API or dictionary).
+     */
+    private final Map<String, Long> references = new HashMap<>();
+
+    boolean isInitialized() {
+        return lastEventCreatedAt != -1;
+    }
+
+    /**
+     * An event is considered as new if it has never been processed and if it is not older than the last event
+     * processed for the same reference.
+     */
+    boolean isNew(String reference, Event event) {
+        if (processedEvents.containsKey(event.getId())) {
+            return false;
+        }
+
+        Long lastReferenceEvent = references.get(reference);
+        return lastReferenceEvent == null || lastReferenceEvent <= createdAt(event);
+    }
+
+    void acknowledge(String reference, Event event) {
+        long createdAt = createdAt(event);
+
+        processedEvents.put(event.getId(), createdAt);
+        references.merge(reference, createdAt, Math::max);
+
+        if (createdAt >= lastEventCreatedAt) {
+            lastEventCreatedAt = createdAt;
+            lastEventId = event.getId();
+        }
+    }
+
+    /**
+     * Mark the cursor as initialized, even if no event has been acknowledged yet.
+     */
+    void initialize(long timestamp) {
+        if (lastEventCreatedAt == -1) {
+            lastEventCreatedAt = timestamp;
+        }
+    }
+
+    /**
+     * Forget about events which are out of the overlap window: they will never be read again.
+     */
+    void prune(long window) {
+        final long threshold = lastEventCreatedAt - window;
+        processedEvents.values().removeIf(createdAt -> createdAt < threshold);
+    }
+
+    String getLastEventId() {
+        return lastEventId;
+    }
+
+    long getLastEventCreatedAt() {
+        return lastEventCreatedAt;
+    }
+
+    private static long createdAt(Event event) {
+        return event.getCreatedAt() == null ? 0 : event.getCreatedAt().getTime();
+    }
+}
@@ -17,6 +17,7 @@ package io.gravitee.rest.api.services.sync;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.gravitee.common.component.Lifecycle;
+import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.event.EventManager;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
@@ -35,6 +36,7 @@ import io.gravitee.rest.api.model.permissions.SystemRole;
 import io.gravitee.rest.api.service.UserService;
 import io.gravitee.rest.api.service.configuration.dictionary.DictionaryService;
 import io.gravitee.rest.api.service.event.DictionaryEvent;
+import io.gravitee.rest.api.service.healthcheck.SyncMetrics;
 import io.gravitee.repository.management.model.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -61,6 +63,13 @@ public class SyncManager {
     private static final int TIMEFRAME_BEFORE_DELAY = 10 * 60 * 1000;
     private static final int TIMEFRAME_AFTER_DELAY = 1 * 60 * 1000;
 
+    private static final int INITIAL_EVENTS_PAGE_SIZE = 100;
+
+    private static final EventType[] API_EVENT_TYPES = {
+            EventType.PUBLISH_API, EventType.UNPUBLISH_API, EventType.START_API, EventType.STOP_API };
+    private static final EventType[] DICTIONARY_EVENT_TYPES = {
+            EventType.START_DICTIONARY, EventType.STOP_DICTIONARY };
+
     @Autowired
     private ApiRepository apiRepository;
     @Autowired
@@ -79,10 +88,13 @@ public class SyncManager {
     private MembershipRepository membershipRepository;
     @Autowired
     private UserService userService;
+    @Autowired
+    private SyncMetrics metrics;
 
     private final AtomicLong counter = new AtomicLong(0);
 
-    private long lastRefreshAt = -1;
+    private final SyncCursor apiCursor = new SyncCursor();
+    private final SyncCursor dictionaryCursor = new SyncCursor();
 
     public void refresh() {
         logger.debug("Synchronization #{} started at {}", counter.incrementAndGet(), Instant.now().toString());
@@ -102,87 +114,63 @@ public class SyncManager {
             logger.error("An error occurs while synchronizing dictionaries", ex);
         }
 
-        lastRefreshAt = nextLastRefreshAt;
-        logger.debug("Synchronization #{} ended at {}", counter.get(), Instant.now().toString());
+        metrics.synchronization(System.currentTimeMillis() - nextLastRefreshAt);
+        logger.debug("Synchronization #{} ended at {} (duration: {}ms, lag: {}ms, last event: {})",
+                counter.get(), Instant.now().toString(), metrics.getLastDuration(), metrics.getLastLag(),
+                apiCursor.getLastEventId());
     }
 
     private void synchronizeApis(long nextLastRefreshAt) throws Exception {
         Map<String, Event> apiEvents;
 
         // Initial synchronization
-        if (lastRefreshAt == -1) {
+        if (!apiCursor.isInitialized()) {
             // Extract all registered APIs
-            List<io.gravitee.repository.management.model.Api> apis =
+            Set<String> apis =
                     apiRepository.search(null, new ApiFieldExclusionFilter.Builder()
                             .excludeDefinition()
-                            .excludePicture().build());
+                            .excludePicture().build())
+                            .stream()
+                            .map(io.gravitee.repository.management.model.Api::getId)
+                            .collect(Collectors.toSet());
 
-            // Get last event by API
-            apiEvents = apis
-                    .stream()
-                    .map(api -> getLastApiEvent(api.getId()))
-                    .filter(Objects::nonNull)
-                    .collect(
-                            toMap(
-                                    event -> event.getProperties().get(Event.EventProperties.API_ID.getValue()),
-                                    event -> event
-                            )
-                    );
+            // Get last event by API, in bulk
+            apiEvents = getLastEvents(apis, Event.EventProperties.API_ID, API_EVENT_TYPES);
         } else {
-            // Get latest API events
-            List<Event> events = getLatestApiEvents(nextLastRefreshAt);
-
-            // Extract only the latest event by API
-            apiEvents = events
-                    .stream()
-                    .collect(
-                            toMap(
-                                    event -> event.getProperties().get(Event.EventProperties.API_ID.getValue()),
-                                    event -> event,
-                                    BinaryOperator.maxBy(comparing(Event::getCreatedAt))));
+            // Get latest API events, and keep only the ones which have not been processed yet
+            apiEvents = getLatestEvents(apiCursor, Event.EventProperties.API_ID, API_EVENT_TYPES, nextLastRefreshAt);
         }
 
         // Then, compute events
         computeApiEvents(apiEvents);
+
+        apiCursor.initialize(nextLastRefreshAt);
+        apiCursor.prune(TIMEFRAME_BEFORE_DELAY + TIMEFRAME_AFTER_DELAY);
     }
 
     private void synchronizeDictionaries(long nextLastRefreshAt) throws Exception {
         Map<String, Event> dictionaryEvents;
 
         // Initial synchronization
-        if (lastRefreshAt == -1) {
-            List<Dictionary> dictionaries = dictionaryRepository.findAll()
+        if (!dictionaryCursor.isInitialized()) {
+            Set<String> dictionaries = dictionaryRepository.findAll()
                     .stream()
                     .filter(dictionary -> dictionary.getType() == DictionaryType.DYNAMIC)
-                    .collect(Collectors.toList());
+                    .map(Dictionary::getId)
+                    .collect(Collectors.toSet());
 
-            // Get last event by dictionary
-            dictionaryEvents = dictionaries
-                    .stream()
-                    .map(api -> getLastDictionaryEvent(api.getId()))
-                    .filter(Objects::nonNull)
-                    .collect(
-                            toMap(
-                                    event -> event.getProperties().get(Event.EventProperties.DICTIONARY_ID.getValue()),
-                                    event -> event
-                            )
-                    );
+            // Get last event by dictionary, in bulk
+            dictionaryEvents = getLastEvents(dictionaries, Event.EventProperties.DICTIONARY_ID, DICTIONARY_EVENT_TYPES);
         } else {
-            // Get latest dictionary events
-            List<Event> events = getLatestDictionaryEvents(nextLastRefreshAt);
-
-            // Extract only the latest event by API
-            dictionaryEvents = events
-                    .stream()
-                    .collect(
-                            toMap(
-                                    event -> event.getProperties().get(Event.EventProperties.DICTIONARY_ID.getValue()),
-                                    event -> event,
-                                    BinaryOperator.maxBy(comparing(Event::getCreatedAt))));
+            // Get latest dictionary events, and keep only the ones which have not been processed yet
+            dictionaryEvents = getLatestEvents(dictionaryCursor, Event.EventProperties.DICTIONARY_ID,
+                    DICTIONARY_EVENT_TYPES, nextLastRefreshAt);
         }
 
-
         computeDictionaryEvents(dictionaryEvents);
+
+        dictionaryCursor.initialize(nextLastRefreshAt);
+        dictionaryCursor.prune(TIMEFRAME_BEFORE_DELAY + TIMEFRAME_AFTER_DELAY);
     }
 
     private void computeDictionaryEvents(Map<String, Event> dictionaryEvents) {
@@ -202,6 +190,8 @@ public class SyncManager {
                     eventManager.publishEvent(DictionaryEvent.STOP, stoppedDictionary);
                     break;
             }
+
+            acknowledge(dictionaryCursor, id, event);
         });
     }
 
@@ -237,52 +227,71 @@ public class SyncManager {
                         }
                     } catch (Exception e) {
                         logger.error("Error while determining deployed APIs store into events payload", e);
+                        // Do not acknowledge the event, so it will be retried during the next synchronization
+                        return;
                     }
                     break;
             }
+
+            acknowledge(apiCursor, apiId, apiEvent);
         });
     }
 
-    private Event getLastDictionaryEvent(final String dictionary) {
-        final EventCriteria.Builder eventCriteriaBuilder =
-                new EventCriteria.Builder()
-                        .property(Event.EventProperties.DICTIONARY_ID.getValue(), dictionary);
+    private void acknowledge(SyncCursor cursor, String reference, Event event) {
+        cursor.acknowledge(reference, event);
+        metrics.processed(event.getCreatedAt() == null ? -1 : System.currentTimeMillis() - event.getCreatedAt().getTime());
+    }
 
-        List<Event> events = eventRepository.search(eventCriteriaBuilder
-                        .types(EventType.START_DICTIONARY, EventType.STOP_DICTIONARY).build(),
-                new PageableBuilder().pageNumber(0).pageSize(1).build()).getContent();
+    /**
+     * Get the last event of each of the given references. The most recent events are read in bulk, page by page,
+     * until every reference is resolved or all the events have been read.
+     */
+    private Map<String, Event> getLastEvents(Set<String> references, Event.EventProperties property, EventType... types) {
+        final Map<String, Event> lastEvents = new HashMap<>();
+        if (references.isEmpty()) {
+            return lastEvents;
+        }
 
-        return (!events.isEmpty()) ? events.get(0) : null;
-    }
+        final EventCriteria criteria = new EventCriteria.Builder().types(types).build();
 
-    private List<Event> getLatestDictionaryEvents(long nextLastRefreshAt) {
-        final EventCriteria.Builder builder = new EventCriteria.Builder()
-                .types(EventType.START_DICTIONARY, EventType.STOP_DICTIONARY)
-                .from(lastRefreshAt - TIMEFRAME_BEFORE_DELAY)
-                .to(nextLastRefreshAt + TIMEFRAME_AFTER_DELAY);
+        int pageNumber = 0;
+        List<Event> events;
+        do {
+            Page<Event> page = eventRepository.search(criteria,
+                    new PageableBuilder().pageNumber(pageNumber++).pageSize(INITIAL_EVENTS_PAGE_SIZE).build());
+            events = page.getContent();
 
-        return eventRepository.search(builder.build());
+            events.forEach(event -> {
+                String reference = event.getProperties() == null ? null : event.getProperties().get(property.getValue());
+                if (reference != null && references.contains(reference)) {
+                    lastEvents.putIfAbsent(reference, event);
+                }
+            });
+        } while (lastEvents.size() < references.size() && events.size() == INITIAL_EVENTS_PAGE_SIZE);
+
+        return lastEvents;
     }
 
-    private List<Event> getLatestApiEvents(long nextLastRefreshAt) {
+    /**
+     * Get the events created since the high-water mark of the cursor which have not been processed yet, keeping only
+     * the latest one by reference.
+     */
+    private Map<String, Event> getLatestEvents(SyncCursor cursor, Event.EventProperties property, EventType[] types,
+                                               long nextLastRefreshAt) {
         final EventCriteria.Builder builder = new EventCriteria.Builder()
-                .types(EventType.PUBLISH_API, EventType.UNPUBLISH_API, EventType.START_API, EventType.STOP_API)
-                .from(lastRefreshAt - TIMEFRAME_BEFORE_DELAY)
+                .types(types)
+                .from(cursor.getLastEventCreatedAt() - TIMEFRAME_BEFORE_DELAY)
                 .to(nextLastRefreshAt + TIMEFRAME_AFTER_DELAY);
 
-        return eventRepository.search(builder.build());
-    }
-
-    private Event getLastApiEvent(final String api) {
-        final EventCriteria.Builder eventCriteriaBuilder =
-                new EventCriteria.Builder()
-                        .property(Event.EventProperties.API_ID.getValue(), api);
-
-        List<Event> events = eventRepository.search(eventCriteriaBuilder
-                        .types(EventType.PUBLISH_API, EventType.UNPUBLISH_API, EventType.START_API, EventType.STOP_API).build(),
-                new PageableBuilder().pageNumber(0).pageSize(1).build()).getContent();
-
-        return (!events.isEmpty()) ? events.get(0) : null;
+        return eventRepository.search(builder.build())
+                .stream()
+                .filter(event -> event.getProperties() != null && event.getProperties().get(property.getValue()) != null)
+                .filter(event -> cursor.isNew(event.getProperties().get(property.getValue()), event))
+                .collect(
+                        toMap(
+                                event -> event.getProperties().get(property.getValue()),
+                                event -> event,
+                                BinaryOperator.maxBy(comparing(Event::getCreatedAt))));
     }
 
     private ApiEntity convert(Api api) {
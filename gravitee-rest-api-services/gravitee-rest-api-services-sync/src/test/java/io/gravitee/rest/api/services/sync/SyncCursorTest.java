@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.services.sync;
+
+import io.gravitee.repository.management.model.Event;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class SyncCursorTest {
+
+    private final SyncCursor cursor = new SyncCursor();
+
+    @Test
+    public void shouldNotBeInitializedBeforeFirstSynchronization() {
+        assertFalse(cursor.isInitialized());
+
+        cursor.initialize(1000);
+
+        assertTrue(cursor.isInitialized());
+        assertEquals(1000, cursor.getLastEventCreatedAt());
+        assertNull(cursor.getLastEventId());
+    }
+
+    @Test
+    public void shouldMoveHighWaterMarkOnAcknowledge() {
+        cursor.initialize(1000);
+
+        cursor.acknowledge("api1", event("evt1", 2000));
+        cursor.acknowledge("api2", event("evt2", 1500));
+
+        assertEquals(2000, cursor.getLastEventCreatedAt());
+        assertEquals("evt1", cursor.getLastEventId());
+    }
+
+    @Test
+    public void shouldNotProcessAnEventTwice() {
+        Event event = event("evt1", 2000);
+        assertTrue(cursor.isNew("api1", event));
+
+        cursor.acknowledge("api1", event);
+
+        assertFalse(cursor.isNew("api1", event));
+    }
+
+    @Test
+    public void shouldIgnoreEventOlderThanLastProcessedOneOfReference() {
+        cursor.acknowledge("api1", event("evt2", 2000));
+
+        assertFalse(cursor.isNew("api1", event("evt1", 1000)));
+        assertTrue(cursor.isNew("api2", event("evt3", 1000)));
+        assertTrue(cursor.isNew("api1", event("evt4", 3000)));
+    }
+
+    @Test
+    public void shouldForgetEventsOutOfWindow() {
+        Event old = event("evt1", 1000);
+        Event recent = event("evt2", 10000);
+        cursor.acknowledge("api1", old);
+        cursor.acknowledge("api2", recent);
+
+        cursor.prune(5000);
+
+        assertTrue(cursor.isNew("api1", old));
+        assertFalse(cursor.isNew("api2", recent));
+        // Older events of a reference are still ignored
+        assertFalse(cursor.isNew("api1", event("evt0", 500)));
+    }
+
+    private static Event event(String id, long createdAt) {
+        Event event = new Event();
+        event.setId(id);
+        event.setCreatedAt(new Date(createdAt));
+        return event;
+    }
+}
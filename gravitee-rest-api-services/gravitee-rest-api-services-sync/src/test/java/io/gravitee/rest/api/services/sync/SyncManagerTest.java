@@ -0,0 +1,169 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.rest.api.services.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.DictionaryRepository;
+import io.gravitee.repository.management.api.EventRepository;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.api.search.EventCriteria;
+import io.gravitee.repository.management.api.search.Pageable;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Event;
+import io.gravitee.repository.management.model.EventType;
+import io.gravitee.rest.api.service.healthcheck.SyncMetrics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SyncManagerTest {
+
+    @InjectMocks
+    private SyncManager syncManager = new SyncManager();
+
+    @Mock
+    private ApiRepository apiRepository;
+
+    @Mock
+    private DictionaryRepository dictionaryRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private ApiManager apiManager;
+
+    @Mock
+    private ObjectMapper objectMapper;
+
+    @Spy
+    private SyncMetrics metrics = new SyncMetrics();
+
+    @Test
+    public void shouldPageInitialSynchronizationUntilEveryApiIsResolved() throws TechnicalException {
+        when(apiRepository.search(isNull(), any(ApiFieldExclusionFilter.class))).thenReturn(Arrays.asList(api("api1"), api("api2")));
+
+        // Events of other APIs fill the first pages of the bulk search, the events of the APIs come later
+        when(eventRepository.search(any(EventCriteria.class), argThat(page(0)))).thenReturn(fullPage(0));
+        when(eventRepository.search(any(EventCriteria.class), argThat(page(1)))).thenReturn(fullPage(1));
+        when(eventRepository.search(any(EventCriteria.class), argThat(page(2)))).thenReturn(
+                new Page<>(withEvent(others(2, 99), event("evt1", "api1", EventType.STOP_API, 1000)), 2, 100, 1000));
+        when(eventRepository.search(any(EventCriteria.class), argThat(page(3)))).thenReturn(
+                new Page<>(withEvent(others(3, 99), event("evt2", "api2", EventType.STOP_API, 1000)), 3, 100, 1000));
+
+        syncManager.refresh();
+
+        verify(eventRepository, times(4)).search(any(EventCriteria.class), any(Pageable.class));
+        verify(apiManager).undeploy("api1");
+        verify(apiManager).undeploy("api2");
+        assertEquals(2, metrics.getProcessedEvents());
+    }
+
+    @Test
+    public void shouldPageInitialSynchronizationUntilEventsAreExhausted() throws TechnicalException {
+        when(apiRepository.search(isNull(), any(ApiFieldExclusionFilter.class))).thenReturn(Arrays.asList(api("api1"), api("api2")));
+        when(eventRepository.search(any(EventCriteria.class), argThat(page(0)))).thenReturn(fullPage(0));
+        when(eventRepository.search(any(EventCriteria.class), argThat(page(1)))).thenReturn(
+                new Page<>(withEvent(others(1, 10), event("evt1", "api1", EventType.STOP_API, 1000)), 1, 11, 111));
+
+        syncManager.refresh();
+
+        // The second page is not full: api2 has never been deployed, and is not searched on its own
+        verify(eventRepository, times(2)).search(any(EventCriteria.class), any(Pageable.class));
+        verify(apiManager).undeploy("api1");
+        verify(apiManager, never()).undeploy("api2");
+    }
+
+    @Test
+    public void shouldProcessNewEventsOnlyOnceAfterInitialSynchronization() {
+        // Initial synchronization, without any API
+        syncManager.refresh();
+
+        long now = System.currentTimeMillis();
+        Event stop = event("evt1", "api1", EventType.STOP_API, now);
+        when(eventRepository.search(any(EventCriteria.class))).thenReturn(Collections.singletonList(stop));
+
+        syncManager.refresh();
+        syncManager.refresh();
+
+        verify(apiManager, times(1)).undeploy("api1");
+        assertEquals(1, metrics.getProcessedEvents());
+
+        // A newer event of the same API is processed, the previous one is still ignored
+        Event restop = event("evt2", "api1", EventType.STOP_API, now + 1);
+        when(eventRepository.search(any(EventCriteria.class))).thenReturn(Arrays.asList(stop, restop));
+
+        syncManager.refresh();
+
+        verify(apiManager, times(2)).undeploy("api1");
+        assertEquals(2, metrics.getProcessedEvents());
+        assertEquals(4, metrics.getSynchronizations());
+        assertTrue(metrics.getLastLag() >= 0);
+    }
+
+    private static org.mockito.ArgumentMatcher<Pageable> page(int number) {
+        return pageable -> pageable != null && pageable.pageNumber() == number && pageable.pageSize() == 100;
+    }
+
+    private static Page<Event> fullPage(int number) {
+        return new Page<>(others(number, 100), number, 100, 1000);
+    }
+
+    private static List<Event> others(int page, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> event("other" + page + "-" + i, "other", EventType.STOP_API, i))
+                .collect(Collectors.toList());
+    }
+
+    private static List<Event> withEvent(List<Event> events, Event event) {
+        events.add(event);
+        return events;
+    }
+
+    private static Api api(String id) {
+        Api api = new Api();
+        api.setId(id);
+        return api;
+    }
+
+    private static Event event(String id, String api, EventType type, long createdAt) {
+        Event event = new Event();
+        event.setId(id);
+        event.setType(type);
+        event.setCreatedAt(new Date(createdAt));
+        event.setProperties(Collections.singletonMap(Event.EventProperties.API_ID.getValue(), api));
+        return event;
+    }
+}